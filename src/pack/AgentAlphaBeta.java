@@ -0,0 +1,73 @@
+package pack;
+
+import java.util.List;
+
+/**
+ * Wrapper for the AlphaBetaSearch class so that it can be evaluated using the
+ * methods that expect an instance of AgentRLTD class. Unlike
+ * {@link AgentMinimax} it searches every state on demand, the optimal actions
+ * are the same as long as the search is exact
+ */
+public class AgentAlphaBeta extends AgentRLTD {
+
+	private static final int TRANSPOSITION_TABLE_SIZE = 1 << 14;
+
+	private final AlphaBetaSearch SEARCH;
+	private final long NODE_BUDGET;
+	private final long TIME_BUDGET_MILLIS;
+
+	/**
+	 * Since the AlphaBetaSearch does not store experience inside a qTable or
+	 * wTable one can pass null. The search is exact and considers the depth like
+	 * {@link GameManager#getMinimax()}
+	 *
+	 * @param qTable can be null since AlphaBetaSearch does not use a qTable
+	 */
+	public AgentAlphaBeta(Experience qTable) {
+		this(qTable, 0, 0);
+	}
+
+	/**
+	 * Creates an agent whose search is limited by the passed budget
+	 *
+	 * @param qTable           can be null since AlphaBetaSearch does not use a
+	 *                         qTable
+	 * @param nodeBudget       maximum number of nodes per search, 0 for no limit
+	 * @param timeBudgetMillis maximum duration of a search in milliseconds, 0 for
+	 *                         no limit
+	 */
+	public AgentAlphaBeta(Experience qTable, long nodeBudget, long timeBudgetMillis) {
+		super(qTable);
+		this.NODE_BUDGET = nodeBudget;
+		this.TIME_BUDGET_MILLIS = timeBudgetMillis;
+		this.SEARCH = new AlphaBetaSearch(new MNKGamefield(3, 3, 3), true, TRANSPOSITION_TABLE_SIZE, nodeBudget,
+				timeBudgetMillis);
+	}
+
+	/**
+	 * Get one of the optimal moves by searching the state
+	 */
+	@Override
+	public int move(int state, int[] legalActions, float reward) {
+		return this.SEARCH.move(state, true);
+	}
+
+	/**
+	 * Every action that is optimal according to the search is chosen with equal
+	 * probability
+	 */
+	@Override
+	public List<Integer> getGreedyActions(int state, int[] legalActions) {
+		return this.SEARCH.getBestActions(state);
+	}
+
+	/**
+	 * The search is not thread safe, thus every view has its own search with the
+	 * same budget
+	 */
+	@Override
+	public AgentRLTD createEvaluationView() {
+		return new AgentAlphaBeta(null, this.NODE_BUDGET, this.TIME_BUDGET_MILLIS);
+	}
+
+}
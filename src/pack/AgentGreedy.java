@@ -0,0 +1,61 @@
+package pack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Agent that always chooses the greedy action according to its experience and
+ * never updates the experience. It is used as a view of a trained agent so that
+ * multiple threads can evaluate the agent concurrently, see
+ * {@link AgentRLTD#createEvaluationView()}
+ * 
+ * States the experience does not contain are not initialised, as this would
+ * modify the shared experience. Their values are treated as the initial value
+ * instead, see {@link Experience#getBestActionsWithoutInitialising(int, int[])}
+ */
+public class AgentGreedy extends AgentRLTD {
+
+	public AgentGreedy(Experience qTable) {
+		super(qTable);
+	}
+
+	/**
+	 * Returns the best action of the passed state according to the experience, ties
+	 * are broken arbitrarily. No TD update is executed
+	 */
+	@Override
+	public int move(int state, int[] legalActions, float reward) {
+		return AgentGreedy.chooseAction(this.qTable.getBestActionsWithoutInitialising(state, legalActions));
+	}
+
+	@Override
+	public int move(long state, int[] legalActions, float reward) {
+		return AgentGreedy.chooseAction(this.qTable.getBestActionsWithoutInitialising(state, legalActions));
+	}
+
+	/**
+	 * Returns the best actions according to the experience without initialising
+	 * the passed state
+	 */
+	@Override
+	public List<Integer> getGreedyActions(int state, int[] legalActions) {
+		return this.qTable.getBestActionsWithoutInitialising(state, legalActions);
+	}
+
+	/**
+	 * The experience is never updated, thus the final reward is discarded
+	 */
+	@Override
+	public void distributeFinalReward(long terminalState, float reward) {
+	}
+
+	private static int chooseAction(ArrayList<Integer> bestActions) {
+		// if there are multiple actions with an equally high qValue one is selected
+		// arbitrarily
+		if (bestActions.size() > 1) {
+			return Utility.getRandomElement(bestActions);
+		}
+		return bestActions.get(0);
+	}
+
+}
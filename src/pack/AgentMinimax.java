@@ -1,5 +1,7 @@
 package pack;
 
+import java.util.List;
+
 /**
  * This is just a wrapper for the MinimaxAlgorithm class so that it can be
  * evaluated using the methods that expect an instance of AgentRLTD class
@@ -22,7 +24,21 @@ public class AgentMinimax extends AgentRLTD {
 	 */
 	@Override
 	public int move(int state, int[] legalActions, float reward) {
-		return GameManager.MINIMAX.move(state, true);
+		return GameManager.getMinimax().move(state, true);
+	}
+
+	/**
+	 * Every action that is optimal according to minimax is chosen with equal
+	 * probability
+	 */
+	@Override
+	public List<Integer> getGreedyActions(int state, int[] legalActions) {
+		return GameManager.getMinimax().getBestActions(state);
+	}
+
+	@Override
+	public AgentRLTD createEvaluationView() {
+		return new AgentMinimax(null);
 	}
 
 }
@@ -8,6 +8,11 @@ public class AgentQLearning extends AgentRLTD {
 
 	@Override
 	public int move(int state, int[] legalActions, float reward) {
+		return this.move((long) state, legalActions, reward);
+	}
+
+	@Override
+	public int move(long state, int[] legalActions, float reward) {
 		if (legalActions.length == 0) {
 			throw new IllegalArgumentException(
 					"legalActions is empty, ie. a terminal state has been reached. After reaching a terminal state the method distributeFinalReward should be used instead ");
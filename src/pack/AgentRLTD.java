@@ -1,5 +1,7 @@
 package pack;
 
+import java.util.List;
+
 public abstract class AgentRLTD {
 
 	public AgentRLTD(Experience qTable) {
@@ -11,8 +13,9 @@ public abstract class AgentRLTD {
 	protected boolean isFirstStateOfNewEpisode;
 
 	// last state that the agent was in, as well as the action taken are necessary
-	// for updating the qValue
-	protected int lastState;
+	// for updating the qValue; the state is a long so that it can hold the state
+	// key of a MNKGamefield
+	protected long lastState;
 	protected int lastAction;
 
 	private boolean wasLastActionExploratory;
@@ -38,6 +41,24 @@ public abstract class AgentRLTD {
 	 */
 	public abstract int move(int state, int[] legalActions, float reward);
 
+	/**
+	 * Chooses an action in the state of the passed key, see
+	 * {@link #move(int, int[], float)}. Agents that are bound to the int state of
+	 * {@link Gamefield} narrow the key, the TD agents use it as it is and thus
+	 * learn on a {@link MNKGamefield} as well
+	 * 
+	 * @param state        key of the state the agent is currently in
+	 * @param legalActions set of Actions available to the agent
+	 * @param reward       reward the environment assigned to the last chosen action
+	 * @return action encoded as the index as a slot on the gamefield
+	 */
+	public int move(long state, int[] legalActions, float reward) {
+		if (state != (int) state) {
+			throw new IllegalArgumentException("state key " + state + " exceeds the int state of this agent");
+		}
+		return this.move((int) state, legalActions, reward);
+	}
+
 	/**
 	 * Distribute the final reward for the last action taken in the previous state
 	 * Method updates the qValue of the previous state-action tuple and adds an
@@ -50,6 +71,17 @@ public abstract class AgentRLTD {
 	 *                      reward for winning, losing, drawing
 	 */
 	public void distributeFinalReward(int terminalState, float reward) {
+		this.distributeFinalReward((long) terminalState, reward);
+	}
+
+	/**
+	 * Distributes the final reward in the terminal state of the passed key, see
+	 * {@link #distributeFinalReward(int, float)}
+	 * 
+	 * @param terminalState key of the state that ended the game
+	 * @param reward        for the last state-action tuple
+	 */
+	public void distributeFinalReward(long terminalState, float reward) {
 		this.qTable.initialiseQTableEntryIfNotExistent(terminalState, new int[0]);
 		double qValueLastSATuple = this.qTable.getQValue(this.lastState, this.lastAction);
 		double updatedQValuePreviousSATuple = this.calculateUpdatedQValue(qValueLastSATuple,
@@ -96,7 +128,7 @@ public abstract class AgentRLTD {
 	 * @param reward                 reward that the environment distributed for the
 	 *                               last state-action tuple
 	 */
-	protected void updateQValueOfLastSATuple(int currentState, int actionToBeUsedInUpdate, float reward) {
+	protected void updateQValueOfLastSATuple(long currentState, int actionToBeUsedInUpdate, float reward) {
 		double qValueOfLastSATuple = this.qTable.getQValue(this.lastState, this.lastAction);
 		double qValueNextSATuple = this.qTable.getQValue(currentState, actionToBeUsedInUpdate);
 
@@ -180,4 +212,42 @@ public abstract class AgentRLTD {
 		return wasLastActionExploratory;
 	}
 
+	/**
+	 * Returns all actions the agent chooses with equal probability in the passed
+	 * state if it acts greedily, i.e. the best actions according to the
+	 * experience among which ties are broken arbitrarily. The state must already
+	 * be initialised in the experience
+	 * 
+	 * @param state        state the agent is in; this should not be a terminal
+	 *                     state
+	 * @param legalActions set of actions available to the agent
+	 * @return actions that are chosen with equal probability
+	 */
+	public List<Integer> getGreedyActions(int state, int[] legalActions) {
+		return this.qTable.getBestActions(state, legalActions);
+	}
+
+	/**
+	 * Returns a view of the agent that always chooses the greedy action and never
+	 * modifies the experience, not even by initialising the states it encounters.
+	 * The view can thus be used by the {@link ExactEvaluator} and by multiple
+	 * threads concurrently, see {@link ParallelEvaluator}. Since the view has no
+	 * state of its own apart from the shared experience, every thread of a
+	 * concurrent evaluation should use its own view
+	 * 
+	 * @return greedy view that only reads the experience of this agent
+	 */
+	public AgentRLTD createEvaluationView() {
+		return new AgentGreedy(this.qTable);
+	}
+
+	/**
+	 * Returns the experience the agent reads and updates
+	 * 
+	 * @return experience of the agent, which might be shared with other agents
+	 */
+	public Experience getExperience() {
+		return this.qTable;
+	}
+
 }
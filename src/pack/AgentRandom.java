@@ -1,5 +1,8 @@
 package pack;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * This is just a wrapper for so that a random agent can be evaluated using the
  * methods that expect an instance of AgentRLTD class
@@ -23,4 +26,21 @@ public class AgentRandom extends AgentRLTD {
 		return legalActions[Utility.getRandomInt(legalActions.length)];
 	}
 
+	/**
+	 * Every legal action is chosen with equal probability
+	 */
+	@Override
+	public List<Integer> getGreedyActions(int state, int[] legalActions) {
+		ArrayList<Integer> greedyActions = new ArrayList<>(legalActions.length);
+		for (int legalAction : legalActions) {
+			greedyActions.add(legalAction);
+		}
+		return greedyActions;
+	}
+
+	@Override
+	public AgentRLTD createEvaluationView() {
+		return new AgentRandom(null);
+	}
+
 }
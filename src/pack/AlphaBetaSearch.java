@@ -0,0 +1,421 @@
+package pack;
+
+import java.util.ArrayList;
+
+/**
+ * Search engine that determines the optimal actions of a state on demand
+ * instead of solving the whole game up front like {@link MinimaxAlgorithm},
+ * thus it can be used for m,n,k gamefields whose game tree is too large to be
+ * stored, see {@link MNKGamefield}
+ *
+ * The search is a negamax with alpha-beta pruning. It deepens iteratively until
+ * the search reached no horizon, i.e. the result is exact, or the node or time
+ * budget is exhausted, in which case the result of the deepest completed
+ * iteration is used. At the horizon a state is evaluated by the number of lines
+ * that each symbol can still complete. Actions are ordered by the best action
+ * stored in the {@link BoundedTranspositionTable} followed by the history of
+ * actions that caused a cutoff
+ *
+ * Scores are integers from the perspective of the symbol to move. A win is
+ * worth more than any heuristic value; if the depth is considered, wins after
+ * fewer plies are worth more, which orders the terminal states in the same way
+ * as the scores of {@link MinimaxAlgorithm}. Therefore an exact search of a Tic
+ * Tac Toe state yields the same optimal actions as
+ * {@link MinimaxAlgorithm#getBestActions(int)} and can serve as the oracle of
+ * {@link GameManager#isActionOptimalAccordingToMinimax(int, int)}
+ *
+ * An instance is not thread safe
+ */
+public class AlphaBetaSearch {
+
+	public static final int DEFAULT_TRANSPOSITION_TABLE_SIZE = 1 << 20;
+
+	private static final int INFINITE_SCORE = Integer.MAX_VALUE / 2;
+	// number of nodes after which the time budget is checked
+	private static final int TIME_CHECK_INTERVAL = 1024;
+
+	private final MNKGamefield GAMEFIELD;
+	private final boolean CONSIDER_DEPTH_IN_SCORE_CALCULATION;
+	private final BoundedTranspositionTable TRANSPOSITION_TABLE;
+	private final long NODE_BUDGET;
+	private final long TIME_BUDGET_NANOS;
+	// every win is worth at least this score, every heuristic value is lower
+	private final int WIN_SCORE_SCALE;
+
+	// history of the actions that caused a cutoff, indexed by symbol and action
+	private final int[][] HISTORY;
+	// buffers for the ordered actions, indexed by the number of plies
+	private final int[][] ACTION_BUFFERS;
+
+	private long numberOfNodes;
+	private long numberOfHorizonEvaluations;
+	private long deadline;
+	private boolean isBudgetEnforced;
+	private boolean isSearchAborted;
+
+	private int lastSearchDepth;
+	private boolean wasLastSearchExact;
+	private long lastNumberOfNodes;
+
+	/**
+	 * Creates a search without budget that always returns exact results
+	 *
+	 * @param gamefield                       gamefield whose dimensions are
+	 *                                        searched; it is not modified
+	 * @param considerDepthInScoreCalculation flag to adjust whether the depth in
+	 *                                        the gametree should negatively affect
+	 *                                        the score (depthpenalty)
+	 */
+	public AlphaBetaSearch(MNKGamefield gamefield, boolean considerDepthInScoreCalculation) {
+		this(gamefield, considerDepthInScoreCalculation, DEFAULT_TRANSPOSITION_TABLE_SIZE, 0, 0);
+	}
+
+	/**
+	 * Creates a search with the passed budget per searched state
+	 *
+	 * @param gamefield                       gamefield whose dimensions are
+	 *                                        searched; it is not modified
+	 * @param considerDepthInScoreCalculation flag to adjust whether the depth in
+	 *                                        the gametree should negatively affect
+	 *                                        the score (depthpenalty)
+	 * @param transpositionTableSize          number of slots of the transposition
+	 *                                        table, a power of two
+	 * @param nodeBudget                      maximum number of nodes per search, 0
+	 *                                        for no limit
+	 * @param timeBudgetMillis                maximum duration of a search in
+	 *                                        milliseconds, 0 for no limit
+	 */
+	public AlphaBetaSearch(MNKGamefield gamefield, boolean considerDepthInScoreCalculation,
+			int transpositionTableSize, long nodeBudget, long timeBudgetMillis) {
+		if (nodeBudget < 0 || timeBudgetMillis < 0) {
+			throw new IllegalArgumentException("budget must not be negative");
+		}
+		this.GAMEFIELD = new MNKGamefield(gamefield.getNumberOfRows(), gamefield.getNumberOfColumns(),
+				gamefield.getWinLength());
+		this.CONSIDER_DEPTH_IN_SCORE_CALCULATION = considerDepthInScoreCalculation;
+		this.TRANSPOSITION_TABLE = new BoundedTranspositionTable(transpositionTableSize);
+		this.NODE_BUDGET = nodeBudget;
+		this.TIME_BUDGET_NANOS = timeBudgetMillis * 1000000;
+		this.WIN_SCORE_SCALE = this.GAMEFIELD.getNumberOfWinMasks() + 1;
+
+		int gamefieldSize = this.GAMEFIELD.getGamefieldSize();
+		this.HISTORY = new int[2][gamefieldSize];
+		this.ACTION_BUFFERS = new int[gamefieldSize + 1][gamefieldSize];
+	}
+
+	/**
+	 * Returns the optimal action for the passed state. If multiple actions are
+	 * equally optimal the second parameter can be used to toggle between
+	 * deterministic (false) and nondeterministic (true) action selection
+	 *
+	 * @param state                  key of the state, see
+	 *                               {@link MNKGamefield#getStateKey()}
+	 * @param choseActionArbitrarily if true an action is chosen arbitrarily, if
+	 *                               false the action with the smallest index is
+	 *                               chosen; only applies multiple actions are
+	 *                               optimal
+	 * @return optimal action encoded as int
+	 */
+	public int move(long state, boolean choseActionArbitrarily) {
+		int bestActionsMask = this.getBestActionsMask(state);
+
+		if (bestActionsMask == 0) {
+			throw new IllegalArgumentException(
+					"move cannot be called for terminal states as there are no actions and thus no optimal one available");
+		} else if (choseActionArbitrarily) {
+			return Utility.getRandomSetBit(bestActionsMask);
+		} else {
+			return Integer.numberOfTrailingZeros(bestActionsMask);
+		}
+	}
+
+	/**
+	 * Returns an arrayList of optimal actions encoded as ints for the passed state
+	 *
+	 * @param state key of the state, see {@link MNKGamefield#getStateKey()}
+	 * @return list of optimal actions in ascending order, empty for terminal states
+	 */
+	public ArrayList<Integer> getBestActions(long state) {
+		return Utility.convertBitmaskToList(this.getBestActionsMask(state));
+	}
+
+	/**
+	 * Searches the passed state and returns the bitmask of its optimal actions
+	 * according to the deepest completed iteration
+	 *
+	 * @param state key of the state, see {@link MNKGamefield#getStateKey()}
+	 * @return bitmask with a bit set for every optimal action, 0 for terminal
+	 *         states
+	 */
+	public int getBestActionsMask(long state) {
+		this.GAMEFIELD.setStateKey(state);
+		this.numberOfNodes = 0;
+		this.isSearchAborted = false;
+		this.deadline = System.nanoTime() + this.TIME_BUDGET_NANOS;
+		this.lastSearchDepth = 0;
+		this.wasLastSearchExact = true;
+
+		int bestActionsMask = 0;
+		int numberOfEmptySlots = Integer.bitCount(this.GAMEFIELD.getLegalActionsMask());
+
+		for (int depth = 1; depth <= numberOfEmptySlots; depth++) {
+			// the first iteration is always completed so that there is a result
+			this.isBudgetEnforced = depth > 1;
+			long numberOfHorizonEvaluationsBefore = this.numberOfHorizonEvaluations;
+
+			int iterationMask = this.searchRoot(depth, bestActionsMask);
+			if (this.isSearchAborted) {
+				break;
+			}
+			bestActionsMask = iterationMask;
+			this.lastSearchDepth = depth;
+			this.wasLastSearchExact = this.numberOfHorizonEvaluations == numberOfHorizonEvaluationsBefore;
+			if (this.wasLastSearchExact) {
+				break;
+			}
+		}
+		this.lastNumberOfNodes = this.numberOfNodes;
+		return bestActionsMask;
+	}
+
+	/**
+	 * Searches all actions of the root to the passed depth. The first action is
+	 * searched with a full window, the others with a window around the best score
+	 * so far which determines whether they are worse, equally good or better
+	 *
+	 * @param depth                   number of plies to search
+	 * @param previousBestActionsMask optimal actions of the previous iteration,
+	 *                                they are searched first
+	 * @return bitmask of the optimal actions
+	 */
+	private int searchRoot(int depth, int previousBestActionsMask) {
+		Symbol symbol = this.GAMEFIELD.getCurrentTurnsSymbol();
+		int[] actions = this.ACTION_BUFFERS[this.GAMEFIELD.getNumberOfPlies()];
+		int numberOfActions = this.orderActions(actions, BoundedTranspositionTable.NO_ACTION,
+				previousBestActionsMask, symbol);
+
+		int bestScore = -INFINITE_SCORE;
+		int bestActionsMask = 0;
+		for (int i = 0; i < numberOfActions; i++) {
+			int action = actions[i];
+			this.GAMEFIELD.applyAction(symbol, action);
+			int score;
+			if (bestActionsMask == 0) {
+				score = -this.search(depth - 1, -INFINITE_SCORE, INFINITE_SCORE);
+			} else {
+				score = -this.search(depth - 1, -(bestScore + 1), -(bestScore - 1));
+				if (score > bestScore && !this.isSearchAborted) {
+					score = -this.search(depth - 1, -INFINITE_SCORE, -bestScore);
+				}
+			}
+			this.GAMEFIELD.undoAction(symbol, action);
+
+			if (this.isSearchAborted) {
+				return 0;
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				bestActionsMask = 1 << action;
+			} else if (score == bestScore) {
+				bestActionsMask |= 1 << action;
+			}
+		}
+		return bestActionsMask;
+	}
+
+	/**
+	 * Recursive negamax with alpha-beta pruning. Results are stored in the
+	 * transposition table, results of subtrees that reached no horizon with the
+	 * maximum draft as they are valid for every depth
+	 *
+	 * @param draft remaining number of plies to search
+	 * @param alpha lower bound of the window
+	 * @param beta  upper bound of the window
+	 * @return score of the current state from the perspective of the symbol to
+	 *         move
+	 */
+	private int search(int draft, int alpha, int beta) {
+		this.numberOfNodes++;
+		if (this.isBudgetEnforced && this.isBudgetExhausted()) {
+			this.isSearchAborted = true;
+		}
+		if (this.isSearchAborted) {
+			return 0;
+		}
+
+		if (this.GAMEFIELD.hasGameEnded()) {
+			return this.calculateTerminalScore();
+		}
+		if (draft == 0) {
+			this.numberOfHorizonEvaluations++;
+			Symbol symbol = this.GAMEFIELD.getCurrentTurnsSymbol();
+			return this.GAMEFIELD.countOpenLines(symbol) - this.GAMEFIELD.countOpenLines(Symbol.getNextSymbol(symbol));
+		}
+
+		long stateKey = this.GAMEFIELD.getStateKey();
+		long entry = this.TRANSPOSITION_TABLE.probe(stateKey);
+		int entryAction = BoundedTranspositionTable.NO_ACTION;
+		if (entry != BoundedTranspositionTable.EMPTY_ENTRY) {
+			entryAction = BoundedTranspositionTable.getBestAction(entry);
+			int entryDraft = BoundedTranspositionTable.getDraft(entry);
+			int entryScore = BoundedTranspositionTable.getScore(entry);
+			int entryBound = BoundedTranspositionTable.getBound(entry);
+
+			boolean isEntrySufficient = entryBound == BoundedTranspositionTable.BOUND_EXACT
+					|| (entryBound == BoundedTranspositionTable.BOUND_LOWER && entryScore >= beta)
+					|| (entryBound == BoundedTranspositionTable.BOUND_UPPER && entryScore <= alpha);
+			if (entryDraft >= draft && isEntrySufficient) {
+				if (entryDraft != BoundedTranspositionTable.MAX_DRAFT) {
+					// the score depends on a horizon
+					this.numberOfHorizonEvaluations++;
+				}
+				return entryScore;
+			}
+		}
+
+		long numberOfHorizonEvaluationsBefore = this.numberOfHorizonEvaluations;
+		int originalAlpha = alpha;
+		Symbol symbol = this.GAMEFIELD.getCurrentTurnsSymbol();
+		int[] actions = this.ACTION_BUFFERS[this.GAMEFIELD.getNumberOfPlies()];
+		int numberOfActions = this.orderActions(actions, entryAction, 0, symbol);
+
+		int bestScore = -INFINITE_SCORE;
+		int bestAction = BoundedTranspositionTable.NO_ACTION;
+		for (int i = 0; i < numberOfActions; i++) {
+			int action = actions[i];
+			this.GAMEFIELD.applyAction(symbol, action);
+			int score = -this.search(draft - 1, -beta, -alpha);
+			this.GAMEFIELD.undoAction(symbol, action);
+
+			if (this.isSearchAborted) {
+				return 0;
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				bestAction = action;
+				if (score > alpha) {
+					alpha = score;
+				}
+				if (alpha >= beta) {
+					this.HISTORY[symbol.isX() ? 0 : 1][action] += draft * draft;
+					break;
+				}
+			}
+		}
+
+		int bound = BoundedTranspositionTable.BOUND_EXACT;
+		if (bestScore <= originalAlpha) {
+			bound = BoundedTranspositionTable.BOUND_UPPER;
+		} else if (bestScore >= beta) {
+			bound = BoundedTranspositionTable.BOUND_LOWER;
+		}
+		int storedDraft = Math.min(draft, BoundedTranspositionTable.MAX_DRAFT - 1);
+		if (this.numberOfHorizonEvaluations == numberOfHorizonEvaluationsBefore) {
+			storedDraft = BoundedTranspositionTable.MAX_DRAFT;
+		}
+		this.TRANSPOSITION_TABLE.store(stateKey, bestScore, storedDraft, bound, bestAction);
+		return bestScore;
+	}
+
+	/**
+	 * Writes the legal actions into the passed buffer ordered by their priority:
+	 * the passed first action, then the actions of the passed mask, then the
+	 * remaining actions by their history
+	 *
+	 * @param actions          buffer the actions are written to
+	 * @param firstAction      action that is searched first, NO_ACTION if there is
+	 *                         none
+	 * @param preferredActions bitmask of actions that are searched before the
+	 *                         remaining ones
+	 * @param symbol           symbol to move
+	 * @return number of legal actions
+	 */
+	private int orderActions(int[] actions, int firstAction, int preferredActions, Symbol symbol) {
+		int[] history = this.HISTORY[symbol.isX() ? 0 : 1];
+		int numberOfActions = 0;
+
+		int legalActions = this.GAMEFIELD.getLegalActionsMask();
+		while (legalActions != 0) {
+			int action = Integer.numberOfTrailingZeros(legalActions);
+			legalActions &= legalActions - 1;
+			long priority = this.getPriority(action, firstAction, preferredActions, history);
+
+			// insertion sort as there are at most 32 actions
+			int i = numberOfActions++;
+			while (i > 0 && this.getPriority(actions[i - 1], firstAction, preferredActions, history) < priority) {
+				actions[i] = actions[i - 1];
+				i--;
+			}
+			actions[i] = action;
+		}
+		return numberOfActions;
+	}
+
+	private long getPriority(int action, int firstAction, int preferredActions, int[] history) {
+		if (action == firstAction) {
+			return Long.MAX_VALUE;
+		} else if ((preferredActions & (1 << action)) != 0) {
+			return Integer.MAX_VALUE + (long) history[action];
+		}
+		return history[action];
+	}
+
+	/**
+	 * Calculates the score of a terminal state from the perspective of the symbol
+	 * to move, which has lost the game unless it is a draw
+	 *
+	 * @return score of the terminal state
+	 */
+	private int calculateTerminalScore() {
+		if (this.GAMEFIELD.getCurrentGameStatus() == GameStatus.DRAW) {
+			return 0;
+		}
+		if (this.CONSIDER_DEPTH_IN_SCORE_CALCULATION) {
+			int numberOfRemainingSlots = this.GAMEFIELD.getGamefieldSize() - this.GAMEFIELD.getNumberOfPlies();
+			return -(numberOfRemainingSlots + 1) * this.WIN_SCORE_SCALE;
+		}
+		return -this.WIN_SCORE_SCALE;
+	}
+
+	/**
+	 * Returns whether the node or time budget of the current search is exhausted.
+	 * The time is only checked every TIME_CHECK_INTERVAL nodes
+	 *
+	 * @return true if the search has to be aborted
+	 */
+	private boolean isBudgetExhausted() {
+		if (this.NODE_BUDGET > 0 && this.numberOfNodes > this.NODE_BUDGET) {
+			return true;
+		}
+		return this.TIME_BUDGET_NANOS > 0 && this.numberOfNodes % TIME_CHECK_INTERVAL == 0
+				&& System.nanoTime() - this.deadline > 0;
+	}
+
+	/**
+	 * Returns the depth of the deepest completed iteration of the last search
+	 *
+	 * @return number of plies searched
+	 */
+	public int getLastSearchDepth() {
+		return this.lastSearchDepth;
+	}
+
+	/**
+	 * Returns whether the last search reached no horizon, i.e. whether its optimal
+	 * actions are exact
+	 *
+	 * @return true if the result of the last search is exact
+	 */
+	public boolean wasLastSearchExact() {
+		return this.wasLastSearchExact;
+	}
+
+	public long getLastNumberOfNodes() {
+		return this.lastNumberOfNodes;
+	}
+
+	public BoundedTranspositionTable getTranspositionTable() {
+		return this.TRANSPOSITION_TABLE;
+	}
+
+}
@@ -0,0 +1,270 @@
+package pack;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decouples the logging of records from writing them to disk. The thread of the
+ * run publishes the records into a ring buffer of preallocated slots and a
+ * background writer drains the buffer into the wrapped sink, thus the run does
+ * not wait for the disk as long as the buffer has room. The buffer is
+ * lock-free for a single publishing thread and the single writer, the order of
+ * the records is preserved
+ *
+ * The writer is started with the first published record and terminates once
+ * the sink has been closed, see {@link #close()}. If the buffer is full the
+ * passed {@link BackpressurePolicy} is applied. If a dropped record should have
+ * printed the header, the header is printed with the next kept record of the
+ * same kind
+ *
+ * The sink is shared between two threads: its methods are called by a single
+ * publishing thread, usually the thread of the run, and the wrapped sink is
+ * only called by the writer. Publishing from a second thread breaks the ring
+ * buffer, which is built for exactly one publisher. The published records must
+ * not be modified afterwards as the writer reads them concurrently
+ */
+public class AsyncLogSink implements LogSink {
+
+	private static final int DEFAULT_CAPACITY = 1 << 14;
+	private static final int DEFAULT_SAMPLING_RATE = 10;
+	private static final long PARK_NANOS_WRITER = 1000000;
+	private static final long PARK_NANOS_PUBLISHER = 10000;
+
+	private static final int COMMAND_PLY_RECORDS = 0;
+	private static final int COMMAND_GAME_RECORD = 1;
+	private static final int COMMAND_PLY_AGGREGATES = 2;
+	private static final int COMMAND_CLOSE = 3;
+
+	/**
+	 * Preallocated slot of the ring buffer that is overwritten whenever the
+	 * buffer wraps around
+	 */
+	private static class Slot {
+		private int command;
+		private Object records;
+		private boolean printHeader;
+	}
+
+	private final LogSink SINK;
+	private final BackpressurePolicy BACKPRESSURE_POLICY;
+	private final int SAMPLING_RATE;
+	private final int SAMPLING_THRESHOLD;
+	private final Slot[] SLOTS;
+	private final int INDEX_MASK;
+
+	// sequence numbers of the next slot to publish and the next slot to write
+	private final AtomicLong publishSequence = new AtomicLong();
+	private final AtomicLong writeSequence = new AtomicLong();
+	private final AtomicLong numberOfDroppedRecords = new AtomicLong();
+
+	// only accessed by the publishing thread
+	private long cachedWriteSequence;
+	private long numberOfSampledRecords;
+	private boolean isPlyHeaderPending;
+	private boolean isGameHeaderPending;
+	private boolean isAggregateHeaderPending;
+	private Thread writer;
+
+	/**
+	 * Creates an asynchronous sink with the default capacity and sampling rate
+	 *
+	 * @param sink               sink the records are written to by the writer
+	 * @param backpressurePolicy behaviour if the buffer is full
+	 */
+	public AsyncLogSink(LogSink sink, BackpressurePolicy backpressurePolicy) {
+		this(sink, backpressurePolicy, DEFAULT_CAPACITY, DEFAULT_SAMPLING_RATE);
+	}
+
+	/**
+	 * @param sink               sink the records are written to by the writer
+	 * @param backpressurePolicy behaviour if the buffer is full
+	 * @param capacity           number of slots of the buffer; must be a power
+	 *                           of two
+	 * @param samplingRate       every n-th record is kept once the buffer is
+	 *                           half full if the policy is SAMPLE
+	 */
+	public AsyncLogSink(LogSink sink, BackpressurePolicy backpressurePolicy, int capacity, int samplingRate) {
+		if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("capacity must be a power of two");
+		}
+		if (samplingRate <= 0) {
+			throw new IllegalArgumentException("sampling rate must be positive");
+		}
+		this.SINK = sink;
+		this.BACKPRESSURE_POLICY = backpressurePolicy;
+		this.SAMPLING_RATE = samplingRate;
+		this.SAMPLING_THRESHOLD = capacity / 2;
+		this.INDEX_MASK = capacity - 1;
+		this.SLOTS = new Slot[capacity];
+		for (int i = 0; i < capacity; i++) {
+			this.SLOTS[i] = new Slot();
+		}
+	}
+
+	@Override
+	public void logPlyRecords(Iterable<PlyRecord> plyRecords, boolean printHeader) {
+		printHeader |= this.isPlyHeaderPending;
+		this.isPlyHeaderPending = !this.publish(COMMAND_PLY_RECORDS, plyRecords, printHeader) && printHeader;
+	}
+
+	@Override
+	public void logGameRecord(GameRecord gameRecord, boolean printHeader) {
+		printHeader |= this.isGameHeaderPending;
+		this.isGameHeaderPending = !this.publish(COMMAND_GAME_RECORD, gameRecord, printHeader) && printHeader;
+	}
+
+	@Override
+	public void logPlyAggregates(Iterable<Object[]> aggregateRecords, boolean printHeader) {
+		printHeader |= this.isAggregateHeaderPending;
+		this.isAggregateHeaderPending = !this.publish(COMMAND_PLY_AGGREGATES, aggregateRecords, printHeader)
+				&& printHeader;
+	}
+
+	/**
+	 * Waits until the writer has written all published records and closed the
+	 * wrapped sink. The writer terminates afterwards and is started again by the
+	 * next published record
+	 */
+	@Override
+	public void close() {
+		if (this.writer == null) {
+			return;
+		}
+		while (!this.tryPublish(COMMAND_CLOSE, null, false)) {
+			LockSupport.parkNanos(PARK_NANOS_PUBLISHER);
+		}
+		try {
+			this.writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("closing the log was interrupted", e);
+		}
+		this.writer = null;
+	}
+
+	@Override
+	public long getNumberOfDroppedRecords() {
+		return this.numberOfDroppedRecords.get();
+	}
+
+	/**
+	 * Publishes the passed records according to the backpressure policy
+	 *
+	 * @return true if the records were published, false if they were dropped
+	 */
+	private boolean publish(int command, Object records, boolean printHeader) {
+		if (this.writer == null) {
+			this.startWriter();
+		}
+
+		if (this.BACKPRESSURE_POLICY == BackpressurePolicy.SAMPLE
+				&& this.publishSequence.get() - this.writeSequence.get() >= this.SAMPLING_THRESHOLD
+				&& this.numberOfSampledRecords++ % this.SAMPLING_RATE != 0) {
+			this.numberOfDroppedRecords.addAndGet(AsyncLogSink.countRecords(command, records));
+			return false;
+		}
+
+		while (!this.tryPublish(command, records, printHeader)) {
+			if (this.BACKPRESSURE_POLICY != BackpressurePolicy.BLOCK) {
+				this.numberOfDroppedRecords.addAndGet(AsyncLogSink.countRecords(command, records));
+				return false;
+			}
+			LockSupport.parkNanos(PARK_NANOS_PUBLISHER);
+		}
+		return true;
+	}
+
+	/**
+	 * Counts the records of a single publication, a publication of ply records or
+	 * aggregates usually holds all records of an episode
+	 *
+	 * @return number of records that are published by the passed command
+	 */
+	private static long countRecords(int command, Object records) {
+		if (command == COMMAND_GAME_RECORD) {
+			return 1;
+		}
+		long numberOfRecords = 0;
+		for (Object record : (Iterable<?>) records) {
+			numberOfRecords++;
+		}
+		return numberOfRecords;
+	}
+
+	/**
+	 * Writes the passed records into the next slot if the buffer is not full and
+	 * wakes up the writer if it is idle
+	 *
+	 * @return true if the records were published, false if the buffer is full
+	 */
+	private boolean tryPublish(int command, Object records, boolean printHeader) {
+		long sequence = this.publishSequence.get();
+		if (sequence - this.cachedWriteSequence > this.INDEX_MASK) {
+			this.cachedWriteSequence = this.writeSequence.get();
+			if (sequence - this.cachedWriteSequence > this.INDEX_MASK) {
+				return false;
+			}
+		}
+
+		Slot slot = this.SLOTS[(int) sequence & this.INDEX_MASK];
+		slot.command = command;
+		slot.records = records;
+		slot.printHeader = printHeader;
+		// the release store makes the content of the slot visible to the writer
+		this.publishSequence.lazySet(sequence + 1);
+		if (this.writeSequence.get() == sequence) {
+			// the buffer was empty, thus the writer might be parked; a missed wakeup only
+			// delays the writer until its park times out
+			LockSupport.unpark(this.writer);
+		}
+		return true;
+	}
+
+	private void startWriter() {
+		this.writer = new Thread(this::drain, "log-writer-" + Thread.currentThread().getName());
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	/**
+	 * Loop of the writer that passes the published records to the wrapped sink in
+	 * the order of publishing until the sink is closed
+	 */
+	@SuppressWarnings("unchecked")
+	private void drain() {
+		long sequence = this.writeSequence.get();
+		while (true) {
+			if (sequence == this.publishSequence.get()) {
+				LockSupport.parkNanos(this, PARK_NANOS_WRITER);
+				continue;
+			}
+
+			Slot slot = this.SLOTS[(int) sequence & this.INDEX_MASK];
+			int command = slot.command;
+			Object records = slot.records;
+			boolean printHeader = slot.printHeader;
+			slot.records = null;
+
+			try {
+				if (command == COMMAND_PLY_RECORDS) {
+					this.SINK.logPlyRecords((Iterable<PlyRecord>) records, printHeader);
+				} else if (command == COMMAND_GAME_RECORD) {
+					this.SINK.logGameRecord((GameRecord) records, printHeader);
+				} else if (command == COMMAND_PLY_AGGREGATES) {
+					this.SINK.logPlyAggregates((Iterable<Object[]>) records, printHeader);
+				} else {
+					this.SINK.close();
+				}
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+			}
+
+			sequence++;
+			this.writeSequence.lazySet(sequence);
+			if (command == COMMAND_CLOSE) {
+				return;
+			}
+		}
+	}
+
+}
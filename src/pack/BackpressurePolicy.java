@@ -0,0 +1,22 @@
+package pack;
+
+/**
+ * Behaviour of an {@link AsyncLogSink} if records are published faster than
+ * they can be written and its buffer is full
+ */
+public enum BackpressurePolicy {
+	/**
+	 * the publishing thread waits until the writer has made room, thus no record
+	 * is lost
+	 */
+	BLOCK,
+	/**
+	 * records that do not fit into the buffer are dropped
+	 */
+	DROP,
+	/**
+	 * once the buffer is filled to a threshold only every n-th record is kept,
+	 * records that do not fit into the buffer are dropped
+	 */
+	SAMPLE;
+}
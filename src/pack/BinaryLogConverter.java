@@ -0,0 +1,130 @@
+package pack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Converts binary ply and game logs, see {@link BinaryLogFormat}, to CSV files
+ * in the layout of {@link Logger#HEADER_PLY_CSV} and
+ * {@link Logger#HEADER_GAME_CSV}. The resulting files equal the files that are
+ * written when the run logs to CSV directly
+ */
+public class BinaryLogConverter {
+
+	private static final String OPTION_TRIM = "--trim";
+
+	/**
+	 * Converts every passed binary log to a CSV file next to it that has the same
+	 * name but the extension .csv. If the first argument is --trim the logs are
+	 * trimmed instead, see {@link #trim(String)}
+	 *
+	 * @param args paths of the binary logs to convert, optionally preceded by
+	 *             --trim
+	 */
+	public static void main(String[] args) {
+		boolean trimLogs = args.length > 0 && args[0].equals(OPTION_TRIM);
+		if (args.length == (trimLogs ? 1 : 0)) {
+			System.out.println("usage: BinaryLogConverter [" + OPTION_TRIM + "] <binary log> [<binary log> ...]");
+			return;
+		}
+		for (int i = trimLogs ? 1 : 0; i < args.length; i++) {
+			String binaryFilePath = args[i];
+			if (trimLogs) {
+				long removedBytes = BinaryLogConverter.trim(binaryFilePath);
+				System.out.println("removed " + removedBytes + " bytes from " + binaryFilePath);
+				continue;
+			}
+			String csvFilePath = binaryFilePath.replaceFirst("\\" + LogFormat.BINARY.getFileExtension() + "$", "")
+					+ LogFormat.CSV.getFileExtension();
+			long numberOfRecords = BinaryLogConverter.convertToCSV(binaryFilePath, csvFilePath);
+			System.out.println("converted " + numberOfRecords + " records to " + csvFilePath);
+		}
+	}
+
+	/**
+	 * Converts the passed binary log to a CSV file. The records are appended to
+	 * the CSV file if it already exists, the header is printed only once at the
+	 * start
+	 *
+	 * @param binaryFilePath path of the binary log
+	 * @param csvFilePath    path of the CSV file to write
+	 * @return number of converted records
+	 */
+	public static long convertToCSV(String binaryFilePath, String csvFilePath) {
+		try (FileChannel channel = FileChannel.open(Paths.get(binaryFilePath), StandardOpenOption.READ)) {
+			if (channel.size() < BinaryLogFormat.HEADER_SIZE) {
+				throw new IllegalArgumentException("file is not a binary log: " + binaryFilePath);
+			}
+			MappedByteBuffer header = channel.map(MapMode.READ_ONLY, 0, BinaryLogFormat.HEADER_SIZE);
+			header.order(ByteOrder.LITTLE_ENDIAN);
+			byte recordType = BinaryLogFormat.readRecordType(header);
+			int recordSize = BinaryLogFormat.getRecordSize(recordType);
+			long numberOfRecords = header.getLong(BinaryLogFormat.OFFSET_RECORD_COUNT);
+
+			boolean isPlyLog = recordType == BinaryLogFormat.RECORD_TYPE_PLY;
+			BufferedCSVStream csvStream = new BufferedCSVStream(csvFilePath,
+					isPlyLog ? Logger.HEADER_PLY_CSV : Logger.HEADER_GAME_CSV);
+
+			// a single mapping is limited to Integer.MAX_VALUE bytes, thus larger logs
+			// are read in multiple regions
+			long recordsPerRegion = Integer.MAX_VALUE / recordSize;
+			long convertedRecords = 0;
+			while (convertedRecords < numberOfRecords) {
+				long recordsInRegion = Math.min(recordsPerRegion, numberOfRecords - convertedRecords);
+				MappedByteBuffer region = channel.map(MapMode.READ_ONLY,
+						BinaryLogFormat.HEADER_SIZE + convertedRecords * recordSize, recordsInRegion * recordSize);
+				region.order(ByteOrder.LITTLE_ENDIAN);
+
+				for (long i = 0; i < recordsInRegion; i++) {
+					Object[] csvRecord = isPlyLog ? BinaryLogFormat.readPlyRecord(region).toCSVRecord()
+							: BinaryLogFormat.readGameRecord(region).toCSVRecord();
+					csvStream.printRecord(csvRecord, convertedRecords == 0);
+					convertedRecords++;
+				}
+			}
+			csvStream.close();
+			return convertedRecords;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return 0;
+		}
+	}
+
+	/**
+	 * Truncates the passed binary log to the records it contains, i.e. removes the
+	 * unused rest of the last region that {@link MappedRecordWriter} could not
+	 * truncate. The file must not be written to while it is trimmed
+	 *
+	 * @param binaryFilePath path of the binary log
+	 * @return number of removed bytes
+	 */
+	public static long trim(String binaryFilePath) {
+		try (FileChannel channel = FileChannel.open(Paths.get(binaryFilePath), StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			// the header is read instead of mapped so that the file can be truncated
+			ByteBuffer header = ByteBuffer.allocate(BinaryLogFormat.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining()) {
+				if (channel.read(header) < 0) {
+					throw new IllegalArgumentException("file is not a binary log: " + binaryFilePath);
+				}
+			}
+			int recordSize = BinaryLogFormat.getRecordSize(BinaryLogFormat.readRecordType(header));
+			long sizeOfRecords = BinaryLogFormat.HEADER_SIZE
+					+ header.getLong(BinaryLogFormat.OFFSET_RECORD_COUNT) * recordSize;
+
+			long removedBytes = Math.max(0, channel.size() - sizeOfRecords);
+			channel.truncate(sizeOfRecords);
+			return removedBytes;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return 0;
+		}
+	}
+
+}
@@ -0,0 +1,185 @@
+package pack;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-width binary format of the ply and game logs. Every file starts with a
+ * header of {@link #HEADER_SIZE} bytes followed by the records, all values are
+ * stored in little-endian byte order
+ *
+ * Header: magic number (int), version (short), record type (byte), reserved
+ * (byte), record size (int), number of records (long), reserved (12 bytes)
+ *
+ * Ply record: episode (int), batch (int), reward (float) and a long that packs
+ * the state before (18 bits), the state after (18 bits), the action (4 bits),
+ * the ply (4 bits), whether O executed the ply, whether the action was
+ * exploratory, whether the action was optimal (1 bit each) and the bitmask of
+ * the optimal actions (9 bits)
+ *
+ * Game record: episode (int), batch (int), flags (byte) that encode whether
+ * the agent is O and whether the episode was won, lost or a draw, the numbers
+ * of plies, agent actions, exploratory actions, optimal actions and optimal
+ * actions without exploration (byte each), padding (2 bytes), epsilon (double),
+ * alpha (double), reward (float) and the eight totals of the tracker (int each)
+ */
+public final class BinaryLogFormat {
+
+	static final int MAGIC_NUMBER = 0x54544C47;
+	static final short VERSION = 1;
+	static final int HEADER_SIZE = 32;
+	static final int OFFSET_RECORD_TYPE = 6;
+	static final int OFFSET_RECORD_SIZE = 8;
+	static final int OFFSET_RECORD_COUNT = 12;
+
+	static final byte RECORD_TYPE_PLY = 1;
+	static final byte RECORD_TYPE_GAME = 2;
+	static final int PLY_RECORD_SIZE = 20;
+	static final int GAME_RECORD_SIZE = 68;
+
+	private static final int STATE_BITS = 18;
+	private static final long STATE_MASK = (1L << STATE_BITS) - 1;
+	private static final int SHIFT_STATE_AFTER = 18;
+	private static final int SHIFT_ACTION = 36;
+	private static final int SHIFT_PLY = 40;
+	private static final int SHIFT_SYMBOL = 44;
+	private static final int SHIFT_EXPLORATORY = 45;
+	private static final int SHIFT_OPTIMAL = 46;
+	private static final int SHIFT_OPTIMAL_ACTIONS = 47;
+
+	private static final int FLAG_SYMBOL_O = 1;
+	private static final int FLAG_WON = 1 << 1;
+	private static final int FLAG_LOST = 1 << 2;
+	private static final int FLAG_DRAW = 1 << 3;
+
+	private BinaryLogFormat() {
+	}
+
+	/**
+	 * Writes the header of a log file that contains no records yet to the passed
+	 * buffer at its current position
+	 *
+	 * @param buffer     little-endian buffer of at least {@link #HEADER_SIZE}
+	 *                   remaining bytes
+	 * @param recordType type of the records in the file
+	 */
+	static void writeHeader(ByteBuffer buffer, byte recordType) {
+		int start = buffer.position();
+		buffer.putInt(MAGIC_NUMBER);
+		buffer.putShort(VERSION);
+		buffer.put(recordType);
+		buffer.put((byte) 0);
+		buffer.putInt(BinaryLogFormat.getRecordSize(recordType));
+		buffer.putLong(0);
+		buffer.position(start + HEADER_SIZE);
+	}
+
+	/**
+	 * Checks the header of a log file and returns the type of its records
+	 *
+	 * @param header little-endian buffer that starts with the header
+	 * @return type of the records in the file
+	 * @throws IllegalArgumentException if the header does not belong to a log file
+	 *                                  of this format
+	 */
+	static byte readRecordType(ByteBuffer header) {
+		if (header.getInt(0) != MAGIC_NUMBER) {
+			throw new IllegalArgumentException("file is not a binary log");
+		}
+		if (header.getShort(4) != VERSION) {
+			throw new IllegalArgumentException("unsupported version of the binary log: " + header.getShort(4));
+		}
+		byte recordType = header.get(OFFSET_RECORD_TYPE);
+		if (header.getInt(OFFSET_RECORD_SIZE) != BinaryLogFormat.getRecordSize(recordType)) {
+			throw new IllegalArgumentException("record size does not match the record type");
+		}
+		return recordType;
+	}
+
+	static int getRecordSize(byte recordType) {
+		switch (recordType) {
+		case RECORD_TYPE_PLY:
+			return PLY_RECORD_SIZE;
+		case RECORD_TYPE_GAME:
+			return GAME_RECORD_SIZE;
+		default:
+			throw new IllegalArgumentException("unknown record type: " + recordType);
+		}
+	}
+
+	static void writePlyRecord(ByteBuffer buffer, PlyRecord plyRecord) {
+		long packedPly = plyRecord.getStateBefore() & STATE_MASK;
+		packedPly |= (plyRecord.getStateAfter() & STATE_MASK) << SHIFT_STATE_AFTER;
+		packedPly |= (long) plyRecord.getAction() << SHIFT_ACTION;
+		packedPly |= (long) plyRecord.getPly() << SHIFT_PLY;
+		packedPly |= plyRecord.getSymbol().isX() ? 0 : 1L << SHIFT_SYMBOL;
+		packedPly |= plyRecord.wasExploratory() ? 1L << SHIFT_EXPLORATORY : 0;
+		packedPly |= plyRecord.wasOptimal() ? 1L << SHIFT_OPTIMAL : 0;
+		packedPly |= (long) plyRecord.getOptimalActionsMask() << SHIFT_OPTIMAL_ACTIONS;
+
+		buffer.putInt(plyRecord.getEpisode());
+		buffer.putInt(plyRecord.getBatch());
+		buffer.putFloat(plyRecord.getReward());
+		buffer.putLong(packedPly);
+	}
+
+	static PlyRecord readPlyRecord(ByteBuffer buffer) {
+		int episode = buffer.getInt();
+		int batch = buffer.getInt();
+		float reward = buffer.getFloat();
+		long packedPly = buffer.getLong();
+
+		Symbol symbol = (packedPly >>> SHIFT_SYMBOL & 1) == 0 ? Symbol.SYMBOL_X : Symbol.SYMBOL_O;
+		return new PlyRecord(episode, batch, symbol, (int) (packedPly >>> SHIFT_PLY & 0xF),
+				(int) (packedPly & STATE_MASK), (int) (packedPly >>> SHIFT_ACTION & 0xF),
+				(int) (packedPly >>> SHIFT_STATE_AFTER & STATE_MASK), (packedPly >>> SHIFT_EXPLORATORY & 1) == 1,
+				(packedPly >>> SHIFT_OPTIMAL & 1) == 1, (int) (packedPly >>> SHIFT_OPTIMAL_ACTIONS & 0x1FF), reward);
+	}
+
+	static void writeGameRecord(ByteBuffer buffer, GameRecord gameRecord) {
+		int flags = gameRecord.getAGENT().isX() ? 0 : FLAG_SYMBOL_O;
+		flags |= gameRecord.isEpisodeWon() ? FLAG_WON : 0;
+		flags |= gameRecord.isEpisodeLost() ? FLAG_LOST : 0;
+		flags |= gameRecord.isEpisodeDraw() ? FLAG_DRAW : 0;
+
+		buffer.putInt(gameRecord.getEpisode());
+		buffer.putInt(gameRecord.getBatch());
+		buffer.put((byte) flags);
+		buffer.put((byte) gameRecord.getNumberOfPlies());
+		buffer.put((byte) gameRecord.getNumberOfAgentActions());
+		buffer.put((byte) gameRecord.getNumberOfExploratoryActions());
+		buffer.put((byte) gameRecord.getNumberOfOptimalActions());
+		buffer.put((byte) gameRecord.getNumberOfOptimalActionsWOExploration());
+		buffer.putShort((short) 0);
+		buffer.putDouble(gameRecord.getCurrentEpsilon());
+		buffer.putDouble(gameRecord.getCurrentAlpha());
+		buffer.putFloat(gameRecord.getReward());
+		buffer.putInt(gameRecord.getTotalNumberOfPlies());
+		buffer.putInt(gameRecord.getTotalNumberAgentActions());
+		buffer.putInt(gameRecord.getTotalNumberExploratoryActions());
+		buffer.putInt(gameRecord.getTotalNumberOptimalActions());
+		buffer.putInt(gameRecord.getTotalNumberOptimalActionsWOExploration());
+		buffer.putInt(gameRecord.getTotalNumberGamesWon());
+		buffer.putInt(gameRecord.getTotalNumberGamesLost());
+		buffer.putInt(gameRecord.getTotalNumberGamesDraw());
+	}
+
+	static GameRecord readGameRecord(ByteBuffer buffer) {
+		int episode = buffer.getInt();
+		int batch = buffer.getInt();
+		int flags = buffer.get();
+		int numberOfPlies = buffer.get();
+		int numberOfAgentActions = buffer.get();
+		int numberOfExploratoryActions = buffer.get();
+		int numberOfOptimalActions = buffer.get();
+		int numberOfOptimalActionsWOExploration = buffer.get();
+		buffer.getShort();
+
+		return new GameRecord(episode, batch, (flags & FLAG_SYMBOL_O) == 0 ? Symbol.SYMBOL_X : Symbol.SYMBOL_O,
+				numberOfPlies, numberOfAgentActions, numberOfExploratoryActions, numberOfOptimalActions,
+				numberOfOptimalActionsWOExploration, buffer.getDouble(), buffer.getDouble(),
+				(flags & FLAG_WON) != 0, (flags & FLAG_LOST) != 0, (flags & FLAG_DRAW) != 0, buffer.getFloat(),
+				buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+				buffer.getInt(), buffer.getInt());
+	}
+
+}
@@ -0,0 +1,54 @@
+package pack;
+
+/**
+ * Writes the ply and game records of a stage to two memory-mapped binary files,
+ * see {@link BinaryLogFormat}. The header of a binary file is written once when
+ * the file is created, thus the flag to print the header is ignored. The files
+ * can be converted to CSV with the {@link BinaryLogConverter}. Aggregated
+ * plies are few compared to the plies, thus they are written to a CSV file
+ */
+public class BinaryLogSink implements LogSink {
+
+	private final MappedRecordWriter<PlyRecord> WRITER_PLY;
+	private final MappedRecordWriter<GameRecord> WRITER_GAME;
+	private final BufferedCSVStream STREAM_PLY_AGGREGATE;
+
+	/**
+	 * @param filePathPly          path of the binary ply log including the
+	 *                             directory
+	 * @param filePathGame         path of the binary game log including the
+	 *                             directory
+	 * @param filePathPlyAggregate path of the CSV of the aggregated plies
+	 *                             including the directory
+	 */
+	public BinaryLogSink(String filePathPly, String filePathGame, String filePathPlyAggregate) {
+		this.WRITER_PLY = new MappedRecordWriter<>(filePathPly, BinaryLogFormat.RECORD_TYPE_PLY,
+				BinaryLogFormat::writePlyRecord);
+		this.WRITER_GAME = new MappedRecordWriter<>(filePathGame, BinaryLogFormat.RECORD_TYPE_GAME,
+				BinaryLogFormat::writeGameRecord);
+		this.STREAM_PLY_AGGREGATE = new BufferedCSVStream(filePathPlyAggregate, Logger.HEADER_PLY_AGGREGATE_CSV);
+	}
+
+	@Override
+	public void logPlyRecords(Iterable<PlyRecord> plyRecords, boolean printHeader) {
+		this.WRITER_PLY.writeAll(plyRecords);
+	}
+
+	@Override
+	public void logGameRecord(GameRecord gameRecord, boolean printHeader) {
+		this.WRITER_GAME.write(gameRecord);
+	}
+
+	@Override
+	public void logPlyAggregates(Iterable<Object[]> aggregateRecords, boolean printHeader) {
+		this.STREAM_PLY_AGGREGATE.printRecords(aggregateRecords, printHeader);
+	}
+
+	@Override
+	public void close() {
+		this.WRITER_GAME.close();
+		this.WRITER_PLY.close();
+		this.STREAM_PLY_AGGREGATE.close();
+	}
+
+}
@@ -0,0 +1,173 @@
+package pack;
+
+/**
+ * Provides the eight symmetries of the gamefield, i.e. the rotations and
+ * reflections of the dihedral group, as precomputed permutation tables. A
+ * permutation maps the index of a slot to the index of the slot it is moved to
+ * by the transformation
+ * 
+ * Every state is mapped to a canonical representative which is the smallest
+ * state out of all of its symmetric variants. For reachable states the
+ * canonical state and the transformation that leads to it are looked up in
+ * tables indexed by {@link StateIndex}
+ */
+public class BoardSymmetry {
+
+	public static final int NUMBER_OF_TRANSFORMATIONS = 8;
+	public static final int IDENTITY = 0;
+
+	/**
+	 * Slot indexes after applying the transformation; the order is identity,
+	 * rotation by 90, 180 and 270 degrees, reflection at the horizontal axis, the
+	 * vertical axis, the main diagonal and the anti-diagonal
+	 */
+	private static final int[][] PERMUTATIONS = { { 0, 1, 2, 3, 4, 5, 6, 7, 8 }, { 2, 5, 8, 1, 4, 7, 0, 3, 6 },
+			{ 8, 7, 6, 5, 4, 3, 2, 1, 0 }, { 6, 3, 0, 7, 4, 1, 8, 5, 2 }, { 6, 7, 8, 3, 4, 5, 0, 1, 2 },
+			{ 2, 1, 0, 5, 4, 3, 8, 7, 6 }, { 0, 3, 6, 1, 4, 7, 2, 5, 8 }, { 8, 5, 2, 7, 4, 1, 6, 3, 0 } };
+
+	private static final int[][] INVERSE_PERMUTATIONS = new int[NUMBER_OF_TRANSFORMATIONS][Gamefield.GAMEFIELD_SIZE];
+	private static final int[][] TRANSFORMED_BITBOARDS = new int[NUMBER_OF_TRANSFORMATIONS][1 << Gamefield.GAMEFIELD_SIZE];
+
+	private static final int[] CANONICAL_STATE_OF_INDEX = new int[StateIndex.getNumberOfStates()];
+	private static final byte[] TRANSFORMATION_OF_INDEX = new byte[StateIndex.getNumberOfStates()];
+
+	static {
+		for (int transformation = 0; transformation < NUMBER_OF_TRANSFORMATIONS; transformation++) {
+			for (int slot = 0; slot < Gamefield.GAMEFIELD_SIZE; slot++) {
+				INVERSE_PERMUTATIONS[transformation][PERMUTATIONS[transformation][slot]] = slot;
+			}
+			for (int bitboard = 1; bitboard < 1 << Gamefield.GAMEFIELD_SIZE; bitboard++) {
+				int lowestSetBit = Integer.numberOfTrailingZeros(bitboard);
+				TRANSFORMED_BITBOARDS[transformation][bitboard] = TRANSFORMED_BITBOARDS[transformation][bitboard
+						& (bitboard - 1)] | (1 << PERMUTATIONS[transformation][lowestSetBit]);
+			}
+		}
+
+		for (int index = 0; index < StateIndex.getNumberOfStates(); index++) {
+			int state = StateIndex.getState(index);
+			int transformation = BoardSymmetry.calculateTransformationToCanonicalState(state);
+			CANONICAL_STATE_OF_INDEX[index] = BoardSymmetry.transformState(state, transformation);
+			TRANSFORMATION_OF_INDEX[index] = (byte) transformation;
+		}
+	}
+
+	/**
+	 * Applies the passed transformation to the passed state
+	 * 
+	 * @param state          to transform
+	 * @param transformation index of the transformation
+	 * @return transformed state
+	 */
+	public static int transformState(int state, int transformation) {
+		int offsetX = Gamefield.getSymbolSpecificOffset(Symbol.SYMBOL_X);
+		int bitboardX = (state >>> offsetX) & 0x1FF;
+		int bitboardO = state & 0x1FF;
+
+		return (TRANSFORMED_BITBOARDS[transformation][bitboardX] << offsetX)
+				| TRANSFORMED_BITBOARDS[transformation][bitboardO];
+	}
+
+	/**
+	 * Maps an action in the original state to the corresponding action in the
+	 * transformed state
+	 * 
+	 * @param action         slot in the original state
+	 * @param transformation index of the transformation
+	 * @return slot in the transformed state
+	 */
+	public static int transformAction(int action, int transformation) {
+		return PERMUTATIONS[transformation][action];
+	}
+
+	/**
+	 * Maps an action in the transformed state back to the corresponding action in
+	 * the original state
+	 * 
+	 * @param transformedAction slot in the transformed state
+	 * @param transformation    index of the transformation that was applied
+	 * @return slot in the original state
+	 */
+	public static int inverseTransformAction(int transformedAction, int transformation) {
+		return INVERSE_PERMUTATIONS[transformation][transformedAction];
+	}
+
+	/**
+	 * Maps a bitmask of actions in the original state to the corresponding bitmask
+	 * of actions in the transformed state
+	 * 
+	 * @param actionMask     bitmask of slots in the original state
+	 * @param transformation index of the transformation
+	 * @return bitmask of slots in the transformed state
+	 */
+	public static int transformActionMask(int actionMask, int transformation) {
+		return TRANSFORMED_BITBOARDS[transformation][actionMask];
+	}
+
+	/**
+	 * Maps a bitmask of actions in the transformed state back to the corresponding
+	 * bitmask of actions in the original state
+	 * 
+	 * @param transformedActionMask bitmask of slots in the transformed state
+	 * @param transformation        index of the transformation that was applied
+	 * @return bitmask of slots in the original state
+	 */
+	public static int inverseTransformActionMask(int transformedActionMask, int transformation) {
+		int actionMask = 0;
+		for (int mask = transformedActionMask; mask != 0; mask &= mask - 1) {
+			actionMask |= 1 << INVERSE_PERMUTATIONS[transformation][Integer.numberOfTrailingZeros(mask)];
+		}
+		return actionMask;
+	}
+
+	/**
+	 * Returns the canonical representative of the passed state, i.e. the smallest
+	 * state out of all its symmetric variants
+	 * 
+	 * @param state for that the canonical state is to be returned
+	 * @return canonical state
+	 */
+	public static int getCanonicalState(int state) {
+		int index = StateIndex.getIndex(state);
+		if (index >= 0) {
+			return CANONICAL_STATE_OF_INDEX[index];
+		}
+		return BoardSymmetry.transformState(state, BoardSymmetry.calculateTransformationToCanonicalState(state));
+	}
+
+	/**
+	 * Returns the index of the transformation that maps the passed state to its
+	 * canonical state
+	 * 
+	 * @param state for that the transformation is to be returned
+	 * @return index of the transformation
+	 */
+	public static int getTransformationToCanonicalState(int state) {
+		int index = StateIndex.getIndex(state);
+		if (index >= 0) {
+			return TRANSFORMATION_OF_INDEX[index];
+		}
+		return BoardSymmetry.calculateTransformationToCanonicalState(state);
+	}
+
+	/**
+	 * Calculates the transformation that results in the smallest state. If
+	 * multiple transformations result in the same state the first one is returned
+	 * 
+	 * @param state for that the transformation is to be calculated
+	 * @return index of the transformation
+	 */
+	private static int calculateTransformationToCanonicalState(int state) {
+		int transformationToCanonicalState = IDENTITY;
+		int canonicalState = state;
+
+		for (int transformation = 1; transformation < NUMBER_OF_TRANSFORMATIONS; transformation++) {
+			int transformedState = BoardSymmetry.transformState(state, transformation);
+			if (transformedState < canonicalState) {
+				canonicalState = transformedState;
+				transformationToCanonicalState = transformation;
+			}
+		}
+		return transformationToCanonicalState;
+	}
+
+}
@@ -0,0 +1,140 @@
+package pack;
+
+import java.util.Arrays;
+
+/**
+ * Transposition table of a fixed size for {@link AlphaBetaSearch}. Unlike
+ * {@link TranspositionTable} it does not hold every node of the game tree,
+ * instead an entry is replaced when a new one maps to the same slot, thus it
+ * can be used for gamefields whose game tree does not fit into memory
+ *
+ * The slots are grouped into buckets of two. The first slot of a bucket keeps
+ * the entry with the highest draft, i.e. the deepest search, the second slot
+ * always takes the newest entry. An entry is packed into a single long
+ * containing the score, the draft, the bound of the score and the best action
+ */
+public class BoundedTranspositionTable {
+
+	public static final long EMPTY_ENTRY = 0;
+
+	public static final int BOUND_EXACT = 1;
+	public static final int BOUND_LOWER = 2;
+	public static final int BOUND_UPPER = 3;
+
+	public static final int NO_ACTION = 63;
+	public static final int MAX_DRAFT = 255;
+
+	private static final long EMPTY_KEY = -1L;
+	private static final int DRAFT_SHIFT = 32;
+	private static final int BOUND_SHIFT = 40;
+	private static final int ACTION_SHIFT = 42;
+
+	private final long[] keys;
+	private final long[] entries;
+	private final int BUCKET_SHIFT;
+	private int numberOfEntries = 0;
+
+	/**
+	 * Creates an empty table with the passed number of slots
+	 *
+	 * @param size number of slots, has to be a power of two and at least four
+	 */
+	public BoundedTranspositionTable(int size) {
+		if (size < 4 || Integer.bitCount(size) != 1) {
+			throw new IllegalArgumentException("size " + size + " is not a power of two of at least four");
+		}
+		this.keys = new long[size];
+		this.entries = new long[size];
+		this.BUCKET_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(size / 2);
+		Arrays.fill(this.keys, EMPTY_KEY);
+	}
+
+	/**
+	 * Returns the entry of the passed state key
+	 *
+	 * @param key state key
+	 * @return packed entry, EMPTY_ENTRY if the state is not in the table
+	 */
+	public long probe(long key) {
+		int slot = this.getFirstSlotOfBucket(key);
+		if (this.keys[slot] == key) {
+			return this.entries[slot];
+		} else if (this.keys[slot + 1] == key) {
+			return this.entries[slot + 1];
+		}
+		return EMPTY_ENTRY;
+	}
+
+	/**
+	 * Stores the result of a search for the passed state key. If a slot of the
+	 * bucket already holds the state, its entry is updated in place, thus a state
+	 * never occupies both slots. If the first slot holds the state with a higher
+	 * draft the entry is discarded. Otherwise the entry replaces the entry of the
+	 * first slot if its draft is not higher, else the entry of the second slot
+	 *
+	 * @param key        state key
+	 * @param score      score of the state
+	 * @param draft      number of plies the state was searched to, at most
+	 *                   MAX_DRAFT
+	 * @param bound      whether the score is exact, a lower or an upper bound
+	 * @param bestAction best action found in the state, NO_ACTION if there is none
+	 */
+	public void store(long key, int score, int draft, int bound, int bestAction) {
+		int slot = this.getFirstSlotOfBucket(key);
+		if (this.keys[slot] == key) {
+			if (BoundedTranspositionTable.getDraft(this.entries[slot]) > draft) {
+				// the deeper result of the state is kept
+				return;
+			}
+		} else if (this.keys[slot + 1] == key) {
+			slot++;
+		} else if (this.keys[slot] != EMPTY_KEY && BoundedTranspositionTable.getDraft(this.entries[slot]) > draft) {
+			slot++;
+		}
+
+		if (this.keys[slot] == EMPTY_KEY) {
+			this.numberOfEntries++;
+		}
+		this.keys[slot] = key;
+		this.entries[slot] = (score & 0xFFFFFFFFL) | ((long) draft << DRAFT_SHIFT) | ((long) bound << BOUND_SHIFT)
+				| ((long) bestAction << ACTION_SHIFT);
+	}
+
+	/**
+	 * Removes all entries
+	 */
+	public void clear() {
+		Arrays.fill(this.keys, EMPTY_KEY);
+		Arrays.fill(this.entries, EMPTY_ENTRY);
+		this.numberOfEntries = 0;
+	}
+
+	public int getNumberOfEntries() {
+		return this.numberOfEntries;
+	}
+
+	public int getSize() {
+		return this.keys.length;
+	}
+
+	public static int getScore(long entry) {
+		return (int) entry;
+	}
+
+	public static int getDraft(long entry) {
+		return (int) (entry >>> DRAFT_SHIFT) & 0xFF;
+	}
+
+	public static int getBound(long entry) {
+		return (int) (entry >>> BOUND_SHIFT) & 0x3;
+	}
+
+	public static int getBestAction(long entry) {
+		return (int) (entry >>> ACTION_SHIFT) & 0x3F;
+	}
+
+	private int getFirstSlotOfBucket(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> this.BUCKET_SHIFT) << 1;
+	}
+
+}
@@ -0,0 +1,172 @@
+package pack;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+/**
+ * Long-lived buffered writer of a single CSV file. The file is opened in append
+ * mode on the first write and kept open until {@link #close()} is called, thus
+ * a record is not written by a separate open and close of the file. The buffer
+ * is flushed to the file if either the number of records written since the last
+ * flush or the time since the last flush exceeds the respective threshold
+ *
+ * The printer and the flush counters are not synchronized, thus a stream is
+ * written by one thread at a time, e.g. the thread of the run or the writer of
+ * an {@link AsyncLogSink}. A file should not be written by two streams at once
+ * as their buffered records would be interleaved arbitrarily
+ */
+public class BufferedCSVStream {
+
+	private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+	private static final int DEFAULT_FLUSH_THRESHOLD_RECORDS = 10000;
+	private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5000;
+
+	private final String FILE_PATH;
+	private final Object[] HEADER;
+	private final int BUFFER_SIZE;
+	private final int FLUSH_THRESHOLD_RECORDS;
+	private final long FLUSH_INTERVAL_NANOS;
+
+	private CSVPrinter printer;
+	private int recordsSinceLastFlush;
+	private long timeOfLastFlush;
+
+	/**
+	 * Creates a stream to the passed file using the default buffer size and
+	 * thresholds
+	 *
+	 * @param filePath path of the CSV file including the directory
+	 * @param header   header of the CSV file
+	 */
+	public BufferedCSVStream(String filePath, Object[] header) {
+		this(filePath, header, DEFAULT_BUFFER_SIZE, DEFAULT_FLUSH_THRESHOLD_RECORDS, DEFAULT_FLUSH_INTERVAL_MILLIS);
+	}
+
+	/**
+	 * Creates a stream to the passed file. The file is not opened before the first
+	 * record is written
+	 *
+	 * @param filePath              path of the CSV file including the directory
+	 * @param header                header of the CSV file
+	 * @param bufferSize            size of the buffer in characters
+	 * @param flushThresholdRecords number of records after which the buffer is
+	 *                              flushed
+	 * @param flushIntervalMillis   time in milliseconds after which the buffer is
+	 *                              flushed with the next written record
+	 */
+	public BufferedCSVStream(String filePath, Object[] header, int bufferSize, int flushThresholdRecords,
+			long flushIntervalMillis) {
+		if (bufferSize <= 0 || flushThresholdRecords <= 0 || flushIntervalMillis < 0) {
+			throw new IllegalArgumentException("buffer size and thresholds must be positive");
+		}
+		this.FILE_PATH = filePath;
+		this.HEADER = header;
+		this.BUFFER_SIZE = bufferSize;
+		this.FLUSH_THRESHOLD_RECORDS = flushThresholdRecords;
+		this.FLUSH_INTERVAL_NANOS = flushIntervalMillis * 1000000;
+	}
+
+	/**
+	 * Writes a single record to the stream, optionally write the header beforehand
+	 *
+	 * @param values      record to be written
+	 * @param printHeader true if the header is to be printed
+	 */
+	public void printRecord(Object[] values, boolean printHeader) {
+		try {
+			CSVPrinter openPrinter = this.getOpenPrinter();
+			if (printHeader) {
+				openPrinter.printRecord(this.HEADER);
+			}
+			openPrinter.printRecord(values);
+			this.recordsSinceLastFlush++;
+			this.flushIfThresholdExceeded();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Writes multiple records to the stream, optionally write the header
+	 * beforehand
+	 *
+	 * @param values      records to be written
+	 * @param printHeader true if the header is to be printed
+	 */
+	public void printRecords(Iterable<Object[]> values, boolean printHeader) {
+		try {
+			CSVPrinter openPrinter = this.getOpenPrinter();
+			if (printHeader) {
+				openPrinter.printRecord(this.HEADER);
+			}
+			for (Object[] record : values) {
+				openPrinter.printRecord(record);
+				this.recordsSinceLastFlush++;
+			}
+			this.flushIfThresholdExceeded();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Writes the content of the buffer to the file if the stream is open
+	 */
+	public void flush() {
+		if (this.printer == null) {
+			return;
+		}
+		try {
+			this.printer.flush();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		this.recordsSinceLastFlush = 0;
+		this.timeOfLastFlush = System.nanoTime();
+	}
+
+	/**
+	 * Flushes the buffer and closes the file. The stream can still be written to
+	 * afterwards in which case the file is opened again in append mode
+	 */
+	public void close() {
+		if (this.printer == null) {
+			return;
+		}
+		try {
+			this.printer.close(true);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		this.printer = null;
+		this.recordsSinceLastFlush = 0;
+	}
+
+	/**
+	 * Returns the printer of the stream and opens the file beforehand if it is not
+	 * open yet
+	 *
+	 * @return open printer to the file of this stream
+	 * @throws IOException if the file could not be opened
+	 */
+	private CSVPrinter getOpenPrinter() throws IOException {
+		if (this.printer == null) {
+			BufferedWriter writer = new BufferedWriter(new FileWriter(this.FILE_PATH, true), this.BUFFER_SIZE);
+			this.printer = new CSVPrinter(writer, CSVFormat.EXCEL);
+			this.timeOfLastFlush = System.nanoTime();
+		}
+		return this.printer;
+	}
+
+	private void flushIfThresholdExceeded() {
+		if (this.recordsSinceLastFlush >= this.FLUSH_THRESHOLD_RECORDS
+				|| System.nanoTime() - this.timeOfLastFlush >= this.FLUSH_INTERVAL_NANOS) {
+			this.flush();
+		}
+	}
+
+}
@@ -0,0 +1,55 @@
+package pack;
+
+import java.util.ArrayList;
+
+/**
+ * Writes the ply and game records of a stage to CSV files in the layout of
+ * {@link Logger#HEADER_PLY_CSV} and {@link Logger#HEADER_GAME_CSV}. Aggregated
+ * plies are written to a third file that is only created if the stage logs
+ * aggregates
+ */
+public class CSVLogSink implements LogSink {
+
+	private final BufferedCSVStream STREAM_PLY;
+	private final BufferedCSVStream STREAM_GAME;
+	private final BufferedCSVStream STREAM_PLY_AGGREGATE;
+
+	/**
+	 * @param filePathPly          path of the ply CSV including the directory
+	 * @param filePathGame         path of the game CSV including the directory
+	 * @param filePathPlyAggregate path of the CSV of the aggregated plies
+	 *                             including the directory
+	 */
+	public CSVLogSink(String filePathPly, String filePathGame, String filePathPlyAggregate) {
+		this.STREAM_PLY = new BufferedCSVStream(filePathPly, Logger.HEADER_PLY_CSV);
+		this.STREAM_GAME = new BufferedCSVStream(filePathGame, Logger.HEADER_GAME_CSV);
+		this.STREAM_PLY_AGGREGATE = new BufferedCSVStream(filePathPlyAggregate, Logger.HEADER_PLY_AGGREGATE_CSV);
+	}
+
+	@Override
+	public void logPlyRecords(Iterable<PlyRecord> plyRecords, boolean printHeader) {
+		ArrayList<Object[]> csvRecords = new ArrayList<>();
+		for (PlyRecord plyRecord : plyRecords) {
+			csvRecords.add(plyRecord.toCSVRecord());
+		}
+		this.STREAM_PLY.printRecords(csvRecords, printHeader);
+	}
+
+	@Override
+	public void logGameRecord(GameRecord gameRecord, boolean printHeader) {
+		this.STREAM_GAME.printRecord(gameRecord.toCSVRecord(), printHeader);
+	}
+
+	@Override
+	public void logPlyAggregates(Iterable<Object[]> aggregateRecords, boolean printHeader) {
+		this.STREAM_PLY_AGGREGATE.printRecords(aggregateRecords, printHeader);
+	}
+
+	@Override
+	public void close() {
+		this.STREAM_GAME.close();
+		this.STREAM_PLY.close();
+		this.STREAM_PLY_AGGREGATE.close();
+	}
+
+}
@@ -0,0 +1,123 @@
+package pack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes the checkpoints of a run to a single file on a background thread, thus
+ * the training only pays for serialising the checkpoint into memory. The file
+ * always contains the latest complete checkpoint: a checkpoint is written to a
+ * temporary file that replaces the file afterwards. If the writer is still busy
+ * when a new checkpoint arrives, only the newest of the waiting checkpoints is
+ * written
+ *
+ * The methods of a writer are called by the training thread only, the file is
+ * written exclusively by the background thread of the writer
+ */
+public class CheckpointWriter {
+
+	private final Path FILE_PATH;
+	private final Path TEMPORARY_FILE_PATH;
+
+	// newest serialised checkpoint that has not been written yet
+	private final AtomicReference<byte[]> pendingCheckpoint = new AtomicReference<>();
+	private ExecutorService executor;
+
+	/**
+	 * Creates a writer to the passed file. Neither the directory is created nor a
+	 * thread is started before the first checkpoint is written
+	 *
+	 * @param filePath path of the checkpoint including the directory
+	 */
+	public CheckpointWriter(String filePath) {
+		this.FILE_PATH = Paths.get(filePath).toAbsolutePath();
+		this.TEMPORARY_FILE_PATH = Paths.get(filePath + ".tmp").toAbsolutePath();
+	}
+
+	/**
+	 * Serialises the passed checkpoint on the calling thread and writes it to the
+	 * file on the background thread. Before the first checkpoint is written the
+	 * directory of the file is created if it does not exist
+	 *
+	 * @param checkpoint checkpoint to be written
+	 * @throws IllegalStateException if the directory could not be created
+	 */
+	public void write(TrainingCheckpoint checkpoint) {
+		byte[] serialisedCheckpoint = checkpoint.toByteArray();
+		if (this.executor == null) {
+			this.createDirectory();
+			String threadName = "checkpoint-writer-" + Thread.currentThread().getName();
+			this.executor = Executors.newSingleThreadExecutor(runnable -> {
+				Thread writer = new Thread(runnable, threadName);
+				writer.setDaemon(true);
+				return writer;
+			});
+		}
+		if (this.pendingCheckpoint.getAndSet(serialisedCheckpoint) == null) {
+			this.executor.execute(this::writePendingCheckpoint);
+		}
+	}
+
+	/**
+	 * Waits until all checkpoints have been written and stops the background
+	 * thread. The writer can still be written to afterwards in which case the
+	 * thread is started again
+	 */
+	public void close() {
+		if (this.executor == null) {
+			return;
+		}
+		this.executor.shutdown();
+		try {
+			this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("writing the checkpoint was interrupted", e);
+		}
+		this.executor = null;
+	}
+
+	/**
+	 * Creates the directory of the file on the calling thread so that a missing
+	 * directory fails the run instead of every background write
+	 */
+	private void createDirectory() {
+		try {
+			Files.createDirectories(this.FILE_PATH.getParent());
+		} catch (IOException e) {
+			throw new IllegalStateException("directory of the checkpoint could not be created: " + this.FILE_PATH, e);
+		}
+	}
+
+	private void writePendingCheckpoint() {
+		byte[] serialisedCheckpoint = this.pendingCheckpoint.getAndSet(null);
+		ByteBuffer buffer = ByteBuffer.wrap(serialisedCheckpoint);
+		try (FileChannel channel = FileChannel.open(this.TEMPORARY_FILE_PATH, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return;
+		}
+		try {
+			Files.move(this.TEMPORARY_FILE_PATH, this.FILE_PATH, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+package pack;
+
+/**
+ * Transposition table that can be read and written by multiple threads, used
+ * by the parallel construction of {@link MinimaxAlgorithm}. The states are
+ * distributed among a fixed number of stripes, every stripe is a
+ * {@link TranspositionTable} guarded by its own lock, thus threads only block
+ * each other if they access states of the same stripe
+ */
+public class ConcurrentTranspositionTable {
+
+	private final TranspositionTable[] STRIPES;
+	private final int STRIPE_SHIFT;
+
+	/**
+	 * Creates an empty table with the passed number of stripes
+	 *
+	 * @param numberOfStripes number of independently locked stripes, has to be a
+	 *                        power of two
+	 */
+	public ConcurrentTranspositionTable(int numberOfStripes) {
+		if (numberOfStripes <= 0 || Integer.bitCount(numberOfStripes) != 1) {
+			throw new IllegalArgumentException("number of stripes " + numberOfStripes + " is not a power of two");
+		}
+		this.STRIPES = new TranspositionTable[numberOfStripes];
+		for (int i = 0; i < numberOfStripes; i++) {
+			this.STRIPES[i] = new TranspositionTable();
+		}
+		this.STRIPE_SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros(numberOfStripes);
+	}
+
+	/**
+	 * Returns the packed entry of the passed state
+	 *
+	 * @param state for that the entry is to be retrieved
+	 * @return packed entry, {@link TranspositionTable#NO_ENTRY} if the state is
+	 *         not in the table
+	 */
+	public int retrieveEntry(int state) {
+		TranspositionTable stripe = this.getStripe(state);
+		synchronized (stripe) {
+			return stripe.retrieveEntry(state);
+		}
+	}
+
+	/**
+	 * Stores the passed packed entry for the passed state
+	 *
+	 * @param state          for that the entry is to be stored
+	 * @param entryToBeAdded packed entry, see
+	 *                       {@link TranspositionTable#packEntry(int, int, int)}
+	 */
+	public void putEntry(int state, int entryToBeAdded) {
+		TranspositionTable stripe = this.getStripe(state);
+		synchronized (stripe) {
+			stripe.putEntry(state, entryToBeAdded);
+		}
+	}
+
+	/**
+	 * Stores every entry of this table in the passed table. Must not be called
+	 * while other threads still write to this table
+	 *
+	 * @param targetTable table the entries are copied to
+	 */
+	public void copyEntriesTo(TranspositionTable targetTable) {
+		for (TranspositionTable stripe : this.STRIPES) {
+			synchronized (stripe) {
+				stripe.copyEntriesTo(targetTable);
+			}
+		}
+	}
+
+	public int getSize() {
+		int size = 0;
+		for (TranspositionTable stripe : this.STRIPES) {
+			synchronized (stripe) {
+				size += stripe.getSize();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Selects the stripe of the passed state. The hash differs from the one of
+	 * {@link TranspositionTable} so that the states of a stripe are still spread
+	 * over all of its slots. For a single stripe the shift is a no-op and the
+	 * mask selects stripe 0
+	 */
+	private TranspositionTable getStripe(int state) {
+		return this.STRIPES[((state * 0x85EBCA6B) >>> this.STRIPE_SHIFT) & (this.STRIPES.length - 1)];
+	}
+
+}
@@ -0,0 +1,342 @@
+package pack;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * WTable that stores the wValues of the afterstates in a primitive array
+ * instead of HashMaps. The afterstate of a state-action tuple is not cached but
+ * calculated arithmetically using {@link Gamefield#applyAction(int, int)}. The
+ * array is indexed by the dense index of the afterstate provided by
+ * {@link StateIndex}
+ * 
+ * The initialisation semantics are identical to {@link WTable}, including the
+ * option to key the wValues by the canonical afterstates
+ */
+public class DenseWTable implements Experience {
+
+	private static final long serialVersionUID = -3125436094857108542L;
+	private final double INITIAL_WVALUE;
+	private final boolean USE_CANONICAL_AFTERSTATES;
+
+	private final double[] wValues = new double[StateIndex.getNumberOfStates()];
+	private final boolean[] initialisedAfterstates = new boolean[StateIndex.getNumberOfStates()];
+	private final boolean[] visitedStates = new boolean[StateIndex.getNumberOfStates()];
+	private int numberOfInitialisedAfterstates = 0;
+	private int numberOfVisitedStates = 0;
+
+	public DenseWTable(double initialWValue) {
+		this(initialWValue, false);
+	}
+
+	/**
+	 * Creates a table that keys its wValues either by the afterstates or by their
+	 * canonical states
+	 * 
+	 * @param initialWValue           wValue of afterstates that have not been
+	 *                                updated yet
+	 * @param useCanonicalAfterstates true if the wValues are keyed by the
+	 *                                canonical afterstates
+	 * @see WTable#WTable(double, boolean)
+	 */
+	public DenseWTable(double initialWValue, boolean useCanonicalAfterstates) {
+		this.INITIAL_WVALUE = initialWValue;
+		this.USE_CANONICAL_AFTERSTATES = useCanonicalAfterstates;
+	}
+
+	/**
+	 * If the state has not been visited yet, this method marks it as visited and
+	 * initialises all afterstates reachable from it with the default wValue if they
+	 * are not initialised already. If legalActions is empty a terminal state is
+	 * assumed and its wValue is set to QVALUE_TERMINAL_STATE
+	 * 
+	 * @param state        that the action is currently in
+	 * @param legalActions actions that are legal in the state, if legalActions is
+	 *                     empty a terminal state is assumed
+	 */
+	@Override
+	public void initialiseQTableEntryIfNotExistent(int state, int[] legalActions) {
+		if (legalActions.length == 0) {
+			// terminal states are never marked as visited, see WTable
+			this.setWValue(this.getDenseIndexOfAfterstate(state), QVALUE_TERMINAL_STATE);
+			return;
+		}
+
+		int denseIndexOfState = StateIndex.getIndex(state);
+		if (this.visitedStates[denseIndexOfState]) {
+			return;
+		}
+		this.visitedStates[denseIndexOfState] = true;
+		this.numberOfVisitedStates++;
+
+		for (int legalAction : legalActions) {
+			int denseIndexOfAfterstate = this.getDenseIndexOfAfterstate(Gamefield.applyAction(state, legalAction));
+
+			if (!this.initialisedAfterstates[denseIndexOfAfterstate]) {
+				this.setWValue(denseIndexOfAfterstate, this.INITIAL_WVALUE);
+			}
+		}
+	}
+
+	/**
+	 * Update the wValue of the afterstate that results from the given state-action
+	 * tuple
+	 * 
+	 * @param state     of the state-action tuple to be updated
+	 * @param action    of the state-action tuple to be updated
+	 * @param newQValue new new qvalue of the state-action tuple
+	 */
+	@Override
+	public void updateQTableValue(int state, int action, double newQValue) {
+		this.setWValue(this.getDenseIndexOfAfterstate(state, action), newQValue);
+	}
+
+	/**
+	 * Get the best action out of the set of legal actions for the given state. Best
+	 * action means the state-action tuple that results in the afterstate with the
+	 * highest wValue, ties are broken arbitrarily. The tied actions are collected
+	 * in a bitmask so that no list has to be allocated
+	 * 
+	 * @param state        for that the best action is to be given
+	 * @param legalActions set of actions that are legal in this state
+	 * @return action with the highest wValue
+	 */
+	@Override
+	public int getBestAction(int state, int[] legalActions) {
+		if (legalActions.length == 0) {
+			throw new IllegalArgumentException(
+					"empty array was passed thus no optimal action available; method is not applicable for terminal states");
+		}
+
+		int bestActionsMask = 0;
+		double bestWValue = Double.NEGATIVE_INFINITY;
+
+		for (int legalAction : legalActions) {
+			double wValueOfAfterstate = this.wValues[this.getDenseIndexOfAfterstate(state, legalAction)];
+
+			if (wValueOfAfterstate == bestWValue) {
+				bestActionsMask |= 1 << legalAction;
+			} else if (wValueOfAfterstate > bestWValue) {
+				bestActionsMask = 1 << legalAction;
+				bestWValue = wValueOfAfterstate;
+			}
+		}
+		return Utility.getRandomSetBit(bestActionsMask);
+	}
+
+	/**
+	 * Returns one or more actions out of the set of legal actions that result in
+	 * the afterstate with the highest wValue
+	 * 
+	 * @param state        for that the best action is to be given
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest wValue
+	 */
+	@Override
+	public ArrayList<Integer> getBestActions(int state, int[] legalActions) {
+		if (legalActions.length == 0) {
+			throw new IllegalArgumentException(
+					"empty array was passed thus no optimal action available; method is not applicable for terminal states");
+		}
+
+		ArrayList<Integer> bestActions = new ArrayList<>();
+		double bestWValue = Double.NEGATIVE_INFINITY;
+
+		for (int legalAction : legalActions) {
+			double wValueOfAfterstate = this.wValues[this.getDenseIndexOfAfterstate(state, legalAction)];
+
+			if (wValueOfAfterstate == bestWValue) {
+				bestActions.add(legalAction);
+			} else if (wValueOfAfterstate > bestWValue) {
+				bestActions.clear();
+				bestActions.add(legalAction);
+				bestWValue = wValueOfAfterstate;
+			}
+		}
+		return bestActions;
+	}
+
+	/**
+	 * Returns the best actions like {@link #getBestActions(int, int[])} without
+	 * modifying the table. If the state has not been visited, the afterstates are
+	 * calculated and afterstates without a wValue have the initial wValue
+	 * 
+	 * @param state        for that the best actions are to be given
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest wValue
+	 */
+	@Override
+	public ArrayList<Integer> getBestActionsWithoutInitialising(int state, int[] legalActions) {
+		if (this.visitedStates[StateIndex.getIndex(state)]) {
+			return this.getBestActions(state, legalActions);
+		}
+
+		ArrayList<Integer> bestActions = new ArrayList<>();
+		double bestWValue = Double.NEGATIVE_INFINITY;
+
+		for (int legalAction : legalActions) {
+			int denseIndexOfAfterstate = this.getDenseIndexOfAfterstate(Gamefield.applyAction(state, legalAction));
+			double wValueOfAfterstate = this.initialisedAfterstates[denseIndexOfAfterstate]
+					? this.wValues[denseIndexOfAfterstate]
+					: this.INITIAL_WVALUE;
+
+			if (wValueOfAfterstate == bestWValue) {
+				bestActions.add(legalAction);
+			} else if (wValueOfAfterstate > bestWValue) {
+				bestActions.clear();
+				bestActions.add(legalAction);
+				bestWValue = wValueOfAfterstate;
+			}
+		}
+		return bestActions;
+	}
+
+	/**
+	 * Returns the qValue that is assigned to terminal states, this is 0 by
+	 * definition
+	 */
+	@Override
+	public double getQValueOfTerminalState() {
+		return Experience.QVALUE_TERMINAL_STATE;
+	}
+
+	/**
+	 * Returns the qValue for the given state-action tuple by calculating the
+	 * resulting afterstate and looking up its value in the array of wValues
+	 */
+	@Override
+	public double getQValue(int state, int action) {
+		return this.wValues[this.getDenseIndexOfAfterstate(state, action)];
+	}
+
+	/**
+	 * Returns the number of distinct non-terminal states the agent has visited so
+	 * far
+	 * 
+	 * @return number of distinct states the agent has visited
+	 */
+	@Override
+	public int getNumberOfDistinctVisitedStates() {
+		return this.numberOfVisitedStates;
+	}
+
+	/**
+	 * Returns the number of afterstates that have been assigned a wValue
+	 * 
+	 * @see WTable#getNumberOfInitialisedAfterstates()
+	 */
+	public int getNumberOfInitialisedAfterstates() {
+		return this.numberOfInitialisedAfterstates;
+	}
+
+	/**
+	 * Returns a HashMap that contains all legalActions mapped to the wValue of
+	 * their respective afterstate for the given state
+	 * 
+	 * @param state for that the action-qValue map is to be returned
+	 * @return action-qValue map for the given state
+	 */
+	@Override
+	public HashMap<Integer, Double> getActionQValueMapForState(int state) {
+		int[] legalActions = Gamefield.getlegalActionsToState(state);
+
+		if (legalActions.length == 0) {
+			throw new IllegalArgumentException(
+					"empty array thus terminal state is assumed; every action in a terminal state has qValue of 0 by definition");
+		}
+
+		HashMap<Integer, Double> actionQValueMap = new HashMap<>();
+		for (int legalAction : legalActions) {
+			actionQValueMap.put(legalAction, this.getQValue(state, legalAction));
+		}
+		return actionQValueMap;
+	}
+
+	/**
+	 * Calculates the dense index of the afterstate that results from the passed
+	 * state-action tuple. The state must have been visited already, otherwise the
+	 * afterstate has no value according to the TD algorithm
+	 * 
+	 * @param state  of the state-action tuple
+	 * @param action of the state-action tuple
+	 * @return dense index of the resulting afterstate
+	 */
+	private int getDenseIndexOfAfterstate(int state, int action) {
+		if (!this.visitedStates[StateIndex.getIndex(state)]) {
+			throw new NullPointerException(
+					"state has not been initialised yet; According to the TD algorithm this state should not be accessed");
+		}
+		return this.getDenseIndexOfAfterstate(Gamefield.applyAction(state, action));
+	}
+
+	/**
+	 * Returns the dense index under which the wValue of the passed afterstate is
+	 * stored, i.e. the index of the afterstate itself or of its canonical state
+	 * 
+	 * @param afterstate state that results from a state-action tuple
+	 * @return dense index of the key of the afterstate
+	 */
+	private int getDenseIndexOfAfterstate(int afterstate) {
+		return StateIndex
+				.getIndex(this.USE_CANONICAL_AFTERSTATES ? BoardSymmetry.getCanonicalState(afterstate) : afterstate);
+	}
+
+	private void setWValue(int denseIndex, double wValue) {
+		if (!this.initialisedAfterstates[denseIndex]) {
+			this.initialisedAfterstates[denseIndex] = true;
+			this.numberOfInitialisedAfterstates++;
+		}
+		this.wValues[denseIndex] = wValue;
+	}
+
+	double getInitialWValue() {
+		return this.INITIAL_WVALUE;
+	}
+
+	boolean usesCanonicalAfterstates() {
+		return this.USE_CANONICAL_AFTERSTATES;
+	}
+
+	/**
+	 * Returns all non-terminal states that have been visited, used to write a
+	 * snapshot of the table
+	 * 
+	 * @return visited states in ascending order of their dense index
+	 */
+	int[] getVisitedStates() {
+		int[] states = new int[this.numberOfVisitedStates];
+		int i = 0;
+		for (int denseIndex = 0; denseIndex < this.visitedStates.length; denseIndex++) {
+			if (this.visitedStates[denseIndex]) {
+				states[i++] = StateIndex.getState(denseIndex);
+			}
+		}
+		return states;
+	}
+
+	/**
+	 * Passes every afterstate with its wValue to the passed consumer, used to write
+	 * a snapshot of the table
+	 * 
+	 * @param consumer receives the afterstate and its wValue
+	 */
+	void forEachWValue(ExperienceSnapshot.EntryConsumer consumer) {
+		for (int denseIndex = 0; denseIndex < this.wValues.length; denseIndex++) {
+			if (this.initialisedAfterstates[denseIndex]) {
+				consumer.accept(StateIndex.getState(denseIndex), this.wValues[denseIndex]);
+			}
+		}
+	}
+
+	/**
+	 * Sets the wValue of the passed afterstate, used to restore the table from a
+	 * snapshot after the visited states have been initialised
+	 * 
+	 * @param afterstate whose wValue is set
+	 * @param wValue     of the afterstate
+	 */
+	void restoreWValue(int afterstate, double wValue) {
+		this.setWValue(StateIndex.getIndex(afterstate), wValue);
+	}
+
+}
@@ -1,6 +1,10 @@
 package pack;
 
-public class EpisodeAgentTracker {
+import java.io.Serializable;
+
+public class EpisodeAgentTracker implements Serializable {
+
+	private static final long serialVersionUID = 7520941688237419053L;
 	private final Symbol AGENT;
 	private int currentEpisode;
 	private int currentBatch;
@@ -135,6 +139,10 @@ public class EpisodeAgentTracker {
 		this.numberOfAgentActions++;
 	}
 
+	public void setNumberOfAgentActions(int numberOfAgentActions) {
+		this.numberOfAgentActions = numberOfAgentActions;
+	}
+
 	public int getNumberOfExploratoryActions() {
 		return this.numberOfExploratoryActions;
 	}
@@ -151,6 +159,10 @@ public class EpisodeAgentTracker {
 		this.numberOfOptimalActions++;
 	}
 
+	public void setNumberOfOptimalActions(int numberOfOptimalActions) {
+		this.numberOfOptimalActions = numberOfOptimalActions;
+	}
+
 	public int getNumberOfOptimalActionsWOExploration() {
 		return this.numberOfOptimalActionsWOExploration;
 	}
@@ -159,6 +171,10 @@ public class EpisodeAgentTracker {
 		this.numberOfOptimalActionsWOExploration++;
 	}
 
+	public void setNumberOfOptimalActionsWOExploration(int numberOfOptimalActionsWOExploration) {
+		this.numberOfOptimalActionsWOExploration = numberOfOptimalActionsWOExploration;
+	}
+
 	public float getReward() {
 		return this.reward;
 	}
@@ -0,0 +1,56 @@
+package pack;
+
+import java.util.LinkedList;
+
+/**
+ * Result of a single episode played during the evaluation of an agent. The
+ * results are created independently of each other and tracked and logged
+ * afterwards in the order of the episodes, see
+ * {@link GameManager#playEvaluationEpisode(AgentRLTD, Symbol, boolean, Gamefield, int, boolean)}
+ */
+public class EvaluationEpisode {
+	private final GameStatus RESULT;
+	private final int NUMBER_OF_PLIES;
+	private final int NUMBER_OF_AGENT_ACTIONS;
+	private final int NUMBER_OF_OPTIMAL_ACTIONS;
+	private final LinkedList<PlyRecord> PLY_RECORDS;
+
+	/**
+	 * @param result                 status the episode ended with
+	 * @param numberOfPlies          number of plies of both players
+	 * @param numberOfAgentActions   number of actions the evaluated agent took
+	 * @param numberOfOptimalActions number of actions of the evaluated agent
+	 *                               that were optimal according to minimax
+	 * @param plyRecords             records of all plies, null if no ply logs are
+	 *                               generated
+	 */
+	public EvaluationEpisode(GameStatus result, int numberOfPlies, int numberOfAgentActions,
+			int numberOfOptimalActions, LinkedList<PlyRecord> plyRecords) {
+		this.RESULT = result;
+		this.NUMBER_OF_PLIES = numberOfPlies;
+		this.NUMBER_OF_AGENT_ACTIONS = numberOfAgentActions;
+		this.NUMBER_OF_OPTIMAL_ACTIONS = numberOfOptimalActions;
+		this.PLY_RECORDS = plyRecords;
+	}
+
+	public GameStatus getResult() {
+		return this.RESULT;
+	}
+
+	public int getNumberOfPlies() {
+		return this.NUMBER_OF_PLIES;
+	}
+
+	public int getNumberOfAgentActions() {
+		return this.NUMBER_OF_AGENT_ACTIONS;
+	}
+
+	public int getNumberOfOptimalActions() {
+		return this.NUMBER_OF_OPTIMAL_ACTIONS;
+	}
+
+	public LinkedList<PlyRecord> getPlyRecords() {
+		return this.PLY_RECORDS;
+	}
+
+}
@@ -0,0 +1,81 @@
+package pack;
+
+/**
+ * Exact result of the evaluation of an agent calculated by the
+ * {@link ExactEvaluator}. All values are expected values of a single episode
+ */
+public class ExactEvaluationResult {
+	private final Symbol AGENT;
+	private final double PROBABILITY_WIN_X;
+	private final double PROBABILITY_WIN_O;
+	private final double PROBABILITY_DRAW;
+	private final double EXPECTED_NUMBER_OF_PLIES;
+	private final double EXPECTED_NUMBER_OF_AGENT_ACTIONS;
+	private final double EXPECTED_NUMBER_OF_OPTIMAL_ACTIONS;
+	private final double EXPECTED_REWARD;
+
+	public ExactEvaluationResult(Symbol agent, double probabilityWinX, double probabilityWinO,
+			double probabilityDraw, double expectedNumberOfPlies, double expectedNumberOfAgentActions,
+			double expectedNumberOfOptimalActions, double expectedReward) {
+		this.AGENT = agent;
+		this.PROBABILITY_WIN_X = probabilityWinX;
+		this.PROBABILITY_WIN_O = probabilityWinO;
+		this.PROBABILITY_DRAW = probabilityDraw;
+		this.EXPECTED_NUMBER_OF_PLIES = expectedNumberOfPlies;
+		this.EXPECTED_NUMBER_OF_AGENT_ACTIONS = expectedNumberOfAgentActions;
+		this.EXPECTED_NUMBER_OF_OPTIMAL_ACTIONS = expectedNumberOfOptimalActions;
+		this.EXPECTED_REWARD = expectedReward;
+	}
+
+	/**
+	 * Returns the expected share of the actions of the agent that are optimal
+	 * according to minimax. This is the limit of the ratio of the total number of
+	 * optimal actions to the total number of actions over many episodes
+	 *
+	 * @return expected rate of optimal actions
+	 */
+	public double getOptimalActionRate() {
+		return this.EXPECTED_NUMBER_OF_OPTIMAL_ACTIONS / this.EXPECTED_NUMBER_OF_AGENT_ACTIONS;
+	}
+
+	public double getProbabilityWin() {
+		return this.AGENT.isX() ? this.PROBABILITY_WIN_X : this.PROBABILITY_WIN_O;
+	}
+
+	public double getProbabilityLoss() {
+		return this.AGENT.isX() ? this.PROBABILITY_WIN_O : this.PROBABILITY_WIN_X;
+	}
+
+	public Symbol getAGENT() {
+		return this.AGENT;
+	}
+
+	public double getProbabilityWinX() {
+		return this.PROBABILITY_WIN_X;
+	}
+
+	public double getProbabilityWinO() {
+		return this.PROBABILITY_WIN_O;
+	}
+
+	public double getProbabilityDraw() {
+		return this.PROBABILITY_DRAW;
+	}
+
+	public double getExpectedNumberOfPlies() {
+		return this.EXPECTED_NUMBER_OF_PLIES;
+	}
+
+	public double getExpectedNumberOfAgentActions() {
+		return this.EXPECTED_NUMBER_OF_AGENT_ACTIONS;
+	}
+
+	public double getExpectedNumberOfOptimalActions() {
+		return this.EXPECTED_NUMBER_OF_OPTIMAL_ACTIONS;
+	}
+
+	public double getExpectedReward() {
+		return this.EXPECTED_REWARD;
+	}
+
+}
@@ -0,0 +1,161 @@
+package pack;
+
+import java.util.List;
+
+/**
+ * Computes the exact outcome of the evaluation of a greedy agent instead of
+ * sampling episodes. Against the random player and against minimax with
+ * arbitrary tie-breaking the evaluation is a finite stochastic game over the
+ * reachable states, thus the probabilities of every result as well as the
+ * expected numbers of actions can be calculated by a single pass over the
+ * gametree in which the values of every state are memoised
+ *
+ * The agent chooses uniformly among its greedy actions, see
+ * {@link AgentRLTD#getGreedyActions(int, int[])}, which corresponds to the
+ * tie-breaking in {@link Experience#getBestAction(int, int[])}. The opponent
+ * chooses uniformly among all legal actions or among the optimal actions
+ * according to minimax respectively
+ */
+public class ExactEvaluator {
+
+	private final AgentRLTD AGENT;
+	private final Symbol SYMBOL_TO_EVALUATE;
+	private final boolean EVALUATE_AGAINST_MINIMAX;
+
+	// expected values of every state indexed by StateIndex#getIndex(int)
+	private final boolean[] isStateEvaluated;
+	private final double[] probabilityWinX;
+	private final double[] probabilityWinO;
+	private final double[] probabilityDraw;
+	private final double[] expectedNumberOfPlies;
+	private final double[] expectedNumberOfAgentActions;
+	private final double[] expectedNumberOfOptimalActions;
+	private final double[] expectedReward;
+
+	private ExactEvaluator(AgentRLTD agent, Symbol symbolToEvaluate, boolean evaluateAgainstMinimax) {
+		this.AGENT = agent;
+		this.SYMBOL_TO_EVALUATE = symbolToEvaluate;
+		this.EVALUATE_AGAINST_MINIMAX = evaluateAgainstMinimax;
+
+		int numberOfStates = StateIndex.getNumberOfStates();
+		this.isStateEvaluated = new boolean[numberOfStates];
+		this.probabilityWinX = new double[numberOfStates];
+		this.probabilityWinO = new double[numberOfStates];
+		this.probabilityDraw = new double[numberOfStates];
+		this.expectedNumberOfPlies = new double[numberOfStates];
+		this.expectedNumberOfAgentActions = new double[numberOfStates];
+		this.expectedNumberOfOptimalActions = new double[numberOfStates];
+		this.expectedReward = new double[numberOfStates];
+	}
+
+	/**
+	 * Evaluates the agent as the passed symbol either against minimax or a random
+	 * player. The agent is evaluated greedily through its evaluation view, see
+	 * {@link AgentRLTD#createEvaluationView()}, thus its experience is not
+	 * modified
+	 *
+	 * @param agent                  agent to evaluate
+	 * @param symbolToEvaluate       symbol the agent plays during the evaluation
+	 * @param evaluateAgainstMinimax true if agent should play against minimax,
+	 *                               false if agent should play against random
+	 *                               player
+	 * @return exact result of the evaluation
+	 */
+	public static ExactEvaluationResult evaluate(AgentRLTD agent, Symbol symbolToEvaluate,
+			boolean evaluateAgainstMinimax) {
+		ExactEvaluator evaluator = new ExactEvaluator(agent.createEvaluationView(), symbolToEvaluate,
+				evaluateAgainstMinimax);
+		final int EMPTY_GAMEFIELD = 0;
+		int index = evaluator.evaluateState(EMPTY_GAMEFIELD);
+
+		return new ExactEvaluationResult(symbolToEvaluate, evaluator.probabilityWinX[index],
+				evaluator.probabilityWinO[index], evaluator.probabilityDraw[index],
+				evaluator.expectedNumberOfPlies[index], evaluator.expectedNumberOfAgentActions[index],
+				evaluator.expectedNumberOfOptimalActions[index], evaluator.expectedReward[index]);
+	}
+
+	/**
+	 * Calculates the expected values of the passed state if they have not been
+	 * calculated yet. The expected values of a state are the average of the
+	 * expected values of its successors weighted by the probability that the
+	 * symbol to move chooses the respective action
+	 *
+	 * @param state reachable state
+	 * @return index of the state in the arrays of expected values
+	 */
+	private int evaluateState(int state) {
+		int index = StateIndex.getIndex(state);
+		if (this.isStateEvaluated[index]) {
+			return index;
+		}
+
+		int[] legalActions = StateLookupTable.getLegalActions(state);
+		if (legalActions.length == 0) {
+			this.evaluateTerminalState(state, index);
+			return index;
+		}
+
+		boolean isAgentToMove = Gamefield.getCurrentTurnsSymbol(state) == this.SYMBOL_TO_EVALUATE;
+		int optimalActionsMask = GameManager.getMinimax().getBestActionsMask(state);
+		List<Integer> possibleActions;
+
+		if (isAgentToMove) {
+			possibleActions = this.AGENT.getGreedyActions(state, legalActions);
+		} else if (this.EVALUATE_AGAINST_MINIMAX) {
+			possibleActions = GameManager.getMinimax().getBestActions(state);
+		} else {
+			// the random player chooses among all legal actions
+			possibleActions = null;
+		}
+
+		int numberOfPossibleActions = possibleActions == null ? legalActions.length : possibleActions.size();
+		double probabilityOfAction = 1d / numberOfPossibleActions;
+
+		for (int i = 0; i < numberOfPossibleActions; i++) {
+			int action = possibleActions == null ? legalActions[i] : possibleActions.get(i);
+			int successorIndex = this.evaluateState(Gamefield.applyAction(state, action));
+
+			this.probabilityWinX[index] += probabilityOfAction * this.probabilityWinX[successorIndex];
+			this.probabilityWinO[index] += probabilityOfAction * this.probabilityWinO[successorIndex];
+			this.probabilityDraw[index] += probabilityOfAction * this.probabilityDraw[successorIndex];
+			this.expectedNumberOfPlies[index] += probabilityOfAction * this.expectedNumberOfPlies[successorIndex];
+			this.expectedNumberOfAgentActions[index] += probabilityOfAction
+					* this.expectedNumberOfAgentActions[successorIndex];
+			this.expectedNumberOfOptimalActions[index] += probabilityOfAction
+					* this.expectedNumberOfOptimalActions[successorIndex];
+			this.expectedReward[index] += probabilityOfAction * this.expectedReward[successorIndex];
+
+			if (isAgentToMove && GameManager.isActionOptimalAccordingToMinimax(action, optimalActionsMask)) {
+				this.expectedNumberOfOptimalActions[index] += probabilityOfAction;
+			}
+		}
+
+		if (isAgentToMove) {
+			this.expectedNumberOfAgentActions[index] += 1;
+		}
+		this.isStateEvaluated[index] = true;
+		return index;
+	}
+
+	/**
+	 * Sets the expected values of the passed terminal state. The number of plies
+	 * equals the number of occupied slots
+	 *
+	 * @param state terminal state
+	 * @param index index of the state in the arrays of expected values
+	 */
+	private void evaluateTerminalState(int state, int index) {
+		final boolean useDepthpenalty = true;
+		GameStatus result = StateLookupTable.getGameStatus(state);
+		int numberOfPlies = Integer.bitCount(state);
+
+		this.probabilityWinX[index] = result == GameStatus.WIN_X ? 1 : 0;
+		this.probabilityWinO[index] = result == GameStatus.WIN_O ? 1 : 0;
+		this.probabilityDraw[index] = result == GameStatus.DRAW ? 1 : 0;
+		this.expectedNumberOfPlies[index] = numberOfPlies;
+		this.expectedReward[index] = GameManager.calculateFinalReward(useDepthpenalty, result,
+				this.SYMBOL_TO_EVALUATE, numberOfPlies);
+		this.isStateEvaluated[index] = true;
+	}
+
+}
@@ -1,8 +1,16 @@
 package pack;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
 
+/**
+ * Values of the states or state-action tuples an agent learns. The int methods
+ * take the 18 bit state of {@link Gamefield}. The long methods take the state
+ * key of larger gamefields, see {@link MNKGamefield#getStateKey()}, and are used
+ * by the agents for all gamefields. Experiences that are bound to the int state
+ * narrow the key and reject keys that exceed it
+ */
 public interface Experience extends Serializable {
 	static final double QVALUE_TERMINAL_STATE = 0d;
 
@@ -12,6 +20,8 @@ public interface Experience extends Serializable {
 
 	int getBestAction(int state, int[] legalActions);
 
+	ArrayList<Integer> getBestActions(int state, int[] legalActions);
+
 	double getQValueOfTerminalState();
 
 	double getQValue(int state, int action);
@@ -20,4 +30,59 @@ public interface Experience extends Serializable {
 	
 	HashMap<Integer, Double> getActionQValueMapForState(int state);
 
+	/**
+	 * Returns the best actions like {@link #getBestActions(int, int[])} without
+	 * modifying the experience. A state that has not been initialised is treated
+	 * as if it had been initialised, i.e. its missing values are the initial
+	 * value. Used by read-only evaluations, which might read the experience
+	 * concurrently, see {@link AgentRLTD#createEvaluationView()}
+	 * 
+	 * @param state        for that the best actions are to be given
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest value
+	 */
+	ArrayList<Integer> getBestActionsWithoutInitialising(int state, int[] legalActions);
+
+	default void initialiseQTableEntryIfNotExistent(long state, int[] legalActions) {
+		this.initialiseQTableEntryIfNotExistent(Experience.toIntState(state), legalActions);
+	}
+
+	default void updateQTableValue(long state, int action, double newQValue) {
+		this.updateQTableValue(Experience.toIntState(state), action, newQValue);
+	}
+
+	default int getBestAction(long state, int[] legalActions) {
+		return this.getBestAction(Experience.toIntState(state), legalActions);
+	}
+
+	default double getQValue(long state, int action) {
+		return this.getQValue(Experience.toIntState(state), action);
+	}
+
+	default ArrayList<Integer> getBestActions(long state, int[] legalActions) {
+		return this.getBestActions(Experience.toIntState(state), legalActions);
+	}
+
+	default ArrayList<Integer> getBestActionsWithoutInitialising(long state, int[] legalActions) {
+		return this.getBestActionsWithoutInitialising(Experience.toIntState(state), legalActions);
+	}
+
+	default HashMap<Integer, Double> getActionQValueMapForState(long state) {
+		return this.getActionQValueMapForState(Experience.toIntState(state));
+	}
+
+	/**
+	 * Narrows the passed state key to the int state of {@link Gamefield}
+	 *
+	 * @param state state key
+	 * @return state as int
+	 * @throws IllegalArgumentException if the key does not fit into an int
+	 */
+	private static int toIntState(long state) {
+		if (state != (int) state) {
+			throw new IllegalArgumentException("state key " + state + " exceeds the int state of this experience");
+		}
+		return (int) state;
+	}
+
 }
@@ -0,0 +1,361 @@
+package pack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Versioned binary snapshot of an experience that replaces Java serialisation.
+ * A snapshot only contains primitive values in little-endian byte order and
+ * does not depend on the classes of the experience, thus it remains readable if
+ * the classes change
+ *
+ * Header (32 bytes): magic number (int), version (short), table type (byte),
+ * flags (byte) whose lowest bit is set if the experience is reduced by the
+ * symmetries of the gamefield, initial value (double), number of visited
+ * states (int), number of entries (int), reserved (8 bytes)
+ *
+ * The header is followed by the visited states (int each) and the entries
+ * (int key, double value). The key of an entry is state * GAMEFIELD_SIZE +
+ * action for qTables and the afterstate for wTables. Snapshots are written
+ * through a file channel and read from a memory-mapped file
+ */
+public final class ExperienceSnapshot {
+
+	public static final String FILE_EXTENSION = ".snap";
+
+	private static final int MAGIC_NUMBER = 0x54545853;
+	private static final short VERSION = 1;
+	private static final int HEADER_SIZE = 32;
+	private static final int STATE_SIZE = Integer.BYTES;
+	private static final int ENTRY_SIZE = Integer.BYTES + Double.BYTES;
+	private static final int FLAG_SYMMETRIC = 1;
+
+	private static final byte TABLE_TYPE_QTABLE = 1;
+	private static final byte TABLE_TYPE_WTABLE = 2;
+	private static final byte TABLE_TYPE_PRIMITIVE_QTABLE = 3;
+	private static final byte TABLE_TYPE_DENSE_WTABLE = 4;
+	private static final byte TABLE_TYPE_MAPPED_QTABLE = 5;
+
+	/**
+	 * Receives the entries of an experience when a snapshot is written
+	 */
+	interface EntryConsumer {
+		void accept(int key, double value);
+	}
+
+	private ExperienceSnapshot() {
+	}
+
+	/**
+	 * Converts the passed files of serialised experiences to snapshots next to
+	 * them that have the same name but the extension {@link #FILE_EXTENSION}
+	 *
+	 * @param args paths of the serialised experiences
+	 */
+	public static void main(String[] args) {
+		if (args.length == 0) {
+			System.out.println("usage: ExperienceSnapshot <serialised experience> [<serialised experience> ...]");
+			return;
+		}
+		for (String serialisedFilePath : args) {
+			String snapshotFilePath = serialisedFilePath.replaceFirst("\\.ser$", "") + FILE_EXTENSION;
+			ExperienceSnapshot.convertSerialisedExperience(serialisedFilePath, snapshotFilePath);
+			System.out.println("converted " + serialisedFilePath + " to " + snapshotFilePath);
+		}
+	}
+
+	/**
+	 * Converts a file that contains an experience serialised by Java
+	 * serialisation to a snapshot
+	 *
+	 * @param serialisedFilePath path of the serialised experience
+	 * @param snapshotFilePath   path of the snapshot to write
+	 */
+	public static void convertSerialisedExperience(String serialisedFilePath, String snapshotFilePath) {
+		Experience experience = Logger.deserialiseExperienceFromPath(serialisedFilePath);
+		if (experience == null) {
+			throw new IllegalArgumentException("experience could not be deserialised: " + serialisedFilePath);
+		}
+		ExperienceSnapshot.write(experience, snapshotFilePath);
+	}
+
+	/**
+	 * Writes a snapshot of the passed experience to the passed file, an existing
+	 * file is overwritten
+	 *
+	 * @param experience       experience to write
+	 * @param snapshotFilePath path of the snapshot including the directory
+	 */
+	public static void write(Experience experience, String snapshotFilePath) {
+		ByteBuffer buffer = ExperienceSnapshot.encode(experience);
+		try (FileChannel channel = FileChannel.open(Paths.get(snapshotFilePath), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Encodes a snapshot of the passed experience into a new buffer
+	 *
+	 * @param experience experience to encode
+	 * @return buffer that contains the snapshot between its position and limit
+	 */
+	static ByteBuffer encode(Experience experience) {
+		boolean isSymmetric = experience instanceof SymmetricExperience;
+		Experience table = isSymmetric ? ((SymmetricExperience) experience).getDecoratedExperience() : experience;
+
+		byte tableType;
+		double initialValue;
+		int[] visitedStates;
+		EntryCollector entries = new EntryCollector();
+
+		if (table instanceof QTable) {
+			tableType = TABLE_TYPE_QTABLE;
+			initialValue = ((QTable) table).getInitialQValue();
+			visitedStates = ((QTable) table).getVisitedStates();
+			((QTable) table).forEachQValue(entries);
+		} else if (table instanceof PrimitiveQTable) {
+			tableType = TABLE_TYPE_PRIMITIVE_QTABLE;
+			initialValue = ((PrimitiveQTable) table).getInitialQValue();
+			visitedStates = ((PrimitiveQTable) table).getVisitedStates();
+			((PrimitiveQTable) table).forEachQValue(entries);
+		} else if (table instanceof MappedQTable) {
+			tableType = TABLE_TYPE_MAPPED_QTABLE;
+			initialValue = ((MappedQTable) table).getInitialQValue();
+			visitedStates = ((MappedQTable) table).getVisitedStates();
+			((MappedQTable) table).forEachQValue(entries);
+		} else if (table instanceof WTable) {
+			tableType = TABLE_TYPE_WTABLE;
+			initialValue = ((WTable) table).getInitialWValue();
+			visitedStates = ((WTable) table).getVisitedStates();
+			((WTable) table).forEachWValue(entries);
+		} else if (table instanceof DenseWTable) {
+			tableType = TABLE_TYPE_DENSE_WTABLE;
+			initialValue = ((DenseWTable) table).getInitialWValue();
+			visitedStates = ((DenseWTable) table).getVisitedStates();
+			((DenseWTable) table).forEachWValue(entries);
+		} else {
+			throw new IllegalArgumentException("snapshots are not supported for " + table.getClass().getSimpleName());
+		}
+
+		ByteBuffer buffer = ByteBuffer
+				.allocate(HEADER_SIZE + visitedStates.length * STATE_SIZE + entries.size() * ENTRY_SIZE)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC_NUMBER);
+		buffer.putShort(VERSION);
+		buffer.put(tableType);
+		buffer.put((byte) (isSymmetric ? FLAG_SYMMETRIC : 0));
+		buffer.putDouble(initialValue);
+		buffer.putInt(visitedStates.length);
+		buffer.putInt(entries.size());
+		buffer.position(HEADER_SIZE);
+
+		for (int state : visitedStates) {
+			buffer.putInt(state);
+		}
+		entries.writeSortedByKey(buffer);
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Reads the experience from the passed snapshot. The file is mapped into
+	 * memory and the values are decoded directly from the mapping. A snapshot of
+	 * a {@link MappedQTable} is restored into a {@link PrimitiveQTable}, which has
+	 * the same semantics, see {@link #read(String, String)}
+	 *
+	 * @param snapshotFilePath path of the snapshot including the directory
+	 * @return experience of the snapshot, null if the file could not be read
+	 */
+	public static Experience read(String snapshotFilePath) {
+		return ExperienceSnapshot.read(snapshotFilePath, null);
+	}
+
+	/**
+	 * Reads the experience from the passed snapshot and restores a snapshot of a
+	 * {@link MappedQTable} into a table that is stored in the passed file
+	 *
+	 * @param snapshotFilePath    path of the snapshot including the directory
+	 * @param mappedTableFilePath path of the file of a restored mapped table; the
+	 *                            file must not contain a table yet. Null to
+	 *                            restore the table on the heap
+	 * @return experience of the snapshot, null if the file could not be read
+	 */
+	public static Experience read(String snapshotFilePath, String mappedTableFilePath) {
+		Path path = Paths.get(snapshotFilePath);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			return ExperienceSnapshot.decode(buffer, mappedTableFilePath);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Decodes the experience of the snapshot between the position and the limit of
+	 * the passed buffer. A snapshot of a {@link MappedQTable} is restored into a
+	 * {@link PrimitiveQTable}, thus decoding does not create any files
+	 *
+	 * @param buffer buffer that contains the snapshot
+	 * @return experience of the snapshot
+	 */
+	static Experience decode(ByteBuffer buffer) {
+		return ExperienceSnapshot.decode(buffer, null);
+	}
+
+	/**
+	 * Decodes the experience of the snapshot between the position and the limit of
+	 * the passed buffer
+	 *
+	 * @param buffer              buffer that contains the snapshot
+	 * @param mappedTableFilePath path of the file a snapshot of a
+	 *                            {@link MappedQTable} is restored into; null to
+	 *                            restore it into a {@link PrimitiveQTable}
+	 * @return experience of the snapshot
+	 */
+	private static Experience decode(ByteBuffer buffer, String mappedTableFilePath) {
+		buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+		long snapshotSize = buffer.remaining();
+		if (snapshotSize < HEADER_SIZE || buffer.getInt(0) != MAGIC_NUMBER) {
+			throw new IllegalArgumentException("file is not an experience snapshot");
+		}
+		if (buffer.getShort(4) != VERSION) {
+			throw new IllegalArgumentException("unsupported version of the experience snapshot: " + buffer.getShort(4));
+		}
+		byte tableType = buffer.get(6);
+		boolean isSymmetric = (buffer.get(7) & FLAG_SYMMETRIC) != 0;
+		double initialValue = buffer.getDouble(8);
+		int numberOfVisitedStates = buffer.getInt(16);
+		int numberOfEntries = buffer.getInt(20);
+
+		if (snapshotSize != HEADER_SIZE + (long) numberOfVisitedStates * STATE_SIZE
+				+ (long) numberOfEntries * ENTRY_SIZE) {
+			throw new IllegalArgumentException("size of the experience snapshot does not match its header");
+		}
+		buffer.position(HEADER_SIZE);
+
+		Experience table;
+		switch (tableType) {
+		case TABLE_TYPE_QTABLE:
+			table = new QTable(initialValue);
+			ExperienceSnapshot.restoreQValues(table, buffer, numberOfVisitedStates, numberOfEntries);
+			break;
+		case TABLE_TYPE_PRIMITIVE_QTABLE:
+			table = new PrimitiveQTable(initialValue);
+			ExperienceSnapshot.restoreQValues(table, buffer, numberOfVisitedStates, numberOfEntries);
+			break;
+		case TABLE_TYPE_MAPPED_QTABLE:
+			if (mappedTableFilePath == null) {
+				table = new PrimitiveQTable(initialValue);
+			} else {
+				if (Paths.get(mappedTableFilePath).toFile().length() > 0) {
+					throw new IllegalArgumentException(
+							"file of the mapped table already contains a table: " + mappedTableFilePath);
+				}
+				table = new MappedQTable(mappedTableFilePath, initialValue);
+			}
+			ExperienceSnapshot.restoreQValues(table, buffer, numberOfVisitedStates, numberOfEntries);
+			break;
+		case TABLE_TYPE_WTABLE:
+			WTable wTable = new WTable(initialValue, isSymmetric);
+			ExperienceSnapshot.restoreVisitedStates(wTable, buffer, numberOfVisitedStates);
+			for (int i = 0; i < numberOfEntries; i++) {
+				wTable.restoreWValue(buffer.getInt(), buffer.getDouble());
+			}
+			table = wTable;
+			break;
+		case TABLE_TYPE_DENSE_WTABLE:
+			DenseWTable denseWTable = new DenseWTable(initialValue, isSymmetric);
+			ExperienceSnapshot.restoreVisitedStates(denseWTable, buffer, numberOfVisitedStates);
+			for (int i = 0; i < numberOfEntries; i++) {
+				denseWTable.restoreWValue(buffer.getInt(), buffer.getDouble());
+			}
+			table = denseWTable;
+			break;
+		default:
+			throw new IllegalArgumentException("unknown table type of the experience snapshot: " + tableType);
+		}
+		return isSymmetric ? new SymmetricExperience(table) : table;
+	}
+
+	/**
+	 * Initialises the visited states and sets the qValues of all state-action
+	 * tuples of a qTable
+	 */
+	private static void restoreQValues(Experience qTable, ByteBuffer buffer, int numberOfVisitedStates,
+			int numberOfEntries) {
+		ExperienceSnapshot.restoreVisitedStates(qTable, buffer, numberOfVisitedStates);
+		for (int i = 0; i < numberOfEntries; i++) {
+			int key = buffer.getInt();
+			qTable.updateQTableValue(key / Gamefield.GAMEFIELD_SIZE, key % Gamefield.GAMEFIELD_SIZE,
+					buffer.getDouble());
+		}
+	}
+
+	private static void restoreVisitedStates(Experience table, ByteBuffer buffer, int numberOfVisitedStates) {
+		for (int i = 0; i < numberOfVisitedStates; i++) {
+			int state = buffer.getInt();
+			int[] legalActions = StateLookupTable.getLegalActions(state);
+			if (legalActions == null) {
+				throw new IllegalArgumentException("experience snapshot contains an unreachable state: " + state);
+			}
+			table.initialiseQTableEntryIfNotExistent(state, legalActions);
+		}
+	}
+
+	/**
+	 * Collects the entries of an experience so that they can be written in
+	 * ascending order of their keys, thus equal experiences result in equal
+	 * snapshots
+	 */
+	private static class EntryCollector implements EntryConsumer {
+		private int[] keys = new int[1024];
+		private double[] values = new double[1024];
+		private int size = 0;
+
+		@Override
+		public void accept(int key, double value) {
+			if (this.size == this.keys.length) {
+				this.keys = Arrays.copyOf(this.keys, this.size * 2);
+				this.values = Arrays.copyOf(this.values, this.size * 2);
+			}
+			this.keys[this.size] = key;
+			this.values[this.size] = value;
+			this.size++;
+		}
+
+		private int size() {
+			return this.size;
+		}
+
+		private void writeSortedByKey(ByteBuffer buffer) {
+			// keys are non-negative and unique, thus sorting the key in the upper half
+			// sorts the indexes in the lower half along
+			long[] keyAndIndex = new long[this.size];
+			for (int i = 0; i < this.size; i++) {
+				keyAndIndex[i] = (long) this.keys[i] << Integer.SIZE | i;
+			}
+			Arrays.sort(keyAndIndex);
+
+			for (long entry : keyAndIndex) {
+				int i = (int) entry;
+				buffer.putInt(this.keys[i]);
+				buffer.putDouble(this.values[i]);
+			}
+		}
+	}
+
+}
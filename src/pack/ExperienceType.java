@@ -0,0 +1,6 @@
+package pack;
+
+public enum ExperienceType {
+	QTABLE, WTABLE, PRIMITIVE_QTABLE, DENSE_WTABLE, MAPPED_QTABLE;
+
+}
@@ -3,6 +3,8 @@ package pack;
 public class ExperimentParameters {
 	private final boolean USE_QLEARNING;
 	private final boolean USE_QTABLE;
+	private final ExperienceType EXPERIENCE_TYPE;
+	private final boolean USE_SYMMETRY_REDUCTION;
 	private final boolean USE_ALTERNATE_SELFPLAY;
 	private final boolean USE_REWARD_WITH_DEPTHPENATLY;
 	private final int NUMBER_OF_TRAINING_EPISODES;
@@ -15,8 +17,41 @@ public class ExperimentParameters {
 	public ExperimentParameters(boolean useQL, boolean useQTable, boolean useAlternateSelfplay,
 			boolean useRewardWithDepthpenalty, int numberOfTrainingEpisodes, int batchSize,
 			Hyperparameter hyperparameter) {
+		this(useQL, useQTable ? ExperienceType.QTABLE : ExperienceType.WTABLE, useAlternateSelfplay,
+				useRewardWithDepthpenalty, numberOfTrainingEpisodes, batchSize, hyperparameter);
+	}
+
+	/**
+	 * Constructor that allows to choose the implementation of the experience
+	 * explicitly instead of only between QTable and WTable
+	 * 
+	 * @param experienceType type of experience that is created by
+	 *                       {@link #getExperience(double)}
+	 */
+	public ExperimentParameters(boolean useQL, ExperienceType experienceType, boolean useAlternateSelfplay,
+			boolean useRewardWithDepthpenalty, int numberOfTrainingEpisodes, int batchSize,
+			Hyperparameter hyperparameter) {
+		this(useQL, experienceType, false, useAlternateSelfplay, useRewardWithDepthpenalty, numberOfTrainingEpisodes,
+				batchSize, hyperparameter);
+	}
+
+	/**
+	 * Constructor that additionally allows to reduce the experience by the
+	 * symmetries of the gamefield
+	 * 
+	 * @param experienceType       type of experience that is created by
+	 *                             {@link #getExperience(double)}
+	 * @param useSymmetryReduction if true the experience is wrapped in a
+	 *                             {@link SymmetricExperience}
+	 */
+	public ExperimentParameters(boolean useQL, ExperienceType experienceType, boolean useSymmetryReduction,
+			boolean useAlternateSelfplay, boolean useRewardWithDepthpenalty, int numberOfTrainingEpisodes,
+			int batchSize, Hyperparameter hyperparameter) {
 		this.USE_QLEARNING = useQL;
-		this.USE_QTABLE = useQTable;
+		this.EXPERIENCE_TYPE = experienceType;
+		this.USE_SYMMETRY_REDUCTION = useSymmetryReduction;
+		this.USE_QTABLE = experienceType == ExperienceType.QTABLE || experienceType == ExperienceType.PRIMITIVE_QTABLE
+				|| experienceType == ExperienceType.MAPPED_QTABLE;
 		this.USE_ALTERNATE_SELFPLAY = useAlternateSelfplay;
 		this.USE_REWARD_WITH_DEPTHPENATLY = useRewardWithDepthpenalty;
 		this.NUMBER_OF_TRAINING_EPISODES = numberOfTrainingEpisodes;
@@ -29,7 +64,7 @@ public class ExperimentParameters {
 	/**
 	 * Generates the basefilename according to the convention that includes all
 	 * parameters passed to the constructor Convention is:
-	 * <Algorithm>_[<Afterstate>_][<Alternate>_][<Reward>]
+	 * <Algorithm>_[<Afterstate>_][<Symmetry>_][<Alternate>_][<Reward>]
 	 * 
 	 * @return basefilename for the logs
 	 */
@@ -38,6 +73,7 @@ public class ExperimentParameters {
 
 		baseFilename.append(this.USE_QLEARNING ? "QLEARNING_" : "SARSA_");
 		baseFilename.append(this.USE_QTABLE ? "" : "AFTERSTATE_");
+		baseFilename.append(this.USE_SYMMETRY_REDUCTION ? "SYMMETRY_" : "");
 		baseFilename.append(USE_ALTERNATE_SELFPLAY ? "ALTERNATE_" : "");
 		baseFilename.append(this.USE_REWARD_WITH_DEPTHPENATLY ? "DP_" : "");
 
@@ -53,7 +89,8 @@ public class ExperimentParameters {
 	private String generateExperienceFilename() {
 		StringBuilder experienceFilename = new StringBuilder();
 
-		experienceFilename.append(this.USE_QTABLE ? "QTABLE_" : "WTABLE_");
+		experienceFilename.append(this.EXPERIENCE_TYPE.toString() + "_");
+		experienceFilename.append(this.USE_SYMMETRY_REDUCTION ? "SYMMETRY_" : "");
 		experienceFilename.append(this.USE_QLEARNING ? "QLEARNING_" : "SARSA_");
 		experienceFilename.append(USE_ALTERNATE_SELFPLAY ? "ALTERNATE_" : "");
 		experienceFilename.append(this.USE_REWARD_WITH_DEPTHPENATLY ? "DP" : "");
@@ -72,17 +109,58 @@ public class ExperimentParameters {
 	}
 
 	/**
-	 * Creates and returns either a QTable or WTable according to the value passed
-	 * to the constructor
+	 * Creates and returns the experience according to the type passed to the
+	 * constructor. If symmetry reduction is used the experience is wrapped in a
+	 * {@link SymmetricExperience}
 	 * 
 	 * @param initialQValue
 	 * @return
 	 */
 	public Experience getExperience(double initialQValue) {
-		if (this.USE_QTABLE) {
+		Experience experience = this.createExperience(initialQValue);
+		if (this.USE_SYMMETRY_REDUCTION) {
+			return new SymmetricExperience(experience);
+		}
+		return experience;
+	}
+
+	/**
+	 * Creates and returns an experience for the state keys of the passed m,n,k
+	 * gamefield. MAPPED_QTABLE creates a {@link MappedQTable} indexed by a
+	 * {@link MNKStateIndexer}, which may be larger than the heap, every other
+	 * experience type creates a {@link MNKQTable}, as the remaining tables only
+	 * hold the state of the tic-tac-toe gamefield. If symmetry reduction is used
+	 * the table is wrapped in a {@link MNKSymmetricExperience}
+	 * 
+	 * @param gamefield     gamefield the experience is trained on
+	 * @param initialQValue qValue of newly initialised state-action tuples
+	 * @return experience for the gamefield
+	 */
+	public Experience getMNKExperience(MNKGamefield gamefield, double initialQValue) {
+		Experience qTable;
+		if (this.EXPERIENCE_TYPE == ExperienceType.MAPPED_QTABLE) {
+			qTable = new MappedQTable(Logger.createMappedExperienceFile(this.EXPERIENCE_FILENAME), initialQValue,
+					new MNKStateIndexer(gamefield));
+		} else {
+			qTable = new MNKQTable(gamefield.getGamefieldSize(), initialQValue);
+		}
+		if (this.USE_SYMMETRY_REDUCTION) {
+			return new MNKSymmetricExperience(qTable, gamefield);
+		}
+		return qTable;
+	}
+
+	private Experience createExperience(double initialQValue) {
+		if (this.EXPERIENCE_TYPE == ExperienceType.PRIMITIVE_QTABLE) {
+			return new PrimitiveQTable(initialQValue);
+		} else if (this.EXPERIENCE_TYPE == ExperienceType.DENSE_WTABLE) {
+			return new DenseWTable(initialQValue, this.USE_SYMMETRY_REDUCTION);
+		} else if (this.EXPERIENCE_TYPE == ExperienceType.QTABLE) {
 			return new QTable(initialQValue);
+		} else if (this.EXPERIENCE_TYPE == ExperienceType.MAPPED_QTABLE) {
+			return new MappedQTable(Logger.createMappedExperienceFile(this.EXPERIENCE_FILENAME), initialQValue);
 		} else {
-			return new WTable(initialQValue);
+			return new WTable(initialQValue, this.USE_SYMMETRY_REDUCTION);
 		}
 	}
 
@@ -109,6 +187,14 @@ public class ExperimentParameters {
 		return this.USE_QTABLE;
 	}
 
+	public ExperienceType getEXPERIENCE_TYPE() {
+		return this.EXPERIENCE_TYPE;
+	}
+
+	public boolean isUSE_SYMMETRY_REDUCTION() {
+		return this.USE_SYMMETRY_REDUCTION;
+	}
+
 	public boolean isUSE_ALTERNATE_SELFPLAY() {
 		return this.USE_ALTERNATE_SELFPLAY;
 	}
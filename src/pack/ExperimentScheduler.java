@@ -0,0 +1,94 @@
+package pack;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Conducts independent experiments concurrently. A job consists of the
+ * experiment parameters and a seed. Every job is run on its own thread of a
+ * fork-join pool with its own seeded random number generator, its own log
+ * files and its own experience
+ * 
+ * @see GameManager#trainAndEvaluateAgent(ExperimentParameters, LogContext)
+ */
+public class ExperimentScheduler {
+
+	private final ForkJoinPool pool;
+	private final ArrayList<ExperimentParameters> jobParameters = new ArrayList<>();
+	private final ArrayList<Long> jobSeeds = new ArrayList<>();
+
+	/**
+	 * Creates a scheduler that runs as many jobs concurrently as processors are
+	 * available
+	 */
+	public ExperimentScheduler() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a scheduler that runs at most the passed number of jobs concurrently
+	 * 
+	 * @param parallelism maximum number of concurrently running jobs
+	 */
+	public ExperimentScheduler(int parallelism) {
+		this.pool = new ForkJoinPool(parallelism);
+	}
+
+	/**
+	 * Adds a job that trains and evaluates agents according to the passed
+	 * parameters using a random number generator initialised with the passed seed
+	 * 
+	 * @param experimentparameters parameters to use in the experiment
+	 * @param seed                 seed of the random number generator of the job
+	 */
+	public void addJob(ExperimentParameters experimentparameters, long seed) {
+		this.jobParameters.add(experimentparameters);
+		this.jobSeeds.add(seed);
+	}
+
+	/**
+	 * Runs all added jobs concurrently and waits until every job has completed.
+	 * Afterwards the list of jobs is cleared. If a job fails its stacktrace is
+	 * printed and the remaining jobs continue
+	 */
+	public void runAllJobs() {
+		ArrayList<Future<?>> runningJobs = new ArrayList<>();
+
+		for (int i = 0; i < this.jobParameters.size(); i++) {
+			ExperimentParameters experimentparameters = this.jobParameters.get(i);
+			long seed = this.jobSeeds.get(i);
+			runningJobs.add(this.pool.submit(() -> ExperimentScheduler.runJob(experimentparameters, seed)));
+		}
+
+		for (Future<?> runningJob : runningJobs) {
+			try {
+				runningJob.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				e.getCause().printStackTrace();
+			}
+		}
+		this.jobParameters.clear();
+		this.jobSeeds.clear();
+	}
+
+	/**
+	 * Runs a single job on the current thread
+	 * 
+	 * @param experimentparameters parameters to use in the experiment
+	 * @param seed                 seed of the random number generator of the job
+	 */
+	private static void runJob(ExperimentParameters experimentparameters, long seed) {
+		System.out.println("Starting " + experimentparameters.getBASE_FILENAME() + " with seed " + seed);
+		Utility.setRandom(new Random(seed));
+		GameManager.trainAndEvaluateAgent(experimentparameters,
+				GameManager.createLogContext("SEED" + seed + "_" + experimentparameters.getBASE_FILENAME()));
+		System.out.println("Completed " + experimentparameters.getBASE_FILENAME() + " with seed " + seed);
+	}
+
+}
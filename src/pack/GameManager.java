@@ -1,17 +1,65 @@
 package pack;
 
-import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.function.Supplier;
 
 public class GameManager {
 	private static final int NUMBER_OF_EVALUATION_EPISODES = 10000;
-	private static boolean GENERATE_PLY_LOGS = true;
-	public static final MinimaxAlgorithm MINIMAX = new MinimaxAlgorithm(new Gamefield(), true);
+	private static boolean USE_PARALLEL_EVALUATION = false;
+	// replaces the sampled evaluation episodes, thus no EVAL records are written
+	private static boolean USE_EXACT_EVALUATION = false;
+	private static boolean USE_ASYNC_LOGGING = true;
+	private static final LogFormat LOG_FORMAT = LogFormat.CSV;
+	private static final BackpressurePolicy LOG_BACKPRESSURE_POLICY = BackpressurePolicy.BLOCK;
+	private static final Supplier<PlyLogPolicy> PLY_LOG_POLICY = PlyLogPolicy::all;
+	// number of training episodes between two checkpoints, 0 disables checkpoints
+	private static final int CHECKPOINT_INTERVAL = 10000;
+
+	/**
+	 * Holder of the solved game so that it is only loaded when it is used for the
+	 * first time, see {@link MinimaxAlgorithm#loadSolvedGame(boolean)}
+	 */
+	private static class MinimaxHolder {
+		private static final MinimaxAlgorithm MINIMAX = MinimaxAlgorithm.loadSolvedGame(true);
+	}
+
+	/**
+	 * Holder of the evaluator so that its threads are only started if parallel
+	 * evaluation is used
+	 */
+	private static class ParallelEvaluatorHolder {
+		private static final ParallelEvaluator PARALLEL_EVALUATOR = new ParallelEvaluator();
+	}
+
+	/**
+	 * Returns the solved game of tic-tac-toe with depthpenalty that is used as
+	 * reference for optimal play. It is loaded on the first call
+	 * 
+	 * @return solved game
+	 */
+	public static MinimaxAlgorithm getMinimax() {
+		return MinimaxHolder.MINIMAX;
+	}
+
+	/**
+	 * Creates the context of a run that logs in the configured format and
+	 * according to the configured ply log policy and, if asynchronous logging is
+	 * used, writes its records in the background
+	 * 
+	 * @param baseFilename basename that is used for all files of the run
+	 * @return new context of a run
+	 */
+	static LogContext createLogContext(String baseFilename) {
+		return new LogContext(baseFilename, LOG_FORMAT, USE_ASYNC_LOGGING ? LOG_BACKPRESSURE_POLICY : null,
+				PLY_LOG_POLICY);
+	}
 
 	/**
 	 * Main method of the program where the functions to conduct the experiment can
-	 * be called. However, before anything can be done the paths for the logs and
-	 * experience need to be changed in {@link Logger}
+	 * be called. However, before anything can be done the paths for the logs,
+	 * experience and checkpoints need to be changed in {@link Logger}. The
+	 * checkpoint directory is created when the first checkpoint is written,
+	 * checkpoints are disabled by setting CHECKPOINT_INTERVAL to 0
 	 * 
 	 * Since the program writes a lot of CSV data it might be necessary to
 	 * deactivate your antivirus program. At least on my computer this significantly
@@ -52,23 +100,23 @@ public class GameManager {
 	public static void analyseTempAgents() {
 
 		AgentRLTD agent = new AgentRandom(null);
-		Logger.generateFilenames("RANDOM");
+		LogContext logContext = GameManager.createLogContext("RANDOM");
 
 		for (int i = 0; i < 5; i++) {
-			evaluateAgentAgainstMinimax(agent, Symbol.SYMBOL_X);
-			evaluateAgentAgainstRandom(agent, Symbol.SYMBOL_X);
-			evaluateAgentAgainstMinimax(agent, Symbol.SYMBOL_O);
-			evaluateAgentAgainstRandom(agent, Symbol.SYMBOL_O);
+			evaluateAgentAgainstMinimax(agent, Symbol.SYMBOL_X, logContext);
+			evaluateAgentAgainstRandom(agent, Symbol.SYMBOL_X, logContext);
+			evaluateAgentAgainstMinimax(agent, Symbol.SYMBOL_O, logContext);
+			evaluateAgentAgainstRandom(agent, Symbol.SYMBOL_O, logContext);
 		}
 
 		agent = new AgentRandom(null);
-		Logger.generateFilenames("MINIMAX");
+		logContext = GameManager.createLogContext("MINIMAX");
 
 		for (int i = 0; i < 5; i++) {
-			evaluateAgentAgainstMinimax(agent, Symbol.SYMBOL_X);
-			evaluateAgentAgainstRandom(agent, Symbol.SYMBOL_X);
-			evaluateAgentAgainstMinimax(agent, Symbol.SYMBOL_O);
-			evaluateAgentAgainstRandom(agent, Symbol.SYMBOL_O);
+			evaluateAgentAgainstMinimax(agent, Symbol.SYMBOL_X, logContext);
+			evaluateAgentAgainstRandom(agent, Symbol.SYMBOL_X, logContext);
+			evaluateAgentAgainstMinimax(agent, Symbol.SYMBOL_O, logContext);
+			evaluateAgentAgainstRandom(agent, Symbol.SYMBOL_O, logContext);
 		}
 
 	}
@@ -110,34 +158,34 @@ public class GameManager {
 		for (int i = 0; i < 5; i++) {
 			System.out.println("Iteration " + i);
 
-			Logger.generateFilenames(experimentparamNormal.getBASE_FILENAME());
+			LogContext logContext = GameManager.createLogContext(experimentparamNormal.getBASE_FILENAME());
 
 			WTable experienceX = (WTable) experimentparamNormal.getExperience(0);
 			WTable experienceO = (WTable) experimentparamNormal.getExperience(0);
 			AgentRLTD agentX = experimentparamNormal.getAgent(experienceX);
 			AgentRLTD agentO = experimentparamNormal.getAgent(experienceO);
 
-			Logger.logMetaData(experimentparamNormal);
+			logContext.logMetaData(experimentparamNormal);
 
-			trainAgentSelfplay(agentX, agentO, experimentparamNormal);
-			Logger.logToTxtFile("ExperienceX entries after training: " + experienceX.getNumberOfDistinctVisitedStates(),
-					true);
-			Logger.logToTxtFile("ExperienceO entries after training: " + experienceO.getNumberOfDistinctVisitedStates(),
-					true);
+			trainAgentSelfplay(agentX, agentO, experimentparamNormal, logContext);
+			logContext.logToTxtFile(
+					"ExperienceX entries after training: " + experienceX.getNumberOfDistinctVisitedStates(), true);
+			logContext.logToTxtFile(
+					"ExperienceO entries after training: " + experienceO.getNumberOfDistinctVisitedStates(), true);
 
-			evaluateAgentAgainstMinimax(agentX, Symbol.SYMBOL_X);
-			evaluateAgentAgainstRandom(agentX, Symbol.SYMBOL_X);
+			evaluateAgentAgainstMinimax(agentX, Symbol.SYMBOL_X, logContext);
+			evaluateAgentAgainstRandom(agentX, Symbol.SYMBOL_X, logContext);
 
-			evaluateAgentAgainstMinimax(agentO, Symbol.SYMBOL_O);
-			evaluateAgentAgainstRandom(agentO, Symbol.SYMBOL_O);
+			evaluateAgentAgainstMinimax(agentO, Symbol.SYMBOL_O, logContext);
+			evaluateAgentAgainstRandom(agentO, Symbol.SYMBOL_O, logContext);
 
 			System.out.println("Completed Evaluation");
-			Logger.logToTxtFile(
+			logContext.logToTxtFile(
 					"ExperienceO entries after training X: " + experienceX.getNumberOfDistinctVisitedStates(), true);
-			Logger.logToTxtFile(
+			logContext.logToTxtFile(
 					"ExperienceO entries after training O: " + experienceO.getNumberOfDistinctVisitedStates(), true);
-			Logger.serialiseExperience(experienceX, "X" + experimentparamNormal.getEXPERIENCE_FILENAME());
-			Logger.serialiseExperience(experienceO, "O" + experimentparamNormal.getEXPERIENCE_FILENAME());
+			logContext.saveExperienceSnapshot(experienceX, "X" + experimentparamNormal.getEXPERIENCE_FILENAME());
+			logContext.saveExperienceSnapshot(experienceO, "O" + experimentparamNormal.getEXPERIENCE_FILENAME());
 		}
 
 	}
@@ -177,12 +225,64 @@ public class GameManager {
 		ExperimentParameters experimentparamAlternate = new ExperimentParameters(USE_QL, USE_QTABLE, true,
 				USE_REWARD_WITH_DEPTHPENATLY, NUMBER_OF_TRAINING_EPISODES, BATCH_SIZE, hyperparameter);
 
+		// every iteration is an independent job thus all of them are run concurrently
+		ExperimentScheduler experimentScheduler = new ExperimentScheduler();
 		for (int i = 0; i < 5; i++) {
-			System.out.println("Iteration: " + i);
-			trainAndEvaluateAgent(experimentparamNormal);
-			trainAndEvaluateAgent(experimentparamAlternate);
+			experimentScheduler.addJob(experimentparamNormal, i);
+			experimentScheduler.addJob(experimentparamAlternate, i);
 		}
+		experimentScheduler.runAllJobs();
+
+	}
+
+	/**
+	 * Function trains TD agents with self-play on larger m,n,k gamefields to
+	 * stress-test the learner and evaluates them against an alpha-beta search with
+	 * a node budget. Both agents share a {@link MNKQTable}, optionally reduced by
+	 * the symmetries of the gamefield. The gamefields and parameters can be set
+	 * using the variables below
+	 * 
+	 * Almost every episode on a 5x5 gamefield visits new states, thus the qTable
+	 * grows with the number of episodes and might need a larger heap, e.g. about
+	 * 2 GB for 200000 episodes. Gamefields of up to about 20 slots can use
+	 * MAPPED_QTABLE instead, which keeps the table off the heap, see
+	 * {@link ExperimentParameters#getMNKExperience(MNKGamefield, double)}
+	 */
+	public static void conductMNKExperiment() {
+		final int NUMBER_OF_TRAINING_EPISODES = 150000;
+		final int[][] GAMEFIELD_DIMENSIONS = { { 4, 4, 4 }, { 5, 5, 4 } };
+		final double INITIAL_QVALUE = 0;
 
+		final boolean USE_QL = true;
+		final boolean USE_SYMMETRY_REDUCTION = false;
+		final boolean USE_REWARD_WITH_DEPTHPENATLY = false;
+
+		final int NUMBER_OF_EVALUATION_EPISODES_MNK = 1000;
+		final long SEARCH_NODE_BUDGET = 20000;
+
+		Hyperparameter hyperparameter = new Hyperparameter(0.1, 0.1, HyperparameterChangeMode.CONSTANT,
+				NUMBER_OF_TRAINING_EPISODES, 1, 0.1, HyperparameterChangeMode.DEGRESSIVE_DECAY,
+				NUMBER_OF_TRAINING_EPISODES * 2 / 3);
+		ExperimentParameters experimentparameters = new ExperimentParameters(USE_QL, ExperienceType.QTABLE,
+				USE_SYMMETRY_REDUCTION, false, USE_REWARD_WITH_DEPTHPENATLY, NUMBER_OF_TRAINING_EPISODES, 0,
+				hyperparameter);
+
+		for (int[] dimensions : GAMEFIELD_DIMENSIONS) {
+			MNKGamefield gamefield = new MNKGamefield(dimensions[0], dimensions[1], dimensions[2]);
+			Experience experience = experimentparameters.getMNKExperience(gamefield, INITIAL_QVALUE);
+			AgentRLTD agentX = experimentparameters.getAgent(experience);
+			AgentRLTD agentO = experimentparameters.getAgent(experience);
+			LogContext logContext = GameManager.createLogContext(
+					"MNK_" + dimensions[0] + "x" + dimensions[1] + "x" + dimensions[2] + "_");
+			GameManager.trainAgentSelfplayMNK(gamefield, agentX, agentO, experimentparameters, logContext);
+
+			AlphaBetaSearch search = new AlphaBetaSearch(gamefield, USE_REWARD_WITH_DEPTHPENATLY,
+					AlphaBetaSearch.DEFAULT_TRANSPOSITION_TABLE_SIZE, SEARCH_NODE_BUDGET, 0);
+			GameManager.evaluateMNKAgentAgainstSearch(gamefield, agentX, search, Symbol.SYMBOL_X,
+					NUMBER_OF_EVALUATION_EPISODES_MNK, logContext);
+			GameManager.evaluateMNKAgentAgainstSearch(gamefield, agentO, search, Symbol.SYMBOL_O,
+					NUMBER_OF_EVALUATION_EPISODES_MNK, logContext);
+		}
 	}
 
 	/**
@@ -193,67 +293,136 @@ public class GameManager {
 	 * @param experimentparameters parameters to use in the experiment
 	 */
 	public static void trainAndEvaluateAgent(ExperimentParameters experimentparameters) {
-		Logger.generateFilenames(experimentparameters.getBASE_FILENAME());
+		GameManager.trainAndEvaluateAgent(experimentparameters,
+				GameManager.createLogContext(experimentparameters.getBASE_FILENAME()));
+	}
+
+	/**
+	 * Creates agents and trains them using either normal or alternating self-play
+	 * according to the passed experiment parameters. Afterwards the agents are
+	 * evaluated against minimax and a random player. All logs and the experience
+	 * are written to the files of the passed context
+	 * 
+	 * @param experimentparameters parameters to use in the experiment
+	 * @param logContext           context of the run the data is logged to
+	 */
+	public static void trainAndEvaluateAgent(ExperimentParameters experimentparameters, LogContext logContext) {
+		GameManager.trainAndEvaluateAgent(experimentparameters, logContext, null);
+	}
+
+	/**
+	 * Resumes the training of an experiment from the passed checkpoint and
+	 * evaluates the agents afterwards, see
+	 * {@link #trainAndEvaluateAgent(ExperimentParameters)}. The random number
+	 * generator of the calling thread is replaced by the generator of the
+	 * checkpoint, thus the training continues exactly as the interrupted training
+	 * would have
+	 * 
+	 * @param experimentparameters parameters the interrupted training used
+	 * @param checkpointFilename   filename of the checkpoint in the checkpoint
+	 *                             directory, including the extension
+	 */
+	public static void resumeTrainAndEvaluateAgent(ExperimentParameters experimentparameters,
+			String checkpointFilename) {
+		GameManager.resumeTrainAndEvaluateAgent(experimentparameters,
+				GameManager.createLogContext(experimentparameters.getBASE_FILENAME()), checkpointFilename);
+	}
+
+	/**
+	 * Resumes the training of an experiment from the passed checkpoint and
+	 * evaluates the agents afterwards. All logs and the experience are written to
+	 * the files of the passed context
+	 * 
+	 * @param experimentparameters parameters the interrupted training used
+	 * @param logContext           context of the run the data is logged to
+	 * @param checkpointFilename   filename of the checkpoint in the checkpoint
+	 *                             directory, including the extension
+	 */
+	public static void resumeTrainAndEvaluateAgent(ExperimentParameters experimentparameters, LogContext logContext,
+			String checkpointFilename) {
+		TrainingCheckpoint checkpoint = Logger.loadCheckpoint(checkpointFilename);
+		if (checkpoint == null) {
+			throw new IllegalArgumentException("checkpoint could not be read: " + checkpointFilename);
+		}
+		GameManager.trainAndEvaluateAgent(experimentparameters, logContext, checkpoint);
+	}
 
-		Experience experience = experimentparameters.getExperience(0);
+	/**
+	 * Creates agents and trains them, starting from the passed checkpoint if there
+	 * is one. Afterwards the agents are evaluated against minimax and a random
+	 * player
+	 * 
+	 * @param experimentparameters parameters to use in the experiment
+	 * @param logContext           context of the run the data is logged to
+	 * @param checkpoint           checkpoint the training is resumed from; null to
+	 *                             start a new training
+	 */
+	private static void trainAndEvaluateAgent(ExperimentParameters experimentparameters, LogContext logContext,
+			TrainingCheckpoint checkpoint) {
+		Experience experience = checkpoint == null ? experimentparameters.getExperience(0)
+				: checkpoint.getExperienceX();
 		AgentRLTD agentX = experimentparameters.getAgent(experience);
 		AgentRLTD agentO = experimentparameters.getAgent(experience);
 
-		Logger.logMetaData(experimentparameters);
+		logContext.logMetaData(experimentparameters);
+		if (checkpoint != null) {
+			Utility.setRandom(checkpoint.getRandom());
+			logContext.logToTxtFile("Training resumed at episode " + checkpoint.getNextEpisode(), true);
+		}
 
 		if (experimentparameters.isUSE_ALTERNATE_SELFPLAY()) {
-			trainAgentSelfplayAlternateLearning(agentX, agentO, experimentparameters);
+			trainAgentSelfplayAlternateLearning(agentX, agentO, experimentparameters, logContext, checkpoint);
 		} else {
-			trainAgentSelfplay(agentX, agentO, experimentparameters);
+			trainAgentSelfplay(agentX, agentO, experimentparameters, logContext, checkpoint);
 		}
 
 		System.out.println("Completed Training");
-		Logger.logToTxtFile("Experience entries after training: " + experience.getNumberOfDistinctVisitedStates(),
+		logContext.logToTxtFile("Experience entries after training: " + experience.getNumberOfDistinctVisitedStates(),
 				true);
 
-		evaluateAgentAgainstMinimax(agentX, Symbol.SYMBOL_X);
-		evaluateAgentAgainstRandom(agentX, Symbol.SYMBOL_X);
-		evaluateAgentAgainstMinimax(agentO, Symbol.SYMBOL_O);
-		evaluateAgentAgainstRandom(agentO, Symbol.SYMBOL_O);
+		evaluateAgentAgainstMinimax(agentX, Symbol.SYMBOL_X, logContext);
+		evaluateAgentAgainstRandom(agentX, Symbol.SYMBOL_X, logContext);
+		evaluateAgentAgainstMinimax(agentO, Symbol.SYMBOL_O, logContext);
+		evaluateAgentAgainstRandom(agentO, Symbol.SYMBOL_O, logContext);
 		System.out.println("Completed Evaluation");
-		Logger.logToTxtFile("Experience entries after evaluation: " + experience.getNumberOfDistinctVisitedStates(),
+		logContext.logToTxtFile("Experience entries after evaluation: " + experience.getNumberOfDistinctVisitedStates(),
 				true);
-		Logger.serialiseExperience(experience, experimentparameters.getEXPERIENCE_FILENAME());
+		logContext.saveExperienceSnapshot(experience, experimentparameters.getEXPERIENCE_FILENAME());
 	}
 
 	public static void trainAndEvaluateAgentWTable(ExperimentParameters experimentparameters) {
-		Logger.generateFilenames(experimentparameters.getBASE_FILENAME());
+		LogContext logContext = GameManager.createLogContext(experimentparameters.getBASE_FILENAME());
 
 		Experience experienceX = experimentparameters.getExperience(0);
 		Experience experienceO = experimentparameters.getExperience(0);
 		AgentRLTD agentX = experimentparameters.getAgent(experienceX);
 		AgentRLTD agentO = experimentparameters.getAgent(experienceO);
 
-		Logger.logMetaData(experimentparameters);
+		logContext.logMetaData(experimentparameters);
 
 		if (experimentparameters.isUSE_ALTERNATE_SELFPLAY()) {
-			trainAgentSelfplayAlternateLearning(agentX, agentO, experimentparameters);
+			trainAgentSelfplayAlternateLearning(agentX, agentO, experimentparameters, logContext);
 		} else {
-			trainAgentSelfplay(agentX, agentO, experimentparameters);
+			trainAgentSelfplay(agentX, agentO, experimentparameters, logContext);
 		}
 
 		System.out.println("Completed Training");
-		Logger.logToTxtFile("ExperienceX entries after training: " + experienceX.getNumberOfDistinctVisitedStates(),
-				true);
-		Logger.logToTxtFile("ExperienceO entries after training: " + experienceO.getNumberOfDistinctVisitedStates(),
-				true);
-
-		evaluateAgentAgainstMinimax(agentX, Symbol.SYMBOL_X);
-		evaluateAgentAgainstRandom(agentX, Symbol.SYMBOL_X);
-		evaluateAgentAgainstMinimax(agentO, Symbol.SYMBOL_O);
-		evaluateAgentAgainstRandom(agentO, Symbol.SYMBOL_O);
+		logContext.logToTxtFile(
+				"ExperienceX entries after training: " + experienceX.getNumberOfDistinctVisitedStates(), true);
+		logContext.logToTxtFile(
+				"ExperienceO entries after training: " + experienceO.getNumberOfDistinctVisitedStates(), true);
+
+		evaluateAgentAgainstMinimax(agentX, Symbol.SYMBOL_X, logContext);
+		evaluateAgentAgainstRandom(agentX, Symbol.SYMBOL_X, logContext);
+		evaluateAgentAgainstMinimax(agentO, Symbol.SYMBOL_O, logContext);
+		evaluateAgentAgainstRandom(agentO, Symbol.SYMBOL_O, logContext);
 		System.out.println("Completed Evaluation");
-		Logger.logToTxtFile("ExperienceX entries after evaluation: " + experienceX.getNumberOfDistinctVisitedStates(),
-				true);
-		Logger.logToTxtFile("ExperienceO entries after evaluation: " + experienceO.getNumberOfDistinctVisitedStates(),
-				true);
-		Logger.serialiseExperience(experienceX, experimentparameters.getEXPERIENCE_FILENAME() + "_X");
-		Logger.serialiseExperience(experienceO, experimentparameters.getEXPERIENCE_FILENAME() + "_O");
+		logContext.logToTxtFile(
+				"ExperienceX entries after evaluation: " + experienceX.getNumberOfDistinctVisitedStates(), true);
+		logContext.logToTxtFile(
+				"ExperienceO entries after evaluation: " + experienceO.getNumberOfDistinctVisitedStates(), true);
+		logContext.saveExperienceSnapshot(experienceX, experimentparameters.getEXPERIENCE_FILENAME() + "_X");
+		logContext.saveExperienceSnapshot(experienceO, experimentparameters.getEXPERIENCE_FILENAME() + "_O");
 	}
 
 	/**
@@ -287,17 +456,16 @@ public class GameManager {
 	}
 
 	/**
-	 * Returns true if the passed chosen action is an element in the list of optimal
-	 * actions according to minimax
+	 * Returns true if the passed chosen action is set in the bitmask of optimal
+	 * actions according to minimax, see {@link MinimaxAlgorithm#getBestActionsMask(int)}
 	 * 
-	 * @param chosenAction          action that he agent chose
-	 * @param optimalActionsMinimax list of actions that are optimal according to
-	 *                              minimax
-	 * @return true if the action is in the list of optimal actions, else false
+	 * @param chosenAction              action that he agent chose
+	 * @param optimalActionsMaskMinimax bitmask of the actions that are optimal
+	 *                                  according to minimax
+	 * @return true if the bit of the action is set, else false
 	 */
-	public static boolean isActionOptimalAccordingToMinimax(int chosenAction,
-			ArrayList<Integer> optimalActionsMinimax) {
-		return optimalActionsMinimax.contains(chosenAction);
+	public static boolean isActionOptimalAccordingToMinimax(int chosenAction, int optimalActionsMaskMinimax) {
+		return (optimalActionsMaskMinimax & (1 << chosenAction)) != 0;
 	}
 
 	/**
@@ -310,9 +478,31 @@ public class GameManager {
 	 * @param agentO               agent that plays as O
 	 * @param experimentparameters parameters to use during training with
 	 *                             alternating self-play
+	 * @param logContext           context of the run the data is logged to
+	 */
+	public static void trainAgentSelfplayAlternateLearning(AgentRLTD agentX, AgentRLTD agentO,
+			ExperimentParameters experimentparameters, LogContext logContext) {
+		GameManager.trainAgentSelfplayAlternateLearning(agentX, agentO, experimentparameters, logContext, null);
+	}
+
+	/**
+	 * Train the agent using alternating self-play, starting from the passed
+	 * checkpoint if there is one. Checkpoints are written every
+	 * {@link #CHECKPOINT_INTERVAL} episodes
+	 * 
+	 * @param agentX               agent that plays as X; uses the experience X of
+	 *                             the checkpoint if there is one
+	 * @param agentO               agent that plays as O; uses the experience O of
+	 *                             the checkpoint if there is one
+	 * @param experimentparameters parameters to use during training with
+	 *                             alternating self-play
+	 * @param logContext           context of the run the data is logged to
+	 * @param checkpoint           checkpoint of an alternating self-play the
+	 *                             training is resumed from; null to start a new
+	 *                             training
 	 */
 	public static void trainAgentSelfplayAlternateLearning(AgentRLTD agentX, AgentRLTD agentO,
-			ExperimentParameters experimentparameters) {
+			ExperimentParameters experimentparameters, LogContext logContext, TrainingCheckpoint checkpoint) {
 
 		Hyperparameter hyperparameterAgentX = experimentparameters.getHyperparameter();
 		Hyperparameter hyperparameterAgentO = experimentparameters.getHyperparameter();
@@ -323,19 +513,37 @@ public class GameManager {
 		EpisodeAgentTracker epAgentTrackerO = new EpisodeAgentTracker(Symbol.SYMBOL_O);
 
 		Symbol symbolCurrentlyTraining = Symbol.SYMBOL_X;
-		AgentRLTD currentlyTrainedAgent = agentX;
-		Hyperparameter currentHyperparameters = hyperparameterAgentX;
-		GameResultTracker currentResultTracker = resultTrackerX;
-		EpisodeAgentTracker currentAgentTracker = epAgentTrackerX;
+		int firstEpisode = 0;
+
+		if (checkpoint != null) {
+			if (!checkpoint.isAlternateSelfplay()) {
+				throw new IllegalArgumentException("checkpoint was not written by alternating self-play");
+			}
+			hyperparameterAgentX = checkpoint.getHyperparameterX();
+			hyperparameterAgentO = checkpoint.getHyperparameterO();
+			resultTrackerX = checkpoint.getResultTrackerX();
+			resultTrackerO = checkpoint.getResultTrackerO();
+			epAgentTrackerX = checkpoint.getEpAgentTrackerX();
+			epAgentTrackerO = checkpoint.getEpAgentTrackerO();
+			symbolCurrentlyTraining = checkpoint.getSymbolCurrentlyTraining();
+			firstEpisode = checkpoint.getNextEpisode();
+		}
+
+		AgentRLTD currentlyTrainedAgent = symbolCurrentlyTraining.isX() ? agentX : agentO;
+		Hyperparameter currentHyperparameters = symbolCurrentlyTraining.isX() ? hyperparameterAgentX
+				: hyperparameterAgentO;
+		GameResultTracker currentResultTracker = symbolCurrentlyTraining.isX() ? resultTrackerX : resultTrackerO;
+		EpisodeAgentTracker currentAgentTracker = symbolCurrentlyTraining.isX() ? epAgentTrackerX : epAgentTrackerO;
 
 		Gamefield trainGamefield = new Gamefield();
 		boolean isFirstGame = true;
-		agentO.setHyperparameters(0, 1, 0);
+		(symbolCurrentlyTraining.isX() ? agentO : agentX).setHyperparameters(0, 1, 0);
 
-		for (int episodeCount = 0; episodeCount < experimentparameters.getNUMBER_OF_TRAINING_EPISODES()
+		for (int episodeCount = firstEpisode; episodeCount < experimentparameters.getNUMBER_OF_TRAINING_EPISODES()
 				* 2; episodeCount++) {
 
-			LinkedList<Object[]> plyRecordList = new LinkedList<>();
+			boolean generatePlyRecords = logContext.isPlyLogRecorded(Stage.TRAIN, episodeCount);
+			LinkedList<PlyRecord> plyRecordList = generatePlyRecords ? new LinkedList<>() : null;
 			int numberOfPlies = 0;
 			trainGamefield.resetGameField();
 			currentlyTrainedAgent.setIsFirstStateOfNewEpisode();
@@ -363,7 +571,7 @@ public class GameManager {
 
 				trainGamefield.applyAction(currentSymbol, chosenAction);
 				int afterState = trainGamefield.getState();
-				ArrayList<Integer> bestActionsAccordingToMinimax = MINIMAX.getBestActions(currentState);
+				int bestActionsAccordingToMinimax = GameManager.getMinimax().getBestActionsMask(currentState);
 				boolean wasActionOptimal = isActionOptimalAccordingToMinimax(chosenAction,
 						bestActionsAccordingToMinimax);
 
@@ -385,8 +593,8 @@ public class GameManager {
 					wasActionExploratory = false;
 				}
 
-				if (GENERATE_PLY_LOGS) {
-					Object[] plyRecord = Utility.createPlyRecord(currentEpisodeForAgent,
+				if (generatePlyRecords) {
+					PlyRecord plyRecord = new PlyRecord(currentEpisodeForAgent,
 							currentAgentTracker.getCurrentBatch(), currentSymbol, numberOfPlies, currentState,
 							chosenAction, afterState, wasActionExploratory, wasActionOptimal,
 							bestActionsAccordingToMinimax, 0);
@@ -407,11 +615,12 @@ public class GameManager {
 			currentAgentTracker.updateTotalNumbers();
 			currentResultTracker.updateTrackedGameResults(gameResult);
 
-			if (GENERATE_PLY_LOGS) {
-				Logger.logToPlyCSV(plyRecordList, Stage.TRAIN, isFirstGame);
-			}
+			// the episodes of both agents are counted by the loop, the batch of the
+			// records is the one of the tracker of the trained agent
+			logContext.logPlyRecords(plyRecordList, Stage.TRAIN, episodeCount, currentAgentTracker.getCurrentBatch(),
+					isFirstGame);
 
-			Logger.logToGameCSV(Utility.createGameRecord(currentAgentTracker), Stage.TRAIN, isFirstGame);
+			logContext.logGameRecord(new GameRecord(currentAgentTracker), Stage.TRAIN, isFirstGame);
 
 			isFirstGame = false;
 
@@ -435,13 +644,22 @@ public class GameManager {
 				}
 				symbolCurrentlyTraining = Symbol.getNextSymbol(symbolCurrentlyTraining);
 			}
+
+			if (CHECKPOINT_INTERVAL > 0 && (episodeCount + 1) % CHECKPOINT_INTERVAL == 0) {
+				logContext.saveCheckpoint(new TrainingCheckpoint(true, episodeCount + 1, symbolCurrentlyTraining,
+						agentX, agentO, hyperparameterAgentX, hyperparameterAgentO, epAgentTrackerX, epAgentTrackerO,
+						resultTrackerX, resultTrackerO));
+			}
 		}
+		logContext.closeRecordLogs(Stage.TRAIN);
+		logContext.closeCheckpoints();
+
 		String resultString = Utility.generateResultString("Training using Self-play ", Symbol.SYMBOL_X, Stage.TRAIN,
 				experimentparameters.getNUMBER_OF_TRAINING_EPISODES(), resultTrackerX);
-		Logger.logToTxtFile(resultString, true);
+		logContext.logToTxtFile(resultString, true);
 		resultString = Utility.generateResultString("Training using Self-play ", Symbol.SYMBOL_O, Stage.TRAIN,
 				experimentparameters.getNUMBER_OF_TRAINING_EPISODES(), resultTrackerO);
-		Logger.logToTxtFile(resultString, true);
+		logContext.logToTxtFile(resultString, true);
 	}
 
 	/**
@@ -451,9 +669,29 @@ public class GameManager {
 	 * @param agentX               agent that plays as X
 	 * @param agentO               agent that plays as O
 	 * @param experimentparameters parameters to use during training with self-play
+	 * @param logContext           context of the run the data is logged to
+	 */
+	public static void trainAgentSelfplay(AgentRLTD agentX, AgentRLTD agentO,
+			ExperimentParameters experimentparameters, LogContext logContext) {
+		GameManager.trainAgentSelfplay(agentX, agentO, experimentparameters, logContext, null);
+	}
+
+	/**
+	 * Train the agent using self-play, starting from the passed checkpoint if
+	 * there is one. Checkpoints are written every {@link #CHECKPOINT_INTERVAL}
+	 * episodes
+	 * 
+	 * @param agentX               agent that plays as X; uses the experience X of
+	 *                             the checkpoint if there is one
+	 * @param agentO               agent that plays as O; uses the experience O of
+	 *                             the checkpoint if there is one
+	 * @param experimentparameters parameters to use during training with self-play
+	 * @param logContext           context of the run the data is logged to
+	 * @param checkpoint           checkpoint of a self-play the training is
+	 *                             resumed from; null to start a new training
 	 */
 	public static void trainAgentSelfplay(AgentRLTD agentX, AgentRLTD agentO,
-			ExperimentParameters experimentparameters) {
+			ExperimentParameters experimentparameters, LogContext logContext, TrainingCheckpoint checkpoint) {
 
 		Hyperparameter hyperparameterAgentX = experimentparameters.getHyperparameter();
 		Hyperparameter hyperparameterAgentO = experimentparameters.getHyperparameter();
@@ -463,12 +701,26 @@ public class GameManager {
 		GameResultTracker resultTracker = new GameResultTracker();
 		EpisodeAgentTracker epAgentTrackerX = new EpisodeAgentTracker(Symbol.SYMBOL_X);
 		EpisodeAgentTracker epAgentTrackerO = new EpisodeAgentTracker(Symbol.SYMBOL_O);
+		int firstEpisode = 0;
+
+		if (checkpoint != null) {
+			if (checkpoint.isAlternateSelfplay()) {
+				throw new IllegalArgumentException("checkpoint was written by alternating self-play");
+			}
+			hyperparameterAgentX = checkpoint.getHyperparameterX();
+			hyperparameterAgentO = checkpoint.getHyperparameterO();
+			resultTracker = checkpoint.getResultTrackerX();
+			epAgentTrackerX = checkpoint.getEpAgentTrackerX();
+			epAgentTrackerO = checkpoint.getEpAgentTrackerO();
+			firstEpisode = checkpoint.getNextEpisode();
+		}
 
 		Gamefield trainGamefield = new Gamefield();
 
-		for (int episodeCount = 0; episodeCount < experimentparameters
+		for (int episodeCount = firstEpisode; episodeCount < experimentparameters
 				.getNUMBER_OF_TRAINING_EPISODES(); episodeCount++) {
-			LinkedList<Object[]> plyRecordList = new LinkedList<>();
+			boolean generatePlyRecords = logContext.isPlyLogRecorded(Stage.TRAIN, episodeCount);
+			LinkedList<PlyRecord> plyRecordList = generatePlyRecords ? new LinkedList<>() : null;
 			int numberOfPlies = 0;
 			trainGamefield.resetGameField();
 			agentX.setIsFirstStateOfNewEpisode();
@@ -502,7 +754,7 @@ public class GameManager {
 
 				trainGamefield.applyAction(currentSymbol, chosenAction);
 				int afterState = trainGamefield.getState();
-				ArrayList<Integer> bestActionsAccordingToMinimax = MINIMAX.getBestActions(currentState);
+				int bestActionsAccordingToMinimax = GameManager.getMinimax().getBestActionsMask(currentState);
 				boolean wasActionOptimal = isActionOptimalAccordingToMinimax(chosenAction,
 						bestActionsAccordingToMinimax);
 
@@ -536,8 +788,8 @@ public class GameManager {
 					}
 				}
 
-				if (GENERATE_PLY_LOGS) {
-					Object[] plyRecord = Utility.createPlyRecord(episodeCount, experimentparameters.getBATCH_SIZE(),
+				if (generatePlyRecords) {
+					PlyRecord plyRecord = new PlyRecord(episodeCount, experimentparameters.getBATCH_SIZE(),
 							currentSymbol, numberOfPlies, currentState, chosenAction, afterState, wasActionExploratory,
 							wasActionOptimal, bestActionsAccordingToMinimax, 0);
 					plyRecordList.add(plyRecord);
@@ -567,32 +819,205 @@ public class GameManager {
 			epAgentTrackerO.setReward(finalRewardO);
 			epAgentTrackerO.updateTotalNumbers();
 
-			if (GENERATE_PLY_LOGS) {
-				Logger.logToPlyCSV(plyRecordList, Stage.TRAIN, isFirstGame);
-			}
-			Logger.logToGameCSV(Utility.createGameRecord(epAgentTrackerX), Stage.TRAIN, isFirstGame);
-			Logger.logToGameCSV(Utility.createGameRecord(epAgentTrackerO), Stage.TRAIN, false);
+			logContext.logPlyRecords(plyRecordList, Stage.TRAIN, episodeCount, isFirstGame);
+			logContext.logGameRecord(new GameRecord(epAgentTrackerX), Stage.TRAIN, isFirstGame);
+			logContext.logGameRecord(new GameRecord(epAgentTrackerO), Stage.TRAIN, false);
 
 			isFirstGame = false;
 
+			if (CHECKPOINT_INTERVAL > 0 && (episodeCount + 1) % CHECKPOINT_INTERVAL == 0) {
+				logContext.saveCheckpoint(new TrainingCheckpoint(false, episodeCount + 1, null, agentX, agentO,
+						hyperparameterAgentX, hyperparameterAgentO, epAgentTrackerX, epAgentTrackerO, resultTracker,
+						resultTracker));
+			}
 		}
+		logContext.closeRecordLogs(Stage.TRAIN);
+		logContext.closeCheckpoints();
+
 		String resultString = Utility.generateResultString("Training using Self-play", null, Stage.TRAIN,
 				experimentparameters.getNUMBER_OF_TRAINING_EPISODES(), resultTracker);
-		Logger.logToTxtFile(resultString, true);
+		logContext.logToTxtFile(resultString, true);
+	}
+
+	/**
+	 * Train the agents on a m,n,k gamefield using self-play. The agents receive
+	 * the long state keys of the gamefield, see
+	 * {@link AgentRLTD#move(long, int[], float)}, thus their experience has to hold
+	 * such keys, see {@link ExperimentParameters#getMNKExperience(MNKGamefield, double)}.
+	 * Both agents may share an experience as their states never coincide: the
+	 * number of plies already tells whose turn it is
+	 *
+	 * Game records are logged like in {@link #trainAgentSelfplay}, the optimal
+	 * actions are not counted as there is no minimax oracle for larger gamefields.
+	 * Ply records are not logged as their format is bound to the 18 bit state of
+	 * {@link Gamefield}, and no checkpoints are written as snapshots only support
+	 * the experiences of {@link Gamefield}. The results, the throughput and the
+	 * size of the experience are written to the meta log
+	 *
+	 * @param gamefield            gamefield the games are played on
+	 * @param agentX               agent that plays as X
+	 * @param agentO               agent that plays as O
+	 * @param experimentparameters parameters to use during training with
+	 *                             self-play
+	 * @param logContext           context of the run the data is logged to
+	 */
+	public static void trainAgentSelfplayMNK(MNKGamefield gamefield, AgentRLTD agentX, AgentRLTD agentO,
+			ExperimentParameters experimentparameters, LogContext logContext) {
+
+		Hyperparameter hyperparameterAgentX = experimentparameters.getHyperparameter();
+		Hyperparameter hyperparameterAgentO = experimentparameters.getHyperparameter();
+
+		boolean isFirstGame = true;
+		long numberOfPliesTotal = 0;
+		long startTime = System.nanoTime();
+
+		GameResultTracker resultTracker = new GameResultTracker();
+		EpisodeAgentTracker epAgentTrackerX = new EpisodeAgentTracker(Symbol.SYMBOL_X);
+		EpisodeAgentTracker epAgentTrackerO = new EpisodeAgentTracker(Symbol.SYMBOL_O);
+
+		for (int episodeCount = 0; episodeCount < experimentparameters
+				.getNUMBER_OF_TRAINING_EPISODES(); episodeCount++) {
+			int numberOfPlies = 0;
+			gamefield.resetGameField();
+			agentX.setIsFirstStateOfNewEpisode();
+			agentO.setIsFirstStateOfNewEpisode();
+			Symbol currentSymbol = Symbol.SYMBOL_X;
+
+			double currentAlphaX = hyperparameterAgentX.updateAndGetAlpha(episodeCount);
+			double currentEpsilonX = hyperparameterAgentX.updateAndGetEpsilon(episodeCount);
+			agentX.setHyperparameters(currentEpsilonX, 1, currentAlphaX);
+			epAgentTrackerX.resetEpisodeTracking(currentEpsilonX, currentAlphaX);
+			epAgentTrackerX.increaseCurrentEpisode();
+
+			double currentAlphaO = hyperparameterAgentO.updateAndGetAlpha(episodeCount);
+			double currentEpsilonO = hyperparameterAgentO.updateAndGetEpsilon(episodeCount);
+			agentO.setHyperparameters(currentEpsilonO, 1, currentAlphaO);
+			epAgentTrackerO.resetEpisodeTracking(currentEpsilonO, currentAlphaO);
+			epAgentTrackerO.increaseCurrentEpisode();
+
+			while (!gamefield.hasGameEnded()) {
+				numberOfPlies++;
+				long currentState = gamefield.getStateKey();
+				int[] legalActions = gamefield.getLegalActions();
+				AgentRLTD currentAgent = currentSymbol.isX() ? agentX : agentO;
+				EpisodeAgentTracker currentAgentTracker = currentSymbol.isX() ? epAgentTrackerX : epAgentTrackerO;
+
+				int chosenAction = currentAgent.move(currentState, legalActions, 0);
+				gamefield.applyAction(currentSymbol, chosenAction);
+
+				currentAgentTracker.increaseNumberOfAgentActions();
+				if (currentAgent.wasLastActionExploratory()) {
+					currentAgentTracker.increaseNumberOfExploratoryActions();
+				}
+				currentSymbol = Symbol.getNextSymbol(currentSymbol);
+			}
+			long terminalState = gamefield.getStateKey();
+			GameStatus gameResult = gamefield.getCurrentGameStatus();
+
+			float finalRewardX = calculateFinalReward(experimentparameters.isUSE_REWARD_WITH_DEPTHPENATLY(), gameResult,
+					Symbol.SYMBOL_X, numberOfPlies);
+			float finalRewardO = calculateFinalReward(experimentparameters.isUSE_REWARD_WITH_DEPTHPENATLY(), gameResult,
+					Symbol.SYMBOL_O, numberOfPlies);
+			agentX.distributeFinalReward(terminalState, finalRewardX);
+			// O has not made an action if X won with its first action
+			if (numberOfPlies > 1) {
+				agentO.distributeFinalReward(terminalState, finalRewardO);
+			}
+
+			resultTracker.updateTrackedGameResults(gameResult);
+			numberOfPliesTotal += numberOfPlies;
+
+			// GameRecord
+			epAgentTrackerX.setNumberOfPlies(numberOfPlies);
+			epAgentTrackerX.setOneHotEncodedEpisodeResult(gameResult);
+			epAgentTrackerX.setReward(finalRewardX);
+			epAgentTrackerX.updateTotalNumbers();
+
+			epAgentTrackerO.setNumberOfPlies(numberOfPlies);
+			epAgentTrackerO.setOneHotEncodedEpisodeResult(gameResult);
+			epAgentTrackerO.setReward(finalRewardO);
+			epAgentTrackerO.updateTotalNumbers();
+
+			logContext.logGameRecord(new GameRecord(epAgentTrackerX), Stage.TRAIN, isFirstGame);
+			logContext.logGameRecord(new GameRecord(epAgentTrackerO), Stage.TRAIN, false);
+
+			isFirstGame = false;
+		}
+		double durationInSeconds = (System.nanoTime() - startTime) / 1e9;
+		logContext.closeRecordLogs(Stage.TRAIN);
+
+		String header = "Training using Self-play on a " + gamefield.getNumberOfRows() + "x"
+				+ gamefield.getNumberOfColumns() + " gamefield with " + gamefield.getWinLength() + " in a row";
+		StringBuilder resultString = new StringBuilder(Utility.generateResultString(header, null, Stage.TRAIN,
+				experimentparameters.getNUMBER_OF_TRAINING_EPISODES(), resultTracker));
+		resultString.append("Plies per second: " + Math.round(numberOfPliesTotal / durationInSeconds));
+		resultString.append(System.lineSeparator());
+		for (AgentRLTD agent : new AgentRLTD[] { agentX, agentO }) {
+			resultString.append("Distinct visited states of " + (agent == agentX ? "X" : "O") + ": "
+					+ agent.getExperience().getNumberOfDistinctVisitedStates());
+			resultString.append(System.lineSeparator());
+		}
+		logContext.logToTxtFile(resultString.toString(), true);
+	}
+
+	/**
+	 * Evaluate an agent trained on a m,n,k gamefield as the passed symbol against
+	 * an alpha-beta search. The agent acts greedily, see
+	 * {@link AgentRLTD#createEvaluationView()}; states it has never visited are not
+	 * initialised, it chooses a random action in them. The results are written to
+	 * the meta log
+	 *
+	 * @param gamefield        gamefield the games are played on
+	 * @param agent            agent to evaluate, its experience has to hold the
+	 *                         state keys of the gamefield
+	 * @param search           opponent, its budget determines its strength
+	 * @param symbolToEvaluate symbol the agent plays during the evaluation
+	 * @param numberOfEpisodes number of games to play
+	 * @param logContext       context of the run the results are logged to
+	 */
+	public static void evaluateMNKAgentAgainstSearch(MNKGamefield gamefield, AgentRLTD agent,
+			AlphaBetaSearch search, Symbol symbolToEvaluate, int numberOfEpisodes, LogContext logContext) {
+		GameResultTracker resultTracker = new GameResultTracker();
+		AgentRLTD evaluationView = agent.createEvaluationView();
+
+		for (int episodeCount = 0; episodeCount < numberOfEpisodes; episodeCount++) {
+			gamefield.resetGameField();
+			Symbol currentSymbol = Symbol.SYMBOL_X;
+
+			while (!gamefield.hasGameEnded()) {
+				long currentState = gamefield.getStateKey();
+				int chosenAction;
+
+				if (currentSymbol != symbolToEvaluate) {
+					chosenAction = search.move(currentState, true);
+				} else {
+					chosenAction = evaluationView.move(currentState, gamefield.getLegalActions(), 0);
+				}
+				gamefield.applyAction(currentSymbol, chosenAction);
+				currentSymbol = Symbol.getNextSymbol(currentSymbol);
+			}
+			resultTracker.updateTrackedGameResults(gamefield.getCurrentGameStatus());
+		}
+
+		String header = "Evaluation against alpha-beta search on a " + gamefield.getNumberOfRows() + "x"
+				+ gamefield.getNumberOfColumns() + " gamefield with " + gamefield.getWinLength() + " in a row";
+		logContext.logToTxtFile(
+				Utility.generateResultString(header, symbolToEvaluate, Stage.EVAL, numberOfEpisodes, resultTracker),
+				true);
 	}
 
 	public static void trainAgentAgainstMinimax(AgentRLTD agent, Symbol symbolToTrain,
-			ExperimentParameters experimentparameters) {
-		GameManager.trainAgentAgainstNonRLOpponent(agent, symbolToTrain, true, experimentparameters);
+			ExperimentParameters experimentparameters, LogContext logContext) {
+		GameManager.trainAgentAgainstNonRLOpponent(agent, symbolToTrain, true, experimentparameters, logContext);
 	}
 
 	public static void trainAgentAgainstRandom(AgentRLTD agent, Symbol symbolToTrain,
-			ExperimentParameters experimentparameters) {
-		GameManager.trainAgentAgainstNonRLOpponent(agent, symbolToTrain, false, experimentparameters);
+			ExperimentParameters experimentparameters, LogContext logContext) {
+		GameManager.trainAgentAgainstNonRLOpponent(agent, symbolToTrain, false, experimentparameters, logContext);
 	}
 
 	public static void trainAgentAgainstNonRLOpponent(AgentRLTD agent, Symbol symbolToTrain,
-			boolean trainAgainstMinimax, ExperimentParameters experimentparameters) {
+			boolean trainAgainstMinimax, ExperimentParameters experimentparameters, LogContext logContext) {
 
 		final int BATCH_COUNT = 0;
 
@@ -605,7 +1030,8 @@ public class GameManager {
 
 		for (int episodeCount = 0; episodeCount < experimentparameters
 				.getNUMBER_OF_TRAINING_EPISODES(); episodeCount++) {
-			LinkedList<Object[]> plyRecordList = new LinkedList<>();
+			boolean generatePlyRecords = logContext.isPlyLogRecorded(Stage.TRAIN, episodeCount);
+			LinkedList<PlyRecord> plyRecordList = generatePlyRecords ? new LinkedList<>() : null;
 
 			int numberOfPlies = 0;
 			Hyperparameter hyperparameterOfAgent = experimentparameters.getHyperparameter();
@@ -632,7 +1058,7 @@ public class GameManager {
 					chosenAction = agent.move(currentState, legalActions, 0);
 				} else {
 					if (trainAgainstMinimax) {
-						chosenAction = MINIMAX.move(currentState, true);
+						chosenAction = GameManager.getMinimax().move(currentState, true);
 					} else {
 						chosenAction = legalActions[Utility.getRandomInt(legalActions.length)];
 					}
@@ -640,7 +1066,7 @@ public class GameManager {
 
 				trainGamefield.applyAction(currentSymbol, chosenAction);
 				int afterState = trainGamefield.getState();
-				ArrayList<Integer> bestActionsAccordingToMinimax = MINIMAX.getBestActions(currentState);
+				int bestActionsAccordingToMinimax = GameManager.getMinimax().getBestActionsMask(currentState);
 				boolean wasActionOptimal = isActionOptimalAccordingToMinimax(chosenAction,
 						bestActionsAccordingToMinimax);
 
@@ -660,8 +1086,8 @@ public class GameManager {
 					}
 				}
 
-				if (GENERATE_PLY_LOGS) {
-					Object[] plyRecord = Utility.createPlyRecord(episodeCount, BATCH_COUNT, symbolToTrain,
+				if (generatePlyRecords) {
+					PlyRecord plyRecord = new PlyRecord(episodeCount, BATCH_COUNT, symbolToTrain,
 							numberOfPlies, currentState, chosenAction, afterState, wasActionExploratory,
 							wasActionOptimal, bestActionsAccordingToMinimax, 0);
 					plyRecordList.add(plyRecord);
@@ -684,15 +1110,16 @@ public class GameManager {
 			epAgentTracker.setReward(finalReward);
 			epAgentTracker.updateTotalNumbers();
 
-			Logger.logToPlyCSV(plyRecordList, Stage.TRAIN, isFirstGame);
-			Logger.logToGameCSV(Utility.createGameRecord(epAgentTracker), Stage.TRAIN, isFirstGame);
+			logContext.logPlyRecords(plyRecordList, Stage.TRAIN, episodeCount, isFirstGame);
+			logContext.logGameRecord(new GameRecord(epAgentTracker), Stage.TRAIN, isFirstGame);
 
 			isFirstGame = false;
 		}
+		logContext.closeRecordLogs(Stage.TRAIN);
 
 		String resultString = Utility.generateResultString("", symbolToTrain, Stage.TRAIN,
 				experimentparameters.getNUMBER_OF_TRAINING_EPISODES(), resultTracker);
-		Logger.logToTxtFile(resultString, true);
+		logContext.logToTxtFile(resultString, true);
 	}
 
 	/**
@@ -700,9 +1127,11 @@ public class GameManager {
 	 * 
 	 * @param agent            agent to test against minimax
 	 * @param symbolToEvaluate symbol the agent should play during the evaluation
+	 * @param logContext       context of the run the data is logged to
 	 */
-	public static void evaluateAgentAgainstMinimax(AgentRLTD agent, Symbol symbolToEvaluate) {
-		GameManager.evaluateAgent(agent, symbolToEvaluate, true);
+	public static void evaluateAgentAgainstMinimax(AgentRLTD agent, Symbol symbolToEvaluate,
+			LogContext logContext) {
+		GameManager.evaluateAgent(agent, symbolToEvaluate, true, logContext);
 	}
 
 	/**
@@ -710,110 +1139,211 @@ public class GameManager {
 	 * 
 	 * @param agent            agent to test a random player
 	 * @param symbolToEvaluate symbol the agent plays during the evaluation
+	 * @param logContext       context of the run the data is logged to
 	 */
-	public static void evaluateAgentAgainstRandom(AgentRLTD agent, Symbol symbolToEvaluate) {
-		GameManager.evaluateAgent(agent, symbolToEvaluate, false);
+	public static void evaluateAgentAgainstRandom(AgentRLTD agent, Symbol symbolToEvaluate,
+			LogContext logContext) {
+		GameManager.evaluateAgent(agent, symbolToEvaluate, false, logContext);
 	}
 
 	/**
 	 * Evaluate the agent as the passed symbol either against minimax or a random
-	 * player
+	 * player. If exact evaluation is enabled the outcome is calculated instead of
+	 * sampled, see {@link #evaluateAgentExactly(AgentRLTD, Symbol, boolean, LogContext)},
+	 * and no EVAL records are written, which is noted in the meta log. If
+	 * parallel evaluation is enabled the episodes are played concurrently by the
+	 * {@link ParallelEvaluator}, otherwise one after another by the passed agent.
+	 * In both cases the results are tracked and logged in the order of the
+	 * episodes
 	 * 
 	 * @param agent                  agent to evaluate
 	 * @param symbolToEvaluate       symbol the agent plays during the evaluation
 	 * @param evaluateAgainstMinimax true if agent should play against minimax,
 	 *                               false if agent should play against random
 	 *                               player
+	 * @param logContext             context of the run the data is logged to
 	 */
-	public static void evaluateAgent(AgentRLTD agent, Symbol symbolToEvaluate, boolean evaluateAgainstMinimax) {
+	public static void evaluateAgent(AgentRLTD agent, Symbol symbolToEvaluate, boolean evaluateAgainstMinimax,
+			LogContext logContext) {
 		final int CURRENT_ALPHA = 0;
 		final int CURRENT_EPSILON = 0;
-		final int DISTRIBUTED_REWARD = 0;
-		final int BATCH_COUNT = 0;
-		final boolean ACTION_EXPLORATORY = false;
-		final boolean useDepthpenalty = true;
 
 		agent.setStepSizeAlpha(CURRENT_ALPHA);
 		agent.setExplorationProbabilityEpsilon(CURRENT_EPSILON);
 
+		if (USE_EXACT_EVALUATION) {
+			GameManager.evaluateAgentExactly(agent, symbolToEvaluate, evaluateAgainstMinimax, logContext);
+			logContext.logToTxtFile("Exact evaluation is enabled, thus no EVAL game or ply records are written",
+					true);
+			return;
+		}
+
 		GameResultTracker resultTracker = new GameResultTracker();
 		EpisodeAgentTracker epAgentTracker = new EpisodeAgentTracker(symbolToEvaluate);
-		boolean isFirstGame = true;
 
-		Gamefield evalGamefield = new Gamefield();
+		if (USE_PARALLEL_EVALUATION) {
+			EvaluationEpisode[] episodes = ParallelEvaluatorHolder.PARALLEL_EVALUATOR.playEpisodes(agent,
+					symbolToEvaluate, evaluateAgainstMinimax, NUMBER_OF_EVALUATION_EPISODES,
+					episodeCount -> logContext.isPlyLogRecorded(Stage.EVAL, episodeCount));
 
-		for (int episodeCount = 0; episodeCount < NUMBER_OF_EVALUATION_EPISODES; episodeCount++) {
+			for (int episodeCount = 0; episodeCount < NUMBER_OF_EVALUATION_EPISODES; episodeCount++) {
+				trackEvaluationEpisode(episodes[episodeCount], symbolToEvaluate, resultTracker, epAgentTracker,
+						logContext, episodeCount);
+			}
+		} else {
+			Gamefield evalGamefield = new Gamefield();
 
-			int numberOfPlies = 0;
-			Symbol currentSymbol = Symbol.SYMBOL_X;
-			LinkedList<Object[]> plyRecordList = new LinkedList<>();
-			epAgentTracker.resetEpisodeTracking(CURRENT_EPSILON, CURRENT_ALPHA);
-			epAgentTracker.increaseCurrentEpisode();
+			for (int episodeCount = 0; episodeCount < NUMBER_OF_EVALUATION_EPISODES; episodeCount++) {
+				EvaluationEpisode episode = playEvaluationEpisode(agent, symbolToEvaluate, evaluateAgainstMinimax,
+						evalGamefield, episodeCount, logContext.isPlyLogRecorded(Stage.EVAL, episodeCount));
+				trackEvaluationEpisode(episode, symbolToEvaluate, resultTracker, epAgentTracker, logContext,
+						episodeCount);
+			}
+		}
+		logContext.closeRecordLogs(Stage.EVAL);
 
-			evalGamefield.resetGameField();
-			agent.setIsFirstStateOfNewEpisode();
+		String opponent = evaluateAgainstMinimax ? "Minimax" : "Random";
+		String resultHeader = "Evaluation against" + opponent;
+		String resultString = Utility.generateResultString(resultHeader, symbolToEvaluate, Stage.EVAL,
+				NUMBER_OF_EVALUATION_EPISODES, resultTracker);
+		logContext.logToTxtFile(resultString, true);
+	}
 
-			while (!evalGamefield.hasGameEnded()) {
-				numberOfPlies++;
-				int currentState = evalGamefield.getState();
-				int[] legalActions = evalGamefield.getLegalActions();
-				int chosenAction;
+	/**
+	 * Calculates the exact probabilities of winning, losing and drawing as well as
+	 * the expected rate of optimal actions of the greedy agent as the passed
+	 * symbol either against minimax or a random player and logs them to the meta
+	 * file. No episodes are played, thus no CSV records are logged
+	 * 
+	 * @param agent                  agent to evaluate
+	 * @param symbolToEvaluate       symbol the agent plays during the evaluation
+	 * @param evaluateAgainstMinimax true if agent should play against minimax,
+	 *                               false if agent should play against random
+	 *                               player
+	 * @param logContext             context of the run the data is logged to
+	 * @return exact result of the evaluation
+	 */
+	public static ExactEvaluationResult evaluateAgentExactly(AgentRLTD agent, Symbol symbolToEvaluate,
+			boolean evaluateAgainstMinimax, LogContext logContext) {
+		ExactEvaluationResult result = ExactEvaluator.evaluate(agent, symbolToEvaluate, evaluateAgainstMinimax);
 
-				if (currentSymbol == symbolToEvaluate) {
-					chosenAction = agent.move(currentState, legalActions, DISTRIBUTED_REWARD);
-					epAgentTracker.increaseNumberOfAgentActions();
+		String opponent = evaluateAgainstMinimax ? "Minimax" : "Random";
+		String resultHeader = "Exact evaluation against " + opponent;
+		logContext.logToTxtFile(Utility.generateExactResultString(resultHeader, result), true);
+		return result;
+	}
+
+	/**
+	 * Plays a single evaluation episode of the passed agent as the passed symbol
+	 * either against minimax or a random player. Nothing is tracked or logged by
+	 * this method, thus it can be called concurrently as long as every thread uses
+	 * its own agent and gamefield
+	 * 
+	 * @param agent                  agent to evaluate
+	 * @param symbolToEvaluate       symbol the agent plays during the evaluation
+	 * @param evaluateAgainstMinimax true if agent should play against minimax,
+	 *                               false if agent should play against random
+	 *                               player
+	 * @param evalGamefield          gamefield the episode is played on; it is reset
+	 *                               beforehand
+	 * @param episodeCount           number of the episode used in the ply records
+	 * @param generatePlyRecords     true if the records of the plies are to be
+	 *                               kept
+	 * @return result of the episode
+	 */
+	public static EvaluationEpisode playEvaluationEpisode(AgentRLTD agent, Symbol symbolToEvaluate,
+			boolean evaluateAgainstMinimax, Gamefield evalGamefield, int episodeCount, boolean generatePlyRecords) {
+		final int DISTRIBUTED_REWARD = 0;
+		final int BATCH_COUNT = 0;
+		final boolean ACTION_EXPLORATORY = false;
+
+		int numberOfPlies = 0;
+		int numberOfAgentActions = 0;
+		int numberOfOptimalActions = 0;
+		Symbol currentSymbol = Symbol.SYMBOL_X;
+		LinkedList<PlyRecord> plyRecordList = generatePlyRecords ? new LinkedList<>() : null;
+
+		evalGamefield.resetGameField();
+		agent.setIsFirstStateOfNewEpisode();
+
+		while (!evalGamefield.hasGameEnded()) {
+			numberOfPlies++;
+			int currentState = evalGamefield.getState();
+			int[] legalActions = evalGamefield.getLegalActions();
+			int chosenAction;
+
+			if (currentSymbol == symbolToEvaluate) {
+				chosenAction = agent.move(currentState, legalActions, DISTRIBUTED_REWARD);
+				numberOfAgentActions++;
+			} else {
+				if (evaluateAgainstMinimax) {
+					chosenAction = GameManager.getMinimax().move(currentState, true);
 				} else {
-					if (evaluateAgainstMinimax) {
-						chosenAction = MINIMAX.move(currentState, true);
-					} else {
-						chosenAction = legalActions[Utility.getRandomInt(legalActions.length)];
-					}
+					chosenAction = legalActions[Utility.getRandomInt(legalActions.length)];
 				}
+			}
 
-				evalGamefield.applyAction(currentSymbol, chosenAction);
+			evalGamefield.applyAction(currentSymbol, chosenAction);
 
-				ArrayList<Integer> bestActionsAccordingToMinimax = MINIMAX.getBestActions(currentState);
-				boolean wasActionOptimal = isActionOptimalAccordingToMinimax(chosenAction,
-						bestActionsAccordingToMinimax);
-				int afterState = evalGamefield.getState();
+			int bestActionsAccordingToMinimax = GameManager.getMinimax().getBestActionsMask(currentState);
+			boolean wasActionOptimal = isActionOptimalAccordingToMinimax(chosenAction,
+					bestActionsAccordingToMinimax);
+			int afterState = evalGamefield.getState();
 
-				Object[] plyRecord = Utility.createPlyRecord(episodeCount, BATCH_COUNT, currentSymbol, numberOfPlies,
+			if (generatePlyRecords) {
+				PlyRecord plyRecord = new PlyRecord(episodeCount, BATCH_COUNT, currentSymbol, numberOfPlies,
 						currentState, chosenAction, afterState, ACTION_EXPLORATORY, wasActionOptimal,
 						bestActionsAccordingToMinimax, DISTRIBUTED_REWARD);
 				plyRecordList.add(plyRecord);
+			}
 
-				if (currentSymbol == symbolToEvaluate) {
-					// update variablesForGameLog
-					if (wasActionOptimal) {
-						epAgentTracker.increaseNumberOfOptimalActions();
-						epAgentTracker.increaseNumberOfOptimalActionsWOExploration();
-					}
-				}
-				currentSymbol = Symbol.getNextSymbol(currentSymbol);
+			if (currentSymbol == symbolToEvaluate && wasActionOptimal) {
+				numberOfOptimalActions++;
 			}
+			currentSymbol = Symbol.getNextSymbol(currentSymbol);
+		}
 
-			GameStatus result = evalGamefield.getCurrentGameStatus();
-			resultTracker.updateTrackedGameResults(result);
-			float finalReward = calculateFinalReward(useDepthpenalty, result, symbolToEvaluate, numberOfPlies);
+		return new EvaluationEpisode(evalGamefield.getCurrentGameStatus(), numberOfPlies, numberOfAgentActions,
+				numberOfOptimalActions, plyRecordList);
+	}
 
-			epAgentTracker.setNumberOfPlies(numberOfPlies);
-			epAgentTracker.setOneHotEncodedEpisodeResult(result);
-			epAgentTracker.setReward(finalReward);
-			epAgentTracker.updateTotalNumbers();
+	/**
+	 * Tracks and logs the result of a single evaluation episode. Must be called in
+	 * the order of the episodes as the game records contain cumulative numbers
+	 * 
+	 * @param episode          result of the episode to track
+	 * @param symbolToEvaluate symbol the agent played during the evaluation
+	 * @param resultTracker    tracker of the results of the evaluation
+	 * @param epAgentTracker   tracker of the agent during the evaluation
+	 * @param logContext       context of the run the data is logged to
+	 * @param episodeCount     number of the episode; the header is printed with
+	 *                         the first one
+	 */
+	private static void trackEvaluationEpisode(EvaluationEpisode episode, Symbol symbolToEvaluate,
+			GameResultTracker resultTracker, EpisodeAgentTracker epAgentTracker, LogContext logContext,
+			int episodeCount) {
+		final int CURRENT_ALPHA = 0;
+		final int CURRENT_EPSILON = 0;
+		final boolean useDepthpenalty = true;
 
-			if (GENERATE_PLY_LOGS) {
-				Logger.logToPlyCSV(plyRecordList, Stage.EVAL, isFirstGame);
-			}
+		epAgentTracker.resetEpisodeTracking(CURRENT_EPSILON, CURRENT_ALPHA);
+		epAgentTracker.increaseCurrentEpisode();
 
-			Logger.logToGameCSV(Utility.createGameRecord(epAgentTracker), Stage.EVAL, isFirstGame);
-			isFirstGame = false;
+		GameStatus result = episode.getResult();
+		resultTracker.updateTrackedGameResults(result);
+		float finalReward = calculateFinalReward(useDepthpenalty, result, symbolToEvaluate,
+				episode.getNumberOfPlies());
 
-		}
-		String opponent = evaluateAgainstMinimax ? "Minimax" : "Random";
-		String resultHeader = "Evaluation against" + opponent;
-		String resultString = Utility.generateResultString(resultHeader, symbolToEvaluate, Stage.EVAL,
-				NUMBER_OF_EVALUATION_EPISODES, resultTracker);
-		Logger.logToTxtFile(resultString, true);
+		epAgentTracker.setNumberOfPlies(episode.getNumberOfPlies());
+		epAgentTracker.setNumberOfAgentActions(episode.getNumberOfAgentActions());
+		epAgentTracker.setNumberOfOptimalActions(episode.getNumberOfOptimalActions());
+		epAgentTracker.setNumberOfOptimalActionsWOExploration(episode.getNumberOfOptimalActions());
+		epAgentTracker.setOneHotEncodedEpisodeResult(result);
+		epAgentTracker.setReward(finalReward);
+		epAgentTracker.updateTotalNumbers();
+
+		logContext.logPlyRecords(episode.getPlyRecords(), Stage.EVAL, episodeCount, episodeCount == 0);
+		logContext.logGameRecord(new GameRecord(epAgentTracker), Stage.EVAL, episodeCount == 0);
 	}
 
 	// State Analysis
@@ -828,15 +1358,16 @@ public class GameManager {
 	 * @param statesToLoad
 	 */
 	public static void loadAndAnalyseExperience(String experienceToLoad, int[] statesToLoad) {
-		Logger.setFilenameLogState(experienceToLoad);
-		Experience readExperience = Logger.deserialiseExperience(experienceToLoad);
+		LogContext logContext = GameManager.createLogContext(experienceToLoad);
+		logContext.setFilenameLogState(experienceToLoad);
+		Experience readExperience = Logger.loadExperience(experienceToLoad);
 
 		for (int state : statesToLoad) {
 			System.out.println("state: " + state + "; " + Gamefield.convertStateAsIntToString(state));
 			String actionQValue = Utility
 					.convertActionQValueMapToString(readExperience.getActionQValueMapForState(state));
 			System.out.println(actionQValue);
-			Logger.logToTxtFile(actionQValue, false);
+			logContext.logToTxtFile(actionQValue, false);
 		}
 
 	}
@@ -0,0 +1,203 @@
+package pack;
+
+/**
+ * Record of a single episode of an agent that is logged to the game log. The
+ * values are copied from the tracker when the record is created, thus the
+ * tracker can be reused for the next episode afterwards
+ */
+public class GameRecord {
+	private final int EPISODE;
+	private final int BATCH;
+	private final Symbol AGENT;
+	private final int NUMBER_OF_PLIES;
+	private final int NUMBER_OF_AGENT_ACTIONS;
+	private final int NUMBER_OF_EXPLORATORY_ACTIONS;
+	private final int NUMBER_OF_OPTIMAL_ACTIONS;
+	private final int NUMBER_OF_OPTIMAL_ACTIONS_WO_EXPLORATION;
+	private final double CURRENT_EPSILON;
+	private final double CURRENT_ALPHA;
+	private final boolean EPISODE_WON;
+	private final boolean EPISODE_LOST;
+	private final boolean EPISODE_DRAW;
+	private final float REWARD;
+	private final int TOTAL_NUMBER_OF_PLIES;
+	private final int TOTAL_NUMBER_AGENT_ACTIONS;
+	private final int TOTAL_NUMBER_EXPLORATORY_ACTIONS;
+	private final int TOTAL_NUMBER_OPTIMAL_ACTIONS;
+	private final int TOTAL_NUMBER_OPTIMAL_ACTIONS_WO_EXPLORATION;
+	private final int TOTAL_NUMBER_GAMES_WON;
+	private final int TOTAL_NUMBER_GAMES_LOST;
+	private final int TOTAL_NUMBER_GAMES_DRAW;
+
+	/**
+	 * Creates the record of the current episode of the passed tracker
+	 * 
+	 * @param epDataTracker data tracked for the current episode
+	 */
+	public GameRecord(EpisodeAgentTracker epDataTracker) {
+		this(epDataTracker.getCurrentEpisode(), epDataTracker.getCurrentBatch(), epDataTracker.getAGENT(),
+				epDataTracker.getNumberOfPlies(), epDataTracker.getNumberOfAgentActions(),
+				epDataTracker.getNumberOfExploratoryActions(), epDataTracker.getNumberOfOptimalActions(),
+				epDataTracker.getNumberOfOptimalActionsWOExploration(), epDataTracker.getCurrentEpsilon(),
+				epDataTracker.getCurrentAlpha(), epDataTracker.isEpisodeWon(), epDataTracker.isEpisodeLost(),
+				epDataTracker.isEpisodeDraw(), epDataTracker.getReward(), epDataTracker.getTotalNumberOfPlies(),
+				epDataTracker.getTotalNumberAgentActions(), epDataTracker.getTotalNumberExploratoryActions(),
+				epDataTracker.getTotalNumberOptimalActions(), epDataTracker.getTotalNumberOptimalActionsWOExploration(),
+				epDataTracker.getTotalNumberGamesWon(), epDataTracker.getTotalNumberGamesLost(),
+				epDataTracker.getTotalNumberGamesDraw());
+	}
+
+	public GameRecord(int episode, int batch, Symbol agent, int numberOfPlies, int numberOfAgentActions,
+			int numberOfExploratoryActions, int numberOfOptimalActions, int numberOfOptimalActionsWOExploration,
+			double currentEpsilon, double currentAlpha, boolean episodeWon, boolean episodeLost, boolean episodeDraw,
+			float reward, int totalNumberOfPlies, int totalNumberAgentActions, int totalNumberExploratoryActions,
+			int totalNumberOptimalActions, int totalNumberOptimalActionsWOExploration, int totalNumberGamesWon,
+			int totalNumberGamesLost, int totalNumberGamesDraw) {
+		this.EPISODE = episode;
+		this.BATCH = batch;
+		this.AGENT = agent;
+		this.NUMBER_OF_PLIES = numberOfPlies;
+		this.NUMBER_OF_AGENT_ACTIONS = numberOfAgentActions;
+		this.NUMBER_OF_EXPLORATORY_ACTIONS = numberOfExploratoryActions;
+		this.NUMBER_OF_OPTIMAL_ACTIONS = numberOfOptimalActions;
+		this.NUMBER_OF_OPTIMAL_ACTIONS_WO_EXPLORATION = numberOfOptimalActionsWOExploration;
+		this.CURRENT_EPSILON = currentEpsilon;
+		this.CURRENT_ALPHA = currentAlpha;
+		this.EPISODE_WON = episodeWon;
+		this.EPISODE_LOST = episodeLost;
+		this.EPISODE_DRAW = episodeDraw;
+		this.REWARD = reward;
+		this.TOTAL_NUMBER_OF_PLIES = totalNumberOfPlies;
+		this.TOTAL_NUMBER_AGENT_ACTIONS = totalNumberAgentActions;
+		this.TOTAL_NUMBER_EXPLORATORY_ACTIONS = totalNumberExploratoryActions;
+		this.TOTAL_NUMBER_OPTIMAL_ACTIONS = totalNumberOptimalActions;
+		this.TOTAL_NUMBER_OPTIMAL_ACTIONS_WO_EXPLORATION = totalNumberOptimalActionsWOExploration;
+		this.TOTAL_NUMBER_GAMES_WON = totalNumberGamesWon;
+		this.TOTAL_NUMBER_GAMES_LOST = totalNumberGamesLost;
+		this.TOTAL_NUMBER_GAMES_DRAW = totalNumberGamesDraw;
+	}
+
+	/**
+	 * Creates the CSV record of the episode in the layout of
+	 * {@link Logger#HEADER_GAME_CSV}
+	 * 
+	 * @return game record that can be printed to the game CSV
+	 */
+	public Object[] toCSVRecord() {
+		Object[] gameRecord = new Object[22];
+
+		gameRecord[0] = this.EPISODE;
+		gameRecord[1] = this.BATCH;
+		gameRecord[2] = this.AGENT.toString();
+		gameRecord[3] = this.NUMBER_OF_PLIES;
+		gameRecord[4] = this.NUMBER_OF_AGENT_ACTIONS;
+		gameRecord[5] = this.NUMBER_OF_EXPLORATORY_ACTIONS;
+		gameRecord[6] = this.NUMBER_OF_OPTIMAL_ACTIONS;
+		gameRecord[7] = this.NUMBER_OF_OPTIMAL_ACTIONS_WO_EXPLORATION;
+		gameRecord[8] = Utility.formatDouble(this.CURRENT_EPSILON);
+		gameRecord[9] = Utility.formatDouble(this.CURRENT_ALPHA);
+		gameRecord[10] = Utility.encodeBooleanAsInt(this.EPISODE_WON);
+		gameRecord[11] = Utility.encodeBooleanAsInt(this.EPISODE_LOST);
+		gameRecord[12] = Utility.encodeBooleanAsInt(this.EPISODE_DRAW);
+		gameRecord[13] = Utility.formatDouble(this.REWARD);
+		gameRecord[14] = this.TOTAL_NUMBER_OF_PLIES;
+		gameRecord[15] = this.TOTAL_NUMBER_AGENT_ACTIONS;
+		gameRecord[16] = this.TOTAL_NUMBER_EXPLORATORY_ACTIONS;
+		gameRecord[17] = this.TOTAL_NUMBER_OPTIMAL_ACTIONS;
+		gameRecord[18] = this.TOTAL_NUMBER_OPTIMAL_ACTIONS_WO_EXPLORATION;
+		gameRecord[19] = this.TOTAL_NUMBER_GAMES_WON;
+		gameRecord[20] = this.TOTAL_NUMBER_GAMES_LOST;
+		gameRecord[21] = this.TOTAL_NUMBER_GAMES_DRAW;
+
+		return gameRecord;
+	}
+
+	public int getEpisode() {
+		return this.EPISODE;
+	}
+
+	public int getBatch() {
+		return this.BATCH;
+	}
+
+	public Symbol getAGENT() {
+		return this.AGENT;
+	}
+
+	public int getNumberOfPlies() {
+		return this.NUMBER_OF_PLIES;
+	}
+
+	public int getNumberOfAgentActions() {
+		return this.NUMBER_OF_AGENT_ACTIONS;
+	}
+
+	public int getNumberOfExploratoryActions() {
+		return this.NUMBER_OF_EXPLORATORY_ACTIONS;
+	}
+
+	public int getNumberOfOptimalActions() {
+		return this.NUMBER_OF_OPTIMAL_ACTIONS;
+	}
+
+	public int getNumberOfOptimalActionsWOExploration() {
+		return this.NUMBER_OF_OPTIMAL_ACTIONS_WO_EXPLORATION;
+	}
+
+	public double getCurrentEpsilon() {
+		return this.CURRENT_EPSILON;
+	}
+
+	public double getCurrentAlpha() {
+		return this.CURRENT_ALPHA;
+	}
+
+	public boolean isEpisodeWon() {
+		return this.EPISODE_WON;
+	}
+
+	public boolean isEpisodeLost() {
+		return this.EPISODE_LOST;
+	}
+
+	public boolean isEpisodeDraw() {
+		return this.EPISODE_DRAW;
+	}
+
+	public float getReward() {
+		return this.REWARD;
+	}
+
+	public int getTotalNumberOfPlies() {
+		return this.TOTAL_NUMBER_OF_PLIES;
+	}
+
+	public int getTotalNumberAgentActions() {
+		return this.TOTAL_NUMBER_AGENT_ACTIONS;
+	}
+
+	public int getTotalNumberExploratoryActions() {
+		return this.TOTAL_NUMBER_EXPLORATORY_ACTIONS;
+	}
+
+	public int getTotalNumberOptimalActions() {
+		return this.TOTAL_NUMBER_OPTIMAL_ACTIONS;
+	}
+
+	public int getTotalNumberOptimalActionsWOExploration() {
+		return this.TOTAL_NUMBER_OPTIMAL_ACTIONS_WO_EXPLORATION;
+	}
+
+	public int getTotalNumberGamesWon() {
+		return this.TOTAL_NUMBER_GAMES_WON;
+	}
+
+	public int getTotalNumberGamesLost() {
+		return this.TOTAL_NUMBER_GAMES_LOST;
+	}
+
+	public int getTotalNumberGamesDraw() {
+		return this.TOTAL_NUMBER_GAMES_DRAW;
+	}
+
+}
@@ -1,6 +1,10 @@
 package pack;
 
-public class GameResultTracker {
+import java.io.Serializable;
+
+public class GameResultTracker implements Serializable {
+
+	private static final long serialVersionUID = -2043918356631978245L;
 	private int numberOfGamesXWon;
 	private int numberOfGamesOWon;
 	private int numberOfGamesDraw;
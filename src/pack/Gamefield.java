@@ -1,42 +1,58 @@
 package pack;
 
-import java.util.BitSet;
-import java.util.ArrayList;
-import java.util.Arrays;
-
 public class Gamefield {
 	private static final int GAMEFIELD_LENGTH = 3;
-	private static final int GAMEFIELD_SIZE = GAMEFIELD_LENGTH * GAMEFIELD_LENGTH;
+	public static final int GAMEFIELD_SIZE = GAMEFIELD_LENGTH * GAMEFIELD_LENGTH;
+	private static final int GAMEFIELD_MASK = (1 << GAMEFIELD_SIZE) - 1;
 
 	/**
-	 * Win patterns are longs denoted in binary notation. Bitset initialises using
-	 * long array; win patterns are thus stored in 2D array to iterate over them;
-	 * see: https://stackoverflow.com/a/40752880
+	 * Win patterns are ints denoted in binary notation. A bitboard contains a win
+	 * pattern if AND joining both results in the pattern itself
 	 */
-	private static final long[][] WIN_PATTERNS = { { 0b111000000 }, { 0b000111000 }, { 0b000000111 }, { 0b100100100 },
-			{ 0b010010010 }, { 0b001001001 }, { 0b100010001 }, { 0b001010100 } };
+	private static final int[] WIN_PATTERNS = { 0b111000000, 0b000111000, 0b000000111, 0b100100100, 0b010010010,
+			0b001001001, 0b100010001, 0b001010100 };
 
-	private BitSet bitboardX;
-	private BitSet bitboardO;
+	/**
+	 * Both bitboards are packed into a single int that uses the same layout as the
+	 * state returned by {@link #getState()}, i.e. the bits for X are shifted by the
+	 * symbol specific offset and the bits for O occupy the lowest nine bits
+	 */
+	private int bitboard;
 	private GameStatus currentGameStatus;
 
 	public Gamefield() {
-		this.bitboardX = new BitSet(GAMEFIELD_SIZE);
-		this.bitboardO = new BitSet(GAMEFIELD_SIZE);
+		this.bitboard = 0;
 		this.currentGameStatus = GameStatus.INITIALIZED;
 	}
 
 	/**
-	 * Method constructs and returns a bitset of the gamefield that does not
-	 * differentiate between symbols. Occupied slots are denoted by true, unoccupied
-	 * slots by false.
+	 * Creates a copy of the passed gamefield that can be modified independently
 	 * 
-	 * @return a representation of the complete GameField as a bitset
+	 * @param gamefield to be copied
 	 */
-	private BitSet getCompleteGameFieldBitBoard() {
-		BitSet completeBitboard = (BitSet) this.bitboardO.clone();
-		completeBitboard.or(bitboardX);
-		return completeBitboard;
+	public Gamefield(Gamefield gamefield) {
+		this.bitboard = gamefield.bitboard;
+		this.currentGameStatus = gamefield.currentGameStatus;
+	}
+
+	/**
+	 * Method returns a bitboard of the gamefield that does not differentiate
+	 * between symbols. Occupied slots are denoted by 1, unoccupied slots by 0.
+	 * 
+	 * @return a representation of the complete GameField as an int
+	 */
+	private int getCompleteGameFieldBitBoard() {
+		return (this.bitboard | (this.bitboard >>> GAMEFIELD_SIZE)) & GAMEFIELD_MASK;
+	}
+
+	/**
+	 * Returns the bitboard of the passed symbol without the symbol specific offset
+	 * 
+	 * @param symbol for that the bitboard is to be returned
+	 * @return bitboard of the passed symbol in the lowest nine bits
+	 */
+	private int getBitBoard(Symbol symbol) {
+		return (this.bitboard >>> getSymbolSpecificOffset(symbol)) & GAMEFIELD_MASK;
 	}
 
 	/**
@@ -46,17 +62,30 @@ public class Gamefield {
 	 * gamefield. If the game has ended no legal actions are available thus an empty
 	 * array is returned
 	 * 
+	 * The returned array is shared via {@link StateLookupTable} and must not be
+	 * modified
+	 * 
 	 * @return array containing all currently legal actions, empty if no legal are
 	 *         actions possible
 	 */
 	public int[] getLegalActions() {
+		int[] legalActions = StateLookupTable.getLegalActions(this.bitboard);
+		if (legalActions != null) {
+			return legalActions;
+		}
+
+		// state cannot be reached by legal play thus it is not part of the lookup table
 		if (this.hasGameEnded()) {
 			return new int[0];
 		}
-		BitSet invertedCompleteBitBoard = this.getCompleteGameFieldBitBoard();
-		invertedCompleteBitBoard.flip(0, 9);
+		int unoccupiedSlots = ~this.getCompleteGameFieldBitBoard() & GAMEFIELD_MASK;
+		legalActions = new int[Integer.bitCount(unoccupiedSlots)];
 
-		return invertedCompleteBitBoard.stream().toArray();
+		for (int i = 0; unoccupiedSlots != 0; i++) {
+			legalActions[i] = Integer.numberOfTrailingZeros(unoccupiedSlots);
+			unoccupiedSlots &= unoccupiedSlots - 1;
+		}
+		return legalActions;
 	}
 
 	/**
@@ -67,7 +96,7 @@ public class Gamefield {
 	 * @return true if action is legal
 	 */
 	private boolean isActionLegal(int action) {
-		return Arrays.binarySearch(this.getLegalActions(), action) >= 0;
+		return action >= 0 && action < GAMEFIELD_SIZE && (this.getCompleteGameFieldBitBoard() & (1 << action)) == 0;
 	}
 
 	/**
@@ -91,18 +120,14 @@ public class Gamefield {
 					"passed action " + action + " is not legal; current gamestate is " + this.getState());
 		}
 
-		if (symbol.isX()) {
-			this.bitboardX.set(action);
-		} else {
-			this.bitboardO.set(action);
-		}
+		this.bitboard |= 1 << (action + getSymbolSpecificOffset(symbol));
 
 		return this.updateGameStatus(symbol);
 	}
 
 	/**
-	 * Undoes the specified action of the passed symbol by setting the bit/index in
-	 * the corresponding bitset position to false. Afterwards the GameStatus is
+	 * Undoes the specified action of the passed symbol by setting the bit
+	 * corresponding to the slot of the symbol to 0. Afterwards the GameStatus is
 	 * updated and returned
 	 * 
 	 * @param symbol for that the action should be undone
@@ -110,11 +135,7 @@ public class Gamefield {
 	 */
 	public GameStatus undoAction(Symbol symbol, int action) {
 
-		if (symbol.isX()) {
-			this.bitboardX.set(action, false);
-		} else {
-			this.bitboardO.set(action, false);
-		}
+		this.bitboard &= ~(1 << (action + getSymbolSpecificOffset(symbol)));
 
 		this.currentGameStatus = GameStatus.ON_GOING;
 		return this.currentGameStatus;
@@ -130,9 +151,9 @@ public class Gamefield {
 	}
 
 	/**
-	 * Updates and returns the gamestatus based on the bitset for the passed symbol.
-	 * Therefore this method is to be called after the passed symbol has made an
-	 * action
+	 * Updates and returns the gamestatus based on the bitboard for the passed
+	 * symbol. Therefore this method is to be called after the passed symbol has
+	 * made an action
 	 * 
 	 * @param symbol that last made an action and thus should have its bitboard
 	 *               checked for win conditions
@@ -140,20 +161,20 @@ public class Gamefield {
 	 */
 	private GameStatus updateGameStatus(Symbol symbol) {
 
-		BitSet bitsetToCheck;
-		if (symbol.isX()) {
-			bitsetToCheck = (BitSet) this.bitboardX.clone();
-		} else {
-			bitsetToCheck = (BitSet) this.bitboardO.clone();
+		GameStatus lookedUpGameStatus = StateLookupTable.getGameStatus(this.bitboard);
+		if (lookedUpGameStatus != null) {
+			this.currentGameStatus = lookedUpGameStatus;
+			return this.currentGameStatus;
 		}
 
-		boolean winningPatternFound = checkBitSetForWinPatterns(bitsetToCheck);
+		// state cannot be reached by legal play thus it is not part of the lookup table
+		boolean winningPatternFound = containsWinPattern(this.getBitBoard(symbol));
 
 		if (winningPatternFound && !symbol.isX()) {
 			this.currentGameStatus = GameStatus.WIN_O;
 		} else if (winningPatternFound && symbol.isX()) {
 			this.currentGameStatus = GameStatus.WIN_X;
-		} else if (this.getCompleteGameFieldBitBoard().cardinality() == GAMEFIELD_SIZE) {
+		} else if (Integer.bitCount(this.bitboard) == GAMEFIELD_SIZE) {
 			this.currentGameStatus = GameStatus.DRAW;
 		} else {
 			this.currentGameStatus = GameStatus.ON_GOING;
@@ -162,30 +183,49 @@ public class Gamefield {
 	}
 
 	/**
-	 * Checks whether the passed bitset contains one of the eight win patterns. This
-	 * is done by iterating through the patterns, AND joining each with the biset
-	 * and comparing for equality with the original pattern
+	 * Checks whether the passed bitboard contains one of the eight win patterns.
+	 * This is done by iterating through the patterns, AND joining each with the
+	 * bitboard and comparing for equality with the original pattern
 	 * 
-	 * @param bitsetToCheck for win patterns
-	 * @return true if the passed bitset contains a win pattern
+	 * @param bitboardToCheck bitboard of a single symbol without offset
+	 * @return true if the passed bitboard contains a win pattern
 	 */
-	private boolean checkBitSetForWinPatterns(BitSet bitsetToCheck) {
-		boolean winningPatternFound = false;
-		for (int i = 0; i < WIN_PATTERNS.length && !winningPatternFound; i++) {
-			BitSet winPattern = BitSet.valueOf(WIN_PATTERNS[i]);
-			BitSet winPatternVerificationMask = BitSet.valueOf(WIN_PATTERNS[i]);
-			winPattern.and(bitsetToCheck);
-			winningPatternFound = winPattern.equals(winPatternVerificationMask);
+	private static boolean containsWinPattern(int bitboardToCheck) {
+		for (int winPattern : WIN_PATTERNS) {
+			if ((bitboardToCheck & winPattern) == winPattern) {
+				return true;
+			}
 		}
-		return winningPatternFound;
+		return false;
 	}
 
 	/**
-	 * Resets the bitboards for both symbols by setting all bits to false
+	 * Calculates the status of the game in the passed state without using the
+	 * {@link StateLookupTable}. Both symbols are checked for win patterns, the
+	 * empty gamefield is regarded as initialized
+	 * 
+	 * @param state for that the status is to be calculated
+	 * @return status of the game in the passed state
+	 */
+	public static GameStatus calculateGameStatus(int state) {
+		if (containsWinPattern((state >>> getSymbolSpecificOffset(Symbol.SYMBOL_X)) & GAMEFIELD_MASK)) {
+			return GameStatus.WIN_X;
+		} else if (containsWinPattern((state >>> getSymbolSpecificOffset(Symbol.SYMBOL_O)) & GAMEFIELD_MASK)) {
+			return GameStatus.WIN_O;
+		} else if (Integer.bitCount(state) == GAMEFIELD_SIZE) {
+			return GameStatus.DRAW;
+		} else if (state == 0) {
+			return GameStatus.INITIALIZED;
+		} else {
+			return GameStatus.ON_GOING;
+		}
+	}
+
+	/**
+	 * Resets the bitboards for both symbols by setting all bits to 0
 	 */
 	public void resetGameField() {
-		this.bitboardX.clear();
-		this.bitboardO.clear();
+		this.bitboard = 0;
 		this.currentGameStatus = GameStatus.INITIALIZED;
 	}
 
@@ -197,16 +237,7 @@ public class Gamefield {
 	 * @return int representing the current state of the gamefield
 	 */
 	public int getState() {
-
-		int stateAsInt = 0;
-		int bitBoardXASInt = Gamefield.convertBitBoardToInt(this.bitboardX);
-		int bitBoardOASInt = Gamefield.convertBitBoardToInt(this.bitboardO);
-
-		// bitshift the state number for X by the symbolspecific offset to avoid overlap
-		int bitBoardXWithOffset = bitBoardXASInt << getSymbolSpecificOffset(Symbol.SYMBOL_X);
-
-		stateAsInt = bitBoardXWithOffset + bitBoardOASInt;
-		return stateAsInt;
+		return this.bitboard;
 	}
 
 	/**
@@ -225,17 +256,7 @@ public class Gamefield {
 	 * @return state represented as a string
 	 */
 	public String toString() {
-		StringBuilder gameFieldStringRepresentataion = new StringBuilder("-".repeat(GAMEFIELD_SIZE));
-
-		for (int i = 0; i < Gamefield.GAMEFIELD_SIZE; i++) {
-			if (this.bitboardX.get(i)) {
-				gameFieldStringRepresentataion.setCharAt(i, 'X');
-			}
-			if (this.bitboardO.get(i)) {
-				gameFieldStringRepresentataion.setCharAt(i, 'O');
-			}
-		}
-		return gameFieldStringRepresentataion.toString();
+		return Gamefield.convertStateAsIntToString(this.bitboard);
 	}
 
 	/**
@@ -271,25 +292,16 @@ public class Gamefield {
 	 * 
 	 * The actions are derived by creating a bitmap that represents the occupied and
 	 * unoccupied slots on the board, ie. the bits for X are RSHIFT by 9 and OR
-	 * joined with the bits for O. The resulting state (int) is used to initialise a
-	 * bitboard to get the unset bits and thus unoccupied slots
+	 * joined with the bits for O. The resulting bitmap is used to look up the
+	 * precomputed unoccupied slots in the {@link StateLookupTable}
 	 * 
 	 * @param state for that the legal actions are to be calculated
-	 * @return int array containing all legal actions
+	 * @return shared int array containing all legal actions; must not be modified
 	 */
 	public static int[] getlegalActionsToState(int state) {
 		// this method also works with illegal states ie. 262143 where all 18 bits are
 		// set to 1
-		ArrayList<Integer> legalActions = new ArrayList<>();
-		int stateShiftedXBits = state >>> GAMEFIELD_SIZE;
-		int joinedState = state | stateShiftedXBits;
-
-		BitSet joinedStateAsBitset = BitSet.valueOf(new long[] { joinedState });
-		for (int i = 0; i < GAMEFIELD_SIZE; i++) {
-			if (!joinedStateAsBitset.get(i))
-				legalActions.add(i);
-		}
-		return Utility.convertListToArray(legalActions);
+		return StateLookupTable.getUnoccupiedSlots(state);
 	}
 
 	/**
@@ -301,12 +313,8 @@ public class Gamefield {
 	 * @return true if action is legal in given state
 	 */
 	public static boolean isActionLegal(int state, int action) {
-		BitSet completeBitBoard = BitSet.valueOf(new long[] { state });
-
-		boolean isBitSetForX = completeBitBoard.get(action + Gamefield.getSymbolSpecificOffset(Symbol.SYMBOL_X));
-		boolean isBitSetForO = completeBitBoard.get(action + Gamefield.getSymbolSpecificOffset(Symbol.SYMBOL_O));
-
-		return !(isBitSetForX || isBitSetForO);
+		int occupiedSlots = state | (state >>> GAMEFIELD_SIZE);
+		return action >= 0 && action < GAMEFIELD_SIZE && (occupiedSlots & (1 << action)) == 0;
 	}
 
 	/**
@@ -315,7 +323,7 @@ public class Gamefield {
 	 * 
 	 * @param state  that the action is to be applied to
 	 * @param action to be applied to the passed state
-	 * @return returns the resulting state encoded as long
+	 * @return returns the resulting state encoded as int
 	 */
 	public static int applyAction(int state, int action) {
 
@@ -323,12 +331,39 @@ public class Gamefield {
 			throw new IllegalArgumentException("action " + action + " is not legal in state " + state);
 		}
 
-		Symbol currentSymbol = getCurrentTurnsSymbol(state);
-		int symbolSpecificOffset = Gamefield.getSymbolSpecificOffset(currentSymbol);
-		int encodedAction = Double.valueOf(Math.pow(2, (action + symbolSpecificOffset))).intValue();
+		return state | (1 << (action + getCurrentTurnsSymbolSpecificOffset(state)));
+	}
+
+	/**
+	 * Undoes the passed action in the specified state. The symbol whose action is
+	 * undone is the one that occupies the slot, thus this is the inverse of
+	 * {@link #applyAction(int, int)}
+	 * 
+	 * @param state  that the action is to be undone in
+	 * @param action slot that is to be freed
+	 * @return returns the resulting state encoded as int
+	 */
+	public static int undoAction(int state, int action) {
+
+		if (isActionLegal(state, action)) {
+			throw new IllegalArgumentException("action " + action + " was not applied in state " + state);
+		}
+
+		return state & ~((1 << action) | (1 << (action + GAMEFIELD_SIZE)));
+	}
 
-		int stateAfterAction = state + encodedAction;
-		return stateAfterAction;
+	/**
+	 * Returns whether the game has ended in the passed state, i.e. if either symbol
+	 * has won or all slots are occupied. States that cannot be reached by legal
+	 * play are calculated instead of looked up in the {@link StateLookupTable}
+	 * 
+	 * @param state to be checked
+	 * @return true if the state is terminal
+	 */
+	public static boolean isTerminalState(int state) {
+		GameStatus gameStatus = StateLookupTable.isReachable(state) ? StateLookupTable.getGameStatus(state)
+				: calculateGameStatus(state);
+		return !(gameStatus == GameStatus.INITIALIZED || gameStatus == GameStatus.ON_GOING);
 	}
 
 	/**
@@ -348,29 +383,16 @@ public class Gamefield {
 	}
 
 	/**
-	 * Converts the passed bitset to a long that is at most nine digits long. The
-	 * long is calculated through addition of the set bits where the index is used
-	 * as the exponent of 10 thus the top-left slot/0-th bit is the rightmost digit
+	 * Returns the symbol specific offset of the symbol whose turn it is in the
+	 * passed state. This is equivalent to passing the result of
+	 * {@link #getCurrentTurnsSymbol(int)} to {@link #getSymbolSpecificOffset(Symbol)}
+	 * but only uses integer arithmetic
 	 * 
-	 * @param bitsetToConvert
-	 * @return
+	 * @param state for that the offset of the current symbol is to be calculated
+	 * @return offset of the symbol whose turn it is
 	 */
-	private static int convertBitBoardToInt(BitSet bitsetToConvert) {
-
-		if (bitsetToConvert.isEmpty()) {
-			return 0;
-		}
-
-		if (bitsetToConvert.length() > GAMEFIELD_SIZE) {
-			throw new IllegalArgumentException(
-					"passed bitset has atleast one bit set outside of the range of the gamefield and is thus invalid");
-		}
-
-		// If the bitset has only bits set inside gamefield range it can be converted to
-		// and stored as an int
-		long bitBoardAsLong = bitsetToConvert.toLongArray()[0];
-		int bitBoardAsInt = Long.valueOf(bitBoardAsLong).intValue();
-		return bitBoardAsInt;
+	public static int getCurrentTurnsSymbolSpecificOffset(int state) {
+		return (~Integer.bitCount(state) & 1) * GAMEFIELD_SIZE;
 	}
 
 	/**
@@ -381,15 +403,14 @@ public class Gamefield {
 	 */
 	public static String convertStateAsIntToString(int state) {
 		StringBuilder gameFieldStringRepresentataion = new StringBuilder("-".repeat(GAMEFIELD_SIZE));
-		BitSet completeBitBoard = BitSet.valueOf(new long[] { state });
 
 		for (int i = 0; i < Gamefield.GAMEFIELD_SIZE; i++) {
-			if (completeBitBoard.get(i)) {
+			if ((state & (1 << i)) != 0) {
 				gameFieldStringRepresentataion.setCharAt(i, 'O');
 			}
 		}
 		for (int i = 0; i < Gamefield.GAMEFIELD_SIZE; i++) {
-			if (completeBitBoard.get(i + GAMEFIELD_SIZE)) {
+			if ((state & (1 << (i + GAMEFIELD_SIZE))) != 0) {
 				gameFieldStringRepresentataion.setCharAt(i, 'X');
 			}
 		}
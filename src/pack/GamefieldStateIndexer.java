@@ -0,0 +1,35 @@
+package pack;
+
+/**
+ * Indexer of the reachable states of {@link Gamefield}, see
+ * {@link StateIndex}. The indexes are dense over the reachable states, thus
+ * unreachable states have no index
+ */
+public class GamefieldStateIndexer implements StateIndexer {
+
+	private static final long serialVersionUID = 6912703948512256410L;
+
+	@Override
+	public long getIndex(long state) {
+		if (state != (int) state) {
+			return NO_INDEX;
+		}
+		return StateIndex.getIndex((int) state);
+	}
+
+	@Override
+	public long getState(long index) {
+		return StateIndex.getState((int) index);
+	}
+
+	@Override
+	public long getNumberOfStates() {
+		return StateIndex.getNumberOfStates();
+	}
+
+	@Override
+	public int getNumberOfActions() {
+		return Gamefield.GAMEFIELD_SIZE;
+	}
+
+}
@@ -1,6 +1,10 @@
 package pack;
 
-public class Hyperparameter {
+import java.io.Serializable;
+
+public class Hyperparameter implements Serializable {
+
+	private static final long serialVersionUID = -4316590377105624118L;
 
 	private final double INITIAL_ALPHA;
 	private final double FINAL_ALPHA;
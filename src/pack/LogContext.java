@@ -0,0 +1,308 @@
+package pack;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Context of a single run that holds the filenames of all files that data is
+ * logged to during the run. Every context has a unique run id that is prepended
+ * to all of its filenames, thus runs that are conducted concurrently or started
+ * within the same minute do not write to the same files
+ *
+ * The filename of the state log and the ply log policies are not synchronized,
+ * thus a context is driven by the single thread that conducts its run. Only the
+ * sinks of the context may hand the records over to a writer thread of their
+ * own, see {@link AsyncLogSink}
+ */
+public class LogContext {
+
+	private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+	private static final long PROCESS_ID = ProcessHandle.current().pid();
+	private static final AtomicInteger RUN_COUNTER = new AtomicInteger();
+
+	private final String RUN_ID;
+	private final LogSink LOG_SINK_EVAL;
+	private final LogSink LOG_SINK_TRAIN;
+	private final PlyLogPolicy PLY_LOG_POLICY_EVAL;
+	private final PlyLogPolicy PLY_LOG_POLICY_TRAIN;
+	private final String FILENAME_LOG_META;
+	private final CheckpointWriter CHECKPOINT_WRITER;
+	private String filenameLogState = "";
+	private long numberOfDroppedRecordsEval;
+	private long numberOfDroppedRecordsTrain;
+
+	/**
+	 * Creates a new context with a unique run id that logs the plies and games
+	 * to CSV files
+	 *
+	 * @param baseFilename basename that is used for all files; should contain the
+	 *                     algorithm and if afterstates are used
+	 */
+	public LogContext(String baseFilename) {
+		this(baseFilename, LogFormat.CSV);
+	}
+
+	/**
+	 * Creates a new context with a unique run id and generates the filenames for
+	 * all files that data is logged to during the run. The ply and game logs are
+	 * not opened before the first record is logged
+	 *
+	 * @param baseFilename basename that is used for all files; should contain the
+	 *                     algorithm and if afterstates are used
+	 * @param logFormat    format the ply and game logs are written in
+	 */
+	public LogContext(String baseFilename, LogFormat logFormat) {
+		this(baseFilename, logFormat, null);
+	}
+
+	/**
+	 * Creates a new context whose ply and game records are written to disk by a
+	 * background writer, see {@link AsyncLogSink}
+	 *
+	 * @param baseFilename       basename that is used for all files; should
+	 *                           contain the algorithm and if afterstates are used
+	 * @param logFormat          format the ply and game logs are written in
+	 * @param backpressurePolicy behaviour if the writer cannot keep up with the
+	 *                           run; null if the records are to be written by the
+	 *                           thread of the run
+	 */
+	public LogContext(String baseFilename, LogFormat logFormat, BackpressurePolicy backpressurePolicy) {
+		this(baseFilename, logFormat, backpressurePolicy, PlyLogPolicy::all);
+	}
+
+	/**
+	 * Creates a new context whose plies are logged according to the policies
+	 * created by the passed supplier, one for each stage
+	 *
+	 * @param baseFilename       basename that is used for all files; should
+	 *                           contain the algorithm and if afterstates are used
+	 * @param logFormat          format the ply and game logs are written in
+	 * @param backpressurePolicy behaviour if the writer cannot keep up with the
+	 *                           run; null if the records are to be written by the
+	 *                           thread of the run
+	 * @param plyLogPolicy       creates the policy that decides which plies are
+	 *                           logged
+	 */
+	public LogContext(String baseFilename, LogFormat logFormat, BackpressurePolicy backpressurePolicy,
+			Supplier<PlyLogPolicy> plyLogPolicy) {
+		this.RUN_ID = LogContext.generateRunId();
+		this.LOG_SINK_EVAL = this.createLogSink(baseFilename, Stage.EVAL, logFormat, backpressurePolicy);
+		this.LOG_SINK_TRAIN = this.createLogSink(baseFilename, Stage.TRAIN, logFormat, backpressurePolicy);
+		this.PLY_LOG_POLICY_EVAL = plyLogPolicy.get();
+		this.PLY_LOG_POLICY_TRAIN = plyLogPolicy.get();
+		this.FILENAME_LOG_META = this.RUN_ID + "_" + baseFilename + "META.txt";
+		this.CHECKPOINT_WRITER = new CheckpointWriter(Logger.CHECKPOINT_PATH + this.RUN_ID + "_" + baseFilename
+				+ "CHECKPOINT" + TrainingCheckpoint.FILE_EXTENSION);
+	}
+
+	/**
+	 * Generates a run id that consists of the current datetime in the format
+	 * yyyyMMddHHmmss, the id of the process and a counter that is increased for
+	 * every context created by this process. The datetime comes first so that the
+	 * files of different runs are still sorted chronologically
+	 *
+	 * @return unique id of a run
+	 */
+	private static String generateRunId() {
+		String currentTime = LocalDateTime.now().format(DATE_TIME_FORMATTER);
+		return currentTime + "_" + PROCESS_ID + "_" + RUN_COUNTER.incrementAndGet();
+	}
+
+	/**
+	 * Creates the sink of the ply and game logs of the passed stage. The run id is
+	 * prepended to the filenames to differentiate between different runs
+	 *
+	 * @param baseFilename       basename of the logs that contains the used
+	 *                           algorithm and whether afterstates was used
+	 * @param stage              stage in the execution process the logs are used
+	 *                           for; either TRAIN or EVAL
+	 * @param logFormat          format the logs are written in
+	 * @param backpressurePolicy behaviour of the background writer; null if no
+	 *                           background writer is used
+	 * @return sink of the logs whose names satisfy set conventions
+	 */
+	private LogSink createLogSink(String baseFilename, Stage stage, LogFormat logFormat,
+			BackpressurePolicy backpressurePolicy) {
+		String filePath = Logger.LOG_PATH + this.RUN_ID + "_" + baseFilename + stage.toString() + "_";
+		String filePathPly = filePath + "PLY" + logFormat.getFileExtension();
+		String filePathGame = filePath + "GAME" + logFormat.getFileExtension();
+		String filePathPlyAggregate = filePath + "PLY_AGGREGATE" + LogFormat.CSV.getFileExtension();
+
+		LogSink logSink;
+		if (logFormat == LogFormat.BINARY) {
+			logSink = new BinaryLogSink(filePathPly, filePathGame, filePathPlyAggregate);
+		} else {
+			logSink = new CSVLogSink(filePathPly, filePathGame, filePathPlyAggregate);
+		}
+		return backpressurePolicy == null ? logSink : new AsyncLogSink(logSink, backpressurePolicy);
+	}
+
+	/**
+	 * Sets the filename of the txt-file the analysed states are written to
+	 *
+	 * @param baseFilename basename of the state log, usually the name of the
+	 *                     analysed experience
+	 */
+	public void setFilenameLogState(String baseFilename) {
+		this.filenameLogState = baseFilename + "_STATE.txt";
+	}
+
+	/**
+	 * Logs the passed record to the game log corresponding to the passed stage,
+	 * optionally write the header beforehand
+	 *
+	 * @param gameRecord  record of one episode to be logged
+	 * @param stage       stage in the execution process the log is used for;
+	 *                    either TRAIN or EVAL
+	 * @param printHeader true if the header is to be printed
+	 */
+	public void logGameRecord(GameRecord gameRecord, Stage stage, boolean printHeader) {
+		this.getLogSink(stage).logGameRecord(gameRecord, printHeader);
+	}
+
+	/**
+	 * Returns true if the plies of the passed episode are to be recorded according
+	 * to the ply log policy of the passed stage. May be called concurrently
+	 *
+	 * @param stage        stage in the execution process; either TRAIN or EVAL
+	 * @param episodeCount number of the episode
+	 * @return true if ply records of the episode are to be created
+	 */
+	public boolean isPlyLogRecorded(Stage stage, int episodeCount) {
+		return this.getPlyLogPolicy(stage).isEpisodeRecorded(episodeCount);
+	}
+
+	/**
+	 * Passes the records of the plies of an episode to the ply log policy of the
+	 * passed stage, which decides what is logged, optionally write the header
+	 * beforehand
+	 *
+	 * @param plyRecords   records of all plies of the episode, null if they were
+	 *                     not recorded
+	 * @param stage        stage in the execution process the log is used for;
+	 *                     either TRAIN or EVAL
+	 * @param episodeCount number of the episode
+	 * @param printHeader  true if the header is to be printed
+	 */
+	public void logPlyRecords(LinkedList<PlyRecord> plyRecords, Stage stage, int episodeCount,
+			boolean printHeader) {
+		this.logPlyRecords(plyRecords, stage, episodeCount, PlyLogPolicy.BATCH_OF_EPISODE_COUNT, printHeader);
+	}
+
+	/**
+	 * Passes the records of the plies of an episode to the ply log policy of the
+	 * passed stage together with the batch the records belong to, which is used
+	 * by policies that log per batch
+	 *
+	 * @param plyRecords   records of all plies of the episode, null if they were
+	 *                     not recorded
+	 * @param stage        stage in the execution process the log is used for;
+	 *                     either TRAIN or EVAL
+	 * @param episodeCount number of the episode in the loop
+	 * @param batch        batch column of the records, see
+	 *                     {@link PlyLogPolicy#logEpisode(LinkedList, int, int, LogSink, boolean)}
+	 * @param printHeader  true if the header is to be printed
+	 */
+	public void logPlyRecords(LinkedList<PlyRecord> plyRecords, Stage stage, int episodeCount, int batch,
+			boolean printHeader) {
+		this.getPlyLogPolicy(stage).logEpisode(plyRecords, episodeCount, batch, this.getLogSink(stage),
+				printHeader);
+	}
+
+	/**
+	 * Method logs the passed string to one of the two txt-files used to evaluate
+	 * the runs
+	 *
+	 * @param textToLog String to write to the file
+	 * @param isMetaLog if true string is written to the metaLog, else it is written
+	 *                  to the StateLog
+	 */
+	public void logToTxtFile(String textToLog, boolean isMetaLog) {
+		Logger.appendToTxtFile(isMetaLog ? this.FILENAME_LOG_META : this.filenameLogState, textToLog);
+	}
+
+	public void logMetaData(ExperimentParameters experimentparameters) {
+		String metaDataString = Utility.generateMetaDataString(experimentparameters);
+		this.logToTxtFile(metaDataString, true);
+	}
+
+	/**
+	 * Saves a snapshot of the passed experience to the experience directory, see
+	 * {@link ExperienceSnapshot}. The run id is prepended and the extension of
+	 * snapshots is appended to the passed filename
+	 *
+	 * @param experienceToSave experience object to be saved
+	 * @param filename         that the snapshot will be saved to, without
+	 *                         extension
+	 */
+	public void saveExperienceSnapshot(Experience experienceToSave, String filename) {
+		Logger.saveExperienceSnapshot(experienceToSave,
+				this.RUN_ID + "_" + filename + ExperienceSnapshot.FILE_EXTENSION);
+	}
+
+	/**
+	 * Writes all logged records of the passed stage to the files and closes them.
+	 * Records that are still held by the ply log policy are logged beforehand.
+	 * This should be called at the end of every training and evaluation so that
+	 * no records remain in the buffers. Logging to a closed stage opens the files
+	 * again. The number of ply, game and aggregate records of the stage that were
+	 * dropped since the last close is written to the meta log if there are any
+	 *
+	 * @param stage stage whose logs are closed; either TRAIN or EVAL
+	 */
+	public void closeRecordLogs(Stage stage) {
+		LogSink logSink = this.getLogSink(stage);
+		this.getPlyLogPolicy(stage).flush(logSink);
+		logSink.close();
+
+		long numberOfDroppedRecords = logSink.getNumberOfDroppedRecords();
+		long numberOfNewlyDroppedRecords;
+		if (stage == Stage.TRAIN) {
+			numberOfNewlyDroppedRecords = numberOfDroppedRecords - this.numberOfDroppedRecordsTrain;
+			this.numberOfDroppedRecordsTrain = numberOfDroppedRecords;
+		} else {
+			numberOfNewlyDroppedRecords = numberOfDroppedRecords - this.numberOfDroppedRecordsEval;
+			this.numberOfDroppedRecordsEval = numberOfDroppedRecords;
+		}
+		if (numberOfNewlyDroppedRecords > 0) {
+			this.logToTxtFile("Dropped " + stage.toString() + " ply, game and aggregate records since the last close: "
+					+ numberOfNewlyDroppedRecords, true);
+		}
+	}
+
+	/**
+	 * Writes the passed checkpoint of the training to the checkpoint file of the
+	 * run, replacing the previous checkpoint. The checkpoint is serialised by the
+	 * calling thread and written to disk by a background writer, see
+	 * {@link CheckpointWriter}
+	 *
+	 * @param checkpoint checkpoint to be written
+	 */
+	public void saveCheckpoint(TrainingCheckpoint checkpoint) {
+		this.CHECKPOINT_WRITER.write(checkpoint);
+	}
+
+	/**
+	 * Waits until all checkpoints of the run have been written. This should be
+	 * called at the end of every training
+	 */
+	public void closeCheckpoints() {
+		this.CHECKPOINT_WRITER.close();
+	}
+
+	private LogSink getLogSink(Stage stage) {
+		return stage == Stage.TRAIN ? this.LOG_SINK_TRAIN : this.LOG_SINK_EVAL;
+	}
+
+	private PlyLogPolicy getPlyLogPolicy(Stage stage) {
+		return stage == Stage.TRAIN ? this.PLY_LOG_POLICY_TRAIN : this.PLY_LOG_POLICY_EVAL;
+	}
+
+	public String getRunId() {
+		return this.RUN_ID;
+	}
+
+}
@@ -0,0 +1,27 @@
+package pack;
+
+/**
+ * Format the ply and game logs of a run are written in
+ */
+public enum LogFormat {
+	/**
+	 * CSV files that can be read directly, see {@link CSVLogSink}
+	 */
+	CSV(".csv"),
+	/**
+	 * compact binary files that are converted to CSV on demand, see
+	 * {@link BinaryLogSink} and {@link BinaryLogConverter}
+	 */
+	BINARY(".bin");
+
+	private final String FILE_EXTENSION;
+
+	private LogFormat(String fileExtension) {
+		this.FILE_EXTENSION = fileExtension;
+	}
+
+	public String getFileExtension() {
+		return this.FILE_EXTENSION;
+	}
+
+}
@@ -0,0 +1,55 @@
+package pack;
+
+/**
+ * Destination of the ply and game records of a single stage of a run. The
+ * format the records are written in is up to the implementation
+ */
+public interface LogSink {
+
+	/**
+	 * Logs the records of multiple plies, optionally write the header beforehand
+	 * if the format has one per record block
+	 *
+	 * @param plyRecords  records of the plies to be logged
+	 * @param printHeader true if the header is to be printed
+	 */
+	void logPlyRecords(Iterable<PlyRecord> plyRecords, boolean printHeader);
+
+	/**
+	 * Logs the record of a single episode, optionally write the header beforehand
+	 * if the format has one per record block
+	 *
+	 * @param gameRecord  record of the episode to be logged
+	 * @param printHeader true if the header is to be printed
+	 */
+	void logGameRecord(GameRecord gameRecord, boolean printHeader);
+
+	/**
+	 * Logs aggregated plies in the layout of
+	 * {@link Logger#HEADER_PLY_AGGREGATE_CSV}, see
+	 * {@link PlyLogPolicy#aggregatePerBatch(int)}, optionally write the header
+	 * beforehand if the format has one per record block
+	 *
+	 * @param aggregateRecords aggregated plies to be logged
+	 * @param printHeader      true if the header is to be printed
+	 */
+	void logPlyAggregates(Iterable<Object[]> aggregateRecords, boolean printHeader);
+
+	/**
+	 * Writes all logged records to the files and closes them. Logging to a closed
+	 * sink opens the files again
+	 */
+	void close();
+
+	/**
+	 * Returns the number of records that were not logged as the sink could not
+	 * keep up with the run. Every ply, game and aggregate record counts as one
+	 * record, the number is not reset when the sink is closed
+	 *
+	 * @return number of records dropped since the sink was created
+	 */
+	default long getNumberOfDroppedRecords() {
+		return 0;
+	}
+
+}
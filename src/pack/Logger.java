@@ -1,41 +1,31 @@
 package pack;
 
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.util.LinkedList;
-
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
-
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Contains the directories the logs and experiences are written to as well as
+ * the methods that access the files. The logger itself holds no state of a
+ * run, the filenames and log sinks of a run are held by its
+ * {@link LogContext}
+ */
 public class Logger {
 
 	private static final String BASE_DIRECTORY = "C:/Bachelorarbeit/95_Output/";
 	private static final String FILE_PATH_EXPERIENCE = BASE_DIRECTORY + "01_Experience/";
-	private static final String LOG_PATH = BASE_DIRECTORY + "02_Log/";
-
-	private static String filenameLogGameEval = "";
-	private static String filenameLogGameTrain = "";
-	private static String filenameLogPlyEval = "";
-	private static String filenameLogPlyTrain = "";
-	private static String filenameLogMeta = "";
-	private static String filenameLogState = "";
+	static final String LOG_PATH = BASE_DIRECTORY + "02_Log/";
+	static final String CHECKPOINT_PATH = BASE_DIRECTORY + "03_Checkpoint/";
 
-	private static final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyyMMddHHmm")
-			.withZone(ZoneId.systemDefault());
-	private static String definitiveLogTime = "";
-
-	private static final Object[] HEADER_PLY_CSV = new String[] { "episode", "batch", "symbol", "ply", "state_before",
+	static final Object[] HEADER_PLY_CSV = new String[] { "episode", "batch", "symbol", "ply", "state_before",
 			"action", "state_after", "was_exploring", "was_action_optimal", "optimal_actions", "reward_previous_SA" };
 
-	private static final Object[] HEADER_GAME_CSV = new String[] { "episode", "batch", "symbol", "number_of_plies",
+	static final Object[] HEADER_GAME_CSV = new String[] { "episode", "batch", "symbol", "number_of_plies",
 			"number_of_actions", "number_of_exploratory_actions", "number_of_optimal_actions",
 			"number_of_optimal_actions_wo_exploration", "current_epsilon", "current_alpha", "episode_won",
 			"episode_lost", "episode_draw", "reward", "total_number_of_plies", "total_number_of_actions",
@@ -43,36 +33,8 @@ public class Logger {
 			"total_number_of_optimal_actions_wo_exploration", "total_games_won", "total_games_lost",
 			"total_games_draw" };
 
-	/**
-	 * Sets the definitiveLogTime variable of the current datetime in the format
-	 * yyyMMddHHmm to differentiate different runs
-	 */
-	private static void setDefinitiveTime() {
-		LocalDateTime currentTime = LocalDateTime.now();
-		definitiveLogTime = currentTime.format(dateTimeFormatter);
-	}
-
-	/**
-	 * Generates the filenames for all files that data is logged to during an
-	 * execution
-	 * 
-	 * @param baseFilename basename that is used for all files; should contain the
-	 *                     algorithm and if afterstates are used
-	 */
-	public static void generateFilenames(String baseFilename) {
-		Logger.setDefinitiveTime();
-		filenameLogGameEval = Logger.constructCSVFilename(baseFilename, Stage.EVAL, "GAME");
-		filenameLogGameTrain = Logger.constructCSVFilename(baseFilename, Stage.TRAIN, "GAME");
-		filenameLogPlyEval = Logger.constructCSVFilename(baseFilename, Stage.EVAL, "PLY");
-		filenameLogPlyTrain = Logger.constructCSVFilename(baseFilename, Stage.TRAIN, "PLY");
-
-		filenameLogMeta = definitiveLogTime + "_" + baseFilename + "META.txt";
-
-	}
-
-	public static void setFilenameLogState(String baseFilename) {
-		filenameLogState = baseFilename + "_STATE.txt";
-	}
+	static final Object[] HEADER_PLY_AGGREGATE_CSV = new String[] { "first_episode_of_batch", "state", "action",
+			"number_of_actions", "number_of_exploratory_actions", "was_action_optimal" };
 
 	/**
 	 * serialise/Export the passed Experience object as a file to the experience
@@ -85,7 +47,7 @@ public class Logger {
 	 *                              extension of this filename should be .ser
 	 */
 	public static void serialiseExperience(Experience experienceToserialise, String filename) {
-		try (FileOutputStream fileOut = new FileOutputStream(FILE_PATH_EXPERIENCE + definitiveLogTime + "_" + filename);
+		try (FileOutputStream fileOut = new FileOutputStream(FILE_PATH_EXPERIENCE + filename);
 				ObjectOutputStream objectOut = new ObjectOutputStream(fileOut)) {
 			objectOut.writeObject(experienceToserialise);
 		} catch (IOException i) {
@@ -103,9 +65,19 @@ public class Logger {
 	 * @return deserialised file as experience object
 	 */
 	public static Experience deserialiseExperience(String filename) {
+		return Logger.deserialiseExperienceFromPath(FILE_PATH_EXPERIENCE + filename);
+	}
+
+	/**
+	 * Returns the deserialised experience object of the file at the passed path
+	 *
+	 * @param filePath path of the serialised experience including the directory
+	 * @return deserialised file as experience object
+	 */
+	static Experience deserialiseExperienceFromPath(String filePath) {
 
 		Experience deserialisedExperience = null;
-		try (FileInputStream fileIn = new FileInputStream(FILE_PATH_EXPERIENCE + filename);
+		try (FileInputStream fileIn = new FileInputStream(filePath);
 				ObjectInputStream objectIn = new ObjectInputStream(fileIn);) {
 			deserialisedExperience = (Experience) objectIn.readObject();
 		} catch (IOException i) {
@@ -118,120 +90,80 @@ public class Logger {
 	}
 
 	/**
-	 * Builds the filename for the CSV file according to the passed parameters The
-	 * start time of the execution is prepended in the format yyyyMMddHHmm to
-	 * differentiate between different runs
-	 * 
-	 * @param baseFilename     basename of the cSV file that contains the used
-	 *                         algorithm and whether afterstates was used
-	 * @param stage            stage in the execution process the CSV is used for;
-	 *                         either TRAIN or EVAL
-	 * @param aggregationLevel either used on GAME or Ply level
-	 * @return filename for the CSV that satisfies set conventions
+	 * Saves a snapshot of the passed experience to the experience directory, see
+	 * {@link ExperienceSnapshot}. The passed filename should only contain the
+	 * filename and no directory paths as the path to the directory is prepended.
+	 * However it should contain the extension - which is .snap by convention
+	 *
+	 * @param experienceToSave experience object to be saved
+	 * @param filename         that the snapshot will be saved to
 	 */
-	private static String constructCSVFilename(String baseFilename, Stage stage, String aggregationLevel) {
-		return definitiveLogTime + "_" + baseFilename + stage.toString() + "_" + aggregationLevel + ".csv";
+	public static void saveExperienceSnapshot(Experience experienceToSave, String filename) {
+		ExperienceSnapshot.write(experienceToSave, FILE_PATH_EXPERIENCE + filename);
 	}
 
 	/**
-	 * Derives the filename of the csvFile to use based on the passed parameters
-	 * 
-	 * @param isLogAggregated true if the CSV file to be written to is aggregated on
-	 *                        a GameLevel, false if it contains just a ply
-	 * @param stage           stage in the execution process the CSV is used for;
-	 *                        either TRAIN or EVAL
-	 * @return string containing the CSV filename to use
+	 * Returns the experience of the snapshot with the passed filename in the
+	 * experience directory, see {@link ExperienceSnapshot}
+	 *
+	 * @param filename snapshot which should be read
+	 * @return experience of the snapshot
 	 */
-	private static String deriveCSVFilename(boolean isLogAggregated, Stage stage) {
-		String csvFileToAppend = "";
-
-		if (isLogAggregated) {
-			if (stage == Stage.TRAIN) {
-				csvFileToAppend = filenameLogGameTrain;
-			} else {
-				csvFileToAppend = filenameLogGameEval;
-			}
-
-		} else {
-			if (stage == Stage.TRAIN) {
-				csvFileToAppend = filenameLogPlyTrain;
-			} else {
-				csvFileToAppend = filenameLogPlyEval;
-			}
+	public static Experience loadExperienceSnapshot(String filename) {
+		return ExperienceSnapshot.read(FILE_PATH_EXPERIENCE + filename);
+	}
 
+	/**
+	 * Returns the experience of the file with the passed filename in the
+	 * experience directory. Files with the extension of a snapshot are read as
+	 * snapshot, all other files are deserialised
+	 *
+	 * @param filename file which should be loaded
+	 * @return loaded experience
+	 */
+	public static Experience loadExperience(String filename) {
+		if (filename.endsWith(ExperienceSnapshot.FILE_EXTENSION)) {
+			return Logger.loadExperienceSnapshot(filename);
 		}
-		return csvFileToAppend;
+		return Logger.deserialiseExperience(filename);
 	}
 
 	/**
-	 * Logs the passed values to the Game CSV file corresponding to the passed
-	 * stage, optionally write the header beforehand
-	 * 
-	 * @param values      record of one episode to be logged to the CSV file
-	 * @param stage       stage in the execution process the csv is used for; either
-	 *                    TRAIN or EVAL
-	 * @param printHeader true if the header is to be printed
+	 * Creates a new empty file in the experience directory for a
+	 * {@link MappedQTable}. The passed prefix is followed by a unique suffix, thus
+	 * tables of concurrent runs do not share a file
+	 *
+	 * @param prefix start of the filename, usually the filename of the experience
+	 * @return path of the created file including the directory
 	 */
-	public static void logToGameCSV(Object[] values, Stage stage, boolean printHeader) {
-		String csvFileToAppend = Logger.deriveCSVFilename(true, stage);
-
-		try (FileWriter writer = new FileWriter(LOG_PATH + csvFileToAppend, true);
-				CSVPrinter printer = new CSVPrinter(writer, CSVFormat.EXCEL);) {
-			if (printHeader) {
-				printer.printRecord(HEADER_GAME_CSV);
-			}
-			printer.printRecord(values);
-
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
+	public static String createMappedExperienceFile(String prefix) {
+		try {
+			return Files.createTempFile(Paths.get(FILE_PATH_EXPERIENCE), prefix + "_", MappedQTable.FILE_EXTENSION)
+					.toString();
 		} catch (IOException e) {
-			e.printStackTrace();
+			throw new IllegalStateException("file of the mapped experience could not be created", e);
 		}
-
 	}
 
 	/**
-	 * Logs the passed values to the Ply CSV file corresponding to the passed stage,
-	 * optionally write the header beforehand
-	 * 
-	 * @param values      record of multiple plies to be logged to the CSV file
-	 * @param stage       stage in the execution process the csv is used for; either
-	 *                    TRAIN or EVAL
-	 * @param printHeader true if the header is to be printed
+	 * Returns the training checkpoint with the passed filename in the checkpoint
+	 * directory, see {@link TrainingCheckpoint}
+	 *
+	 * @param filename checkpoint which should be read, including the extension
+	 * @return checkpoint of the file, null if the file could not be read
 	 */
-	public static void logToPlyCSV(LinkedList<Object[]> values, Stage stage, boolean printHeader) {
-		String csvFileToAppend = deriveCSVFilename(false, stage);
-
-		try (FileWriter writer = new FileWriter(LOG_PATH + csvFileToAppend, true);
-				CSVPrinter printer = new CSVPrinter(writer, CSVFormat.EXCEL);) {
-			if (printHeader) {
-				printer.printRecord(HEADER_PLY_CSV);
-			}
-			printer.printRecords(values);
-
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+	public static TrainingCheckpoint loadCheckpoint(String filename) {
+		return TrainingCheckpoint.read(CHECKPOINT_PATH + filename);
 	}
 
 	/**
-	 * Method logs the passed string to one of the two txt-files used to evaluate
-	 * the runs
+	 * Appends the passed string as a new line to the txt-file with the passed name
+	 * in the log directory
 	 * 
+	 * @param logFile   name of the txt-file without directory
 	 * @param textToLog String to write to the file
-	 * @param isMetaLog if true string is written to the metaLog, else it is written
-	 *                  to the StateLog
 	 */
-	public static void logToTxtFile(String textToLog, boolean isMetaLog) {
-		String logFile;
-		if (isMetaLog) {
-			logFile = filenameLogMeta;
-		} else {
-			logFile = filenameLogState;
-		}
-
+	static void appendToTxtFile(String logFile, String textToLog) {
 		try (FileWriter writer = new FileWriter(LOG_PATH + logFile, true)) {
 			writer.write(textToLog);
 			writer.write(System.lineSeparator());
@@ -240,9 +172,4 @@ public class Logger {
 		}
 	}
 
-	public static void logMetaData(ExperimentParameters experimentparameters) {
-		String metaDataString = Utility.generateMetaDataString(experimentparameters);
-		Logger.logToTxtFile(metaDataString, true);
-	}
-
 }
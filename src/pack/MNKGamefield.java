@@ -0,0 +1,403 @@
+package pack;
+
+import java.util.ArrayList;
+
+/**
+ * Gamefield of the generalised m,n,k-game: a board with m rows and n columns
+ * where the first player to occupy k slots in a row, column or diagonal wins.
+ * Tic Tac Toe is the 3,3,3-game, thus {@link Gamefield} is the special case
+ * that is hard-wired and backed by the {@link StateLookupTable}
+ *
+ * The slots are numbered row by row starting with 0 in the upper left corner.
+ * Each symbol has its own bitboard held in a long whose bit i denotes slot i.
+ * The win masks are generated when the gamefield is created and after an
+ * action only the masks containing its slot are checked. As the state key
+ * packs both bitboards into a single long, a gamefield has at most 32 slots
+ */
+public class MNKGamefield {
+	public static final int MAX_SIZE = Long.SIZE / 2;
+
+	private final int NUMBER_OF_ROWS;
+	private final int NUMBER_OF_COLUMNS;
+	private final int WIN_LENGTH;
+	private final int GAMEFIELD_SIZE;
+	private final long GAMEFIELD_MASK;
+
+	private final long[] WIN_MASKS;
+	// win masks that contain the slot with the respective index
+	private final long[][] WIN_MASKS_OF_SLOT;
+
+	private long bitboardX;
+	private long bitboardO;
+	private GameStatus currentGameStatus;
+
+	/**
+	 * Creates an empty gamefield with the passed dimensions
+	 *
+	 * @param numberOfRows    number of rows m
+	 * @param numberOfColumns number of columns n
+	 * @param winLength       number of slots in a row k that are necessary to win
+	 */
+	public MNKGamefield(int numberOfRows, int numberOfColumns, int winLength) {
+		if (numberOfRows < 1 || numberOfColumns < 1 || numberOfRows * numberOfColumns > MAX_SIZE) {
+			throw new IllegalArgumentException("gamefield of " + numberOfRows + "x" + numberOfColumns
+					+ " is not supported; the gamefield needs between 1 and " + MAX_SIZE + " slots");
+		}
+		if (winLength < 1 || winLength > Math.max(numberOfRows, numberOfColumns)) {
+			throw new IllegalArgumentException("win length " + winLength + " is not reachable on a gamefield of "
+					+ numberOfRows + "x" + numberOfColumns);
+		}
+		this.NUMBER_OF_ROWS = numberOfRows;
+		this.NUMBER_OF_COLUMNS = numberOfColumns;
+		this.WIN_LENGTH = winLength;
+		this.GAMEFIELD_SIZE = numberOfRows * numberOfColumns;
+		this.GAMEFIELD_MASK = (1L << this.GAMEFIELD_SIZE) - 1;
+
+		this.WIN_MASKS = this.generateWinMasks();
+		this.WIN_MASKS_OF_SLOT = new long[this.GAMEFIELD_SIZE][];
+		for (int slot = 0; slot < this.GAMEFIELD_SIZE; slot++) {
+			ArrayList<Long> winMasksOfSlot = new ArrayList<>();
+			for (long winMask : this.WIN_MASKS) {
+				if ((winMask & (1L << slot)) != 0) {
+					winMasksOfSlot.add(winMask);
+				}
+			}
+			this.WIN_MASKS_OF_SLOT[slot] = winMasksOfSlot.stream().mapToLong(Long::longValue).toArray();
+		}
+
+		this.resetGameField();
+	}
+
+	/**
+	 * Generates the win masks for all rows, columns and both diagonal directions,
+	 * i.e. a mask for every line of k slots that fits onto the gamefield
+	 *
+	 * @return all win masks of the gamefield
+	 */
+	private long[] generateWinMasks() {
+		// row and column steps of the directions: horizontal, vertical, diagonal and
+		// anti-diagonal
+		int[][] directions = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+		ArrayList<Long> winMasks = new ArrayList<>();
+
+		for (int row = 0; row < this.NUMBER_OF_ROWS; row++) {
+			for (int column = 0; column < this.NUMBER_OF_COLUMNS; column++) {
+				for (int[] direction : directions) {
+					int lastRow = row + (this.WIN_LENGTH - 1) * direction[0];
+					int lastColumn = column + (this.WIN_LENGTH - 1) * direction[1];
+					if (lastRow >= this.NUMBER_OF_ROWS || lastColumn < 0 || lastColumn >= this.NUMBER_OF_COLUMNS) {
+						continue;
+					}
+
+					long winMask = 0;
+					for (int i = 0; i < this.WIN_LENGTH; i++) {
+						winMask |= 1L << this.getSlot(row + i * direction[0], column + i * direction[1]);
+					}
+					// a win length of 1 yields the same mask for every direction
+					if (!winMasks.contains(winMask)) {
+						winMasks.add(winMask);
+					}
+				}
+			}
+		}
+		return winMasks.stream().mapToLong(Long::longValue).toArray();
+	}
+
+	/**
+	 * Returns the index of the slot in the passed row and column
+	 *
+	 * @param row    of the slot starting with 0
+	 * @param column of the slot starting with 0
+	 * @return index of the slot
+	 */
+	public int getSlot(int row, int column) {
+		return row * this.NUMBER_OF_COLUMNS + column;
+	}
+
+	/**
+	 * Returns a bitboard of the gamefield that does not differentiate between
+	 * symbols. Occupied slots are denoted by 1, unoccupied slots by 0
+	 *
+	 * @return a representation of the complete gamefield as a long
+	 */
+	private long getCompleteGameFieldBitBoard() {
+		return this.bitboardX | this.bitboardO;
+	}
+
+	/**
+	 * Returns a bitmask of all actions that are legal in the current state of the
+	 * gamefield, i.e. bit i is set if slot i is unoccupied. As a gamefield has at
+	 * most 32 slots the mask fits into an int and can be used with
+	 * {@link Utility#getRandomSetBit(int)}. If the game has ended no action is
+	 * legal thus 0 is returned
+	 *
+	 * @return bitmask of all currently legal actions
+	 */
+	public int getLegalActionsMask() {
+		if (this.hasGameEnded()) {
+			return 0;
+		}
+		return (int) (~this.getCompleteGameFieldBitBoard() & this.GAMEFIELD_MASK);
+	}
+
+	/**
+	 * Returns an int array containing all actions that are legal in the current
+	 * state of the gamefield in ascending order. An action is denoted by the index
+	 * of the slot it fills. If the game has ended an empty array is returned
+	 *
+	 * @return array containing all currently legal actions
+	 */
+	public int[] getLegalActions() {
+		int legalActionsMask = this.getLegalActionsMask();
+		int[] legalActions = new int[Integer.bitCount(legalActionsMask)];
+
+		for (int i = 0; legalActionsMask != 0; i++) {
+			legalActions[i] = Integer.numberOfTrailingZeros(legalActionsMask);
+			legalActionsMask &= legalActionsMask - 1;
+		}
+		return legalActions;
+	}
+
+	/**
+	 * Checks if the passed action is legal, i.e. if the slot is currently not
+	 * occupied
+	 *
+	 * @param action to be checked for legality
+	 * @return true if action is legal
+	 */
+	private boolean isActionLegal(int action) {
+		return action >= 0 && action < this.GAMEFIELD_SIZE
+				&& (this.getCompleteGameFieldBitBoard() & (1L << action)) == 0;
+	}
+
+	/**
+	 * Applies the passed action for the passed symbol after checking whether it is
+	 * legal in the current state of the game. Method also updates and returns the
+	 * current GameStatus
+	 *
+	 * @param symbol for the action to be applied
+	 * @param action to apply for the given symbol
+	 * @return the status of the game after the action was applied for the given
+	 *         symbol
+	 */
+	public GameStatus applyAction(Symbol symbol, int action) {
+
+		if (this.hasGameEnded()) {
+			throw new IllegalStateException("no action permitted as game ended with status: " + this.currentGameStatus);
+		}
+
+		if (!isActionLegal(action)) {
+			throw new IllegalArgumentException(
+					"passed action " + action + " is not legal; current gamestate is " + this.toString());
+		}
+
+		long bitboardOfSymbol;
+		if (symbol.isX()) {
+			this.bitboardX |= 1L << action;
+			bitboardOfSymbol = this.bitboardX;
+		} else {
+			this.bitboardO |= 1L << action;
+			bitboardOfSymbol = this.bitboardO;
+		}
+
+		// only lines through the filled slot can have been completed by the action
+		boolean winningPatternFound = false;
+		for (long winMask : this.WIN_MASKS_OF_SLOT[action]) {
+			if ((bitboardOfSymbol & winMask) == winMask) {
+				winningPatternFound = true;
+				break;
+			}
+		}
+
+		if (winningPatternFound) {
+			this.currentGameStatus = symbol.isX() ? GameStatus.WIN_X : GameStatus.WIN_O;
+		} else if (this.getCompleteGameFieldBitBoard() == this.GAMEFIELD_MASK) {
+			this.currentGameStatus = GameStatus.DRAW;
+		} else {
+			this.currentGameStatus = GameStatus.ON_GOING;
+		}
+		return this.currentGameStatus;
+	}
+
+	/**
+	 * Undoes the specified action of the passed symbol by setting the bit
+	 * corresponding to the slot of the symbol to 0. As actions are only applied
+	 * while the game is ongoing, the game is ongoing afterwards unless the
+	 * gamefield is empty again
+	 *
+	 * @param symbol for that the action should be undone
+	 * @param action that to be undone
+	 * @return status of the game after the action was undone
+	 */
+	public GameStatus undoAction(Symbol symbol, int action) {
+		if (symbol.isX()) {
+			this.bitboardX &= ~(1L << action);
+		} else {
+			this.bitboardO &= ~(1L << action);
+		}
+
+		this.currentGameStatus = this.getCompleteGameFieldBitBoard() == 0 ? GameStatus.INITIALIZED
+				: GameStatus.ON_GOING;
+		return this.currentGameStatus;
+	}
+
+	/**
+	 * Returns whether the game has ended or not
+	 *
+	 * @return true if the game has ended with in a draw or a win for either player
+	 */
+	public boolean hasGameEnded() {
+		return !(this.currentGameStatus == GameStatus.INITIALIZED || this.currentGameStatus == GameStatus.ON_GOING);
+	}
+
+	/**
+	 * Resets the bitboards for both symbols by setting all bits to 0
+	 */
+	public void resetGameField() {
+		this.bitboardX = 0;
+		this.bitboardO = 0;
+		this.currentGameStatus = GameStatus.INITIALIZED;
+	}
+
+	/**
+	 * State key as long. The bitboard of X is shifted by the size of the gamefield
+	 * and the bitboard of O occupies the lowest bits, thus the key of a 3,3,3
+	 * gamefield equals the state returned by {@link Gamefield#getState()}
+	 *
+	 * @return long representing the current state of the gamefield
+	 */
+	public long getStateKey() {
+		return (this.bitboardX << this.GAMEFIELD_SIZE) | this.bitboardO;
+	}
+
+	/**
+	 * Sets the gamefield to the state of the passed key and calculates the status
+	 * of the game in this state, see {@link #getStateKey()}
+	 *
+	 * @param stateKey key of the state to set
+	 */
+	public void setStateKey(long stateKey) {
+		long bitboardX = (stateKey >>> this.GAMEFIELD_SIZE) & this.GAMEFIELD_MASK;
+		long bitboardO = stateKey & this.GAMEFIELD_MASK;
+		if ((stateKey >>> (2 * this.GAMEFIELD_SIZE)) != 0 || (bitboardX & bitboardO) != 0) {
+			throw new IllegalArgumentException("passed key " + stateKey + " is no state of a gamefield of "
+					+ this.NUMBER_OF_ROWS + "x" + this.NUMBER_OF_COLUMNS);
+		}
+		this.bitboardX = bitboardX;
+		this.bitboardO = bitboardO;
+
+		if (this.containsWinMask(bitboardX)) {
+			this.currentGameStatus = GameStatus.WIN_X;
+		} else if (this.containsWinMask(bitboardO)) {
+			this.currentGameStatus = GameStatus.WIN_O;
+		} else if (this.getCompleteGameFieldBitBoard() == this.GAMEFIELD_MASK) {
+			this.currentGameStatus = GameStatus.DRAW;
+		} else if (this.getCompleteGameFieldBitBoard() == 0) {
+			this.currentGameStatus = GameStatus.INITIALIZED;
+		} else {
+			this.currentGameStatus = GameStatus.ON_GOING;
+		}
+	}
+
+	/**
+	 * Checks whether the passed bitboard contains one of the win masks
+	 *
+	 * @param bitboardToCheck bitboard of a single symbol
+	 * @return true if the passed bitboard contains a win mask
+	 */
+	private boolean containsWinMask(long bitboardToCheck) {
+		for (long winMask : this.WIN_MASKS) {
+			if ((bitboardToCheck & winMask) == winMask) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of lines that the passed symbol can still complete, i.e.
+	 * the win masks that contain no slot of the opponent
+	 *
+	 * @param symbol for that the open lines are to be counted
+	 * @return number of open lines of the symbol
+	 */
+	public int countOpenLines(Symbol symbol) {
+		long bitboardOfOpponent = symbol.isX() ? this.bitboardO : this.bitboardX;
+		int numberOfOpenLines = 0;
+		for (long winMask : this.WIN_MASKS) {
+			if ((bitboardOfOpponent & winMask) == 0) {
+				numberOfOpenLines++;
+			}
+		}
+		return numberOfOpenLines;
+	}
+
+	/**
+	 * Returns the symbol whose turn it is in the current state. X always begins
+	 *
+	 * @return symbol that makes the next action
+	 */
+	public Symbol getCurrentTurnsSymbol() {
+		return Long.bitCount(this.bitboardX) > Long.bitCount(this.bitboardO) ? Symbol.SYMBOL_O : Symbol.SYMBOL_X;
+	}
+
+	/**
+	 * Returns the number of plies that have occurred in the current game
+	 *
+	 * @return number of occupied slots
+	 */
+	public int getNumberOfPlies() {
+		return Long.bitCount(this.getCompleteGameFieldBitBoard());
+	}
+
+	/**
+	 * Returns the current status of the game
+	 *
+	 * @return status of the game
+	 */
+	public GameStatus getCurrentGameStatus() {
+		return this.currentGameStatus;
+	}
+
+	public int getNumberOfRows() {
+		return this.NUMBER_OF_ROWS;
+	}
+
+	public int getNumberOfColumns() {
+		return this.NUMBER_OF_COLUMNS;
+	}
+
+	public int getWinLength() {
+		return this.WIN_LENGTH;
+	}
+
+	public int getGamefieldSize() {
+		return this.GAMEFIELD_SIZE;
+	}
+
+	public int getNumberOfWinMasks() {
+		return this.WIN_MASKS.length;
+	}
+
+	/**
+	 * Returns the current state of the gamefield encoded as string with the chars
+	 * "X", "O" for the respective players and "-" for unoccupied slots, i.e. the
+	 * same encoding as {@link Gamefield#toString()}
+	 *
+	 * @return state represented as a string
+	 */
+	public String toString() {
+		StringBuilder stateString = new StringBuilder(this.GAMEFIELD_SIZE);
+		for (int slot = 0; slot < this.GAMEFIELD_SIZE; slot++) {
+			if ((this.bitboardX & (1L << slot)) != 0) {
+				stateString.append('X');
+			} else if ((this.bitboardO & (1L << slot)) != 0) {
+				stateString.append('O');
+			} else {
+				stateString.append('-');
+			}
+		}
+		return stateString.toString();
+	}
+
+}
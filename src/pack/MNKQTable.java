@@ -0,0 +1,349 @@
+package pack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Tabular qValues for the states of a {@link MNKGamefield}. The other
+ * {@link Experience} implementations are bound to the 18 bit state of
+ * {@link Gamefield}, this table is keyed by the long state key of
+ * {@link MNKGamefield#getStateKey()} instead, thus the TD agents learn on larger
+ * gamefields through the long methods of {@link Experience}. The int methods
+ * take the state key as well
+ *
+ * The states are held in an open addressing table that maps a state key to a
+ * row. Every row holds one qValue per slot of the gamefield and a bitmask of
+ * the actions that were legal when the state was initialised. Like
+ * {@link PrimitiveQTable} no objects are allocated per state
+ */
+public class MNKQTable implements Experience {
+
+	private static final long serialVersionUID = 4406310985914236735L;
+	private static final long EMPTY_KEY = -1L;
+	private static final int INITIAL_CAPACITY = 1 << 12;
+
+	private final int GAMEFIELD_SIZE;
+	private final double INITIAL_QVALUE;
+
+	private long[] keys;
+	private int[] rowOfSlot;
+
+	private double[] qValues;
+	private int[] actionMasks;
+	private int numberOfRows = 0;
+
+	/**
+	 * Creates an empty table for gamefields with the passed number of slots
+	 *
+	 * @param gamefieldSize number of slots of the gamefield, see
+	 *                      {@link MNKGamefield#getGamefieldSize()}
+	 * @param initialQValue qValue assigned to every legal action of a newly
+	 *                      initialised state
+	 */
+	public MNKQTable(int gamefieldSize, double initialQValue) {
+		if (gamefieldSize < 1 || gamefieldSize > MNKGamefield.MAX_SIZE) {
+			throw new IllegalArgumentException("gamefield size " + gamefieldSize + " is not supported");
+		}
+		this.GAMEFIELD_SIZE = gamefieldSize;
+		this.INITIAL_QVALUE = initialQValue;
+		this.keys = MNKQTable.createEmptyKeyArray(INITIAL_CAPACITY);
+		this.rowOfSlot = new int[INITIAL_CAPACITY];
+		this.qValues = new double[(INITIAL_CAPACITY / 2) * gamefieldSize];
+		this.actionMasks = new int[INITIAL_CAPACITY / 2];
+	}
+
+	/**
+	 * If the state has not been initialised yet, this method adds a row with the
+	 * constant provided in the constructor for every legal action. Terminal states
+	 * have no legal actions, their qValue is QVALUE_TERMINAL_STATE by definition
+	 *
+	 * @param state        key of the state that is to be added
+	 * @param legalActions actions that are legal in the state, if legalActions is
+	 *                     empty a terminal state is assumed
+	 */
+	@Override
+	public void initialiseQTableEntryIfNotExistent(long state, int[] legalActions) {
+		int slot = this.findSlot(state);
+		if (this.keys[slot] != EMPTY_KEY) {
+			return;
+		}
+
+		if (this.numberOfRows == this.actionMasks.length) {
+			this.actionMasks = Arrays.copyOf(this.actionMasks, this.numberOfRows * 2);
+			this.qValues = Arrays.copyOf(this.qValues, this.numberOfRows * 2 * this.GAMEFIELD_SIZE);
+		}
+		int row = this.numberOfRows++;
+		this.actionMasks[row] = MNKQTable.convertToMask(legalActions);
+		Arrays.fill(this.qValues, row * this.GAMEFIELD_SIZE, (row + 1) * this.GAMEFIELD_SIZE, this.INITIAL_QVALUE);
+
+		this.keys[slot] = state;
+		this.rowOfSlot[slot] = row;
+		if (this.numberOfRows * 2 > this.keys.length) {
+			this.growTable();
+		}
+	}
+
+	/**
+	 * Sets the qValue of the state-action tuple to the passed new qValue
+	 *
+	 * @param state     of the state-action tuple to be updated
+	 * @param action    of the state-action tuple to be updated
+	 * @param newQValue new qValue of the state-action tuple
+	 */
+	@Override
+	public void updateQTableValue(long state, int action, double newQValue) {
+		this.qValues[this.getRow(state) * this.GAMEFIELD_SIZE + action] = newQValue;
+	}
+
+	/**
+	 * Returns the qValue of the passed state-action tuple. Actions that were not
+	 * legal in the state, e.g. all actions of a terminal state, have the qValue
+	 * QVALUE_TERMINAL_STATE
+	 *
+	 * @param state  of the state-action tuple
+	 * @param action of the state-action tuple
+	 * @return qValue of the state-action tuple
+	 */
+	@Override
+	public double getQValue(long state, int action) {
+		int row = this.getRow(state);
+		if ((this.actionMasks[row] & (1 << action)) == 0) {
+			return QVALUE_TERMINAL_STATE;
+		}
+		return this.qValues[row * this.GAMEFIELD_SIZE + action];
+	}
+
+	/**
+	 * Returns the bitmask of the legal actions with the highest qValue
+	 *
+	 * @param state        initialised state
+	 * @param legalActions set of actions that are legal in this state
+	 * @return bitmask with a bit set for every best action
+	 */
+	private int getBestActionsMask(long state, int[] legalActions) {
+		if (legalActions.length == 0) {
+			throw new IllegalArgumentException(
+					"empty array was passed thus no optimal action available; method is not applicable for terminal states");
+		}
+		int rowOffset = this.getRow(state) * this.GAMEFIELD_SIZE;
+		int bestActionsMask = 0;
+		double bestQValue = Double.NEGATIVE_INFINITY;
+
+		for (int legalAction : legalActions) {
+			double qValueOfLegalAction = this.qValues[rowOffset + legalAction];
+
+			if (qValueOfLegalAction == bestQValue) {
+				bestActionsMask |= 1 << legalAction;
+			} else if (qValueOfLegalAction > bestQValue) {
+				bestActionsMask = 1 << legalAction;
+				bestQValue = qValueOfLegalAction;
+			}
+		}
+		return bestActionsMask;
+	}
+
+	/**
+	 * Get the best action out of the legal actions for the given state, ties are
+	 * broken arbitrarily
+	 *
+	 * @param state        initialised state
+	 * @param legalActions set of actions that are legal in this state
+	 * @return action with the highest qValue
+	 */
+	@Override
+	public int getBestAction(long state, int[] legalActions) {
+		return Utility.getRandomSetBit(this.getBestActionsMask(state, legalActions));
+	}
+
+	/**
+	 * Returns one or more actions out of the set of legal actions with the highest
+	 * qValue
+	 *
+	 * @param state        initialised state
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest qValue in
+	 *         ascending order
+	 */
+	@Override
+	public ArrayList<Integer> getBestActions(long state, int[] legalActions) {
+		return Utility.convertBitmaskToList(this.getBestActionsMask(state, legalActions));
+	}
+
+	/**
+	 * Returns the best actions like {@link #getBestActions(long, int[])} without
+	 * modifying the table. A state that has not been initialised is treated as if
+	 * it had been, i.e. every legal action has the initial qValue
+	 *
+	 * @param state        key of the state
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest qValue
+	 */
+	@Override
+	public ArrayList<Integer> getBestActionsWithoutInitialising(long state, int[] legalActions) {
+		if (!this.isStateInitialised(state)) {
+			// every legal action would be initialised with the same qValue
+			return Utility.convertArrayToList(legalActions);
+		}
+		return this.getBestActions(state, legalActions);
+	}
+
+	/**
+	 * Returns a map of the legal actions of the passed state to their qValues.
+	 * Terminal states map null to QVALUE_TERMINAL_STATE like
+	 * {@link QTable#getActionQValueMapForState(int)}
+	 *
+	 * @param state key of the state
+	 * @return action-qValue map for the given state, null if the state was not
+	 *         initialised
+	 */
+	@Override
+	public HashMap<Integer, Double> getActionQValueMapForState(long state) {
+		if (!this.isStateInitialised(state)) {
+			return null;
+		}
+		int row = this.getRow(state);
+		HashMap<Integer, Double> actionQValueMap = new HashMap<>();
+		if (this.actionMasks[row] == 0) {
+			actionQValueMap.put(null, QVALUE_TERMINAL_STATE);
+		}
+		for (int action : Utility.convertBitmaskToList(this.actionMasks[row])) {
+			actionQValueMap.put(action, this.qValues[row * this.GAMEFIELD_SIZE + action]);
+		}
+		return actionQValueMap;
+	}
+
+	@Override
+	public double getQValueOfTerminalState() {
+		return QVALUE_TERMINAL_STATE;
+	}
+
+	@Override
+	public void initialiseQTableEntryIfNotExistent(int state, int[] legalActions) {
+		this.initialiseQTableEntryIfNotExistent((long) state, legalActions);
+	}
+
+	@Override
+	public void updateQTableValue(int state, int action, double newQValue) {
+		this.updateQTableValue((long) state, action, newQValue);
+	}
+
+	@Override
+	public int getBestAction(int state, int[] legalActions) {
+		return this.getBestAction((long) state, legalActions);
+	}
+
+	@Override
+	public ArrayList<Integer> getBestActions(int state, int[] legalActions) {
+		return this.getBestActions((long) state, legalActions);
+	}
+
+	@Override
+	public ArrayList<Integer> getBestActionsWithoutInitialising(int state, int[] legalActions) {
+		return this.getBestActionsWithoutInitialising((long) state, legalActions);
+	}
+
+	@Override
+	public double getQValue(int state, int action) {
+		return this.getQValue((long) state, action);
+	}
+
+	@Override
+	public HashMap<Integer, Double> getActionQValueMapForState(int state) {
+		return this.getActionQValueMapForState((long) state);
+	}
+
+	/**
+	 * Returns whether the passed state has been initialised
+	 *
+	 * @param state key of the state to check
+	 * @return true if the state has been initialised
+	 */
+	public boolean isStateInitialised(long state) {
+		return this.keys[this.findSlot(state)] != EMPTY_KEY;
+	}
+
+	/**
+	 * Returns the number of distinct states that have been initialised including
+	 * terminal states
+	 *
+	 * @return number of distinct visited states
+	 */
+	@Override
+	public int getNumberOfDistinctVisitedStates() {
+		return this.numberOfRows;
+	}
+
+	public int getGamefieldSize() {
+		return this.GAMEFIELD_SIZE;
+	}
+
+	/**
+	 * Returns the row of the passed state
+	 *
+	 * @param state initialised state
+	 * @return row of the state
+	 */
+	private int getRow(long state) {
+		int slot = this.findSlot(state);
+		if (this.keys[slot] == EMPTY_KEY) {
+			throw new NullPointerException(
+					"state has not been initialised yet; According to the TD algorithm this state should not be accessed");
+		}
+		return this.rowOfSlot[slot];
+	}
+
+	/**
+	 * Returns the slot that contains the passed key or the empty slot where the key
+	 * is to be inserted. The key of a legal state is never EMPTY_KEY as the
+	 * bitboards of both symbols are disjoint
+	 *
+	 * @param key state key
+	 * @return index of the slot
+	 */
+	private int findSlot(long key) {
+		int mask = this.keys.length - 1;
+		int shift = Long.SIZE - Integer.numberOfTrailingZeros(this.keys.length);
+		int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+
+		while (this.keys[slot] != key && this.keys[slot] != EMPTY_KEY) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Doubles the capacity of the table and reinserts all keys. The rows are not
+	 * moved
+	 */
+	private void growTable() {
+		long[] oldKeys = this.keys;
+		int[] oldRowOfSlot = this.rowOfSlot;
+
+		this.keys = MNKQTable.createEmptyKeyArray(oldKeys.length * 2);
+		this.rowOfSlot = new int[oldKeys.length * 2];
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY_KEY) {
+				int slot = this.findSlot(oldKeys[i]);
+				this.keys[slot] = oldKeys[i];
+				this.rowOfSlot[slot] = oldRowOfSlot[i];
+			}
+		}
+	}
+
+	private static int convertToMask(int[] actions) {
+		int actionsMask = 0;
+		for (int action : actions) {
+			actionsMask |= 1 << action;
+		}
+		return actionsMask;
+	}
+
+	private static long[] createEmptyKeyArray(int capacity) {
+		long[] emptyKeys = new long[capacity];
+		Arrays.fill(emptyKeys, EMPTY_KEY);
+		return emptyKeys;
+	}
+
+}
@@ -0,0 +1,108 @@
+package pack;
+
+/**
+ * Indexer of the states of a {@link MNKGamefield}. Every state key is
+ * interpreted as a number in base three where every slot is a digit
+ * (unoccupied, O, X), thus the index is unique and smaller than 3^size, where
+ * size is the number of slots. The indexes cover every assignment of the
+ * slots, not only the reachable states, so a table that stores a record per
+ * index should be sparse, e.g. a {@link MappedQTable} whose file only occupies
+ * the pages of visited states. A 4x4 gamefield has 3^16 indexes
+ */
+public class MNKStateIndexer implements StateIndexer {
+
+	private static final long serialVersionUID = -2967151208394875216L;
+
+	/**
+	 * Maps the eight bits of one byte of a bitboard to the sum of 3^i over all of
+	 * its set bits i
+	 */
+	private static final long[] BASE_THREE_DIGITS_OF_BYTE = new long[1 << Byte.SIZE];
+	private static final long POWER_OF_THREE_PER_BYTE = MNKStateIndexer.powerOfThree(Byte.SIZE);
+
+	static {
+		for (int bits = 1; bits < BASE_THREE_DIGITS_OF_BYTE.length; bits++) {
+			int lowestSetBit = Integer.numberOfTrailingZeros(bits);
+			BASE_THREE_DIGITS_OF_BYTE[bits] = BASE_THREE_DIGITS_OF_BYTE[bits & (bits - 1)]
+					+ MNKStateIndexer.powerOfThree(lowestSetBit);
+		}
+	}
+
+	private final int GAMEFIELD_SIZE;
+	private final long GAMEFIELD_MASK;
+	private final long NUMBER_OF_STATES;
+
+	/**
+	 * Creates an indexer for the states of the passed gamefield
+	 *
+	 * @param gamefield gamefield whose number of slots defines the indexes
+	 */
+	public MNKStateIndexer(MNKGamefield gamefield) {
+		this.GAMEFIELD_SIZE = gamefield.getGamefieldSize();
+		this.GAMEFIELD_MASK = (1L << this.GAMEFIELD_SIZE) - 1;
+		this.NUMBER_OF_STATES = MNKStateIndexer.powerOfThree(this.GAMEFIELD_SIZE);
+	}
+
+	/**
+	 * Returns the state key interpreted as a number in base three where O is
+	 * denoted by 1 and X by 2
+	 *
+	 * @param state key of the state, see {@link MNKGamefield#getStateKey()}
+	 * @return index smaller than 3^size or NO_INDEX if a slot is occupied by both
+	 *         symbols or the key exceeds the gamefield
+	 */
+	@Override
+	public long getIndex(long state) {
+		long bitboardX = (state >>> this.GAMEFIELD_SIZE) & this.GAMEFIELD_MASK;
+		long bitboardO = state & this.GAMEFIELD_MASK;
+		if ((bitboardX & bitboardO) != 0 || ((bitboardX << this.GAMEFIELD_SIZE) | bitboardO) != state) {
+			return NO_INDEX;
+		}
+
+		long index = 0;
+		long powerOfThree = 1;
+		for (int shift = 0; shift < this.GAMEFIELD_SIZE; shift += Byte.SIZE) {
+			int bitsO = (int) (bitboardO >>> shift) & 0xFF;
+			int bitsX = (int) (bitboardX >>> shift) & 0xFF;
+			index += (BASE_THREE_DIGITS_OF_BYTE[bitsO] + 2 * BASE_THREE_DIGITS_OF_BYTE[bitsX]) * powerOfThree;
+			powerOfThree *= POWER_OF_THREE_PER_BYTE;
+		}
+		return index;
+	}
+
+	@Override
+	public long getState(long index) {
+		long bitboardX = 0;
+		long bitboardO = 0;
+		long remainingDigits = index;
+		for (int slot = 0; slot < this.GAMEFIELD_SIZE; slot++) {
+			int digit = (int) (remainingDigits % 3);
+			if (digit == 1) {
+				bitboardO |= 1L << slot;
+			} else if (digit == 2) {
+				bitboardX |= 1L << slot;
+			}
+			remainingDigits /= 3;
+		}
+		return (bitboardX << this.GAMEFIELD_SIZE) | bitboardO;
+	}
+
+	@Override
+	public long getNumberOfStates() {
+		return this.NUMBER_OF_STATES;
+	}
+
+	@Override
+	public int getNumberOfActions() {
+		return this.GAMEFIELD_SIZE;
+	}
+
+	private static long powerOfThree(int exponent) {
+		long power = 1;
+		for (int i = 0; i < exponent; i++) {
+			power *= 3;
+		}
+		return power;
+	}
+
+}
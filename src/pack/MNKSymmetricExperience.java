@@ -0,0 +1,333 @@
+package pack;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Decorator that reduces an experience of long state keys, i.e. a
+ * {@link MNKQTable} or a {@link MappedQTable}, by the symmetries of a
+ * {@link MNKGamefield}, the counterpart of {@link SymmetricExperience} for the
+ * long state keys. A square gamefield has eight symmetries, the rotations and
+ * reflections, a rectangular gamefield four, the rotation by 180 degrees and
+ * both reflections along the axes. Every state-action tuple is mapped to the
+ * canonical state, i.e. the smallest key of all symmetric variants, and the
+ * corresponding action before it is passed to the decorated experience. Best
+ * actions are mapped back to the actual gamefield
+ *
+ * The canonical states of the last two passed keys are cached, as the agents
+ * pass their current and their last state to several methods in a row. Thus a
+ * decorator must not be used by multiple threads concurrently
+ */
+public class MNKSymmetricExperience implements Experience {
+
+	private static final long serialVersionUID = 2380137658532460911L;
+
+	private final Experience experience;
+	private final int GAMEFIELD_SIZE;
+	private final long GAMEFIELD_MASK;
+
+	// SLOT_PERMUTATIONS[t][slot] is the slot that slot is mapped to by the
+	// transformation t, the transformation 0 is the identity
+	private final int[][] SLOT_PERMUTATIONS;
+	private final int[][] INVERSE_SLOT_PERMUTATIONS;
+
+	// two cached keys with their canonical states and transformations; both
+	// entries start as the empty gamefield, which is its own canonical state
+	private final long[] cachedStates = new long[2];
+	private final long[] cachedCanonicalStates = new long[2];
+	private final int[] cachedTransformations = new int[2];
+	private int lastReplacedEntry;
+
+	/**
+	 * Creates a decorator that reduces the passed experience by the symmetries of
+	 * the passed gamefield
+	 *
+	 * @param experience experience that stores the values of the canonical
+	 *                   states; has to be keyed by the state keys of the passed
+	 *                   gamefield
+	 * @param gamefield  gamefield whose dimensions define the symmetries
+	 */
+	public MNKSymmetricExperience(Experience experience, MNKGamefield gamefield) {
+		this.experience = experience;
+		this.GAMEFIELD_SIZE = gamefield.getGamefieldSize();
+		this.GAMEFIELD_MASK = (1L << this.GAMEFIELD_SIZE) - 1;
+
+		int numberOfRows = gamefield.getNumberOfRows();
+		int numberOfColumns = gamefield.getNumberOfColumns();
+		int numberOfTransformations = numberOfRows == numberOfColumns ? 8 : 4;
+		this.SLOT_PERMUTATIONS = new int[numberOfTransformations][this.GAMEFIELD_SIZE];
+		this.INVERSE_SLOT_PERMUTATIONS = new int[numberOfTransformations][this.GAMEFIELD_SIZE];
+
+		for (int transformation = 0; transformation < numberOfTransformations; transformation++) {
+			for (int row = 0; row < numberOfRows; row++) {
+				for (int column = 0; column < numberOfColumns; column++) {
+					int mirroredRow = numberOfRows - 1 - row;
+					int mirroredColumn = numberOfColumns - 1 - column;
+					int transformedSlot;
+					switch (transformation) {
+					case 0:
+						transformedSlot = gamefield.getSlot(row, column);
+						break;
+					case 1:
+						transformedSlot = gamefield.getSlot(mirroredRow, mirroredColumn);
+						break;
+					case 2:
+						transformedSlot = gamefield.getSlot(row, mirroredColumn);
+						break;
+					case 3:
+						transformedSlot = gamefield.getSlot(mirroredRow, column);
+						break;
+					// the remaining transformations swap rows and columns and only exist for
+					// square gamefields
+					case 4:
+						transformedSlot = gamefield.getSlot(column, row);
+						break;
+					case 5:
+						transformedSlot = gamefield.getSlot(mirroredColumn, mirroredRow);
+						break;
+					case 6:
+						transformedSlot = gamefield.getSlot(column, mirroredRow);
+						break;
+					default:
+						transformedSlot = gamefield.getSlot(mirroredColumn, row);
+						break;
+					}
+					int slot = gamefield.getSlot(row, column);
+					this.SLOT_PERMUTATIONS[transformation][slot] = transformedSlot;
+					this.INVERSE_SLOT_PERMUTATIONS[transformation][transformedSlot] = slot;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Initialises the canonical state of the passed state in the decorated
+	 * experience with the transformed legal actions
+	 *
+	 * @param state        key of the state that is to be added
+	 * @param legalActions actions that are legal in the state, if legalActions is
+	 *                     empty a terminal state is assumed
+	 */
+	@Override
+	public void initialiseQTableEntryIfNotExistent(long state, int[] legalActions) {
+		int entry = this.lookUpCanonicalState(state);
+		this.experience.initialiseQTableEntryIfNotExistent(this.cachedCanonicalStates[entry],
+				this.transformActions(legalActions, this.SLOT_PERMUTATIONS[this.cachedTransformations[entry]]));
+	}
+
+	@Override
+	public void updateQTableValue(long state, int action, double newQValue) {
+		int entry = this.lookUpCanonicalState(state);
+		this.experience.updateQTableValue(this.cachedCanonicalStates[entry],
+				this.SLOT_PERMUTATIONS[this.cachedTransformations[entry]][action], newQValue);
+	}
+
+	@Override
+	public double getQValue(long state, int action) {
+		int entry = this.lookUpCanonicalState(state);
+		return this.experience.getQValue(this.cachedCanonicalStates[entry],
+				this.SLOT_PERMUTATIONS[this.cachedTransformations[entry]][action]);
+	}
+
+	/**
+	 * Gets the best action of the canonical state from the decorated experience and
+	 * maps it back to the passed state
+	 *
+	 * @param state        initialised state
+	 * @param legalActions set of actions that are legal in this state
+	 * @return action with the highest qValue
+	 */
+	@Override
+	public int getBestAction(long state, int[] legalActions) {
+		int entry = this.lookUpCanonicalState(state);
+		int canonicalBestAction = this.experience.getBestAction(this.cachedCanonicalStates[entry],
+				this.transformActions(legalActions, this.SLOT_PERMUTATIONS[this.cachedTransformations[entry]]));
+		return this.INVERSE_SLOT_PERMUTATIONS[this.cachedTransformations[entry]][canonicalBestAction];
+	}
+
+	/**
+	 * Returns the best actions of the canonical state mapped back to the passed
+	 * state
+	 *
+	 * @param state        initialised state
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest qValue in
+	 *         ascending order
+	 */
+	@Override
+	public ArrayList<Integer> getBestActions(long state, int[] legalActions) {
+		int entry = this.lookUpCanonicalState(state);
+		int[] inversePermutation = this.INVERSE_SLOT_PERMUTATIONS[this.cachedTransformations[entry]];
+		int bestActionsMask = 0;
+		for (int canonicalBestAction : this.experience.getBestActions(this.cachedCanonicalStates[entry],
+				this.transformActions(legalActions, this.SLOT_PERMUTATIONS[this.cachedTransformations[entry]]))) {
+			bestActionsMask |= 1 << inversePermutation[canonicalBestAction];
+		}
+		return Utility.convertBitmaskToList(bestActionsMask);
+	}
+
+	/**
+	 * Returns the best actions of the canonical state mapped back to the passed
+	 * state without modifying the decorated experience
+	 *
+	 * @param state        key of the state
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest qValue in
+	 *         ascending order
+	 */
+	@Override
+	public ArrayList<Integer> getBestActionsWithoutInitialising(long state, int[] legalActions) {
+		int entry = this.lookUpCanonicalState(state);
+		int[] inversePermutation = this.INVERSE_SLOT_PERMUTATIONS[this.cachedTransformations[entry]];
+		int bestActionsMask = 0;
+		for (int canonicalBestAction : this.experience.getBestActionsWithoutInitialising(
+				this.cachedCanonicalStates[entry],
+				this.transformActions(legalActions, this.SLOT_PERMUTATIONS[this.cachedTransformations[entry]]))) {
+			bestActionsMask |= 1 << inversePermutation[canonicalBestAction];
+		}
+		return Utility.convertBitmaskToList(bestActionsMask);
+	}
+
+	/**
+	 * Returns the action-qValue map of the canonical state with its actions mapped
+	 * back to the passed state
+	 *
+	 * @param state key of the state
+	 * @return action-qValue map for the given state, null if the state was not
+	 *         initialised
+	 */
+	@Override
+	public HashMap<Integer, Double> getActionQValueMapForState(long state) {
+		int entry = this.lookUpCanonicalState(state);
+		HashMap<Integer, Double> canonicalActionQValueMap = this.experience
+				.getActionQValueMapForState(this.cachedCanonicalStates[entry]);
+		if (canonicalActionQValueMap == null) {
+			return null;
+		}
+
+		int[] inversePermutation = this.INVERSE_SLOT_PERMUTATIONS[this.cachedTransformations[entry]];
+		HashMap<Integer, Double> actionQValueMap = new HashMap<>();
+		for (Integer canonicalAction : canonicalActionQValueMap.keySet()) {
+			// terminal states map null to their qValue
+			Integer action = canonicalAction == null ? null : inversePermutation[canonicalAction];
+			actionQValueMap.put(action, canonicalActionQValueMap.get(canonicalAction));
+		}
+		return actionQValueMap;
+	}
+
+	@Override
+	public double getQValueOfTerminalState() {
+		return this.experience.getQValueOfTerminalState();
+	}
+
+	/**
+	 * Returns the number of distinct canonical states that have been visited so far
+	 *
+	 * @return number of distinct canonical states
+	 */
+	@Override
+	public int getNumberOfDistinctVisitedStates() {
+		return this.experience.getNumberOfDistinctVisitedStates();
+	}
+
+	@Override
+	public void initialiseQTableEntryIfNotExistent(int state, int[] legalActions) {
+		this.initialiseQTableEntryIfNotExistent((long) state, legalActions);
+	}
+
+	@Override
+	public void updateQTableValue(int state, int action, double newQValue) {
+		this.updateQTableValue((long) state, action, newQValue);
+	}
+
+	@Override
+	public int getBestAction(int state, int[] legalActions) {
+		return this.getBestAction((long) state, legalActions);
+	}
+
+	@Override
+	public ArrayList<Integer> getBestActions(int state, int[] legalActions) {
+		return this.getBestActions((long) state, legalActions);
+	}
+
+	@Override
+	public ArrayList<Integer> getBestActionsWithoutInitialising(int state, int[] legalActions) {
+		return this.getBestActionsWithoutInitialising((long) state, legalActions);
+	}
+
+	@Override
+	public double getQValue(int state, int action) {
+		return this.getQValue((long) state, action);
+	}
+
+	@Override
+	public HashMap<Integer, Double> getActionQValueMapForState(int state) {
+		return this.getActionQValueMapForState((long) state);
+	}
+
+	/**
+	 * Returns the decorated experience that contains the values of the canonical
+	 * states
+	 *
+	 * @return decorated experience
+	 */
+	public Experience getDecoratedExperience() {
+		return this.experience;
+	}
+
+	/**
+	 * Returns the cache entry of the passed key. If the key is not cached, its
+	 * canonical state and the transformation that maps the key to it are
+	 * calculated and replace the entry that was not used last. Keys are compared
+	 * unsigned, as the bitboard of X reaches the sign bit on a gamefield of 32
+	 * slots
+	 *
+	 * @param state key of a state of the gamefield
+	 * @return index of the cache entry that holds the key
+	 */
+	private int lookUpCanonicalState(long state) {
+		for (int entry = 0; entry < this.cachedStates.length; entry++) {
+			if (this.cachedStates[entry] == state) {
+				return entry;
+			}
+		}
+		long canonicalState = state;
+		int transformationToCanonicalState = 0;
+		for (int transformation = 1; transformation < this.SLOT_PERMUTATIONS.length; transformation++) {
+			long transformedState = this.transformState(state, this.SLOT_PERMUTATIONS[transformation]);
+			if (Long.compareUnsigned(transformedState, canonicalState) < 0) {
+				canonicalState = transformedState;
+				transformationToCanonicalState = transformation;
+			}
+		}
+		int entry = this.lastReplacedEntry ^ 1;
+		this.cachedStates[entry] = state;
+		this.cachedCanonicalStates[entry] = canonicalState;
+		this.cachedTransformations[entry] = transformationToCanonicalState;
+		this.lastReplacedEntry = entry;
+		return entry;
+	}
+
+	private long transformState(long state, int[] permutation) {
+		long bitboardX = this.transformBitboard((state >>> this.GAMEFIELD_SIZE) & this.GAMEFIELD_MASK, permutation);
+		long bitboardO = this.transformBitboard(state & this.GAMEFIELD_MASK, permutation);
+		return (bitboardX << this.GAMEFIELD_SIZE) | bitboardO;
+	}
+
+	private long transformBitboard(long bitboard, int[] permutation) {
+		long transformedBitboard = 0;
+		for (long remainingSlots = bitboard; remainingSlots != 0; remainingSlots &= remainingSlots - 1) {
+			transformedBitboard |= 1L << permutation[Long.numberOfTrailingZeros(remainingSlots)];
+		}
+		return transformedBitboard;
+	}
+
+	private int[] transformActions(int[] actions, int[] permutation) {
+		int[] transformedActions = new int[actions.length];
+		for (int i = 0; i < actions.length; i++) {
+			transformedActions[i] = permutation[actions[i]];
+		}
+		return transformedActions;
+	}
+
+}
@@ -0,0 +1,526 @@
+package pack;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * QTable whose qValues are stored off-heap in a memory-mapped file instead of
+ * the heap. Every state has a fixed-size record at the position given by its
+ * dense index, see {@link StateIndexer}, thus no lookup structure is needed and
+ * the heap usage as well as the work of the garbage collector do not depend on
+ * the size of the table. The file is mapped in chunks of at most 1 GiB,
+ * therefore the table is not limited by the size of a single mapping. The
+ * operating system pages the records in and out as needed
+ *
+ * The tic-tac-toe gamefield only has 5478 reachable states, i.e. a file of
+ * about 440 KB. Tables that are larger than the heap are built with the
+ * indexer of a larger gamefield, e.g. {@link MNKStateIndexer}, and are keyed by
+ * the long state key. Records of states that are never visited are never
+ * written, thus the file stays sparse on file systems that support it
+ *
+ * Every value is written to the mapping directly, thus the file always contains
+ * the current table and persists when the training ends without being saved
+ * explicitly. If the file already exists the table continues with its content.
+ * Serialising the table only stores the path of the file, which is mapped again
+ * when the table is deserialised
+ *
+ * File layout (little-endian): header of 32 bytes with magic number (int),
+ * version (short), number of actions (short), number of states (long),
+ * initial qValue (double), number of initialised states (int), reserved (int);
+ * followed by one record per dense index that consists of a flag word (long)
+ * and a qValue (double) per action, i.e. 80 bytes for the tic-tac-toe
+ * gamefield. The lowest bits of the flag word mark the actions that have a
+ * qValue, the highest bit marks the state as initialised
+ *
+ * The semantics are identical to {@link PrimitiveQTable}. Tables may be read
+ * concurrently, e.g. by a parallel evaluation, but not written concurrently
+ */
+public class MappedQTable implements Experience {
+
+	private static final long serialVersionUID = -8207731595368415029L;
+
+	public static final String FILE_EXTENSION = ".qmap";
+
+	private static final int MAGIC_NUMBER = 0x5454514D;
+	private static final short VERSION = 2;
+	private static final int HEADER_SIZE = 32;
+	private static final int OFFSET_NUMBER_OF_ACTIONS = 6;
+	private static final int OFFSET_NUMBER_OF_STATES = 8;
+	private static final int OFFSET_INITIAL_QVALUE = 16;
+	private static final int OFFSET_NUMBER_OF_INITIALISED_STATES = 24;
+
+	private static final int OFFSET_QVALUES = Long.BYTES;
+	private static final long FLAG_INITIALISED = Long.MIN_VALUE;
+	private static final long ACTIONS_MASK = ~FLAG_INITIALISED;
+	private static final int MAX_CHUNK_SIZE_SHIFT = 30;
+
+	private final String FILE_PATH;
+	private final double INITIAL_QVALUE;
+	private final StateIndexer INDEXER;
+	private final int RECORD_SIZE;
+	private final int RECORDS_PER_CHUNK_SHIFT;
+
+	private transient MappedByteBuffer header;
+	private transient MappedByteBuffer[] chunks;
+	private transient int numberOfInitialisedStates;
+
+	/**
+	 * Creates a table for the states of the tic-tac-toe gamefield that is stored
+	 * in the passed file. If the file is empty or does not exist, a new table is
+	 * created, otherwise the table continues with the content of the file
+	 *
+	 * @param filePath      path of the file including the directory
+	 * @param initialQValue qValue of newly initialised state-action tuples; has to
+	 *                      match the value of an existing file
+	 */
+	public MappedQTable(String filePath, double initialQValue) {
+		this(filePath, initialQValue, new GamefieldStateIndexer());
+	}
+
+	/**
+	 * Creates a table for the states of the passed indexer that is stored in the
+	 * passed file. If the file is empty or does not exist, a new table is
+	 * created, otherwise the table continues with the content of the file
+	 *
+	 * @param filePath      path of the file including the directory
+	 * @param initialQValue qValue of newly initialised state-action tuples; has to
+	 *                      match the value of an existing file
+	 * @param indexer       maps the state keys to the records of the file; the
+	 *                      number of states and actions have to match an
+	 *                      existing file; at most 32 actions are supported
+	 */
+	public MappedQTable(String filePath, double initialQValue, StateIndexer indexer) {
+		// the best actions are collected in an int bitmask like in the other tables
+		if (indexer.getNumberOfActions() < 1 || indexer.getNumberOfActions() > Integer.SIZE) {
+			throw new IllegalArgumentException(indexer.getNumberOfActions() + " actions are not supported");
+		}
+		this.FILE_PATH = filePath;
+		this.INITIAL_QVALUE = initialQValue;
+		this.INDEXER = indexer;
+		this.RECORD_SIZE = OFFSET_QVALUES + indexer.getNumberOfActions() * Double.BYTES;
+		// largest power of two of records that fits into a chunk
+		int recordSizeShift = Integer.SIZE - Integer.numberOfLeadingZeros(this.RECORD_SIZE - 1);
+		this.RECORDS_PER_CHUNK_SHIFT = MAX_CHUNK_SIZE_SHIFT - recordSizeShift;
+		this.map();
+	}
+
+	/**
+	 * Maps the header and all chunks of the file and writes the header if the
+	 * file is new. The channel is closed afterwards as mappings stay valid
+	 */
+	private void map() {
+		long numberOfStates = this.INDEXER.getNumberOfStates();
+		long recordsPerChunk = 1L << this.RECORDS_PER_CHUNK_SHIFT;
+		long numberOfChunks = (numberOfStates + recordsPerChunk - 1) >>> this.RECORDS_PER_CHUNK_SHIFT;
+		if (numberOfChunks > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("table of " + numberOfStates + " states can not be mapped");
+		}
+
+		try (FileChannel channel = FileChannel.open(Paths.get(this.FILE_PATH), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			boolean isNewFile = channel.size() < HEADER_SIZE;
+
+			this.header = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE);
+			this.header.order(ByteOrder.LITTLE_ENDIAN);
+			if (isNewFile) {
+				this.header.putInt(0, MAGIC_NUMBER);
+				this.header.putShort(4, VERSION);
+				this.header.putShort(OFFSET_NUMBER_OF_ACTIONS, (short) this.INDEXER.getNumberOfActions());
+				this.header.putLong(OFFSET_NUMBER_OF_STATES, numberOfStates);
+				this.header.putDouble(OFFSET_INITIAL_QVALUE, this.INITIAL_QVALUE);
+				this.header.putInt(OFFSET_NUMBER_OF_INITIALISED_STATES, 0);
+			} else {
+				this.validateHeader(numberOfStates);
+			}
+			this.numberOfInitialisedStates = this.header.getInt(OFFSET_NUMBER_OF_INITIALISED_STATES);
+
+			// mapping beyond the end of the file extends it, the new records are zero,
+			// i.e. not initialised
+			this.chunks = new MappedByteBuffer[(int) numberOfChunks];
+			for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+				long recordsInChunk = Math.min(recordsPerChunk, numberOfStates - chunk * recordsPerChunk);
+				long position = HEADER_SIZE + chunk * recordsPerChunk * this.RECORD_SIZE;
+				this.chunks[chunk] = channel.map(MapMode.READ_WRITE, position, recordsInChunk * this.RECORD_SIZE);
+				this.chunks[chunk].order(ByteOrder.LITTLE_ENDIAN);
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("file of the table could not be mapped: " + this.FILE_PATH, e);
+		}
+	}
+
+	private void validateHeader(long numberOfStates) {
+		if (this.header.getInt(0) != MAGIC_NUMBER || this.header.getShort(4) != VERSION) {
+			throw new IllegalArgumentException("file is not a mapped qTable: " + this.FILE_PATH);
+		}
+		if (this.header.getLong(OFFSET_NUMBER_OF_STATES) != numberOfStates
+				|| this.header.getShort(OFFSET_NUMBER_OF_ACTIONS) != this.INDEXER.getNumberOfActions()) {
+			throw new IllegalArgumentException("file of the table was created for another number of states or actions");
+		}
+		if (Double.compare(this.header.getDouble(OFFSET_INITIAL_QVALUE), this.INITIAL_QVALUE) != 0) {
+			throw new IllegalArgumentException("file of the table was created with another initial qValue");
+		}
+	}
+
+	/**
+	 * If the state has not been initialised yet, this method marks it as
+	 * initialised and sets the qValue of every legal action to the constant
+	 * provided in the constructor. Terminal states are only marked as initialised
+	 * as their qValue is QVALUE_TERMINAL_STATE by definition
+	 *
+	 * @param state        that is to be added to the qtable
+	 * @param legalActions actions that are legal in the state, if legalActions is
+	 *                     empty a terminal state is assumed
+	 */
+	@Override
+	public void initialiseQTableEntryIfNotExistent(long state, int[] legalActions) {
+		long index = this.getDenseIndex(state);
+		MappedByteBuffer chunk = this.getChunk(index);
+		int position = this.getPosition(index);
+
+		long flags = chunk.getLong(position);
+		if ((flags & FLAG_INITIALISED) != 0) {
+			return;
+		}
+		for (int legalAction : legalActions) {
+			chunk.putDouble(position + OFFSET_QVALUES + legalAction * Double.BYTES, this.INITIAL_QVALUE);
+			flags |= 1L << legalAction;
+		}
+		chunk.putLong(position, flags | FLAG_INITIALISED);
+		this.numberOfInitialisedStates++;
+		this.header.putInt(OFFSET_NUMBER_OF_INITIALISED_STATES, this.numberOfInitialisedStates);
+	}
+
+	/**
+	 * Sets the qValue of the state-action tuple to the passed new qValue
+	 *
+	 * @param state     of the state-action tuple to be updated
+	 * @param action    of the state-action tuple to be updated
+	 * @param newQValue new new qvalue of the state-action tuple
+	 */
+	@Override
+	public void updateQTableValue(long state, int action, double newQValue) {
+		long index = this.getDenseIndex(state);
+		MappedByteBuffer chunk = this.getChunk(index);
+		int position = this.getPosition(index);
+
+		long flags = chunk.getLong(position);
+		if ((flags & FLAG_INITIALISED) == 0) {
+			throw new NullPointerException(
+					"state has not been initialised yet; According to the TD algorithm an update can not occur for these states ");
+		}
+		chunk.putDouble(position + OFFSET_QVALUES + action * Double.BYTES, newQValue);
+		if ((flags & (1L << action)) == 0) {
+			chunk.putLong(position, flags | (1L << action));
+		}
+	}
+
+	/**
+	 * Get the best action out of the set of legal actions for the given state. Best
+	 * action means the state-action tuple that has the highest qValue, ties are
+	 * broken arbitrarily
+	 *
+	 * @param state        for that the best action is to be given
+	 * @param legalActions set of actions that are legal in this state
+	 * @return action with the highest qValue
+	 */
+	@Override
+	public int getBestAction(long state, int[] legalActions) {
+		if (legalActions.length == 0) {
+			throw new IllegalArgumentException(
+					"empty array was passed thus no optimal action available; method is not applicable for terminal states");
+		}
+		return Utility.getRandomSetBit(this.getBestActionsMask(state, legalActions));
+	}
+
+	/**
+	 * Returns one or more actions out of the set of legal actions with the highest
+	 * qValue
+	 *
+	 * @param state        for that the best action is to be given
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest qValue in
+	 *         ascending order
+	 */
+	@Override
+	public ArrayList<Integer> getBestActions(long state, int[] legalActions) {
+		if (legalActions.length == 0) {
+			throw new IllegalArgumentException(
+					"empty array was passed thus no optimal action available; method is not applicable for terminal states");
+		}
+		return Utility.convertBitmaskToList(this.getBestActionsMask(state, legalActions));
+	}
+
+	/**
+	 * Returns the best actions like {@link #getBestActions(long, int[])} without
+	 * modifying the table. A state that has not been initialised is treated as if
+	 * it had been, i.e. every legal action has the initial qValue
+	 *
+	 * @param state        key of the state
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest qValue
+	 */
+	@Override
+	public ArrayList<Integer> getBestActionsWithoutInitialising(long state, int[] legalActions) {
+		long index = this.getDenseIndex(state);
+		if ((this.getChunk(index).getLong(this.getPosition(index)) & FLAG_INITIALISED) == 0) {
+			// every legal action would be initialised with the same qValue
+			return Utility.convertArrayToList(legalActions);
+		}
+		return this.getBestActions(state, legalActions);
+	}
+
+	/**
+	 * Returns the bitmask of the legal actions with the highest qValue
+	 *
+	 * @param state        initialised state
+	 * @param legalActions set of actions that are legal in this state
+	 * @return bitmask with a bit set for every best action
+	 */
+	private int getBestActionsMask(long state, int[] legalActions) {
+		long index = this.getDenseIndex(state);
+		MappedByteBuffer chunk = this.getChunk(index);
+		int positionOfQValues = this.getPosition(index) + OFFSET_QVALUES;
+
+		int bestActionsMask = 0;
+		double bestQValue = Double.NEGATIVE_INFINITY;
+
+		// No check necessary as state must be initialised already
+		for (int legalAction : legalActions) {
+			double qValueOfLegalAction = chunk.getDouble(positionOfQValues + legalAction * Double.BYTES);
+
+			if (qValueOfLegalAction == bestQValue) {
+				bestActionsMask |= 1 << legalAction;
+			} else if (qValueOfLegalAction > bestQValue) {
+				bestActionsMask = 1 << legalAction;
+				bestQValue = qValueOfLegalAction;
+			}
+		}
+		return bestActionsMask;
+	}
+
+	/**
+	 * Returns the qValue constant that is assigned to terminal states. By
+	 * convention this should be zero
+	 *
+	 * @return qValue of terminal states
+	 */
+	@Override
+	public double getQValueOfTerminalState() {
+		return QVALUE_TERMINAL_STATE;
+	}
+
+	/**
+	 * Returns qValue of the passed state-action tuple
+	 *
+	 * @param state  initialised state
+	 * @param action of the state-action tuple
+	 * @return qValue of the tuple, QVALUE_TERMINAL_STATE if the tuple has no
+	 *         qValue
+	 */
+	@Override
+	public double getQValue(long state, int action) {
+		long index = this.getDenseIndex(state);
+		MappedByteBuffer chunk = this.getChunk(index);
+		int position = this.getPosition(index);
+
+		long flags = chunk.getLong(position);
+		if ((flags & FLAG_INITIALISED) == 0) {
+			throw new NullPointerException(
+					"state has not been initialised yet; According to the TD algorithm this state should not be accessed");
+		}
+		if ((flags & (1L << action)) == 0) {
+			return QVALUE_TERMINAL_STATE;
+		}
+		return chunk.getDouble(position + OFFSET_QVALUES + action * Double.BYTES);
+	}
+
+	/**
+	 * Returns the number of distinct states the agent has visited so far, i.e. the
+	 * number of states that have been initialised
+	 *
+	 * @return number of distinct states the agent has visited
+	 */
+	@Override
+	public int getNumberOfDistinctVisitedStates() {
+		return this.numberOfInitialisedStates;
+	}
+
+	/**
+	 * Returns a HashMap that contains all legalActions mapped to their respective
+	 * qValue for the given state. The map has the same layout as the one returned
+	 * by {@link QTable#getActionQValueMapForState(int)}, i.e. terminal states map
+	 * null to QVALUE_TERMINAL_STATE
+	 *
+	 * @param state for that the action-qValue map is to be returned
+	 * @return action-qValue map for the given state, null if the state was not
+	 *         initialised
+	 */
+	@Override
+	public HashMap<Integer, Double> getActionQValueMapForState(long state) {
+		long index = this.getDenseIndex(state);
+		MappedByteBuffer chunk = this.getChunk(index);
+		int position = this.getPosition(index);
+
+		long flags = chunk.getLong(position);
+		if ((flags & FLAG_INITIALISED) == 0) {
+			return null;
+		}
+
+		HashMap<Integer, Double> actionQValueMap = new HashMap<>();
+		for (long actions = flags & ACTIONS_MASK; actions != 0; actions &= actions - 1) {
+			int action = Long.numberOfTrailingZeros(actions);
+			actionQValueMap.put(action, chunk.getDouble(position + OFFSET_QVALUES + action * Double.BYTES));
+		}
+
+		if (actionQValueMap.isEmpty()) {
+			actionQValueMap.put(null, QVALUE_TERMINAL_STATE);
+		}
+		return actionQValueMap;
+	}
+
+	/**
+	 * Forces all changes of the table to the storage device. Without calling this
+	 * method the changes are written by the operating system at some point, which
+	 * also happens if the program terminates unexpectedly
+	 */
+	public void force() {
+		for (MappedByteBuffer chunk : this.chunks) {
+			chunk.force();
+		}
+		this.header.force();
+	}
+
+	public String getFilePath() {
+		return this.FILE_PATH;
+	}
+
+	private MappedByteBuffer getChunk(long index) {
+		return this.chunks[(int) (index >>> this.RECORDS_PER_CHUNK_SHIFT)];
+	}
+
+	/**
+	 * Returns the position of the record of the passed dense index within its
+	 * chunk
+	 */
+	private int getPosition(long index) {
+		return (int) (index & ((1L << this.RECORDS_PER_CHUNK_SHIFT) - 1)) * this.RECORD_SIZE;
+	}
+
+	private long getDenseIndex(long state) {
+		long index = this.INDEXER.getIndex(state);
+		if (index == StateIndexer.NO_INDEX) {
+			throw new IllegalArgumentException("state has no index: " + state);
+		}
+		return index;
+	}
+
+	@Override
+	public void initialiseQTableEntryIfNotExistent(int state, int[] legalActions) {
+		this.initialiseQTableEntryIfNotExistent((long) state, legalActions);
+	}
+
+	@Override
+	public void updateQTableValue(int state, int action, double newQValue) {
+		this.updateQTableValue((long) state, action, newQValue);
+	}
+
+	@Override
+	public int getBestAction(int state, int[] legalActions) {
+		return this.getBestAction((long) state, legalActions);
+	}
+
+	@Override
+	public ArrayList<Integer> getBestActions(int state, int[] legalActions) {
+		return this.getBestActions((long) state, legalActions);
+	}
+
+	@Override
+	public ArrayList<Integer> getBestActionsWithoutInitialising(int state, int[] legalActions) {
+		return this.getBestActionsWithoutInitialising((long) state, legalActions);
+	}
+
+	@Override
+	public double getQValue(int state, int action) {
+		return this.getQValue((long) state, action);
+	}
+
+	@Override
+	public HashMap<Integer, Double> getActionQValueMapForState(int state) {
+		return this.getActionQValueMapForState((long) state);
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		this.force();
+		out.defaultWriteObject();
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		this.map();
+	}
+
+	/**
+	 * Snapshots store the 18 bit state, thus only tables of the tic-tac-toe
+	 * gamefield can be written to a snapshot
+	 */
+	private void checkSnapshotSupport() {
+		if (!(this.INDEXER instanceof GamefieldStateIndexer)) {
+			throw new IllegalStateException("snapshots only support mapped qTables of the tic-tac-toe gamefield");
+		}
+	}
+
+	double getInitialQValue() {
+		return this.INITIAL_QVALUE;
+	}
+
+	/**
+	 * Returns all states that have been initialised including terminal states,
+	 * used to write a snapshot of the table
+	 *
+	 * @return initialised states in ascending order
+	 */
+	int[] getVisitedStates() {
+		this.checkSnapshotSupport();
+		int[] visitedStates = new int[this.numberOfInitialisedStates];
+		int i = 0;
+		for (int index = 0; index < this.INDEXER.getNumberOfStates(); index++) {
+			if ((this.getChunk(index).getLong(this.getPosition(index)) & FLAG_INITIALISED) != 0) {
+				// dense indexes are assigned in ascending order of the states
+				visitedStates[i++] = (int) this.INDEXER.getState(index);
+			}
+		}
+		return visitedStates;
+	}
+
+	/**
+	 * Passes every state-action tuple with its qValue to the passed consumer, used
+	 * to write a snapshot of the table
+	 *
+	 * @param consumer receives the key (state * GAMEFIELD_SIZE + action) and the
+	 *                 qValue of every tuple
+	 */
+	void forEachQValue(ExperienceSnapshot.EntryConsumer consumer) {
+		this.checkSnapshotSupport();
+		for (int index = 0; index < this.INDEXER.getNumberOfStates(); index++) {
+			MappedByteBuffer chunk = this.getChunk(index);
+			int position = this.getPosition(index);
+			int state = (int) this.INDEXER.getState(index);
+
+			for (long actions = chunk.getLong(position) & ACTIONS_MASK; actions != 0; actions &= actions - 1) {
+				int action = Long.numberOfTrailingZeros(actions);
+				consumer.accept(state * Gamefield.GAMEFIELD_SIZE + action,
+						chunk.getDouble(position + OFFSET_QVALUES + action * Double.BYTES));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,183 @@
+package pack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+
+/**
+ * Writer of a single binary log file, see {@link BinaryLogFormat}. The records
+ * are written directly into a memory-mapped region of the file, thus writing a
+ * record costs no system call. The file is mapped in regions of a fixed number
+ * of records and the next region is mapped once the current one is full
+ *
+ * The number of records in the header is updated with every record, therefore
+ * a reader only considers the records that have been written completely. When
+ * the writer is closed the file is truncated to the records it contains. Some
+ * platforms do not allow truncating a file as long as a mapping of it has not
+ * been garbage collected, there the unused rest of the last region remains
+ * until the file is trimmed by {@link BinaryLogConverter#trim(String)}. The
+ * file is opened lazily and appended to if it already exists
+ *
+ * Records are written by a single thread, either the thread of the run or the
+ * background writer of an {@link AsyncLogSink}
+ *
+ * @param <T> type of the records written to the file
+ */
+public class MappedRecordWriter<T> {
+
+	private static final int DEFAULT_RECORDS_PER_REGION = 1 << 12;
+
+	private final Path FILE_PATH;
+	private final byte RECORD_TYPE;
+	private final int RECORD_SIZE;
+	private final int RECORDS_PER_REGION;
+	private final BiConsumer<ByteBuffer, T> ENCODER;
+
+	private FileChannel channel;
+	private MappedByteBuffer header;
+	private MappedByteBuffer region;
+	private long recordCount;
+
+	/**
+	 * Creates a writer to the passed file that maps regions of the default size
+	 *
+	 * @param filePath   path of the binary file including the directory
+	 * @param recordType type of the records, see {@link BinaryLogFormat}
+	 * @param encoder    writes a single record to the buffer at its current
+	 *                   position
+	 */
+	public MappedRecordWriter(String filePath, byte recordType, BiConsumer<ByteBuffer, T> encoder) {
+		this(filePath, recordType, encoder, DEFAULT_RECORDS_PER_REGION);
+	}
+
+	/**
+	 * Creates a writer to the passed file. The file is not opened before the first
+	 * record is written
+	 *
+	 * @param filePath         path of the binary file including the directory
+	 * @param recordType       type of the records, see {@link BinaryLogFormat}
+	 * @param encoder          writes a single record to the buffer at its current
+	 *                         position
+	 * @param recordsPerRegion number of records of a mapped region
+	 */
+	public MappedRecordWriter(String filePath, byte recordType, BiConsumer<ByteBuffer, T> encoder,
+			int recordsPerRegion) {
+		if (recordsPerRegion <= 0) {
+			throw new IllegalArgumentException("number of records per region must be positive");
+		}
+		this.FILE_PATH = Paths.get(filePath);
+		this.RECORD_TYPE = recordType;
+		this.RECORD_SIZE = BinaryLogFormat.getRecordSize(recordType);
+		this.RECORDS_PER_REGION = recordsPerRegion;
+		this.ENCODER = encoder;
+	}
+
+	/**
+	 * Writes a single record to the file
+	 *
+	 * @param record record to be written
+	 */
+	public void write(T record) {
+		try {
+			if (this.region == null || !this.region.hasRemaining()) {
+				this.mapNextRegion();
+			}
+			this.ENCODER.accept(this.region, record);
+			this.recordCount++;
+			this.header.putLong(BinaryLogFormat.OFFSET_RECORD_COUNT, this.recordCount);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Writes multiple records to the file
+	 *
+	 * @param records records to be written
+	 */
+	public void writeAll(Iterable<T> records) {
+		for (T record : records) {
+			this.write(record);
+		}
+	}
+
+	/**
+	 * Forces the written records to the storage device, truncates the file to the
+	 * written records and closes the file. The writer can still be written to
+	 * afterwards in which case the file is opened again and appended to
+	 */
+	public void close() {
+		if (this.channel == null) {
+			return;
+		}
+		this.header.force();
+		if (this.region != null) {
+			this.region.force();
+		}
+		// the mappings are not accessed anymore, which allows truncating the file
+		this.header = null;
+		this.region = null;
+		try {
+			this.channel.truncate(BinaryLogFormat.HEADER_SIZE + this.recordCount * this.RECORD_SIZE);
+		} catch (IOException e) {
+			// the platform does not truncate files that are still mapped, the file is
+			// trimmed by BinaryLogConverter instead
+		}
+		try {
+			this.channel.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		this.channel = null;
+	}
+
+	/**
+	 * Maps the region that starts after the last written record and opens the
+	 * file beforehand if it is not open yet
+	 *
+	 * @throws IOException if the file could not be opened or mapped
+	 */
+	private void mapNextRegion() throws IOException {
+		if (this.channel == null) {
+			this.open();
+		}
+		long position = BinaryLogFormat.HEADER_SIZE + this.recordCount * this.RECORD_SIZE;
+		this.region = this.channel.map(MapMode.READ_WRITE, position, (long) this.RECORDS_PER_REGION * this.RECORD_SIZE);
+		this.region.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Opens the file and writes the header if the file is new. If the file already
+	 * exists its header is validated and the records are appended
+	 *
+	 * @throws IOException if the file could not be opened
+	 */
+	private void open() throws IOException {
+		this.channel = FileChannel.open(this.FILE_PATH, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		boolean isNewFile = this.channel.size() < BinaryLogFormat.HEADER_SIZE;
+
+		this.header = this.channel.map(MapMode.READ_WRITE, 0, BinaryLogFormat.HEADER_SIZE);
+		this.header.order(ByteOrder.LITTLE_ENDIAN);
+
+		if (isNewFile) {
+			BinaryLogFormat.writeHeader(this.header, this.RECORD_TYPE);
+			this.recordCount = 0;
+		} else {
+			if (BinaryLogFormat.readRecordType(this.header) != this.RECORD_TYPE) {
+				this.channel.close();
+				this.channel = null;
+				throw new IllegalStateException("existing file contains records of another type: " + this.FILE_PATH);
+			}
+			this.recordCount = this.header.getLong(BinaryLogFormat.OFFSET_RECORD_COUNT);
+		}
+	}
+
+}
@@ -1,8 +1,44 @@
 package pack;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class MinimaxAlgorithm {
+	// unmodifiable list of optimal actions for every bitmask of optimal actions
+	private static final List<List<Integer>> BEST_ACTIONS_OF_MASK = MinimaxAlgorithm.createBestActionsOfMask();
+
+	/**
+	 * Names of the resources next to this class that hold the solved game, see
+	 * {@link #writeSolvedGame(String)}
+	 */
+	public static final String SOLVED_GAME_RESOURCE_WITH_DEPTH = "minimax_depth.bin";
+	public static final String SOLVED_GAME_RESOURCE_WITHOUT_DEPTH = "minimax_no_depth.bin";
+
+	private static final int SOLVED_GAME_MAGIC_NUMBER = 0x4D4D5854;
+	private static final int SOLVED_GAME_VERSION = 2;
+	private static final int SOLVED_GAME_HEADER_SIZE = 16;
+	private static final int SOLVED_GAME_ENTRY_SIZE = 2 * Integer.BYTES;
+
+	// nodes above this depth are solved by their own tasks in a parallel solve
+	private static final int PARALLEL_DEPTH = 3;
+	private static final int STRIPES_PER_WORKER = 16;
+
+	/**
+	 * Receives an entry for a state, i.e. stores it in a transposition table
+	 */
+	interface EntryConsumer {
+		void accept(int state, int entry);
+	}
+
 	private TranspositionTable transpositionTable;
 	private Gamefield internalGamefield;
 	private boolean considerDepthInScoreCalculation = false;
@@ -25,14 +61,195 @@ public class MinimaxAlgorithm {
 		this.buildTranspositionTable();
 	}
 
+	/**
+	 * Creates an instance of an already solved game, see
+	 * {@link #loadSolvedGame(boolean)}
+	 */
+	private MinimaxAlgorithm(TranspositionTable transpositionTable, boolean considerDepthInScoreCalculation) {
+		this.transpositionTable = transpositionTable;
+		this.considerDepthInScoreCalculation = considerDepthInScoreCalculation;
+	}
+
+	/**
+	 * Returns the solved game stored in the resource that belongs to the passed
+	 * flag. Reading the entries is much faster than solving the game, if the
+	 * resource is not on the classpath the game is solved instead
+	 * 
+	 * @param considerDepthInScoreCalculation flag to adjust whether the depth in
+	 *                                        the gametree should negatively affect
+	 *                                        the score (depthpenalty)
+	 * @return solved game
+	 */
+	public static MinimaxAlgorithm loadSolvedGame(boolean considerDepthInScoreCalculation) {
+		String resourceName = MinimaxAlgorithm.getSolvedGameResourceName(considerDepthInScoreCalculation);
+
+		try (InputStream inputStream = MinimaxAlgorithm.class.getResourceAsStream(resourceName)) {
+			if (inputStream != null) {
+				ByteBuffer buffer = ByteBuffer.wrap(inputStream.readAllBytes()).order(ByteOrder.LITTLE_ENDIAN);
+				return new MinimaxAlgorithm(MinimaxAlgorithm.readSolvedGame(buffer, considerDepthInScoreCalculation),
+						considerDepthInScoreCalculation);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		System.out.println("resource " + resourceName + " not found, solving the game");
+		return new MinimaxAlgorithm(new Gamefield(), considerDepthInScoreCalculation);
+	}
+
+	/**
+	 * Solves the game on the passed number of threads. Every node above
+	 * PARALLEL_DEPTH is solved by its own fork-join task on its own copy of the
+	 * gamefield, the nodes below are solved sequentially by the task of their
+	 * ancestor. The tasks share their results through a lock-striped
+	 * {@link ConcurrentTranspositionTable}, afterwards the entries are copied into
+	 * a {@link TranspositionTable} so that lookups are not synchronized. The
+	 * resulting entries are identical to the ones of
+	 * {@link #MinimaxAlgorithm(Gamefield, boolean)}
+	 * 
+	 * @param gamefield                       gamefield that the transposition
+	 *                                        table is constructed for
+	 * @param considerDepthInScoreCalculation flag to adjust whether the depth in
+	 *                                        the gametree should negatively affect
+	 *                                        the score (depthpenalty)
+	 * @param parallelism                     number of threads solving the game
+	 * @return solved game
+	 */
+	public static MinimaxAlgorithm solveInParallel(Gamefield gamefield, boolean considerDepthInScoreCalculation,
+			int parallelism) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("parallelism must be positive");
+		}
+		MinimaxAlgorithm minimaxAlgorithm = new MinimaxAlgorithm(new TranspositionTable(),
+				considerDepthInScoreCalculation);
+		ConcurrentTranspositionTable concurrentTable = new ConcurrentTranspositionTable(
+				Integer.highestOneBit(parallelism * STRIPES_PER_WORKER));
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+		try {
+			int rootEntry = pool.invoke(
+					minimaxAlgorithm.new MinimaxTask(new Gamefield(gamefield), 0, Symbol.SYMBOL_X, concurrentTable));
+			MinimaxAlgorithm.putCanonicalEntry(concurrentTable::putEntry, gamefield.getState(), rootEntry);
+		} finally {
+			pool.shutdown();
+		}
+
+		concurrentTable.copyEntriesTo(minimaxAlgorithm.transpositionTable);
+		minimaxAlgorithm.outputTranspositionTableSize();
+		return minimaxAlgorithm;
+	}
+
+	/**
+	 * Solves the game on as many threads as processors are available, see
+	 * {@link #solveInParallel(Gamefield, boolean, int)}
+	 */
+	public static MinimaxAlgorithm solveInParallel(Gamefield gamefield, boolean considerDepthInScoreCalculation) {
+		return MinimaxAlgorithm.solveInParallel(gamefield, considerDepthInScoreCalculation,
+				Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Writes the solved game to the passed file so that it can be loaded by
+	 * {@link #loadSolvedGame(boolean)}. After a header of magic number, version,
+	 * flag and number of entries every canonical state follows with its packed
+	 * entry as stored in the transposition table in the order of
+	 * {@link StateIndex}, all as little endian ints. The states are stored
+	 * explicitly so that loading does not have to enumerate the game tree
+	 * 
+	 * @param filePath path of the file to be written
+	 */
+	public void writeSolvedGame(String filePath) {
+		int numberOfEntries = this.transpositionTable.getSize();
+		ByteBuffer buffer = ByteBuffer.allocate(SOLVED_GAME_HEADER_SIZE + numberOfEntries * SOLVED_GAME_ENTRY_SIZE)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(SOLVED_GAME_MAGIC_NUMBER);
+		buffer.putInt(SOLVED_GAME_VERSION);
+		buffer.putInt(this.considerDepthInScoreCalculation ? 1 : 0);
+		buffer.putInt(numberOfEntries);
+
+		for (int index = 0; index < StateIndex.getNumberOfStates(); index++) {
+			int state = StateIndex.getState(index);
+			if (BoardSymmetry.getCanonicalState(state) == state) {
+				buffer.putInt(state);
+				buffer.putInt(this.transpositionTable.retrieveEntry(state));
+			}
+		}
+
+		try {
+			Files.write(Paths.get(filePath), buffer.array());
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Solves the game with and without depthpenalty and writes both resources into
+	 * the passed directory, by default the source folder of this class
+	 * 
+	 * @param args optional directory the resources are written to
+	 */
+	public static void main(String[] args) {
+		String directory = args.length > 0 ? args[0] : "src/pack";
+
+		for (boolean considerDepthInScoreCalculation : new boolean[] { true, false }) {
+			MinimaxAlgorithm.solveInParallel(new Gamefield(), considerDepthInScoreCalculation).writeSolvedGame(
+					Paths.get(directory, MinimaxAlgorithm.getSolvedGameResourceName(considerDepthInScoreCalculation))
+							.toString());
+		}
+	}
+
+	private static String getSolvedGameResourceName(boolean considerDepthInScoreCalculation) {
+		return considerDepthInScoreCalculation ? SOLVED_GAME_RESOURCE_WITH_DEPTH : SOLVED_GAME_RESOURCE_WITHOUT_DEPTH;
+	}
+
+	/**
+	 * Reads the entries written by {@link #writeSolvedGame(String)} into a new
+	 * transposition table
+	 * 
+	 * @param buffer                          content of the resource
+	 * @param considerDepthInScoreCalculation flag the resource has to be solved
+	 *                                        with
+	 * @return transposition table containing every state
+	 */
+	private static TranspositionTable readSolvedGame(ByteBuffer buffer, boolean considerDepthInScoreCalculation) {
+		int bufferSize = buffer.remaining();
+
+		if (bufferSize < SOLVED_GAME_HEADER_SIZE || buffer.getInt(0) != SOLVED_GAME_MAGIC_NUMBER
+				|| buffer.getInt(4) != SOLVED_GAME_VERSION
+				|| buffer.getInt(8) != (considerDepthInScoreCalculation ? 1 : 0)
+				|| bufferSize != SOLVED_GAME_HEADER_SIZE + (long) buffer.getInt(12) * SOLVED_GAME_ENTRY_SIZE) {
+			throw new IllegalStateException("resource "
+					+ MinimaxAlgorithm.getSolvedGameResourceName(considerDepthInScoreCalculation)
+					+ " does not contain the solved game, regenerate it with MinimaxAlgorithm.main");
+		}
+
+		int numberOfEntries = buffer.getInt(12);
+		TranspositionTable transpositionTable = new TranspositionTable();
+		buffer.position(SOLVED_GAME_HEADER_SIZE);
+		for (int i = 0; i < numberOfEntries; i++) {
+			transpositionTable.putEntry(buffer.getInt(), buffer.getInt());
+		}
+		return transpositionTable;
+	}
+
+	private static List<List<Integer>> createBestActionsOfMask() {
+		int numberOfMasks = 1 << Gamefield.GAMEFIELD_SIZE;
+		ArrayList<List<Integer>> bestActionsOfMask = new ArrayList<>(numberOfMasks);
+		for (int mask = 0; mask < numberOfMasks; mask++) {
+			bestActionsOfMask.add(Collections.unmodifiableList(Utility.convertBitmaskToList(mask)));
+		}
+		return bestActionsOfMask;
+	}
+
 	/**
 	 * Method builds the transposition table for the Gamefield passed in the
 	 * constructor. The game starts with symbol X
 	 */
 	private void buildTranspositionTable() {
 
-		Node rootNode = this.minimax(0, Symbol.SYMBOL_X);
-		this.transpositionTable.putNode(this.internalGamefield.getState(), rootNode);
+		int rootEntry = this.minimax(0, Symbol.SYMBOL_X);
+		MinimaxAlgorithm.putCanonicalEntry(this.transpositionTable::putEntry, this.internalGamefield.getState(),
+				rootEntry);
 		this.outputTranspositionTableSize();
 	}
 
@@ -43,99 +260,231 @@ public class MinimaxAlgorithm {
 	/**
 	 * Implementation of the recursive minimax algorithm that constructs a complete
 	 * gametree for the passed gamefield and derives the optimal moves for each
-	 * player in every node The nodes are saved in the transposition table
+	 * player in every node The nodes are saved in the transposition table as
+	 * packed entries, see {@link TranspositionTable}
 	 * 
 	 * @param depth  current depth in the game tree of the node for the node to be
 	 *               calculated
 	 * @param symbol player that is allowed to act in this node
-	 * @return Node in the gametree that was analyzed containing optimal actions and
-	 *         expected score
+	 * @return packed entry of the node in the gametree that was analyzed
+	 *         containing optimal actions and expected score
 	 */
-	private Node minimax(int depth, Symbol symbol) {
+	private int minimax(int depth, Symbol symbol) {
 
 		int[] legalActions = this.internalGamefield.getLegalActions();
 
 		if (legalActions.length == 0) {
-			// if terminal state (leaf) create a leafnode, assign the score and return
-			Node leaf = new Node(symbol);
-			leaf.setDepth(depth);
-			leaf.setScore(this.calculateScore(depth));
-
-			return leaf;
+			// if terminal state (leaf) create a leaf entry with the score
+			return this.createLeafEntry(this.internalGamefield.getCurrentGameStatus(), depth);
 		}
 
-		Node currentNode = new Node(symbol);
-
-		int initialScore = symbol.isX() ? -1 : 1;
-		currentNode.setScore(initialScore);
-
+		int bestEntry = MinimaxAlgorithm.createInitialEntry(symbol);
 		Symbol nextSymbol = Symbol.getNextSymbol(symbol);
 
 		for (int legalAction : legalActions) {
 
 			this.internalGamefield.applyAction(symbol, legalAction);
 
-			Node nextNode = this.transpositionTable.retrieveNode(this.internalGamefield.getState());
+			// symmetric states share an entry, only score and depth of the child are
+			// needed, thus its optimal actions are not mapped back
+			int nextState = this.internalGamefield.getState();
+			int nextEntry = this.transpositionTable.retrieveEntry(BoardSymmetry.getCanonicalState(nextState));
 
-			if (nextNode == null) {
-				nextNode = this.minimax(depth + 1, nextSymbol);
-				this.transpositionTable.putNode(this.internalGamefield.getState(), nextNode);
+			if (nextEntry == TranspositionTable.NO_ENTRY) {
+				nextEntry = this.minimax(depth + 1, nextSymbol);
+				MinimaxAlgorithm.putCanonicalEntry(this.transpositionTable::putEntry, nextState, nextEntry);
 			}
-
-			this.updateCurrentNode(currentNode, nextNode, legalAction, symbol);
+			bestEntry = MinimaxAlgorithm.updateBestEntry(bestEntry, nextEntry, legalAction, symbol);
 
 			this.internalGamefield.undoAction(symbol, legalAction);
 
 		}
-		return currentNode;
+		return bestEntry;
 	}
 
 	/**
-	 * Update the currentNode if score of the next node is better from the
-	 * perspective of the passed symbol
+	 * Stores the entry of the passed state under its canonical state, see
+	 * {@link BoardSymmetry}. Score and depth are the same for all symmetric
+	 * states, the optimal actions are mapped into the canonical state
 	 * 
-	 * @param currentNode node to be updated
-	 * @param nextNode    node that is following the current node
-	 * @param legalAction legal action that is taken by the symbol to traverse from
-	 *                    the current node to next node
-	 * @param symbol      symbol that chooses an action in the current node
+	 * @param table function storing an entry for a state in the table
+	 * @param state state the entry was calculated for
+	 * @param entry packed entry of the state
 	 */
-	private void updateCurrentNode(Node currentNode, Node nextNode, int legalAction, Symbol symbol) {
-		if (currentNode.getScore() == nextNode.getScore()) {
-			currentNode.setDepth(nextNode.getDepth());
-			currentNode.addOptimalAction(legalAction);
+	private static void putCanonicalEntry(EntryConsumer table, int state, int entry) {
+		int transformation = BoardSymmetry.getTransformationToCanonicalState(state);
+		int canonicalActionsMask = BoardSymmetry
+				.transformActionMask(TranspositionTable.getOptimalActionsMask(entry), transformation);
+		table.accept(BoardSymmetry.getCanonicalState(state), TranspositionTable.packEntry(canonicalActionsMask,
+				TranspositionTable.getQuantizedScore(entry), TranspositionTable.getDepth(entry)));
+	}
+
+	/**
+	 * Returns the entry a node starts with before any of its children is
+	 * considered, i.e. the worst score for the passed symbol and no optimal action
+	 * 
+	 * @param symbol player that is allowed to act in the node
+	 * @return packed entry with the worst score for the symbol
+	 */
+	private static int createInitialEntry(Symbol symbol) {
+		return TranspositionTable.packEntry(0, TranspositionTable.quantizeScore(symbol.isX() ? -1 : 1), 0);
+	}
+
+	/**
+	 * Updates the entry of a node with the entry of the child reached by the
+	 * passed action. The action becomes optimal if the score of the child is at
+	 * least as good from the perspective of the symbol, the depth is taken from
+	 * the last optimal child. The children thus have to be passed in the order of
+	 * the legal actions for the result to be deterministic
+	 * 
+	 * @param bestEntry packed entry of the node so far
+	 * @param nextEntry packed entry of the child
+	 * @param action    action that leads to the child
+	 * @param symbol    player that is allowed to act in the node
+	 * @return updated packed entry of the node
+	 */
+	private static int updateBestEntry(int bestEntry, int nextEntry, int action, Symbol symbol) {
+		int bestScore = TranspositionTable.getQuantizedScore(bestEntry);
+		int nextScore = TranspositionTable.getQuantizedScore(nextEntry);
+		boolean isScoreBetterThanCurrentForX = symbol.isX() && (bestScore < nextScore);
+		boolean isScoreBetterThanCurrentForO = !symbol.isX() && (bestScore > nextScore);
+
+		if (bestScore == nextScore) {
+			return TranspositionTable.packEntry(TranspositionTable.getOptimalActionsMask(bestEntry) | (1 << action),
+					bestScore, TranspositionTable.getDepth(nextEntry));
+		} else if (isScoreBetterThanCurrentForX || isScoreBetterThanCurrentForO) {
+			return TranspositionTable.packEntry(1 << action, nextScore, TranspositionTable.getDepth(nextEntry));
+		}
+		return bestEntry;
+	}
+
+	/**
+	 * Task of a parallel solve that solves the node of its own copy of the
+	 * gamefield, see {@link MinimaxAlgorithm#solveInParallel(Gamefield, boolean, int)}.
+	 * Two tasks can reach the same node via different paths and solve it twice,
+	 * as both store the same entry this only costs time
+	 */
+	private class MinimaxTask extends RecursiveTask<Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Gamefield gamefield;
+		private final int depth;
+		private final Symbol symbol;
+		private final ConcurrentTranspositionTable concurrentTable;
+
+		private MinimaxTask(Gamefield gamefield, int depth, Symbol symbol,
+				ConcurrentTranspositionTable concurrentTable) {
+			this.gamefield = gamefield;
+			this.depth = depth;
+			this.symbol = symbol;
+			this.concurrentTable = concurrentTable;
+		}
+
+		@Override
+		protected Integer compute() {
+			if (this.depth >= PARALLEL_DEPTH) {
+				return this.minimax(this.depth, this.symbol);
+			}
+
+			int[] legalActions = this.gamefield.getLegalActions();
+			if (legalActions.length == 0) {
+				return MinimaxAlgorithm.this.createLeafEntry(this.gamefield.getCurrentGameStatus(), this.depth);
+			}
+
+			// fork a task for every child that is not solved yet
+			Symbol nextSymbol = Symbol.getNextSymbol(this.symbol);
+			MinimaxTask[] childTasks = new MinimaxTask[legalActions.length];
+			int[] childStates = new int[legalActions.length];
+			int[] childEntries = new int[legalActions.length];
+
+			for (int i = 0; i < legalActions.length; i++) {
+				Gamefield childGamefield = new Gamefield(this.gamefield);
+				childGamefield.applyAction(this.symbol, legalActions[i]);
+				childStates[i] = childGamefield.getState();
+				childEntries[i] = this.concurrentTable.retrieveEntry(BoardSymmetry.getCanonicalState(childStates[i]));
+
+				if (childEntries[i] == TranspositionTable.NO_ENTRY) {
+					childTasks[i] = new MinimaxTask(childGamefield, this.depth + 1, nextSymbol, this.concurrentTable);
+					childTasks[i].fork();
+				}
+			}
+
+			// the children are combined in the order of the legal actions like in a
+			// sequential solve
+			int bestEntry = MinimaxAlgorithm.createInitialEntry(this.symbol);
+			for (int i = 0; i < legalActions.length; i++) {
+				if (childTasks[i] != null) {
+					childEntries[i] = childTasks[i].join();
+					MinimaxAlgorithm.putCanonicalEntry(this.concurrentTable::putEntry, childStates[i], childEntries[i]);
+				}
+				bestEntry = MinimaxAlgorithm.updateBestEntry(bestEntry, childEntries[i], legalActions[i], this.symbol);
+			}
+			return bestEntry;
 		}
 
-		boolean isScoreBetterThanCurrentForX = symbol.isX() && (currentNode.getScore() < nextNode.getScore());
-		boolean isScoreBetterThanCurrentForO = !symbol.isX() && (currentNode.getScore() > nextNode.getScore());
+		/**
+		 * Sequential minimax on the gamefield of the task that stores its nodes in
+		 * the shared table
+		 */
+		private int minimax(int depth, Symbol symbol) {
+			int[] legalActions = this.gamefield.getLegalActions();
+			if (legalActions.length == 0) {
+				return MinimaxAlgorithm.this.createLeafEntry(this.gamefield.getCurrentGameStatus(), depth);
+			}
+
+			int bestEntry = MinimaxAlgorithm.createInitialEntry(symbol);
+			Symbol nextSymbol = Symbol.getNextSymbol(symbol);
+
+			for (int legalAction : legalActions) {
+				this.gamefield.applyAction(symbol, legalAction);
+
+				int nextState = this.gamefield.getState();
+				int nextEntry = this.concurrentTable.retrieveEntry(BoardSymmetry.getCanonicalState(nextState));
+				if (nextEntry == TranspositionTable.NO_ENTRY) {
+					nextEntry = this.minimax(depth + 1, nextSymbol);
+					MinimaxAlgorithm.putCanonicalEntry(this.concurrentTable::putEntry, nextState, nextEntry);
+				}
+				bestEntry = MinimaxAlgorithm.updateBestEntry(bestEntry, nextEntry, legalAction, symbol);
 
-		if (isScoreBetterThanCurrentForX || isScoreBetterThanCurrentForO) {
-			currentNode.setScore(nextNode.getScore());
-			currentNode.setDepth(nextNode.getDepth());
-			currentNode.clearBestActions();
-			currentNode.addOptimalAction(legalAction);
+				this.gamefield.undoAction(symbol, legalAction);
+			}
+			return bestEntry;
 		}
 
 	}
 
 	/**
-	 * Calculate the score of the current game if the flag was set to consider depth
-	 * a depthpentalty is applied to the scoring
+	 * Creates the entry of a leaf, i.e. a node without legal actions
 	 * 
-	 * Should be only called inside leaf nodes, ie. when no legal actions are left
-	 * and the game is over
+	 * @param gameStatus status of the game in the leaf
+	 * @param depth      depth of the leaf inside the gametree
+	 * @return packed entry with the score of the leaf and no optimal action
+	 */
+	private int createLeafEntry(GameStatus gameStatus, int depth) {
+		return TranspositionTable.packEntry(0, TranspositionTable.quantizeScore(this.calculateScore(gameStatus, depth)),
+				depth);
+	}
+
+	/**
+	 * Calculate the score of the passed game status if the flag was set to
+	 * consider depth a depthpentalty is applied to the scoring
+	 * 
+	 * Should be only called for leaf nodes, ie. when no legal actions are left and
+	 * the game is over
 	 * 
-	 * @param depth depth of the leaf inside the gametree for that the score is
-	 *              calculated
+	 * @param gameStatus status of the game in the leaf
+	 * @param depth      depth of the leaf inside the gametree for that the score
+	 *                   is calculated
 	 * @return score of leaf as a float conatined in the interval -1 and 1
 	 */
-	private float calculateScore(int depth) {
+	private float calculateScore(GameStatus gameStatus, int depth) {
 		float score = 0;
 
-		if (this.internalGamefield.getCurrentGameStatus() == GameStatus.WIN_O) {
+		if (gameStatus == GameStatus.WIN_O) {
 			score = -1;
 		}
-		if (this.internalGamefield.getCurrentGameStatus() == GameStatus.WIN_X) {
+		if (gameStatus == GameStatus.WIN_X) {
 			score = 1;
 		}
 
@@ -148,26 +497,34 @@ public class MinimaxAlgorithm {
 	}
 
 	/**
-	 * Retrieves the node corresponding to the passed state from the transposition
-	 * table. if no node is found a NullPointereException is thrown. As the entire
+	 * Retrieves the entry corresponding to the passed state from the transposition
+	 * table. if no entry is found a NullPointereException is thrown. As the entire
 	 * gametree is constructed and stored in the transposition table this means the
 	 * state must be illegal and no sensible evaluation is possible
 	 * 
 	 * This method is a helper method for methods that are used during evaluation
 	 * 
-	 * @param state for that the corresponding node shall be retrieved
-	 * @return node corresponding to the passed state
+	 * @param state for that the corresponding entry shall be retrieved
+	 * @return packed entry corresponding to the passed state
 	 */
-	private Node getNodeFromTranspositionTable(int state) {
-		Node nodeToGivenState = this.transpositionTable.retrieveNode(state);
+	private int getEntryFromTranspositionTable(int state) {
+		int entryOfCanonicalState = this.transpositionTable.retrieveEntry(BoardSymmetry.getCanonicalState(state));
 
-		if (nodeToGivenState == null) {
+		if (entryOfCanonicalState == TranspositionTable.NO_ENTRY) {
 			// If there is no state inside the transposition table it must be an illegal
 			// state and thus no sensible evaluation is possible
 			throw new NullPointerException("no node inside the transposition table (of size: "
 					+ this.transpositionTable.getSize() + ") for the passed state: " + state);
 		}
-		return nodeToGivenState;
+
+		// the optimal actions are stored for the canonical state and are mapped back
+		// through the inverse of the transformation
+		int optimalActionsMask = BoardSymmetry.inverseTransformActionMask(
+				TranspositionTable.getOptimalActionsMask(entryOfCanonicalState),
+				BoardSymmetry.getTransformationToCanonicalState(state));
+		return TranspositionTable.packEntry(optimalActionsMask,
+				TranspositionTable.getQuantizedScore(entryOfCanonicalState),
+				TranspositionTable.getDepth(entryOfCanonicalState));
 	}
 
 	/**
@@ -183,28 +540,54 @@ public class MinimaxAlgorithm {
 	 * @return optimal action encoded as int
 	 */
 	public int move(int state, boolean choseActionArbitrarily) {
-		ArrayList<Integer> bestActions = this.getNodeFromTranspositionTable(state).getOptimalActions();
-		int bestAction;
+		int bestActionsMask = this.getBestActionsMask(state);
 
-		if (bestActions.size() == 0) {
+		if (bestActionsMask == 0) {
 			throw new IllegalArgumentException(
 					"move cannot be called for terminal states as there are no actions and thus no optimal one available");
-		} else if (bestActions.size() > 1 && choseActionArbitrarily) {
-			bestAction = Utility.getRandomElement(bestActions);
+		} else if (choseActionArbitrarily) {
+			// a random number is only drawn if multiple actions are optimal
+			return Utility.getRandomSetBit(bestActionsMask);
 		} else {
-			bestAction = bestActions.get(0);
+			return Integer.numberOfTrailingZeros(bestActionsMask);
 		}
-		return bestAction;
 	}
 
 	/**
-	 * Returns an arrayList of optimal actions encoded as ints for the passed state
+	 * Returns the bitmask of the optimal actions for the passed state, i.e. bit i
+	 * is set if action i is optimal. Whether an action is optimal can thus be
+	 * checked by a single AND, see
+	 * {@link GameManager#isActionOptimalAccordingToMinimax(int, int)}
+	 * 
+	 * @param state for that the optimal actions are to be returned
+	 * @return bitmask of the optimal actions, 0 for terminal states
+	 */
+	public int getBestActionsMask(int state) {
+		return TranspositionTable.getOptimalActionsMask(this.getEntryFromTranspositionTable(state));
+	}
+
+	/**
+	 * Returns the optimal actions for the passed state as string, see
+	 * {@link Utility#convertBitmaskToString(int)}. The string is cached per
+	 * bitmask of optimal actions
+	 * 
+	 * @param state for that the optimal actions are to be returned
+	 * @return optimal actions delimited by semicolon
+	 */
+	public String getBestActionsString(int state) {
+		return Utility.convertBitmaskToString(this.getBestActionsMask(state));
+	}
+
+	/**
+	 * Returns a list of optimal actions encoded as ints for the passed state in
+	 * ascending order. The list is shared by all states with the same optimal
+	 * actions and is thus unmodifiable
 	 * 
 	 * @param state for that the optimal actions are to be returned
-	 * @return list of optimal actions encoded as ints
+	 * @return unmodifiable list of optimal actions encoded as ints
 	 */
-	public ArrayList<Integer> getBestActions(int state) {
-		return this.getNodeFromTranspositionTable(state).getOptimalActions();
+	public List<Integer> getBestActions(int state) {
+		return BEST_ACTIONS_OF_MASK.get(this.getBestActionsMask(state));
 	}
 
 }
@@ -0,0 +1,113 @@
+package pack;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntPredicate;
+
+/**
+ * Plays the episodes of an evaluation concurrently. The episodes are split into
+ * contiguous ranges, one for every worker. Every worker uses its own view of
+ * the evaluated agent, its own gamefield and its own random number generator
+ * whose seed is drawn from the random number generator of the calling thread,
+ * thus an evaluation is reproducible for a given seed of the calling thread
+ *
+ * The results are returned in the order of the episodes so that they can be
+ * tracked and logged exactly like the results of a sequential evaluation
+ */
+public class ParallelEvaluator {
+
+	private final ForkJoinPool pool;
+	private final int NUMBER_OF_WORKERS;
+
+	/**
+	 * Creates an evaluator that uses as many workers as processors are available
+	 */
+	public ParallelEvaluator() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates an evaluator that splits the episodes among the passed number of
+	 * workers
+	 *
+	 * @param numberOfWorkers number of concurrently playing workers
+	 */
+	public ParallelEvaluator(int numberOfWorkers) {
+		if (numberOfWorkers <= 0) {
+			throw new IllegalArgumentException("number of workers must be positive");
+		}
+		this.NUMBER_OF_WORKERS = numberOfWorkers;
+		this.pool = new ForkJoinPool(numberOfWorkers);
+	}
+
+	/**
+	 * Plays the passed number of evaluation episodes concurrently. The workers
+	 * only read the experience of the agent through their views, see
+	 * {@link AgentRLTD#createEvaluationView()}
+	 *
+	 * @param agent                  agent to evaluate
+	 * @param symbolToEvaluate       symbol the agent plays during the evaluation
+	 * @param evaluateAgainstMinimax true if agent should play against minimax,
+	 *                               false if agent should play against random
+	 *                               player
+	 * @param numberOfEpisodes       number of episodes to play
+	 * @param isEpisodeRecorded      decides for every episode whether the
+	 *                               records of its plies are to be kept; called
+	 *                               concurrently by the workers
+	 * @return results of all episodes in the order of the episodes
+	 */
+	public EvaluationEpisode[] playEpisodes(AgentRLTD agent, Symbol symbolToEvaluate, boolean evaluateAgainstMinimax,
+			int numberOfEpisodes, IntPredicate isEpisodeRecorded) {
+		EvaluationEpisode[] episodes = new EvaluationEpisode[numberOfEpisodes];
+		ArrayList<Future<?>> runningWorkers = new ArrayList<>();
+
+		for (int worker = 0; worker < this.NUMBER_OF_WORKERS; worker++) {
+			int firstEpisode = (int) ((long) numberOfEpisodes * worker / this.NUMBER_OF_WORKERS);
+			int lastEpisode = (int) ((long) numberOfEpisodes * (worker + 1) / this.NUMBER_OF_WORKERS);
+			AgentRLTD agentView = agent.createEvaluationView();
+			long seed = Utility.getRandom().nextLong();
+
+			runningWorkers.add(this.pool.submit(() -> ParallelEvaluator.playEpisodeRange(agentView, symbolToEvaluate,
+					evaluateAgainstMinimax, firstEpisode, lastEpisode, seed, isEpisodeRecorded, episodes)));
+		}
+
+		for (Future<?> runningWorker : runningWorkers) {
+			try {
+				runningWorker.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("evaluation was interrupted", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("evaluation failed", e.getCause());
+			}
+		}
+		return episodes;
+	}
+
+	/**
+	 * Plays the episodes from firstEpisode (inclusive) to lastEpisode (exclusive)
+	 * and stores their results in the passed array. The random number generator
+	 * of the current thread is restored afterwards as the thread might belong to
+	 * the caller
+	 */
+	private static void playEpisodeRange(AgentRLTD agentView, Symbol symbolToEvaluate,
+			boolean evaluateAgainstMinimax, int firstEpisode, int lastEpisode, long seed,
+			IntPredicate isEpisodeRecorded, EvaluationEpisode[] episodes) {
+		Random previousRandom = Utility.getRandom();
+		Utility.setRandom(new Random(seed));
+
+		try {
+			Gamefield evalGamefield = new Gamefield();
+			for (int episodeCount = firstEpisode; episodeCount < lastEpisode; episodeCount++) {
+				episodes[episodeCount] = GameManager.playEvaluationEpisode(agentView, symbolToEvaluate,
+						evaluateAgainstMinimax, evalGamefield, episodeCount, isEpisodeRecorded.test(episodeCount));
+			}
+		} finally {
+			Utility.setRandom(previousRandom);
+		}
+	}
+
+}
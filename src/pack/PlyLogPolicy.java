@@ -0,0 +1,384 @@
+package pack;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.Random;
+
+/**
+ * Decides which plies of a stage are logged and in which form. A policy
+ * receives the ply records of every episode in the order of the episodes and
+ * passes the records to be logged to the sink of the stage. Policies keep state
+ * across episodes, thus every stage of a run needs its own instance
+ *
+ * {@link #isEpisodeRecorded(int)} has to depend on the number of the episode
+ * only, as it might be called concurrently by the workers of a parallel
+ * evaluation. The records of episodes that are not recorded need not be created
+ * at all
+ */
+public abstract class PlyLogPolicy {
+
+	/**
+	 * Batch passed by loops that do not track batches, the batch of an episode is
+	 * derived from its number then
+	 */
+	public static final int BATCH_OF_EPISODE_COUNT = -1;
+
+	private boolean isHeaderPending;
+	private boolean isAggregateHeaderPending;
+
+	/**
+	 * Returns a policy that logs every ply of every episode
+	 *
+	 * @return new policy
+	 */
+	public static PlyLogPolicy all() {
+		return new EveryNthEpisodePolicy(1);
+	}
+
+	/**
+	 * Returns a policy that logs no plies at all
+	 *
+	 * @return new policy
+	 */
+	public static PlyLogPolicy none() {
+		return new NoPliesPolicy();
+	}
+
+	/**
+	 * Returns a policy that logs every ply of every n-th episode, starting with
+	 * the first episode
+	 *
+	 * @param n distance between two recorded episodes
+	 * @return new policy
+	 */
+	public static PlyLogPolicy everyNthEpisode(int n) {
+		return new EveryNthEpisodePolicy(n);
+	}
+
+	/**
+	 * Returns a policy that logs a uniform random sample of the plies of every
+	 * batch. The sample is drawn by reservoir sampling, thus only the sample is
+	 * kept in memory, and logged in the original order of the plies at the end of
+	 * the batch. The batches are the batches of the records if the loop passes
+	 * them, see {@link #logEpisode(LinkedList, int, int, LogSink, boolean)}
+	 *
+	 * @param sampleSize       maximum number of plies logged per batch
+	 * @param episodesPerBatch number of episodes of a batch if the loop does not
+	 *                         pass the batches
+	 * @param seed             seed of the sampling, which is independent of the
+	 *                         random number generator of the run
+	 * @return new policy
+	 */
+	public static PlyLogPolicy reservoirSamplePerBatch(int sampleSize, int episodesPerBatch, long seed) {
+		return new ReservoirSamplePolicy(sampleSize, episodesPerBatch, seed);
+	}
+
+	/**
+	 * Returns a policy that logs only the plies whose action was not optimal
+	 * according to minimax
+	 *
+	 * @return new policy
+	 */
+	public static PlyLogPolicy suboptimalOnly() {
+		return new SuboptimalPliesPolicy();
+	}
+
+	/**
+	 * Returns a policy that logs no plies but, for every batch, how often every
+	 * action was chosen in every state, see {@link Logger#HEADER_PLY_AGGREGATE_CSV}.
+	 * The batches are the batches of the records if the loop passes them, see
+	 * {@link #logEpisode(LinkedList, int, int, LogSink, boolean)}
+	 *
+	 * @param episodesPerBatch number of episodes of a batch if the loop does not
+	 *                         pass the batches
+	 * @return new policy
+	 */
+	public static PlyLogPolicy aggregatePerBatch(int episodesPerBatch) {
+		return new AggregatePolicy(episodesPerBatch);
+	}
+
+	/**
+	 * Returns true if the plies of the passed episode are to be recorded
+	 *
+	 * @param episodeCount number of the episode
+	 * @return true if ply records of the episode are needed by this policy
+	 */
+	public boolean isEpisodeRecorded(int episodeCount) {
+		return true;
+	}
+
+	/**
+	 * Passes the ply records of an episode to the policy, the batch of the episode
+	 * is derived from its number
+	 *
+	 * @param plyRecords   records of all plies of the episode, null if they were
+	 *                     not recorded
+	 * @param episodeCount number of the episode
+	 * @param logSink      sink of the stage the records are logged to
+	 * @param printHeader  true if the header is to be printed with the next
+	 *                     logged records
+	 */
+	public final void logEpisode(LinkedList<PlyRecord> plyRecords, int episodeCount, LogSink logSink,
+			boolean printHeader) {
+		this.logEpisode(plyRecords, episodeCount, BATCH_OF_EPISODE_COUNT, logSink, printHeader);
+	}
+
+	/**
+	 * Passes the ply records of an episode to the policy
+	 *
+	 * @param plyRecords   records of all plies of the episode, null if they were
+	 *                     not recorded
+	 * @param episodeCount number of the episode in the loop
+	 * @param batch        batch the records of the episode belong to, which all
+	 *                     episodes of a batch have to pass consecutively;
+	 *                     {@link #BATCH_OF_EPISODE_COUNT} if the loop does not
+	 *                     track batches
+	 * @param logSink      sink of the stage the records are logged to
+	 * @param printHeader  true if the header is to be printed with the next
+	 *                     logged records
+	 */
+	public final void logEpisode(LinkedList<PlyRecord> plyRecords, int episodeCount, int batch, LogSink logSink,
+			boolean printHeader) {
+		this.isHeaderPending |= printHeader;
+		this.isAggregateHeaderPending |= printHeader;
+		if (plyRecords != null && this.isEpisodeRecorded(episodeCount)) {
+			this.processEpisode(plyRecords, episodeCount, batch, logSink);
+		}
+	}
+
+	/**
+	 * Logs everything the policy still holds, e.g. the sample of an incomplete
+	 * batch. Called before the logs of a stage are closed
+	 *
+	 * @param logSink sink of the stage the records are logged to
+	 */
+	public void flush(LogSink logSink) {
+	}
+
+	protected abstract void processEpisode(LinkedList<PlyRecord> plyRecords, int episodeCount, int batch,
+			LogSink logSink);
+
+	protected void logPlyRecords(Iterable<PlyRecord> plyRecords, LogSink logSink) {
+		logSink.logPlyRecords(plyRecords, this.isHeaderPending);
+		this.isHeaderPending = false;
+	}
+
+	protected void logAggregateRecords(Iterable<Object[]> aggregateRecords, LogSink logSink) {
+		logSink.logPlyAggregates(aggregateRecords, this.isAggregateHeaderPending);
+		this.isAggregateHeaderPending = false;
+	}
+
+	private static class NoPliesPolicy extends PlyLogPolicy {
+
+		@Override
+		public boolean isEpisodeRecorded(int episodeCount) {
+			return false;
+		}
+
+		@Override
+		protected void processEpisode(LinkedList<PlyRecord> plyRecords, int episodeCount, int batch,
+				LogSink logSink) {
+		}
+	}
+
+	private static class EveryNthEpisodePolicy extends PlyLogPolicy {
+		private final int N;
+
+		private EveryNthEpisodePolicy(int n) {
+			if (n <= 0) {
+				throw new IllegalArgumentException("n must be positive");
+			}
+			this.N = n;
+		}
+
+		@Override
+		public boolean isEpisodeRecorded(int episodeCount) {
+			return episodeCount % this.N == 0;
+		}
+
+		@Override
+		protected void processEpisode(LinkedList<PlyRecord> plyRecords, int episodeCount, int batch,
+				LogSink logSink) {
+			this.logPlyRecords(plyRecords, logSink);
+		}
+	}
+
+	private static class SuboptimalPliesPolicy extends PlyLogPolicy {
+
+		@Override
+		protected void processEpisode(LinkedList<PlyRecord> plyRecords, int episodeCount, int batch,
+				LogSink logSink) {
+			LinkedList<PlyRecord> suboptimalPlies = new LinkedList<>();
+			for (PlyRecord plyRecord : plyRecords) {
+				if (!plyRecord.wasOptimal()) {
+					suboptimalPlies.add(plyRecord);
+				}
+			}
+			if (!suboptimalPlies.isEmpty()) {
+				this.logPlyRecords(suboptimalPlies, logSink);
+			}
+		}
+	}
+
+	/**
+	 * Base of the policies that collect the plies of a batch and log them once
+	 * the first episode of the next batch arrives or the policy is flushed. The
+	 * batch is the one passed by the loop, which matches the batch column of the
+	 * records, or derived from the number of the episode if the loop does not
+	 * track batches
+	 */
+	private abstract static class BatchPolicy extends PlyLogPolicy {
+		private final int EPISODES_PER_BATCH;
+		private int currentBatch = -1;
+		private int firstEpisodeOfBatch;
+
+		private BatchPolicy(int episodesPerBatch) {
+			if (episodesPerBatch <= 0) {
+				throw new IllegalArgumentException("number of episodes per batch must be positive");
+			}
+			this.EPISODES_PER_BATCH = episodesPerBatch;
+		}
+
+		@Override
+		protected void processEpisode(LinkedList<PlyRecord> plyRecords, int episodeCount, int batch,
+				LogSink logSink) {
+			if (batch == BATCH_OF_EPISODE_COUNT) {
+				batch = episodeCount / this.EPISODES_PER_BATCH;
+			}
+			if (batch != this.currentBatch) {
+				this.flush(logSink);
+				this.currentBatch = batch;
+				// the episode is taken from the records, as their numbering may differ from
+				// the one of the loop
+				this.firstEpisodeOfBatch = plyRecords.isEmpty() ? episodeCount : plyRecords.getFirst().getEpisode();
+			}
+			for (PlyRecord plyRecord : plyRecords) {
+				this.processPly(plyRecord);
+			}
+		}
+
+		@Override
+		public void flush(LogSink logSink) {
+			if (this.currentBatch >= 0) {
+				this.logBatch(this.firstEpisodeOfBatch, logSink);
+			}
+			this.currentBatch = -1;
+		}
+
+		protected abstract void processPly(PlyRecord plyRecord);
+
+		/**
+		 * Logs the data collected for the current batch and resets it
+		 *
+		 * @param firstEpisode number of the first episode of the batch
+		 * @param logSink      sink of the stage the records are logged to
+		 */
+		protected abstract void logBatch(int firstEpisode, LogSink logSink);
+	}
+
+	private static class ReservoirSamplePolicy extends BatchPolicy {
+		private final int SAMPLE_SIZE;
+		private final Random RANDOM;
+		private final PlyRecord[] sample;
+		private final long[] positionInBatch;
+		private long numberOfPliesInBatch;
+
+		private ReservoirSamplePolicy(int sampleSize, int episodesPerBatch, long seed) {
+			super(episodesPerBatch);
+			if (sampleSize <= 0) {
+				throw new IllegalArgumentException("sample size must be positive");
+			}
+			this.SAMPLE_SIZE = sampleSize;
+			this.RANDOM = new Random(seed);
+			this.sample = new PlyRecord[sampleSize];
+			this.positionInBatch = new long[sampleSize];
+		}
+
+		@Override
+		protected void processPly(PlyRecord plyRecord) {
+			long position = this.numberOfPliesInBatch++;
+			if (position < this.SAMPLE_SIZE) {
+				this.sample[(int) position] = plyRecord;
+				this.positionInBatch[(int) position] = position;
+				return;
+			}
+			long replacedIndex = (long) (this.RANDOM.nextDouble() * (position + 1));
+			if (replacedIndex < this.SAMPLE_SIZE) {
+				this.sample[(int) replacedIndex] = plyRecord;
+				this.positionInBatch[(int) replacedIndex] = position;
+			}
+		}
+
+		@Override
+		protected void logBatch(int firstEpisode, LogSink logSink) {
+			int sampledPlies = (int) Math.min(this.numberOfPliesInBatch, this.SAMPLE_SIZE);
+			ArrayList<Integer> order = new ArrayList<>(sampledPlies);
+			for (int i = 0; i < sampledPlies; i++) {
+				order.add(i);
+			}
+			order.sort((i, j) -> Long.compare(this.positionInBatch[i], this.positionInBatch[j]));
+
+			ArrayList<PlyRecord> sortedSample = new ArrayList<>(sampledPlies);
+			for (int i : order) {
+				sortedSample.add(this.sample[i]);
+				this.sample[i] = null;
+			}
+			if (!sortedSample.isEmpty()) {
+				this.logPlyRecords(sortedSample, logSink);
+			}
+			this.numberOfPliesInBatch = 0;
+		}
+	}
+
+	private static class AggregatePolicy extends BatchPolicy {
+		private static final int NUMBER_OF_ACTIONS = 9;
+
+		// counters indexed by StateIndex#getIndex(int) * NUMBER_OF_ACTIONS + action
+		private final int[] numberOfActions;
+		private final int[] numberOfExploratoryActions;
+		private final boolean[] isActionOptimal;
+
+		private AggregatePolicy(int episodesPerBatch) {
+			super(episodesPerBatch);
+			int numberOfCounters = StateIndex.getNumberOfStates() * NUMBER_OF_ACTIONS;
+			this.numberOfActions = new int[numberOfCounters];
+			this.numberOfExploratoryActions = new int[numberOfCounters];
+			this.isActionOptimal = new boolean[numberOfCounters];
+		}
+
+		@Override
+		protected void processPly(PlyRecord plyRecord) {
+			int counter = StateIndex.getIndex(plyRecord.getStateBefore()) * NUMBER_OF_ACTIONS + plyRecord.getAction();
+			this.numberOfActions[counter]++;
+			if (plyRecord.wasExploratory()) {
+				this.numberOfExploratoryActions[counter]++;
+			}
+			this.isActionOptimal[counter] = plyRecord.wasOptimal();
+		}
+
+		@Override
+		protected void logBatch(int firstEpisode, LogSink logSink) {
+			ArrayList<Object[]> aggregateRecords = new ArrayList<>();
+			for (int counter = 0; counter < this.numberOfActions.length; counter++) {
+				if (this.numberOfActions[counter] == 0) {
+					continue;
+				}
+				Object[] aggregateRecord = new Object[6];
+				aggregateRecord[0] = firstEpisode;
+				aggregateRecord[1] = StateIndex.getState(counter / NUMBER_OF_ACTIONS);
+				aggregateRecord[2] = counter % NUMBER_OF_ACTIONS;
+				aggregateRecord[3] = this.numberOfActions[counter];
+				aggregateRecord[4] = this.numberOfExploratoryActions[counter];
+				aggregateRecord[5] = Utility.encodeBooleanAsInt(this.isActionOptimal[counter]);
+				aggregateRecords.add(aggregateRecord);
+
+				this.numberOfActions[counter] = 0;
+				this.numberOfExploratoryActions[counter] = 0;
+			}
+			if (!aggregateRecords.isEmpty()) {
+				this.logAggregateRecords(aggregateRecords, logSink);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+package pack;
+
+import java.util.ArrayList;
+
+/**
+ * Record of a single ply that is logged to the ply log. The optimal actions are
+ * stored as a bitmask so that the record can be written in a fixed-width binary
+ * format, see {@link BinaryLogFormat}
+ */
+public class PlyRecord {
+	private final int EPISODE;
+	private final int BATCH;
+	private final Symbol SYMBOL;
+	private final int PLY;
+	private final int STATE_BEFORE;
+	private final int ACTION;
+	private final int STATE_AFTER;
+	private final boolean WAS_EXPLORATORY;
+	private final boolean WAS_OPTIMAL;
+	private final int OPTIMAL_ACTIONS_MASK;
+	private final float REWARD;
+
+	/**
+	 * @param episodeCount         episode the ply belongs to
+	 * @param batchCount           batch the ply belongs to
+	 * @param recordedSymbol       symbol that executed the ply
+	 * @param currentPly           number of the ply in the episode
+	 * @param currentState         state at the start of the ply
+	 * @param chosenAction         action chosen by the symbol
+	 * @param afterState           state after action has been applied
+	 * @param wasActionExploratory was action that the agent picked exploratory
+	 * @param wasActionOptimal     was the action chosen by the agent optimal
+	 *                             according to minimax
+	 * @param optimalActionsMask   bitmask of the best actions according to
+	 *                             minimax
+	 * @param reward               reward that is attributed to the ply
+	 */
+	public PlyRecord(int episodeCount, int batchCount, Symbol recordedSymbol, int currentPly, int currentState,
+			int chosenAction, int afterState, boolean wasActionExploratory, boolean wasActionOptimal,
+			int optimalActionsMask, float reward) {
+		this.EPISODE = episodeCount;
+		this.BATCH = batchCount;
+		this.SYMBOL = recordedSymbol;
+		this.PLY = currentPly;
+		this.STATE_BEFORE = currentState;
+		this.ACTION = chosenAction;
+		this.STATE_AFTER = afterState;
+		this.WAS_EXPLORATORY = wasActionExploratory;
+		this.WAS_OPTIMAL = wasActionOptimal;
+		this.OPTIMAL_ACTIONS_MASK = optimalActionsMask;
+		this.REWARD = reward;
+	}
+
+	/**
+	 * Creates the record of a ply using the list of best actions according to
+	 * minimax
+	 * 
+	 * @param bestActions best actions according to minimax
+	 * @see #PlyRecord(int, int, Symbol, int, int, int, int, boolean, boolean, int,
+	 *      float)
+	 */
+	public PlyRecord(int episodeCount, int batchCount, Symbol recordedSymbol, int currentPly, int currentState,
+			int chosenAction, int afterState, boolean wasActionExploratory, boolean wasActionOptimal,
+			ArrayList<Integer> bestActions, float reward) {
+		this(episodeCount, batchCount, recordedSymbol, currentPly, currentState, chosenAction, afterState,
+				wasActionExploratory, wasActionOptimal, Utility.convertListToBitmask(bestActions), reward);
+	}
+
+	/**
+	 * Creates the CSV record of the ply in the layout of {@link Logger#HEADER_PLY_CSV}
+	 * 
+	 * @return ply record that can be printed to the ply CSV
+	 */
+	public Object[] toCSVRecord() {
+		Object[] plyRecord = new Object[11];
+
+		plyRecord[0] = this.EPISODE;
+		plyRecord[1] = this.BATCH;
+		plyRecord[2] = this.SYMBOL.toString();
+		plyRecord[3] = this.PLY;
+		plyRecord[4] = this.STATE_BEFORE;
+		plyRecord[5] = this.ACTION;
+		plyRecord[6] = this.STATE_AFTER;
+		plyRecord[7] = Utility.encodeBooleanAsInt(this.WAS_EXPLORATORY);
+		plyRecord[8] = Utility.encodeBooleanAsInt(this.WAS_OPTIMAL);
+		plyRecord[9] = Utility.convertBitmaskToString(this.OPTIMAL_ACTIONS_MASK);
+		plyRecord[10] = this.REWARD;
+
+		return plyRecord;
+	}
+
+	public int getEpisode() {
+		return this.EPISODE;
+	}
+
+	public int getBatch() {
+		return this.BATCH;
+	}
+
+	public Symbol getSymbol() {
+		return this.SYMBOL;
+	}
+
+	public int getPly() {
+		return this.PLY;
+	}
+
+	public int getStateBefore() {
+		return this.STATE_BEFORE;
+	}
+
+	public int getAction() {
+		return this.ACTION;
+	}
+
+	public int getStateAfter() {
+		return this.STATE_AFTER;
+	}
+
+	public boolean wasExploratory() {
+		return this.WAS_EXPLORATORY;
+	}
+
+	public boolean wasOptimal() {
+		return this.WAS_OPTIMAL;
+	}
+
+	public int getOptimalActionsMask() {
+		return this.OPTIMAL_ACTIONS_MASK;
+	}
+
+	public float getReward() {
+		return this.REWARD;
+	}
+
+}
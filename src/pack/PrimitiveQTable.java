@@ -0,0 +1,349 @@
+package pack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * QTable that stores the qValues in primitive arrays instead of nested
+ * HashMaps. State-action tuples are packed into a single int key
+ * (state * GAMEFIELD_SIZE + action) that is stored in an open addressing hash
+ * table with linear probing. Visited states are tracked in a bitset that is
+ * indexed by the state itself. Thus neither lookups nor updates box any values
+ */
+public class PrimitiveQTable implements Experience {
+
+	private static final long serialVersionUID = 2650431975203641873L;
+	private static final int EMPTY_KEY = -1;
+	private static final int INITIAL_CAPACITY = 1 << 15;
+	private static final int NUMBER_OF_STATE_KEYS = 1 << (2 * Gamefield.GAMEFIELD_SIZE);
+
+	private final double INITIAL_QVALUE;
+
+	private int[] keys;
+	private double[] qValues;
+	private int numberOfEntries = 0;
+
+	private final long[] initialisedStates = new long[NUMBER_OF_STATE_KEYS / Long.SIZE];
+	private int numberOfInitialisedStates = 0;
+
+	public PrimitiveQTable(double initialQValue) {
+		this.INITIAL_QVALUE = initialQValue;
+		this.keys = PrimitiveQTable.createEmptyKeyArray(INITIAL_CAPACITY);
+		this.qValues = new double[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * If the state has not been initialised yet, this method marks it as
+	 * initialised and adds an entry with the constant provided in the constructor
+	 * for every legal action. Terminal states are only marked as initialised as
+	 * their qValue is QVALUE_TERMINAL_STATE by definition
+	 * 
+	 * @param state        that is to be added to the qtable
+	 * @param legalActions actions that are legal in the state, if legalActions is
+	 *                     empty a terminal state is assumed
+	 */
+	@Override
+	public void initialiseQTableEntryIfNotExistent(int state, int[] legalActions) {
+		if (this.isStateInitialised(state)) {
+			return;
+		}
+		this.initialisedStates[state >>> 6] |= 1L << state;
+		this.numberOfInitialisedStates++;
+
+		for (int legalAction : legalActions) {
+			this.putQValue(PrimitiveQTable.packKey(state, legalAction), this.INITIAL_QVALUE);
+		}
+	}
+
+	/**
+	 * Sets the qValue of the state-action tuple to the passed new qValue
+	 * 
+	 * @param state     of the state-action tuple to be updated
+	 * @param action    of the state-action tuple to be updated
+	 * @param newQValue new new qvalue of the state-action tuple
+	 */
+	@Override
+	public void updateQTableValue(int state, int action, double newQValue) {
+		if (!this.isStateInitialised(state)) {
+			throw new NullPointerException(
+					"state has not been initialised yet; According to the TD algorithm an update can not occur for these states ");
+		}
+		this.putQValue(PrimitiveQTable.packKey(state, action), newQValue);
+	}
+
+	/**
+	 * Get the best action out of the set of legal actions for the given state. Best
+	 * action means the state-action tuple that has the highest qValue, ties are
+	 * broken arbitrarily. The tied actions are collected in a bitmask so that no
+	 * list has to be allocated
+	 * 
+	 * @param state        for that the best action is to be given
+	 * @param legalActions set of actions that are legal in this state
+	 * @return action with the highest qValue
+	 */
+	@Override
+	public int getBestAction(int state, int[] legalActions) {
+		if (legalActions.length == 0) {
+			throw new IllegalArgumentException(
+					"empty array was passed thus no optimal action available; method is not applicable for terminal states");
+		}
+
+		return Utility.getRandomSetBit(this.getBestActionsMask(state, legalActions));
+	}
+
+	/**
+	 * Returns one or more actions out of the set of legal actions with the highest
+	 * qValue
+	 * 
+	 * @param state        for that the best action is to be given
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest qValue in
+	 *         ascending order
+	 */
+	@Override
+	public ArrayList<Integer> getBestActions(int state, int[] legalActions) {
+		if (legalActions.length == 0) {
+			throw new IllegalArgumentException(
+					"empty array was passed thus no optimal action available; method is not applicable for terminal states");
+		}
+		return Utility.convertBitmaskToList(this.getBestActionsMask(state, legalActions));
+	}
+
+	/**
+	 * Returns the best actions like {@link #getBestActions(int, int[])} without
+	 * modifying the table. A state that has not been initialised is treated as if
+	 * it had been, i.e. every legal action has the initial qValue
+	 * 
+	 * @param state        for that the best actions are to be given
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest qValue
+	 */
+	@Override
+	public ArrayList<Integer> getBestActionsWithoutInitialising(int state, int[] legalActions) {
+		if (!this.isStateInitialised(state)) {
+			// every legal action would be initialised with the same qValue
+			return Utility.convertArrayToList(legalActions);
+		}
+		return this.getBestActions(state, legalActions);
+	}
+
+	/**
+	 * Returns the bitmask of the legal actions with the highest qValue
+	 * 
+	 * @param state        initialised state
+	 * @param legalActions set of actions that are legal in this state
+	 * @return bitmask with a bit set for every best action
+	 */
+	private int getBestActionsMask(int state, int[] legalActions) {
+		int bestActionsMask = 0;
+		double bestQValue = Double.NEGATIVE_INFINITY;
+
+		// No null check necessary as state must be initialised already
+		for (int legalAction : legalActions) {
+			double qValueOfLegalAction = this.qValues[this.findSlot(PrimitiveQTable.packKey(state, legalAction))];
+
+			if (qValueOfLegalAction == bestQValue) {
+				bestActionsMask |= 1 << legalAction;
+			} else if (qValueOfLegalAction > bestQValue) {
+				bestActionsMask = 1 << legalAction;
+				bestQValue = qValueOfLegalAction;
+			}
+		}
+		return bestActionsMask;
+	}
+
+	/**
+	 * Returns the qValue constant that is assigned to terminal states. By
+	 * convention this should be zero
+	 * 
+	 * @return qValue of terminal states
+	 */
+	@Override
+	public double getQValueOfTerminalState() {
+		return QVALUE_TERMINAL_STATE;
+	}
+
+	/**
+	 * Returns qValue of the passed state-action tuple
+	 * 
+	 * @param state
+	 * @param action
+	 * @return
+	 */
+	@Override
+	public double getQValue(int state, int action) {
+		if (!this.isStateInitialised(state)) {
+			throw new NullPointerException(
+					"state has not been initialised yet; According to the TD algorithm this state should not be accessed");
+		}
+
+		int slot = this.findSlot(PrimitiveQTable.packKey(state, action));
+		if (this.keys[slot] == EMPTY_KEY) {
+			return QVALUE_TERMINAL_STATE;
+		} else {
+			return this.qValues[slot];
+		}
+	}
+
+	/**
+	 * Returns the number of distinct states the agent has visited so far, i.e. the
+	 * number of states that have been initialised
+	 * 
+	 * @return number of distinct states the agent has visited
+	 */
+	@Override
+	public int getNumberOfDistinctVisitedStates() {
+		return this.numberOfInitialisedStates;
+	}
+
+	/**
+	 * Returns a HashMap that contains all legalActions mapped to their respective
+	 * qValue for the given state. The map has the same layout as the one returned
+	 * by {@link QTable#getActionQValueMapForState(int)}, i.e. terminal states map
+	 * null to QVALUE_TERMINAL_STATE
+	 * 
+	 * @param state for that the action-qValue map is to be returned
+	 * @return action-qValue map for the given state, null if the state was not
+	 *         initialised
+	 */
+	@Override
+	public HashMap<Integer, Double> getActionQValueMapForState(int state) {
+		if (!this.isStateInitialised(state)) {
+			return null;
+		}
+
+		HashMap<Integer, Double> actionQValueMap = new HashMap<>();
+		for (int action = 0; action < Gamefield.GAMEFIELD_SIZE; action++) {
+			int slot = this.findSlot(PrimitiveQTable.packKey(state, action));
+			if (this.keys[slot] != EMPTY_KEY) {
+				actionQValueMap.put(action, this.qValues[slot]);
+			}
+		}
+
+		if (actionQValueMap.isEmpty()) {
+			actionQValueMap.put(null, QVALUE_TERMINAL_STATE);
+		}
+		return actionQValueMap;
+	}
+
+	/**
+	 * Returns whether the passed state has been initialised
+	 * 
+	 * @param state to check
+	 * @return true if the state has been initialised
+	 */
+	private boolean isStateInitialised(int state) {
+		return (this.initialisedStates[state >>> 6] & (1L << state)) != 0;
+	}
+
+	/**
+	 * Stores the passed qValue for the passed key and grows the table if more than
+	 * half of the slots are occupied
+	 * 
+	 * @param key    packed state-action tuple
+	 * @param qValue to store
+	 */
+	private void putQValue(int key, double qValue) {
+		int slot = this.findSlot(key);
+		if (this.keys[slot] == EMPTY_KEY) {
+			this.keys[slot] = key;
+			this.numberOfEntries++;
+		}
+		this.qValues[slot] = qValue;
+
+		if (this.numberOfEntries * 2 > this.keys.length) {
+			this.growTable();
+		}
+	}
+
+	/**
+	 * Returns the slot that contains the passed key or the empty slot where the key
+	 * is to be inserted
+	 * 
+	 * @param key packed state-action tuple
+	 * @return index of the slot
+	 */
+	private int findSlot(int key) {
+		int mask = this.keys.length - 1;
+		int slot = (key * 0x9E3779B9) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(this.keys.length));
+
+		while (this.keys[slot] != key && this.keys[slot] != EMPTY_KEY) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Doubles the capacity of the table and reinserts all entries
+	 */
+	private void growTable() {
+		int[] oldKeys = this.keys;
+		double[] oldQValues = this.qValues;
+
+		this.keys = PrimitiveQTable.createEmptyKeyArray(oldKeys.length * 2);
+		this.qValues = new double[oldKeys.length * 2];
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY_KEY) {
+				int slot = this.findSlot(oldKeys[i]);
+				this.keys[slot] = oldKeys[i];
+				this.qValues[slot] = oldQValues[i];
+			}
+		}
+	}
+
+	private static int[] createEmptyKeyArray(int capacity) {
+		int[] emptyKeys = new int[capacity];
+		Arrays.fill(emptyKeys, EMPTY_KEY);
+		return emptyKeys;
+	}
+
+	/**
+	 * Packs the passed state-action tuple into a single int
+	 * 
+	 * @param state  of the state-action tuple
+	 * @param action of the state-action tuple
+	 * @return key of the state-action tuple
+	 */
+	private static int packKey(int state, int action) {
+		return state * Gamefield.GAMEFIELD_SIZE + action;
+	}
+
+	double getInitialQValue() {
+		return this.INITIAL_QVALUE;
+	}
+
+	/**
+	 * Returns all states that have been initialised including terminal states,
+	 * used to write a snapshot of the table
+	 * 
+	 * @return initialised states in ascending order
+	 */
+	int[] getVisitedStates() {
+		int[] visitedStates = new int[this.numberOfInitialisedStates];
+		int i = 0;
+		for (int word = 0; word < this.initialisedStates.length; word++) {
+			for (long bits = this.initialisedStates[word]; bits != 0; bits &= bits - 1) {
+				visitedStates[i++] = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+			}
+		}
+		return visitedStates;
+	}
+
+	/**
+	 * Passes every state-action tuple with its qValue to the passed consumer, used
+	 * to write a snapshot of the table
+	 * 
+	 * @param consumer receives the key (state * GAMEFIELD_SIZE + action) and the
+	 *                 qValue of every tuple
+	 */
+	void forEachQValue(ExperienceSnapshot.EntryConsumer consumer) {
+		for (int slot = 0; slot < this.keys.length; slot++) {
+			if (this.keys[slot] != EMPTY_KEY) {
+				consumer.accept(this.keys[slot], this.qValues[slot]);
+			}
+		}
+	}
+
+}
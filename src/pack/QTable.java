@@ -2,6 +2,7 @@ package pack;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map.Entry;
 
 public class QTable implements Experience {
 
@@ -111,7 +112,8 @@ public class QTable implements Experience {
 	 * @param legalActions set of actions that are legal in this state
 	 * @return one or more actions out of legalActions with the highest qValue
 	 */
-	private ArrayList<Integer> getBestActions(int state, int[] legalActions) {
+	@Override
+	public ArrayList<Integer> getBestActions(int state, int[] legalActions) {
 
 		if (legalActions.length == 0) {
 			throw new IllegalArgumentException(
@@ -140,6 +142,24 @@ public class QTable implements Experience {
 
 	}
 
+	/**
+	 * Returns the best actions like {@link #getBestActions(int, int[])} without
+	 * modifying the table. A state that has not been initialised is treated as if
+	 * it had been, i.e. every legal action has the initial qValue
+	 * 
+	 * @param state        for that the best actions are to be given
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest qValue
+	 */
+	@Override
+	public ArrayList<Integer> getBestActionsWithoutInitialising(int state, int[] legalActions) {
+		if (this.qTable.get(state) == null) {
+			// every legal action would be initialised with the same qValue
+			return Utility.convertArrayToList(legalActions);
+		}
+		return this.getBestActions(state, legalActions);
+	}
+
 	/**
 	 * Returns the qValue constant that is assigned to terminal states. By
 	 * convention this should be zero
@@ -201,4 +221,37 @@ public class QTable implements Experience {
 		return this.qTable.get(state);
 	}
 
+	double getInitialQValue() {
+		return this.INITIAL_QVALUE;
+	}
+
+	/**
+	 * Returns all states that have been initialised including terminal states,
+	 * used to write a snapshot of the table
+	 * 
+	 * @return initialised states in ascending order
+	 */
+	int[] getVisitedStates() {
+		return this.qTable.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+	}
+
+	/**
+	 * Passes every state-action tuple with its qValue to the passed consumer, used
+	 * to write a snapshot of the table. Terminal states have no state-action
+	 * tuples
+	 * 
+	 * @param consumer receives the key (state * GAMEFIELD_SIZE + action) and the
+	 *                 qValue of every tuple
+	 */
+	void forEachQValue(ExperienceSnapshot.EntryConsumer consumer) {
+		for (Entry<Integer, HashMap<Integer, Double>> stateEntry : this.qTable.entrySet()) {
+			for (Entry<Integer, Double> actionEntry : stateEntry.getValue().entrySet()) {
+				if (actionEntry.getKey() != null) {
+					consumer.accept(stateEntry.getKey() * Gamefield.GAMEFIELD_SIZE + actionEntry.getKey(),
+							actionEntry.getValue());
+				}
+			}
+		}
+	}
+
 }
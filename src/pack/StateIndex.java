@@ -0,0 +1,97 @@
+package pack;
+
+import java.util.Arrays;
+
+/**
+ * Maps every reachable state of tic-tac-toe to a dense index between 0 and
+ * {@link #getNumberOfStates()} - 1 and back. This allows tables over states to
+ * be plain arrays of a fixed size instead of HashMaps keyed by the sparse 18 bit
+ * state
+ * 
+ * The mapping uses a precomputed perfect hash: every state is interpreted as a
+ * number in base three where every slot is a digit (unoccupied, O, X). This
+ * number is unique and smaller than 3^9 and is used to look up the dense index
+ * in a table. Dense indexes are assigned in ascending order of the states
+ */
+public class StateIndex {
+
+	private static final int NUMBER_OF_PERFECT_HASHES = 19683;
+	private static final int NO_INDEX = -1;
+
+	/**
+	 * Maps a bitboard of one symbol to the sum of 3^i over all of its set bits i
+	 */
+	private static final int[] BASE_THREE_DIGITS = new int[1 << Gamefield.GAMEFIELD_SIZE];
+	private static final short[] INDEX_OF_PERFECT_HASH = new short[NUMBER_OF_PERFECT_HASHES];
+	private static final int[] STATE_OF_INDEX;
+
+	static {
+		for (int bitboard = 1; bitboard < BASE_THREE_DIGITS.length; bitboard++) {
+			int lowestSetBit = Integer.numberOfTrailingZeros(bitboard);
+			BASE_THREE_DIGITS[bitboard] = BASE_THREE_DIGITS[bitboard & (bitboard - 1)]
+					+ (int) Math.pow(3, lowestSetBit);
+		}
+
+		STATE_OF_INDEX = new int[StateLookupTable.getNumberOfReachableStates()];
+		Arrays.fill(INDEX_OF_PERFECT_HASH, (short) NO_INDEX);
+
+		int nextIndex = 0;
+		for (int state = 0; state < 1 << (2 * Gamefield.GAMEFIELD_SIZE); state++) {
+			if (StateLookupTable.isReachable(state)) {
+				STATE_OF_INDEX[nextIndex] = state;
+				INDEX_OF_PERFECT_HASH[StateIndex.getPerfectHash(state)] = (short) nextIndex;
+				nextIndex++;
+			}
+		}
+	}
+
+	/**
+	 * Returns the dense index of the passed state
+	 * 
+	 * @param state reachable state
+	 * @return index between 0 and {@link #getNumberOfStates()} - 1 or -1 if the
+	 *         state is not reachable
+	 */
+	public static int getIndex(int state) {
+		int index = INDEX_OF_PERFECT_HASH[StateIndex.getPerfectHash(state)];
+
+		// states with a slot occupied by both symbols can collide with a reachable one
+		if (index == NO_INDEX || STATE_OF_INDEX[index] != state) {
+			return NO_INDEX;
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the state that belongs to the passed dense index
+	 * 
+	 * @param index between 0 and {@link #getNumberOfStates()} - 1
+	 * @return state that is mapped to the passed index
+	 */
+	public static int getState(int index) {
+		return STATE_OF_INDEX[index];
+	}
+
+	/**
+	 * Returns the number of dense indexes, i.e. the number of reachable states
+	 * 
+	 * @return number of reachable states
+	 */
+	public static int getNumberOfStates() {
+		return STATE_OF_INDEX.length;
+	}
+
+	/**
+	 * Returns the state interpreted as a number in base three where O is denoted
+	 * by 1 and X by 2
+	 * 
+	 * @param state to calculate the hash for
+	 * @return hash smaller than 3^9 that is unique for every valid state
+	 */
+	private static int getPerfectHash(int state) {
+		int bitboardO = (state >>> Gamefield.getSymbolSpecificOffset(Symbol.SYMBOL_O)) & 0x1FF;
+		int bitboardX = (state >>> Gamefield.getSymbolSpecificOffset(Symbol.SYMBOL_X)) & 0x1FF;
+		return (BASE_THREE_DIGITS[bitboardO] + 2 * BASE_THREE_DIGITS[bitboardX]) % NUMBER_OF_PERFECT_HASHES;
+	}
+
+}
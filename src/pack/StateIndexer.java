@@ -0,0 +1,47 @@
+package pack;
+
+import java.io.Serializable;
+
+/**
+ * Maps the states of a gamefield to dense indexes between 0 and
+ * {@link #getNumberOfStates()} - 1 and back. Tables that store a fixed-size
+ * record per state, e.g. {@link MappedQTable}, use the index as the position
+ * of the record and thus need no lookup structure. The state is passed as the
+ * long state key, the 18 bit state of {@link Gamefield} is a special case
+ */
+public interface StateIndexer extends Serializable {
+	static final long NO_INDEX = -1L;
+
+	/**
+	 * Returns the dense index of the passed state
+	 *
+	 * @param state key of the state
+	 * @return index between 0 and {@link #getNumberOfStates()} - 1 or NO_INDEX if
+	 *         the state has no index
+	 */
+	long getIndex(long state);
+
+	/**
+	 * Returns the state that belongs to the passed dense index
+	 *
+	 * @param index between 0 and {@link #getNumberOfStates()} - 1
+	 * @return key of the state that is mapped to the passed index
+	 */
+	long getState(long index);
+
+	/**
+	 * Returns the number of dense indexes
+	 *
+	 * @return number of indexes
+	 */
+	long getNumberOfStates();
+
+	/**
+	 * Returns the number of actions of every state, i.e. the number of slots of
+	 * the gamefield
+	 *
+	 * @return number of actions
+	 */
+	int getNumberOfActions();
+
+}
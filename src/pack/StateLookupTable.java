@@ -0,0 +1,171 @@
+package pack;
+
+import java.util.ArrayDeque;
+
+/**
+ * Immutable lookup table that is built once at startup and contains the legal
+ * actions and the game status of every state that is reachable in tic-tac-toe.
+ * The tables are indexed directly by the 18 bit state returned by
+ * {@link Gamefield#getState()}, thus every legality and terminal check is a
+ * single array load. Unreachable states have no entry
+ *
+ * The arrays of legal actions are shared between all states with the same
+ * occupied slots and must therefore not be modified by the caller
+ */
+public class StateLookupTable {
+
+	private static final int NUMBER_OF_STATE_KEYS = 1 << (2 * Gamefield.GAMEFIELD_SIZE);
+	private static final int NUMBER_OF_OCCUPANCY_KEYS = 1 << Gamefield.GAMEFIELD_SIZE;
+	private static final int[] NO_LEGAL_ACTIONS = new int[0];
+
+	private static final int[][] UNOCCUPIED_SLOTS = new int[NUMBER_OF_OCCUPANCY_KEYS][];
+	private static final int[][] LEGAL_ACTIONS = new int[NUMBER_OF_STATE_KEYS][];
+	private static final GameStatus[] GAME_STATUS = new GameStatus[NUMBER_OF_STATE_KEYS];
+	private static final int NUMBER_OF_REACHABLE_STATES;
+
+	static {
+		for (int occupiedSlots = 0; occupiedSlots < NUMBER_OF_OCCUPANCY_KEYS; occupiedSlots++) {
+			UNOCCUPIED_SLOTS[occupiedSlots] = calculateUnoccupiedSlots(occupiedSlots);
+		}
+		NUMBER_OF_REACHABLE_STATES = buildTables();
+	}
+
+	/**
+	 * Enumerates all reachable states starting with the empty gamefield and fills
+	 * the state specific tables. Successors of terminal states are not expanded
+	 *
+	 * @return number of reachable states including the empty gamefield
+	 */
+	private static int buildTables() {
+		ArrayDeque<Integer> statesToExpand = new ArrayDeque<>();
+		int numberOfReachableStates = 0;
+
+		GAME_STATUS[0] = GameStatus.INITIALIZED;
+		LEGAL_ACTIONS[0] = UNOCCUPIED_SLOTS[0];
+		statesToExpand.push(0);
+
+		while (!statesToExpand.isEmpty()) {
+			int state = statesToExpand.pop();
+			numberOfReachableStates++;
+
+			int symbolSpecificOffset = Gamefield.getSymbolSpecificOffset(Gamefield.getCurrentTurnsSymbol(state));
+			for (int legalAction : LEGAL_ACTIONS[state]) {
+				int nextState = state | (1 << (legalAction + symbolSpecificOffset));
+
+				if (GAME_STATUS[nextState] == null) {
+					GameStatus nextStatus = Gamefield.calculateGameStatus(nextState);
+					GAME_STATUS[nextState] = nextStatus;
+
+					if (nextStatus == GameStatus.ON_GOING) {
+						LEGAL_ACTIONS[nextState] = getUnoccupiedSlots(nextState);
+					} else {
+						LEGAL_ACTIONS[nextState] = NO_LEGAL_ACTIONS;
+					}
+					statesToExpand.push(nextState);
+				}
+			}
+		}
+		return numberOfReachableStates;
+	}
+
+	/**
+	 * Returns the indexes of all slots that are not set in the passed bitboard in
+	 * ascending order
+	 *
+	 * @param occupiedSlots bitboard of the occupied slots without symbol offset
+	 * @return ascending array of unoccupied slots
+	 */
+	private static int[] calculateUnoccupiedSlots(int occupiedSlots) {
+		int unoccupiedSlots = ~occupiedSlots & (NUMBER_OF_OCCUPANCY_KEYS - 1);
+		int[] unoccupiedSlotsAsArray = new int[Integer.bitCount(unoccupiedSlots)];
+
+		for (int i = 0; unoccupiedSlots != 0; i++) {
+			unoccupiedSlotsAsArray[i] = Integer.numberOfTrailingZeros(unoccupiedSlots);
+			unoccupiedSlots &= unoccupiedSlots - 1;
+		}
+		return unoccupiedSlotsAsArray;
+	}
+
+	/**
+	 * Returns the unoccupied slots of the passed state regardless of whether the
+	 * state is reachable or terminal. This mirrors the behaviour of
+	 * {@link Gamefield#getlegalActionsToState(int)}
+	 *
+	 * @param state any state with at most 18 bits
+	 * @return shared ascending array of the unoccupied slots
+	 */
+	public static int[] getUnoccupiedSlots(int state) {
+		int occupiedSlots = (state | (state >>> Gamefield.GAMEFIELD_SIZE)) & (NUMBER_OF_OCCUPANCY_KEYS - 1);
+		return UNOCCUPIED_SLOTS[occupiedSlots];
+	}
+
+	/**
+	 * Returns whether the passed state can be reached by legal play starting with
+	 * an empty gamefield
+	 *
+	 * @param state to check
+	 * @return true if the state is reachable
+	 */
+	public static boolean isReachable(int state) {
+		return state >= 0 && state < NUMBER_OF_STATE_KEYS && GAME_STATUS[state] != null;
+	}
+
+	/**
+	 * Returns the legal actions of the passed reachable state. Terminal states have
+	 * no legal actions and thus an empty array is returned
+	 *
+	 * @param state reachable state
+	 * @return shared array of legal actions, null if the state is not reachable
+	 */
+	public static int[] getLegalActions(int state) {
+		return LEGAL_ACTIONS[state];
+	}
+
+	/**
+	 * Returns the game status of the passed reachable state
+	 *
+	 * @param state reachable state
+	 * @return status of the game in the passed state, null if the state is not
+	 *         reachable
+	 */
+	public static GameStatus getGameStatus(int state) {
+		return GAME_STATUS[state];
+	}
+
+	/**
+	 * Returns whether the game has ended in the passed reachable state
+	 *
+	 * @param state reachable state
+	 * @return true if the state is a draw or a win for either symbol
+	 */
+	public static boolean isTerminal(int state) {
+		return LEGAL_ACTIONS[state].length == 0;
+	}
+
+	/**
+	 * Returns the symbol that won the game in the passed reachable state
+	 *
+	 * @param state reachable state
+	 * @return winning symbol or null if nobody has won (yet)
+	 */
+	public static Symbol getWinner(int state) {
+		GameStatus gameStatus = GAME_STATUS[state];
+		if (gameStatus == GameStatus.WIN_X) {
+			return Symbol.SYMBOL_X;
+		} else if (gameStatus == GameStatus.WIN_O) {
+			return Symbol.SYMBOL_O;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the number of states that are reachable in tic-tac-toe, i.e. 5478
+	 *
+	 * @return number of reachable states including the empty gamefield
+	 */
+	public static int getNumberOfReachableStates() {
+		return NUMBER_OF_REACHABLE_STATES;
+	}
+
+}
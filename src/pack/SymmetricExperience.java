@@ -0,0 +1,206 @@
+package pack;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Decorator that reduces the passed experience by the eight symmetries of the
+ * gamefield. Every state-action tuple is mapped to the canonical state and the
+ * corresponding action before it is passed to the decorated experience, thus
+ * all symmetric variants of a state share their values. Best actions are mapped
+ * back to the actual gamefield
+ * 
+ * A {@link WTable} or {@link DenseWTable} keys its values by the afterstate of
+ * the canonical state and the transformed action, which is a symmetric variant
+ * of the actual afterstate but usually not its canonical state. Such tables
+ * thus have to key their values by the canonical afterstates themselves, see
+ * {@link WTable#WTable(double, boolean)}, otherwise symmetric afterstates are
+ * learned separately and the wValue of a terminal state is reset under a
+ * different key than the one it is updated under
+ * 
+ * @see BoardSymmetry
+ */
+public class SymmetricExperience implements Experience {
+
+	private static final long serialVersionUID = -1783416410937513650L;
+
+	private final Experience experience;
+
+	/**
+	 * Creates a decorator that reduces the passed experience by the symmetries of
+	 * the gamefield
+	 * 
+	 * @param experience experience that stores the values of the canonical states;
+	 *                   a WTable or DenseWTable has to use canonical afterstates
+	 */
+	public SymmetricExperience(Experience experience) {
+		boolean isAfterstateTableWithoutSymmetry = (experience instanceof WTable
+				&& !((WTable) experience).usesCanonicalAfterstates())
+				|| (experience instanceof DenseWTable && !((DenseWTable) experience).usesCanonicalAfterstates());
+		if (isAfterstateTableWithoutSymmetry) {
+			throw new IllegalArgumentException(experience.getClass().getSimpleName()
+					+ " has to use canonical afterstates to be decorated by a SymmetricExperience");
+		}
+		this.experience = experience;
+	}
+
+	/**
+	 * Initialises the canonical state of the passed state in the decorated
+	 * experience. The legal actions of the canonical state are looked up as they
+	 * are the transformed legal actions of the passed state
+	 * 
+	 * @param state        that is to be added to the experience
+	 * @param legalActions actions that are legal in the state, if legalActions is
+	 *                     empty a terminal state is assumed
+	 */
+	@Override
+	public void initialiseQTableEntryIfNotExistent(int state, int[] legalActions) {
+		int canonicalState = BoardSymmetry.getCanonicalState(state);
+
+		if (legalActions.length == 0) {
+			this.experience.initialiseQTableEntryIfNotExistent(canonicalState, legalActions);
+		} else {
+			this.experience.initialiseQTableEntryIfNotExistent(canonicalState,
+					StateLookupTable.getLegalActions(canonicalState));
+		}
+	}
+
+	@Override
+	public void updateQTableValue(int state, int action, double newQValue) {
+		int transformation = BoardSymmetry.getTransformationToCanonicalState(state);
+		this.experience.updateQTableValue(BoardSymmetry.getCanonicalState(state),
+				BoardSymmetry.transformAction(action, transformation), newQValue);
+	}
+
+	/**
+	 * Gets the best action of the canonical state from the decorated experience and
+	 * maps it back to the passed state
+	 * 
+	 * @param state        for that the best action is to be given
+	 * @param legalActions set of actions that are legal in this state
+	 * @return action with the highest qValue
+	 */
+	@Override
+	public int getBestAction(int state, int[] legalActions) {
+		if (legalActions.length == 0) {
+			throw new IllegalArgumentException(
+					"empty array was passed thus no optimal action available; method is not applicable for terminal states");
+		}
+
+		int canonicalState = BoardSymmetry.getCanonicalState(state);
+		int canonicalBestAction = this.experience.getBestAction(canonicalState,
+				StateLookupTable.getLegalActions(canonicalState));
+
+		return BoardSymmetry.inverseTransformAction(canonicalBestAction,
+				BoardSymmetry.getTransformationToCanonicalState(state));
+	}
+
+	/**
+	 * Returns the best actions of the canonical state mapped back to the passed
+	 * state
+	 * 
+	 * @param state        for that the best actions are to be given
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest qValue in
+	 *         ascending order
+	 */
+	@Override
+	public ArrayList<Integer> getBestActions(int state, int[] legalActions) {
+		if (legalActions.length == 0) {
+			throw new IllegalArgumentException(
+					"empty array was passed thus no optimal action available; method is not applicable for terminal states");
+		}
+
+		int canonicalState = BoardSymmetry.getCanonicalState(state);
+		int canonicalBestActionsMask = 0;
+		for (int canonicalBestAction : this.experience.getBestActions(canonicalState,
+				StateLookupTable.getLegalActions(canonicalState))) {
+			canonicalBestActionsMask |= 1 << canonicalBestAction;
+		}
+
+		return Utility.convertBitmaskToList(BoardSymmetry.inverseTransformActionMask(canonicalBestActionsMask,
+				BoardSymmetry.getTransformationToCanonicalState(state)));
+	}
+
+	/**
+	 * Returns the best actions of the canonical state mapped back to the passed
+	 * state without modifying the decorated experience
+	 * 
+	 * @param state        for that the best actions are to be given
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest qValue in
+	 *         ascending order
+	 */
+	@Override
+	public ArrayList<Integer> getBestActionsWithoutInitialising(int state, int[] legalActions) {
+		int canonicalState = BoardSymmetry.getCanonicalState(state);
+		int canonicalBestActionsMask = 0;
+		for (int canonicalBestAction : this.experience.getBestActionsWithoutInitialising(canonicalState,
+				StateLookupTable.getLegalActions(canonicalState))) {
+			canonicalBestActionsMask |= 1 << canonicalBestAction;
+		}
+
+		return Utility.convertBitmaskToList(BoardSymmetry.inverseTransformActionMask(canonicalBestActionsMask,
+				BoardSymmetry.getTransformationToCanonicalState(state)));
+	}
+
+	@Override
+	public double getQValueOfTerminalState() {
+		return this.experience.getQValueOfTerminalState();
+	}
+
+	@Override
+	public double getQValue(int state, int action) {
+		int transformation = BoardSymmetry.getTransformationToCanonicalState(state);
+		return this.experience.getQValue(BoardSymmetry.getCanonicalState(state),
+				BoardSymmetry.transformAction(action, transformation));
+	}
+
+	/**
+	 * Returns the number of distinct canonical states the agent has visited so far
+	 * 
+	 * @return number of distinct canonical states the agent has visited
+	 */
+	@Override
+	public int getNumberOfDistinctVisitedStates() {
+		return this.experience.getNumberOfDistinctVisitedStates();
+	}
+
+	/**
+	 * Returns the action-qValue map of the canonical state with its actions mapped
+	 * back to the passed state
+	 * 
+	 * @param state for that the action-qValue map is to be returned
+	 * @return action-qValue map for the given state
+	 */
+	@Override
+	public HashMap<Integer, Double> getActionQValueMapForState(int state) {
+		HashMap<Integer, Double> canonicalActionQValueMap = this.experience
+				.getActionQValueMapForState(BoardSymmetry.getCanonicalState(state));
+		if (canonicalActionQValueMap == null) {
+			return null;
+		}
+
+		int transformation = BoardSymmetry.getTransformationToCanonicalState(state);
+		HashMap<Integer, Double> actionQValueMap = new HashMap<>();
+
+		for (Integer canonicalAction : canonicalActionQValueMap.keySet()) {
+			// terminal states of a QTable map null to their qValue
+			Integer action = canonicalAction == null ? null
+					: BoardSymmetry.inverseTransformAction(canonicalAction, transformation);
+			actionQValueMap.put(action, canonicalActionQValueMap.get(canonicalAction));
+		}
+		return actionQValueMap;
+	}
+
+	/**
+	 * Returns the decorated experience that contains the values of the canonical
+	 * states
+	 * 
+	 * @return decorated experience
+	 */
+	public Experience getDecoratedExperience() {
+		return this.experience;
+	}
+
+}
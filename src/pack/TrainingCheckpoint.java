@@ -0,0 +1,200 @@
+package pack;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * State of a self-play training after a number of episodes from which the
+ * training can be resumed, see
+ * {@link GameManager#resumeTrainAndEvaluateAgent(ExperimentParameters, String)}.
+ * A checkpoint holds the experiences of both agents, the trackers of the
+ * episodes and game results, the hyperparameters and the random number
+ * generator of the training thread, thus a resumed training continues exactly
+ * as the original training would have
+ *
+ * The experiences are written as snapshots, see {@link ExperienceSnapshot}, all
+ * other state by Java serialisation. A checkpoint refers to the live objects of
+ * the training, therefore it has to be serialised before the training
+ * continues, see {@link CheckpointWriter}
+ */
+public class TrainingCheckpoint implements Serializable {
+
+	private static final long serialVersionUID = 3858190462071736514L;
+
+	public static final String FILE_EXTENSION = ".ckpt";
+
+	private final boolean IS_ALTERNATE_SELFPLAY;
+	private final int NEXT_EPISODE;
+	private final Symbol SYMBOL_CURRENTLY_TRAINING;
+	private final Hyperparameter HYPERPARAMETER_X;
+	private final Hyperparameter HYPERPARAMETER_O;
+	private final EpisodeAgentTracker EP_AGENT_TRACKER_X;
+	private final EpisodeAgentTracker EP_AGENT_TRACKER_O;
+	private final GameResultTracker RESULT_TRACKER_X;
+	private final GameResultTracker RESULT_TRACKER_O;
+	private final Random RANDOM;
+
+	// written as snapshots by writeObject, an experience shared by both agents is
+	// written only once
+	private transient Experience experienceX;
+	private transient Experience experienceO;
+
+	/**
+	 * Creates a checkpoint of a training. The random number generator of the
+	 * calling thread is part of the checkpoint, thus it has to be created by the
+	 * training thread
+	 *
+	 * @param isAlternateSelfplay     true if the training uses alternating
+	 *                                self-play
+	 * @param nextEpisode             number of the episode the training continues
+	 *                                with
+	 * @param symbolCurrentlyTraining symbol of the agent that is trained in the
+	 *                                next episode; null if both agents are trained
+	 * @param agentX                  agent that plays as X
+	 * @param agentO                  agent that plays as O
+	 * @param hyperparameterX         hyperparameters of the agent X
+	 * @param hyperparameterO         hyperparameters of the agent O
+	 * @param epAgentTrackerX         tracker of the episodes of the agent X
+	 * @param epAgentTrackerO         tracker of the episodes of the agent O
+	 * @param resultTrackerX          tracker of the game results of the agent X
+	 * @param resultTrackerO          tracker of the game results of the agent O,
+	 *                                may be the same as the tracker of the agent X
+	 */
+	TrainingCheckpoint(boolean isAlternateSelfplay, int nextEpisode, Symbol symbolCurrentlyTraining,
+			AgentRLTD agentX, AgentRLTD agentO, Hyperparameter hyperparameterX, Hyperparameter hyperparameterO,
+			EpisodeAgentTracker epAgentTrackerX, EpisodeAgentTracker epAgentTrackerO,
+			GameResultTracker resultTrackerX, GameResultTracker resultTrackerO) {
+		this.IS_ALTERNATE_SELFPLAY = isAlternateSelfplay;
+		this.NEXT_EPISODE = nextEpisode;
+		this.SYMBOL_CURRENTLY_TRAINING = symbolCurrentlyTraining;
+		this.experienceX = agentX.getExperience();
+		this.experienceO = agentO.getExperience();
+		this.HYPERPARAMETER_X = hyperparameterX;
+		this.HYPERPARAMETER_O = hyperparameterO;
+		this.EP_AGENT_TRACKER_X = epAgentTrackerX;
+		this.EP_AGENT_TRACKER_O = epAgentTrackerO;
+		this.RESULT_TRACKER_X = resultTrackerX;
+		this.RESULT_TRACKER_O = resultTrackerO;
+		this.RANDOM = Utility.getRandom();
+	}
+
+	/**
+	 * Reads the checkpoint from the file at the passed path
+	 *
+	 * @param filePath path of the checkpoint including the directory
+	 * @return checkpoint of the file, null if the file could not be read
+	 */
+	public static TrainingCheckpoint read(String filePath) {
+		TrainingCheckpoint checkpoint = null;
+		try (FileInputStream fileIn = new FileInputStream(filePath);
+				ObjectInputStream objectIn = new ObjectInputStream(fileIn)) {
+			checkpoint = (TrainingCheckpoint) objectIn.readObject();
+		} catch (IOException e) {
+			e.printStackTrace();
+		} catch (ClassNotFoundException e) {
+			e.printStackTrace();
+		}
+		return checkpoint;
+	}
+
+	/**
+	 * Serialises the checkpoint. As the checkpoint refers to the live objects of
+	 * the training, this has to be done before the training continues
+	 *
+	 * @return serialised checkpoint
+	 */
+	byte[] toByteArray() {
+		ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectOut = new ObjectOutputStream(bytesOut)) {
+			objectOut.writeObject(this);
+		} catch (IOException e) {
+			// the stream is held in memory, thus only the state itself can fail
+			throw new IllegalStateException("checkpoint could not be serialised", e);
+		}
+		return bytesOut.toByteArray();
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		boolean isExperienceShared = this.experienceX == this.experienceO;
+		out.writeBoolean(isExperienceShared);
+		TrainingCheckpoint.writeExperience(out, this.experienceX);
+		if (!isExperienceShared) {
+			TrainingCheckpoint.writeExperience(out, this.experienceO);
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		boolean isExperienceShared = in.readBoolean();
+		this.experienceX = TrainingCheckpoint.readExperience(in);
+		this.experienceO = isExperienceShared ? this.experienceX : TrainingCheckpoint.readExperience(in);
+	}
+
+	private static void writeExperience(ObjectOutputStream out, Experience experience) throws IOException {
+		ByteBuffer snapshot = ExperienceSnapshot.encode(experience);
+		out.writeInt(snapshot.remaining());
+		out.write(snapshot.array(), snapshot.arrayOffset() + snapshot.position(), snapshot.remaining());
+	}
+
+	private static Experience readExperience(ObjectInputStream in) throws IOException {
+		byte[] snapshot = new byte[in.readInt()];
+		in.readFully(snapshot);
+		return ExperienceSnapshot.decode(ByteBuffer.wrap(snapshot));
+	}
+
+	public boolean isAlternateSelfplay() {
+		return this.IS_ALTERNATE_SELFPLAY;
+	}
+
+	public int getNextEpisode() {
+		return this.NEXT_EPISODE;
+	}
+
+	public Symbol getSymbolCurrentlyTraining() {
+		return this.SYMBOL_CURRENTLY_TRAINING;
+	}
+
+	public Experience getExperienceX() {
+		return this.experienceX;
+	}
+
+	public Experience getExperienceO() {
+		return this.experienceO;
+	}
+
+	public Hyperparameter getHyperparameterX() {
+		return this.HYPERPARAMETER_X;
+	}
+
+	public Hyperparameter getHyperparameterO() {
+		return this.HYPERPARAMETER_O;
+	}
+
+	public EpisodeAgentTracker getEpAgentTrackerX() {
+		return this.EP_AGENT_TRACKER_X;
+	}
+
+	public EpisodeAgentTracker getEpAgentTrackerO() {
+		return this.EP_AGENT_TRACKER_O;
+	}
+
+	public GameResultTracker getResultTrackerX() {
+		return this.RESULT_TRACKER_X;
+	}
+
+	public GameResultTracker getResultTrackerO() {
+		return this.RESULT_TRACKER_O;
+	}
+
+	public Random getRandom() {
+		return this.RANDOM;
+	}
+
+}
@@ -1,25 +1,178 @@
 package pack;
 
-import java.util.HashMap;
+import java.util.Arrays;
 
+/**
+ * Transposition table of {@link MinimaxAlgorithm} that maps a state to its
+ * solved entry. An entry packs the bitmask of the optimal actions, the depth of
+ * the leaf the optimal play leads to and the quantized score into a single int,
+ * thus the table consists of two primitive arrays and no object is allocated
+ * per state
+ *
+ * The entries are held in an open addressing table with linear probing
+ * analogous to {@link PrimitiveQTable}
+ */
 public class TranspositionTable {
 
-	private HashMap<Integer, Node> transTable;
+	/**
+	 * Returned by {@link #retrieveEntry(int)} if the state is not in the table. It
+	 * cannot be a packed entry as its score is out of range
+	 */
+	public static final int NO_ENTRY = Integer.MIN_VALUE;
+
+	/**
+	 * Scores are stored as multiples of 1 / SCORE_SCALE, which represents every
+	 * score of {@link MinimaxAlgorithm} exactly enough to keep equal scores equal
+	 * and different scores different
+	 */
+	public static final int SCORE_SCALE = 1000;
+
+	private static final int EMPTY_KEY = -1;
+	private static final int INITIAL_CAPACITY = 1 << 13;
+
+	private static final int ACTIONS_MASK = (1 << Gamefield.GAMEFIELD_SIZE) - 1;
+	private static final int DEPTH_SHIFT = Gamefield.GAMEFIELD_SIZE;
+	private static final int DEPTH_MASK = 0x7F;
+	private static final int SCORE_SHIFT = 16;
+
+	private int[] keys;
+	private int[] entries;
+	private int numberOfEntries = 0;
 
 	public TranspositionTable() {
-		this.transTable = new HashMap<>();
+		this.keys = TranspositionTable.createEmptyKeyArray(INITIAL_CAPACITY);
+		this.entries = new int[INITIAL_CAPACITY];
 	}
 
-	public Node retrieveNode(int state) {
-		return this.transTable.get(state);
+	/**
+	 * Returns the packed entry of the passed state
+	 *
+	 * @param state for that the entry is to be retrieved
+	 * @return packed entry, NO_ENTRY if the state is not in the table
+	 */
+	public int retrieveEntry(int state) {
+		int slot = this.findSlot(state);
+		return this.keys[slot] == EMPTY_KEY ? NO_ENTRY : this.entries[slot];
 	}
 
-	public void putNode(int state, Node nodeToBeAdded) {
-		this.transTable.put(state, nodeToBeAdded);
+	/**
+	 * Stores the passed packed entry for the passed state and grows the table if
+	 * more than half of the slots are occupied
+	 *
+	 * @param state          for that the entry is to be stored
+	 * @param entryToBeAdded packed entry, see
+	 *                       {@link #packEntry(int, int, int)}
+	 */
+	public void putEntry(int state, int entryToBeAdded) {
+		int slot = this.findSlot(state);
+		if (this.keys[slot] == EMPTY_KEY) {
+			this.keys[slot] = state;
+			this.numberOfEntries++;
+		}
+		this.entries[slot] = entryToBeAdded;
+
+		if (this.numberOfEntries * 2 > this.keys.length) {
+			this.growTable();
+		}
 	}
 
 	public int getSize() {
-		return this.transTable.size();
+		return this.numberOfEntries;
+	}
+
+	/**
+	 * Stores every entry of this table in the passed table
+	 *
+	 * @param targetTable table the entries are copied to
+	 */
+	public void copyEntriesTo(TranspositionTable targetTable) {
+		for (int slot = 0; slot < this.keys.length; slot++) {
+			if (this.keys[slot] != EMPTY_KEY) {
+				targetTable.putEntry(this.keys[slot], this.entries[slot]);
+			}
+		}
+	}
+
+	/**
+	 * Packs the passed values into a single entry
+	 *
+	 * @param optimalActionsMask bitmask of the optimal actions
+	 * @param quantizedScore     score multiplied by SCORE_SCALE, see
+	 *                           {@link #quantizeScore(float)}
+	 * @param depth              depth of the leaf the optimal play leads to
+	 * @return packed entry
+	 */
+	public static int packEntry(int optimalActionsMask, int quantizedScore, int depth) {
+		return (quantizedScore << SCORE_SHIFT) | ((depth & DEPTH_MASK) << DEPTH_SHIFT)
+				| (optimalActionsMask & ACTIONS_MASK);
+	}
+
+	/**
+	 * Quantizes the passed score so that it can be packed into an entry
+	 *
+	 * @param score in the interval -1 and 1
+	 * @return score as multiple of 1 / SCORE_SCALE
+	 */
+	public static int quantizeScore(float score) {
+		return Math.round(score * SCORE_SCALE);
+	}
+
+	public static int getOptimalActionsMask(int entry) {
+		return entry & ACTIONS_MASK;
+	}
+
+	public static int getDepth(int entry) {
+		return (entry >>> DEPTH_SHIFT) & DEPTH_MASK;
+	}
+
+	public static int getQuantizedScore(int entry) {
+		return entry >> SCORE_SHIFT;
+	}
+
+	public static float getScore(int entry) {
+		return (float) TranspositionTable.getQuantizedScore(entry) / SCORE_SCALE;
+	}
+
+	/**
+	 * Returns the slot that contains the passed state or the empty slot where the
+	 * state is to be inserted
+	 *
+	 * @param state key of the slot
+	 * @return index of the slot
+	 */
+	private int findSlot(int state) {
+		int mask = this.keys.length - 1;
+		int slot = (state * 0x9E3779B9) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(this.keys.length));
+
+		while (this.keys[slot] != state && this.keys[slot] != EMPTY_KEY) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Doubles the capacity of the table and reinserts all entries
+	 */
+	private void growTable() {
+		int[] oldKeys = this.keys;
+		int[] oldEntries = this.entries;
+
+		this.keys = TranspositionTable.createEmptyKeyArray(oldKeys.length * 2);
+		this.entries = new int[oldKeys.length * 2];
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY_KEY) {
+				int slot = this.findSlot(oldKeys[i]);
+				this.keys[slot] = oldKeys[i];
+				this.entries[slot] = oldEntries[i];
+			}
+		}
+	}
+
+	private static int[] createEmptyKeyArray(int capacity) {
+		int[] emptyKeys = new int[capacity];
+		Arrays.fill(emptyKeys, EMPTY_KEY);
+		return emptyKeys;
 	}
 
 }
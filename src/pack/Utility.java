@@ -8,7 +8,34 @@ import java.util.StringJoiner;
 
 public class Utility {
 
-	private static final Random RANDOM = new Random();
+	/**
+	 * Every thread uses its own random number generator so that concurrently
+	 * conducted experiments can be seeded independently, see
+	 * {@link ExperimentScheduler}
+	 */
+	private static final ThreadLocal<Random> RANDOM = ThreadLocal.withInitial(Random::new);
+
+	// string of the actions of every bitmask of actions on the gamefield
+	private static final String[] STRING_OF_ACTIONS_MASK = Utility.createStringOfActionsMask();
+
+	/**
+	 * Replaces the random number generator of the current thread, e.g. with a
+	 * seeded one to make an experiment reproducible
+	 * 
+	 * @param random generator used by the current thread from now on
+	 */
+	public static void setRandom(Random random) {
+		RANDOM.set(random);
+	}
+
+	/**
+	 * Returns the random number generator of the current thread
+	 * 
+	 * @return generator used by the current thread
+	 */
+	public static Random getRandom() {
+		return RANDOM.get();
+	}
 
 	/**
 	 * Returns a pseudorandom uniformely distributed double between 0.0 and 1.0
@@ -18,7 +45,7 @@ public class Utility {
 	 * @return pseudorandom double between 0 and 1
 	 */
 	public static double getRandomDouble() {
-		return RANDOM.nextDouble();
+		return RANDOM.get().nextDouble();
 	}
 
 	/**
@@ -31,7 +58,7 @@ public class Utility {
 	 * @return random integer from the half-open interval [zero; bound -1)
 	 */
 	public static int getRandomInt(int bound) {
-		return RANDOM.nextInt(bound);
+		return RANDOM.get().nextInt(bound);
 	}
 
 	public static String formatDouble(double doubleToFormat) {
@@ -76,6 +103,60 @@ public class Utility {
 		return listToChooseFrom.get(getRandomInt(bound));
 	}
 
+	/**
+	 * Returns the index of a random set bit of the passed bitmask. The possibility
+	 * of each set bit being selected is approximately equal. Analogous to
+	 * {@link #getRandomElement(ArrayList)} a random number is only drawn if more
+	 * than one bit is set
+	 * 
+	 * @param bitmask with at least one bit set, e.g. a set of actions
+	 * @return index of a randomly chosen set bit
+	 */
+	public static int getRandomSetBit(int bitmask) {
+		if (bitmask == 0) {
+			throw new IllegalArgumentException("passed bitmask has no bit set thus no index can be chosen");
+		}
+
+		int numberOfSetBits = Integer.bitCount(bitmask);
+		if (numberOfSetBits > 1) {
+			// clear the lowest set bits until the chosen one is the lowest set bit
+			for (int i = getRandomInt(numberOfSetBits); i > 0; i--) {
+				bitmask &= bitmask - 1;
+			}
+		}
+		return Integer.numberOfTrailingZeros(bitmask);
+	}
+
+	/**
+	 * Converts the passed bitmask to a list of the indexes of its set bits, e.g. a
+	 * bitmask of actions to the list of these actions
+	 * 
+	 * @param bitmask to convert
+	 * @return indexes of the set bits in ascending order
+	 */
+	public static ArrayList<Integer> convertBitmaskToList(int bitmask) {
+		ArrayList<Integer> setBits = new ArrayList<>(Integer.bitCount(bitmask));
+		for (; bitmask != 0; bitmask &= bitmask - 1) {
+			setBits.add(Integer.numberOfTrailingZeros(bitmask));
+		}
+		return setBits;
+	}
+
+	/**
+	 * Converts the passed list of indexes to a bitmask in which the bits at these
+	 * indexes are set, e.g. a list of actions to the bitmask of these actions
+	 * 
+	 * @param listToConvert indexes of the bits to set
+	 * @return bitmask with the bits of all indexes set
+	 */
+	public static int convertListToBitmask(ArrayList<Integer> listToConvert) {
+		int bitmask = 0;
+		for (int index : listToConvert) {
+			bitmask |= 1 << index;
+		}
+		return bitmask;
+	}
+
 	/**
 	 * Converts the passed Integer ArrayList to an array of the primitive type int
 	 * that contains all elements
@@ -93,6 +174,22 @@ public class Utility {
 
 	}
 
+	/**
+	 * Converts the passed array of the primitive type int to an Integer ArrayList
+	 * that contains all elements in the same order
+	 * 
+	 * @param arrayToConvert primitive int array to convert to an arrayList
+	 * @return arrayList that contains all elements of the arrayToConvert
+	 */
+	public static ArrayList<Integer> convertArrayToList(int[] arrayToConvert) {
+		ArrayList<Integer> arrayAsList = new ArrayList<>(arrayToConvert.length);
+
+		for (int element : arrayToConvert) {
+			arrayAsList.add(element);
+		}
+		return arrayAsList;
+	}
+
 	/**
 	 * Converts the passed actionQValueMap to a string that can be appended to the
 	 * log. The output is used to assess the agent's evaluation of the available
@@ -124,6 +221,31 @@ public class Utility {
 		return actionQValueString.toString();
 	}
 
+	/**
+	 * Converts the passed bitmask to the string of the indexes of its set bits in
+	 * the format of {@link #convertListToString(ArrayList)}. The strings of all
+	 * bitmasks of actions on the gamefield are cached, thus no string is built
+	 * for them
+	 * 
+	 * @param bitmask to convert, e.g. a set of actions
+	 * @return string containing the indexes of the set bits in ascending order
+	 *         delimited by semicolon
+	 */
+	public static String convertBitmaskToString(int bitmask) {
+		if (bitmask >= 0 && bitmask < STRING_OF_ACTIONS_MASK.length) {
+			return STRING_OF_ACTIONS_MASK[bitmask];
+		}
+		return Utility.convertListToString(Utility.convertBitmaskToList(bitmask));
+	}
+
+	private static String[] createStringOfActionsMask() {
+		String[] stringOfActionsMask = new String[1 << Gamefield.GAMEFIELD_SIZE];
+		for (int bitmask = 0; bitmask < stringOfActionsMask.length; bitmask++) {
+			stringOfActionsMask[bitmask] = Utility.convertListToString(Utility.convertBitmaskToList(bitmask));
+		}
+		return stringOfActionsMask;
+	}
+
 	/**
 	 * Converts the passed ArrayList to a string that concatenates all elements
 	 * delimited by a semicolon
@@ -179,10 +301,17 @@ public class Utility {
 		StringBuilder metaDataString = new StringBuilder();
 		String algorithm = experimentparameters.isUSE_QLEARNING() ? "Q-Learning" : "SARSA";
 		String experience = experimentparameters.isUSE_QTABLE() ? "Q-Table" : "W-Table";
+		if (experimentparameters.getEXPERIENCE_TYPE() == ExperienceType.PRIMITIVE_QTABLE) {
+			experience = "Primitive Q-Table";
+		} else if (experimentparameters.getEXPERIENCE_TYPE() == ExperienceType.DENSE_WTABLE) {
+			experience = "Dense W-Table";
+		}
 		String trainingMethod = experimentparameters.isUSE_ALTERNATE_SELFPLAY() ? "Self-play alternating"
 				: "Normal Self-play";
 		metaDataString.append("Algorithm: " + algorithm + System.lineSeparator());
 		metaDataString.append("Experience: " + experience + System.lineSeparator());
+		metaDataString.append(
+				"Symmetry reduction: " + experimentparameters.isUSE_SYMMETRY_REDUCTION() + System.lineSeparator());
 		metaDataString.append("depth penalty applied to reward: "
 				+ experimentparameters.isUSE_REWARD_WITH_DEPTHPENATLY() + System.lineSeparator());
 		metaDataString.append("Training method: " + trainingMethod + System.lineSeparator());
@@ -222,83 +351,36 @@ public class Utility {
 	}
 
 	/**
+	 * Generates the string of an exact evaluation analogous to
+	 * {@link #generateResultString(String, Symbol, Stage, int, GameResultTracker)}
 	 * 
-	 * Creates a record object of a ply that can be passed to the logging function
-	 * 
-	 * @see Logger#logToPlyCSV(java.util.LinkedList, Stage, boolean)
-	 * 
-	 * @param episodeCount         episode the ply belongs to
-	 * @param batchCount           batch the ply belongs to
-	 * @param recordedSymbol       symbol that executed the ply
-	 * @param currentPly           number of the ply in the episode
-	 * @param currentState         state at the start of the ply
-	 * @param chosenAction         action chosen by the symbol
-	 * @param afterState           state after action has been applied
-	 * @param wasActionExploratory was action that the agent picked exploratory
-	 * @param wasActionOptimal     was the action chosen by the agent optimal
-	 *                             according to minimax
-	 * @param bestActions          best actions according to minimax
-	 * @param reward               reward that is attributed to the ply
-	 * @return ply record that is to be collected and passed to @see
-	 *         {@link Logger#logToPlyCSV(java.util.LinkedList, Stage, boolean)} at
-	 *         the end of an episode
+	 * @param header string that is written above the result
+	 * @param result exact result of the evaluation
+	 * @return String containing the probabilities and expected values
 	 */
-	public static Object[] createPlyRecord(int episodeCount, int batchCount, Symbol recordedSymbol, int currentPly,
-			int currentState, int chosenAction, int afterState, boolean wasActionExploratory, boolean wasActionOptimal,
-			ArrayList<Integer> bestActions, float reward) {
-		Object[] plyRecord = new Object[11];
-
-		plyRecord[0] = episodeCount;
-		plyRecord[1] = batchCount;
-		plyRecord[2] = recordedSymbol.toString();
-		plyRecord[3] = currentPly;
-		plyRecord[4] = currentState;
-		plyRecord[5] = chosenAction;
-		plyRecord[6] = afterState;
-		plyRecord[7] = Utility.encodeBooleanAsInt(wasActionExploratory);
-		plyRecord[8] = Utility.encodeBooleanAsInt(wasActionOptimal);
-		plyRecord[9] = Utility.convertListToString(bestActions);
-		plyRecord[10] = reward;
-
-		return plyRecord;
-	}
-
-	/**
-	 * Create a game record object out of the passed dataTracker for the current
-	 * episode that can be passed to @see
-	 * {@link Logger#logToGameCSV(Object[], Stage, boolean)}
-	 * 
-	 * @param epDataTracker data tracked for the current episode
-	 * @return game record object that can be passed to @see
-	 *         {@link Logger#logToGameCSV(Object[], Stage, boolean)}
-	 */
-	public static Object[] createGameRecord(EpisodeAgentTracker epDataTracker) {
-		Object[] gameRecord = new Object[22];
-
-		gameRecord[0] = epDataTracker.getCurrentEpisode();
-		gameRecord[1] = epDataTracker.getCurrentBatch();
-		gameRecord[2] = epDataTracker.getAGENT().toString();
-		gameRecord[3] = epDataTracker.getNumberOfPlies();
-		gameRecord[4] = epDataTracker.getNumberOfAgentActions();
-		gameRecord[5] = epDataTracker.getNumberOfExploratoryActions();
-		gameRecord[6] = epDataTracker.getNumberOfOptimalActions();
-		gameRecord[7] = epDataTracker.getNumberOfOptimalActionsWOExploration();
-		gameRecord[8] = Utility.formatDouble(epDataTracker.getCurrentEpsilon());
-		gameRecord[9] = Utility.formatDouble(epDataTracker.getCurrentAlpha());
-		gameRecord[10] = Utility.encodeBooleanAsInt(epDataTracker.isEpisodeWon());
-		gameRecord[11] = Utility.encodeBooleanAsInt(epDataTracker.isEpisodeLost());
-		gameRecord[12] = Utility.encodeBooleanAsInt(epDataTracker.isEpisodeDraw());
-		gameRecord[13] = Utility.formatDouble(epDataTracker.getReward());
-		gameRecord[14] = epDataTracker.getTotalNumberOfPlies();
-		gameRecord[15] = epDataTracker.getTotalNumberAgentActions();
-		gameRecord[16] = epDataTracker.getTotalNumberExploratoryActions();
-		gameRecord[17] = epDataTracker.getTotalNumberOptimalActions();
-		gameRecord[18] = epDataTracker.getTotalNumberOptimalActionsWOExploration();
-		gameRecord[19] = epDataTracker.getTotalNumberGamesWon();
-		gameRecord[20] = epDataTracker.getTotalNumberGamesLost();
-		gameRecord[21] = epDataTracker.getTotalNumberGamesDraw();
-
-		return gameRecord;
+	public static String generateExactResultString(String header, ExactEvaluationResult result) {
+		StringBuilder resultString = new StringBuilder();
+		resultString.append(header + System.lineSeparator());
+		resultString.append("Agent playing as: " + result.getAGENT().toString() + System.lineSeparator());
+		resultString.append("Probability X wins: " + formatDouble(result.getProbabilityWinX()));
+		resultString.append(System.lineSeparator());
+		resultString.append("Probability O wins: " + formatDouble(result.getProbabilityWinO()));
+		resultString.append(System.lineSeparator());
+		resultString.append("Probability of draw: " + formatDouble(result.getProbabilityDraw()));
+		resultString.append(System.lineSeparator());
+		resultString.append("Expected number of plies: " + formatDouble(result.getExpectedNumberOfPlies()));
+		resultString.append(System.lineSeparator());
+		resultString.append(
+				"Expected number of agent actions: " + formatDouble(result.getExpectedNumberOfAgentActions()));
+		resultString.append(System.lineSeparator());
+		resultString.append(
+				"Expected number of optimal actions: " + formatDouble(result.getExpectedNumberOfOptimalActions()));
+		resultString.append(System.lineSeparator());
+		resultString.append("Optimal action rate: " + formatDouble(result.getOptimalActionRate()));
+		resultString.append(System.lineSeparator());
+		resultString.append("Expected reward: " + formatDouble(result.getExpectedReward()));
+		resultString.append(System.lineSeparator());
+		return resultString.toString();
 	}
 
 }
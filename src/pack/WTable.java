@@ -2,10 +2,12 @@ package pack;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map.Entry;
 
 public class WTable implements Experience {
 
 	private final double INITIAL_WVALUE;
+	private final boolean USE_CANONICAL_AFTERSTATES;
 
 	private static final long serialVersionUID = 9061616761656712940L;
 
@@ -13,7 +15,23 @@ public class WTable implements Experience {
 	private HashMap<Integer, Double> wTable = new HashMap<>();
 
 	public WTable(double initialWValue) {
+		this(initialWValue, false);
+	}
+
+	/**
+	 * Creates a WTable that keys its wValues either by the afterstates or by their
+	 * canonical states, see {@link BoardSymmetry}. The latter is required if the
+	 * table is decorated by a {@link SymmetricExperience} so that symmetric
+	 * afterstates share their wValue
+	 * 
+	 * @param initialWValue           wValue of afterstates that have not been
+	 *                                updated yet
+	 * @param useCanonicalAfterstates true if the wValues are keyed by the
+	 *                                canonical afterstates
+	 */
+	public WTable(double initialWValue, boolean useCanonicalAfterstates) {
 		this.INITIAL_WVALUE = initialWValue;
+		this.USE_CANONICAL_AFTERSTATES = useCanonicalAfterstates;
 	}
 
 	/**
@@ -50,7 +68,7 @@ public class WTable implements Experience {
 		// if terminal state
 		if (legalActions.length == 0) {
 			// terminal state, add to afterstate directly
-			this.wTable.put(state, QVALUE_TERMINAL_STATE);
+			this.wTable.put(this.getKeyOfAfterstate(state), QVALUE_TERMINAL_STATE);
 
 		} else {
 			// if not a terminalstate iterate over actions
@@ -59,7 +77,7 @@ public class WTable implements Experience {
 			for (int legalAction : legalActions) {
 
 				// get the resulting afterstate and add it to the SA -> Y map
-				int afterstate = Gamefield.applyAction(state, legalAction);
+				int afterstate = this.getKeyOfAfterstate(Gamefield.applyAction(state, legalAction));
 				actionAfterStateMap.put(legalAction, afterstate);
 
 				// if the afterstate has not been initialised yet initialise it
@@ -124,6 +142,7 @@ public class WTable implements Experience {
 	 * @param legalActions set of actions that are legal in this state
 	 * @return one or more actions out of legalActions with the highest wValue
 	 */
+	@Override
 	public ArrayList<Integer> getBestActions(int state, int[] legalActions) {
 		// iterate through legalACtions and make calls to wTable passing
 		// afterstateTable-Entry
@@ -160,6 +179,39 @@ public class WTable implements Experience {
 
 	}
 
+	/**
+	 * Returns the best actions like {@link #getBestActions(int, int[])} without
+	 * modifying the table. If the state has not been visited, the afterstates are
+	 * calculated and afterstates without a wValue have the initial wValue
+	 * 
+	 * @param state        for that the best actions are to be given
+	 * @param legalActions set of actions that are legal in this state
+	 * @return one or more actions out of legalActions with the highest wValue
+	 */
+	@Override
+	public ArrayList<Integer> getBestActionsWithoutInitialising(int state, int[] legalActions) {
+		if (this.afterstateTable.get(state) != null) {
+			return this.getBestActions(state, legalActions);
+		}
+
+		ArrayList<Integer> bestActions = new ArrayList<>();
+		double bestWValue = Double.NEGATIVE_INFINITY;
+
+		for (int legalAction : legalActions) {
+			int afterstate = this.getKeyOfAfterstate(Gamefield.applyAction(state, legalAction));
+			double wValueOfAfterstate = this.wTable.getOrDefault(afterstate, this.INITIAL_WVALUE);
+
+			if (wValueOfAfterstate == bestWValue) {
+				bestActions.add(legalAction);
+			} else if (wValueOfAfterstate > bestWValue) {
+				bestActions.clear();
+				bestActions.add(legalAction);
+				bestWValue = wValueOfAfterstate;
+			}
+		}
+		return bestActions;
+	}
+
 	/**
 	 * Returns the qValue that is assigned to terminal states, this is 0 by
 	 * definition
@@ -241,4 +293,56 @@ public class WTable implements Experience {
 
 	}
 
+	/**
+	 * Returns the key of the passed afterstate in the wTable, i.e. the afterstate
+	 * itself or its canonical state
+	 * 
+	 * @param afterstate state that results from a state-action tuple
+	 * @return key of the afterstate
+	 */
+	private int getKeyOfAfterstate(int afterstate) {
+		return this.USE_CANONICAL_AFTERSTATES ? BoardSymmetry.getCanonicalState(afterstate) : afterstate;
+	}
+
+	double getInitialWValue() {
+		return this.INITIAL_WVALUE;
+	}
+
+	boolean usesCanonicalAfterstates() {
+		return this.USE_CANONICAL_AFTERSTATES;
+	}
+
+	/**
+	 * Returns all non-terminal states that have been visited, used to write a
+	 * snapshot of the table
+	 * 
+	 * @return visited states in ascending order
+	 */
+	int[] getVisitedStates() {
+		return this.afterstateTable.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+	}
+
+	/**
+	 * Passes every afterstate with its wValue to the passed consumer, used to write
+	 * a snapshot of the table
+	 * 
+	 * @param consumer receives the afterstate and its wValue
+	 */
+	void forEachWValue(ExperienceSnapshot.EntryConsumer consumer) {
+		for (Entry<Integer, Double> wEntry : this.wTable.entrySet()) {
+			consumer.accept(wEntry.getKey(), wEntry.getValue());
+		}
+	}
+
+	/**
+	 * Sets the wValue of the passed afterstate, used to restore the table from a
+	 * snapshot after the visited states have been initialised
+	 * 
+	 * @param afterstate whose wValue is set
+	 * @param wValue     of the afterstate
+	 */
+	void restoreWValue(int afterstate, double wValue) {
+		this.wTable.put(afterstate, wValue);
+	}
+
 }